@@ -0,0 +1,13 @@
+package com.koustav.tms.archive;
+
+/**
+ * What a segment holds - each kind has its own directory under tms.archive.dir
+ */
+public enum ArchiveKind {
+    BID,
+    BOOKING;
+
+    String directoryName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,34 @@
+package com.koustav.tms.archive;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One archived bid or booking, flattened with its load's lane.
+ *
+ * BID:     id = bidId,     trucks = trucksOffered,   rate = proposedRate, at = dateSubmitted
+ * BOOKING: id = bookingId, trucks = allocatedTrucks, rate = finalRate,    at = bookedAt
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveRecord {
+
+    private UUID id;
+    private UUID loadId;
+    private UUID bidId;
+    private UUID transporterId;
+    private String loadingCity;
+    private String unloadingCity;
+    private String truckType;
+    private String status;
+    private int trucks;
+    private double rate;
+    private Timestamp at;
+}
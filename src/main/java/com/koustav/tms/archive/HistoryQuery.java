@@ -0,0 +1,27 @@
+package com.koustav.tms.archive;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of a history lookup - every field is optional.
+ * Dates are [from, to); cities must match exactly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryQuery {
+
+    private UUID transporterId;
+    private String loadingCity;
+    private String unloadingCity;
+    private Timestamp from;
+    private Timestamp to;
+    private int limit;
+}
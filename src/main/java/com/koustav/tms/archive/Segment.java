@@ -0,0 +1,413 @@
+package com.koustav.tms.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable, compressed, columnar segment file of archived records.
+ *
+ * LAYOUT (big-endian):
+ *   header:  magic int | rows int | minAt long | maxAt long
+ *            then per column: offset long | compressed length int | raw length int
+ *   body:    one Deflate block per column
+ *
+ * Rows are sorted by 'at'. Columns:
+ * - id, loadId, bidId, transporterId: 16 bytes per row
+ * - loadingCity, unloadingCity, truckType, status: dictionary encoded
+ *   (count int, then per entry length int + UTF-8 bytes, then one int code per row)
+ * - trucks int, rate double, at long (epoch millis)
+ *
+ * WHY COLUMNAR?
+ * A query inflates only the columns it filters on ('at' to find the date
+ * range, then transporterId or a city dictionary), and the remaining ones
+ * only when something matched. Repeated values (cities, status, lane ids)
+ * compress well when stored together.
+ *
+ * Reads go straight from the memory-mapped file: each column block is a
+ * slice of the mapping handed to the Inflater, so the page cache is the only copy.
+ * Slices never move the shared buffer's position, so a Segment is safe to
+ * read from any number of threads.
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x544D5331;  // "TMS1"
+
+    static final int ID = 0;
+    static final int LOAD_ID = 1;
+    static final int BID_ID = 2;
+    static final int TRANSPORTER_ID = 3;
+    static final int LOADING_CITY = 4;
+    static final int UNLOADING_CITY = 5;
+    static final int TRUCK_TYPE = 6;
+    static final int STATUS = 7;
+    static final int TRUCKS = 8;
+    static final int RATE = 9;
+    static final int AT = 10;
+    private static final int COLUMNS = 11;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + COLUMNS * (8 + 4 + 4);
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long minAt;
+    private final long maxAt;
+    private final long[] offsets = new long[COLUMNS];
+    private final int[] compressedLengths = new int[COLUMNS];
+    private final int[] rawLengths = new int[COLUMNS];
+
+    private Segment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a segment file: " + path);
+        }
+        this.rows = buffer.getInt(4);
+        this.minAt = buffer.getLong(8);
+        this.maxAt = buffer.getLong(16);
+        for (int c = 0; c < COLUMNS; c++) {
+            int at = 24 + c * 16;
+            offsets[c] = buffer.getLong(at);
+            compressedLengths[c] = buffer.getInt(at + 8);
+            rawLengths[c] = buffer.getInt(at + 12);
+        }
+    }
+
+    static Segment open(Path path) throws IOException {
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // ========================================
+    // Writing
+    // ========================================
+
+    /**
+     * Writes records as a new segment: to a temp file, fsync'ed, then renamed
+     * into place - a reader never sees a half-written segment.
+     */
+    static void write(Path target, List<ArchiveRecord> records) throws IOException {
+        List<ArchiveRecord> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparing(ArchiveRecord::getAt));
+
+        byte[][] raw = new byte[COLUMNS][];
+        raw[ID] = uuids(sorted, ArchiveRecord::getId);
+        raw[LOAD_ID] = uuids(sorted, ArchiveRecord::getLoadId);
+        raw[BID_ID] = uuids(sorted, ArchiveRecord::getBidId);
+        raw[TRANSPORTER_ID] = uuids(sorted, ArchiveRecord::getTransporterId);
+        raw[LOADING_CITY] = dictionary(sorted, ArchiveRecord::getLoadingCity);
+        raw[UNLOADING_CITY] = dictionary(sorted, ArchiveRecord::getUnloadingCity);
+        raw[TRUCK_TYPE] = dictionary(sorted, ArchiveRecord::getTruckType);
+        raw[STATUS] = dictionary(sorted, ArchiveRecord::getStatus);
+
+        ByteBuffer trucks = ByteBuffer.allocate(sorted.size() * 4);
+        ByteBuffer rates = ByteBuffer.allocate(sorted.size() * 8);
+        ByteBuffer ats = ByteBuffer.allocate(sorted.size() * 8);
+        for (ArchiveRecord record : sorted) {
+            trucks.putInt(record.getTrucks());
+            rates.putDouble(record.getRate());
+            ats.putLong(record.getAt().getTime());
+        }
+        raw[TRUCKS] = trucks.array();
+        raw[RATE] = rates.array();
+        raw[AT] = ats.array();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(sorted.size());
+        header.putLong(sorted.isEmpty() ? 0L : sorted.get(0).getAt().getTime());
+        header.putLong(sorted.isEmpty() ? 0L : sorted.get(sorted.size() - 1).getAt().getTime());
+
+        byte[][] compressed = new byte[COLUMNS][];
+        long offset = HEADER_BYTES;
+        for (int c = 0; c < COLUMNS; c++) {
+            compressed[c] = deflate(raw[c]);
+            header.putLong(offset);
+            header.putInt(compressed[c].length);
+            header.putInt(raw[c].length);
+            offset += compressed[c].length;
+        }
+        header.flip();
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] column : compressed) {
+                writeFully(channel, ByteBuffer.wrap(column));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] uuids(List<ArchiveRecord> records, Function<ArchiveRecord, UUID> column) {
+        ByteBuffer out = ByteBuffer.allocate(records.size() * 16);
+        for (ArchiveRecord record : records) {
+            UUID value = column.apply(record);
+            out.putLong(value == null ? 0L : value.getMostSignificantBits());
+            out.putLong(value == null ? 0L : value.getLeastSignificantBits());
+        }
+        return out.array();
+    }
+
+    private static byte[] dictionary(List<ArchiveRecord> records, Function<ArchiveRecord, String> column) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<byte[]> entries = new ArrayList<>();
+        int[] rowCodes = new int[records.size()];
+        int entryBytes = 0;
+        for (int row = 0; row < records.size(); row++) {
+            String value = column.apply(records.get(row));
+            String key = value == null ? "" : value;
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = entries.size();
+                codes.put(key, code);
+                byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+                entries.add(utf8);
+                entryBytes += 4 + utf8.length;
+            }
+            rowCodes[row] = code;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(4 + entryBytes + rowCodes.length * 4);
+        out.putInt(entries.size());
+        for (byte[] entry : entries) {
+            out.putInt(entry.length);
+            out.put(entry);
+        }
+        for (int code : rowCodes) {
+            out.putInt(code);
+        }
+        return out.array();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    // ========================================
+    // Reading
+    // ========================================
+
+    Path path() {
+        return path;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long minAt() {
+        return minAt;
+    }
+
+    long maxAt() {
+        return maxAt;
+    }
+
+    /**
+     * Can this segment hold rows with from <= at < to? Answered from the header alone.
+     */
+    boolean overlaps(long from, long to) {
+        return rows > 0 && maxAt >= from && minAt < to;
+    }
+
+    /**
+     * Matching rows, newest first, at most limit of them.
+     */
+    List<ArchiveRecord> find(HistoryQuery query, long from, long to, int limit) {
+        ByteBuffer ats = column(AT);
+        int lo = lowerBound(ats, from);
+        int hi = lowerBound(ats, to);
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        // filter columns only; a city this segment never saw rules it out before any row is read
+        ByteBuffer transporters = query.getTransporterId() == null ? null : column(TRANSPORTER_ID);
+        Dictionary loadingCities = query.getLoadingCity() == null ? null : dictionary(LOADING_CITY);
+        Dictionary unloadingCities = query.getUnloadingCity() == null ? null : dictionary(UNLOADING_CITY);
+        int loadingCode = loadingCities == null ? -1 : loadingCities.codeOf(query.getLoadingCity());
+        int unloadingCode = unloadingCities == null ? -1 : unloadingCities.codeOf(query.getUnloadingCity());
+        if ((loadingCities != null && loadingCode < 0) || (unloadingCities != null && unloadingCode < 0)) {
+            return List.of();
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int row = hi - 1; row >= lo && matches.size() < limit; row--) {
+            if (transporters != null && !query.getTransporterId().equals(uuidAt(transporters, row))) {
+                continue;
+            }
+            if (loadingCities != null && loadingCities.codeAt(row) != loadingCode) {
+                continue;
+            }
+            if (unloadingCities != null && unloadingCities.codeAt(row) != unloadingCode) {
+                continue;
+            }
+            matches.add(row);
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        return materialize(matches, ats, transporters, loadingCities, unloadingCities);
+    }
+
+    private List<ArchiveRecord> materialize(List<Integer> matches, ByteBuffer ats, ByteBuffer transporters,
+                                            Dictionary loadingCities, Dictionary unloadingCities) {
+        ByteBuffer ids = column(ID);
+        ByteBuffer loadIds = column(LOAD_ID);
+        ByteBuffer bidIds = column(BID_ID);
+        ByteBuffer transporterIds = transporters != null ? transporters : column(TRANSPORTER_ID);
+        Dictionary loading = loadingCities != null ? loadingCities : dictionary(LOADING_CITY);
+        Dictionary unloading = unloadingCities != null ? unloadingCities : dictionary(UNLOADING_CITY);
+        Dictionary truckTypes = dictionary(TRUCK_TYPE);
+        Dictionary statuses = dictionary(STATUS);
+        ByteBuffer trucks = column(TRUCKS);
+        ByteBuffer rates = column(RATE);
+
+        List<ArchiveRecord> records = new ArrayList<>(matches.size());
+        for (int row : matches) {
+            records.add(ArchiveRecord.builder()
+                .id(uuidAt(ids, row))
+                .loadId(uuidAt(loadIds, row))
+                .bidId(uuidAt(bidIds, row))
+                .transporterId(uuidAt(transporterIds, row))
+                .loadingCity(loading.valueAt(row))
+                .unloadingCity(unloading.valueAt(row))
+                .truckType(truckTypes.valueAt(row))
+                .status(statuses.valueAt(row))
+                .trucks(trucks.getInt(row * 4))
+                .rate(rates.getDouble(row * 8))
+                .at(new Timestamp(ats.getLong(row * 8)))
+                .build());
+        }
+        return records;
+    }
+
+    // first row with at >= value (rows are sorted by at)
+    private int lowerBound(ByteBuffer ats, long value) {
+        int lo = 0;
+        int hi = rows;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ats.getLong(mid * 8) < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static UUID uuidAt(ByteBuffer uuids, int row) {
+        return new UUID(uuids.getLong(row * 16), uuids.getLong(row * 16 + 8));
+    }
+
+    /**
+     * Inflates one column straight out of the mapping.
+     */
+    private ByteBuffer column(int column) {
+        ByteBuffer source = buffer.slice((int) offsets[column], compressedLengths[column]);
+        byte[] out = new byte[rawLengths[column]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(source);
+            int inflated = 0;
+            while (inflated < out.length && !inflater.finished()) {
+                int n = inflater.inflate(out, inflated, out.length - inflated);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != out.length) {
+                throw new IllegalStateException("Truncated column " + column + " in segment " + path);
+            }
+            return ByteBuffer.wrap(out);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt column " + column + " in segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private Dictionary dictionary(int column) {
+        return new Dictionary(column(column));
+    }
+
+    private static final class Dictionary {
+        private final String[] values;
+        private final ByteBuffer data;
+        private final int codesStart;
+
+        Dictionary(ByteBuffer data) {
+            this.data = data;
+            int size = data.getInt(0);
+            values = new String[size];
+            int position = 4;
+            for (int i = 0; i < size; i++) {
+                int length = data.getInt(position);
+                values[i] = new String(data.array(), position + 4, length, StandardCharsets.UTF_8);
+                position += 4 + length;
+            }
+            codesStart = position;
+        }
+
+        int codeOf(String value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int codeAt(int row) {
+            return data.getInt(codesStart + row * 4);
+        }
+
+        String valueAt(int row) {
+            return values[codeAt(row)];
+        }
+    }
+}
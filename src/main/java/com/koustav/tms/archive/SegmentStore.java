@@ -0,0 +1,179 @@
+package com.koustav.tms.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Append-only store of archived bids and bookings on local disk
+ * (tms.archive.dir/bid, tms.archive.dir/booking), one Segment file per archive chunk.
+ *
+ * - append() writes a new segment and maps it; segments are never modified
+ * - query() skips every segment whose [minAt, maxAt] misses the date range
+ *   (header only), reads the rest newest first and stops once no remaining
+ *   segment can hold anything newer than what it already has
+ *
+ * Segments of one node are local to it: run HistoryArchiveJob on the node
+ * (or shared volume) that serves /history.
+ *
+ * Metrics:
+ * - tms.archive.segments{kind} (gauge)
+ * - tms.archive.query.segments{outcome=scanned|pruned} (counters)
+ */
+@Component
+public class SegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentStore.class);
+
+    private static final String SUFFIX = ".seg";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.archive.dir:data/archive}")
+    private String directory = "data/archive";
+
+    private final Map<ArchiveKind, Map<String, Segment>> segments = new EnumMap<>(ArchiveKind.class);
+
+    private Counter scanned;
+    private Counter pruned;
+
+    @PostConstruct
+    void open() {
+        for (ArchiveKind kind : ArchiveKind.values()) {
+            Map<String, Segment> open = new ConcurrentHashMap<>();
+            segments.put(kind, open);
+            Path dir = directoryOf(kind);
+            try {
+                Files.createDirectories(dir);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (name.endsWith(SUFFIX)) {
+                            open.put(name, Segment.open(file));
+                        } else if (name.endsWith(".tmp")) {
+                            Files.delete(file);  // a write that never got renamed into place
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't open archive directory " + dir, e);
+            }
+            Gauge.builder("tms.archive.segments", open, Map::size)
+                .tag("kind", kind.directoryName())
+                .register(meterRegistry);
+            log.info("Archive {}: {} segments in {}", kind, open.size(), dir);
+        }
+
+        scanned = Counter.builder("tms.archive.query.segments")
+            .tag("outcome", "scanned")
+            .description("segments read by history queries")
+            .register(meterRegistry);
+        pruned = Counter.builder("tms.archive.query.segments")
+            .tag("outcome", "pruned")
+            .description("segments skipped by history queries on their date range")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Writes the records as a new segment.
+     * @return the segment file, for discard() if the archiving transaction rolls back
+     */
+    public Path append(ArchiveKind kind, List<ArchiveRecord> records) {
+        long minAt = records.stream().mapToLong(r -> r.getAt().getTime()).min().orElse(0L);
+        // zero-padded start time first: names sort in time order
+        String name = String.format("%013d-%s%s", minAt, UUID.randomUUID(), SUFFIX);
+        Path file = directoryOf(kind).resolve(name);
+        try {
+            Segment.write(file, records);
+            segments.get(kind).put(name, Segment.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write archive segment " + file, e);
+        }
+        return file;
+    }
+
+    public void discard(ArchiveKind kind, Path segment) {
+        segments.get(kind).remove(segment.getFileName().toString());
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.warn("Couldn't delete discarded archive segment {}", segment, e);
+        }
+    }
+
+    /**
+     * @return matching records, newest first, at most query.limit of them
+     */
+    public List<ArchiveRecord> query(ArchiveKind kind, HistoryQuery query) {
+        long from = query.getFrom() == null ? Long.MIN_VALUE : query.getFrom().getTime();
+        long to = query.getTo() == null ? Long.MAX_VALUE : query.getTo().getTime();
+        int limit = query.getLimit();
+
+        List<Segment> candidates = new ArrayList<>();
+        for (Segment segment : segments.get(kind).values()) {
+            if (segment.overlaps(from, to)) {
+                candidates.add(segment);
+            } else {
+                pruned.increment();
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Segment::maxAt).reversed());
+
+        List<ArchiveRecord> result = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (Segment segment : candidates) {
+            // full, and this (and every later) segment ends before our oldest row
+            if (result.size() >= limit && segment.maxAt() < oldestAt(result)) {
+                break;
+            }
+            scanned.increment();
+            for (ArchiveRecord record : segment.find(query, from, to, limit)) {
+                // a chunk archived twice (crash between file and commit) shows up once
+                if (seen.add(record.getId())) {
+                    result.add(record);
+                }
+            }
+            result.sort(Comparator.comparing(ArchiveRecord::getAt).reversed());
+            if (result.size() > limit) {
+                result.subList(limit, result.size()).clear();
+            }
+        }
+        return result;
+    }
+
+    int segmentCount(ArchiveKind kind) {
+        return segments.get(kind).size();
+    }
+
+    private long oldestAt(List<ArchiveRecord> newestFirst) {
+        return newestFirst.get(newestFirst.size() - 1).getAt().getTime();
+    }
+
+    private Path directoryOf(ArchiveKind kind) {
+        return Paths.get(directory).resolve(kind.directoryName());
+    }
+}
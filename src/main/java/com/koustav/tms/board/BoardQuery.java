@@ -0,0 +1,26 @@
+package com.koustav.tms.board;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of an open-board browse - every field is optional.
+ * Loading dates are [from, to] in whole days; values must match exactly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardQuery {
+
+    private String truckType;
+    private String loadingCity;
+    private String unloadingCity;
+    private LocalDate from;
+    private LocalDate to;
+    private int limit;
+}
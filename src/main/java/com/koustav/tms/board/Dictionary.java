@@ -0,0 +1,44 @@
+package com.koustav.tms.board;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense int codes for the distinct values of a column (cities, truck types, ...).
+ * Codes are never reused or dropped - the value sets are small and stable.
+ * Not thread-safe: OpenLoadBoard guards it with its lock.
+ */
+final class Dictionary {
+
+    static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @return the value's code, UNKNOWN if no load ever had it
+     */
+    int codeOf(String value) {
+        return codes.getOrDefault(value, UNKNOWN);
+    }
+
+    String valueOf(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
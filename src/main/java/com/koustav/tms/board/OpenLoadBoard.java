@@ -0,0 +1,561 @@
+package com.koustav.tms.board;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.cache.CoherentCache;
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.entity.LoadBoardEntry;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.repository.LoadBoardRepository;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory copy of the open loads (load_board), for GET /load-board/open:
+ * browsing by truck type, loading city, unloading city and loading date
+ * without a database round trip.
+ *
+ * LAYOUT:
+ * - one slot per load; every column is a primitive array indexed by slot
+ *   (ids as two longs, timestamps as epoch micros, enums as ordinals,
+ *   NaN for a missing rate)
+ * - shipper, cities, truck and product types are dictionary encoded (Dictionary)
+ * - one compressed bitmap (RoaringBitmap) of slots per truck type, loading
+ *   city and unloading city code, and per loading day
+ * - slots of removed loads are reused
+ *
+ * A browse ANDs the bitmaps of its filters, then walks the loading days of
+ * the window in order, so the first page comes from the soonest days only;
+ * the days after the page are counted, not read.
+ *
+ * HOW IT STAYS CURRENT:
+ * - load_board itself follows load and bid writes (booking, cancellation,
+ *   bidding, expiry - see V5__load_board.sql) through LoadBoardProjectionJob
+ * - the projection job announces every load it refreshed (CachedEntity.LOAD);
+ *   evict() queues it, on this node and through LISTEN on the others
+ * - OpenLoadBoardSyncJob re-reads the queued loads of its shard, or the
+ *   whole shard after a start or a listener reconnect (evictAll); the old
+ *   entries are served until the reload replaces them
+ * - and the whole shard every tms.load-board.memory.full-reload-interval,
+ *   which bounds how long an announcement lost on the way (a NOTIFY dropped
+ *   without a reconnect) leaves a load stale; PT0S = never
+ * The board trails the writes by about one projection plus one sync interval.
+ *
+ * Reads share a read lock; a sync holds the write lock only while applying rows it has already read.
+ *
+ * Also the candidate index of GET /transporter/{id}/recommended-loads (candidates()).
+ *
+ * Metrics:
+ * - tms.load.board.memory.loads (gauge)
+ * - tms.load.board.memory.refreshed{kind=full|incremental} (loads re-read)
+ */
+@Component
+public class OpenLoadBoard implements CoherentCache {
+
+    private static final double NONE = Double.NaN;
+
+    private static final WeightUnit[] WEIGHT_UNITS = WeightUnit.values();
+    private static final LoadStatus[] STATUSES = LoadStatus.values();
+
+    // soonest loading first, load id breaks ties
+    private static final Comparator<LoadBoardEntryResponse> BROWSE_ORDER = Comparator
+        .comparing(LoadBoardEntryResponse::getLoadingDate)
+        .thenComparing(entry -> entry.getLoadId().toString());
+
+    @Autowired
+    private LoadBoardRepository loadBoardRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.load-board.memory.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.load-board.memory.initial-capacity:1024}")
+    private int initialCapacity = 1024;
+
+    @Value("${tms.load-board.memory.full-reload-interval:PT10M}")
+    private Duration fullReloadInterval = Duration.ofMinutes(10);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ---- guarded by lock ----
+    private final Dictionary shippers = new Dictionary();
+    private final Dictionary cities = new Dictionary();
+    private final Dictionary truckTypes = new Dictionary();
+    private final Dictionary productTypes = new Dictionary();
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final RoaringBitmap freeSlots = new RoaringBitmap();
+    private int slotCount;
+
+    private long[] idHigh;
+    private long[] idLow;
+    private int[] shipper;
+    private int[] loadingCity;
+    private int[] unloadingCity;
+    private int[] loadingDay;
+    private long[] loadingDate;
+    private int[] productType;
+    private double[] weight;
+    private byte[] weightUnit;
+    private int[] truckType;
+    private int[] noOfTrucks;
+    private int[] remainingTrucks;
+    private byte[] status;
+    private long[] datePosted;
+    private int[] pendingBids;
+    private double[] minRate;
+    private long[] topBidHigh;
+    private long[] topBidLow;
+    private long[] topTransporterHigh;
+    private long[] topTransporterLow;
+    private double[] topBidRate;
+    private double[] topBidScore;
+
+    private final List<RoaringBitmap> byTruckType = new ArrayList<>();
+    private final List<RoaringBitmap> byLoadingCity = new ArrayList<>();
+    private final List<RoaringBitmap> byUnloadingCity = new ArrayList<>();
+    private final TreeMap<Integer, RoaringBitmap> byLoadingDay = new TreeMap<>();
+    // ---- end guarded by lock ----
+
+    private volatile int size;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> reloads = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> loadedShards = ConcurrentHashMap.newKeySet();
+    // shard -> System.nanoTime() of its last full reload
+    private final Map<Integer, Long> reloadedAt = new ConcurrentHashMap<>();
+
+    private Counter fullRefreshes;
+    private Counter incrementalRefreshes;
+
+    @PostConstruct
+    void registerMetrics() {
+        allocate(Math.max(1, initialCapacity));
+        evictAll();
+
+        Gauge.builder("tms.load.board.memory.loads", this, OpenLoadBoard::size)
+            .description("open loads held in the in-memory board")
+            .register(meterRegistry);
+        fullRefreshes = Counter.builder("tms.load.board.memory.refreshed")
+            .tag("kind", "full")
+            .register(meterRegistry);
+        incrementalRefreshes = Counter.builder("tms.load.board.memory.refreshed")
+            .tag("kind", "incremental")
+            .register(meterRegistry);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true once every shard has been loaded at least once
+     */
+    public boolean isReady() {
+        return enabled && loadedShards.size() >= shardRouter.shardCount();
+    }
+
+    public OpenLoadBoardResponse browse(BoardQuery query) {
+        List<LoadBoardEntryResponse> loads = new ArrayList<>();
+        long matches = 0;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap filter = null;  // null = no attribute filter
+            filter = and(filter, byTruckType, query.getTruckType() == null ? null : truckTypes.codeOf(query.getTruckType()));
+            filter = and(filter, byLoadingCity, query.getLoadingCity() == null ? null : cities.codeOf(query.getLoadingCity()));
+            filter = and(filter, byUnloadingCity, query.getUnloadingCity() == null ? null : cities.codeOf(query.getUnloadingCity()));
+
+            if (filter == null || !filter.isEmpty()) {
+                for (RoaringBitmap day : days(query.getFrom(), query.getTo()).values()) {
+                    if (loads.size() >= query.getLimit()) {
+                        matches += filter == null ? day.getLongCardinality() : RoaringBitmap.andCardinality(day, filter);
+                        continue;
+                    }
+                    RoaringBitmap hits = filter == null ? day : RoaringBitmap.and(day, filter);
+                    matches += hits.getLongCardinality();
+
+                    List<LoadBoardEntryResponse> sameDay = new ArrayList<>(hits.getCardinality());
+                    IntIterator slot = hits.getIntIterator();
+                    while (slot.hasNext()) {
+                        sameDay.add(toResponse(slot.next()));
+                    }
+                    sameDay.sort(BROWSE_ORDER);
+                    loads.addAll(sameDay.subList(0, Math.min(sameDay.size(), query.getLimit() - loads.size())));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return OpenLoadBoardResponse.builder()
+            .loads(loads)
+            .count(loads.size())
+            .matches(matches)
+            .ready(isReady())
+            .build();
+    }
+
+    /**
+     * Every load needing one of the truck types with a loading day in
+     * [from, to] - the OR of the truck type bitmaps, ANDed per day.
+     * Used by LoadRecommendationService, which ranks them.
+     */
+    public List<LoadBoardEntryResponse> candidates(Collection<String> truckTypeValues, LocalDate from, LocalDate to) {
+        List<LoadBoardEntryResponse> loads = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap needed = new RoaringBitmap();
+            for (String value : truckTypeValues) {
+                int code = truckTypes.codeOf(value);
+                if (code != Dictionary.UNKNOWN && code < byTruckType.size()) {
+                    needed.or(byTruckType.get(code));
+                }
+            }
+            if (needed.isEmpty()) {
+                return loads;
+            }
+            for (RoaringBitmap day : days(from, to).values()) {
+                IntIterator slot = RoaringBitmap.and(day, needed).getIntIterator();
+                while (slot.hasNext()) {
+                    loads.add(toResponse(slot.next()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return loads;
+    }
+
+    /**
+     * Brings the current shard's loads up to date: the queued ones, or all
+     * of them when the shard is due a reload. Called per shard by OpenLoadBoardSyncJob.
+     * @return loads re-read
+     */
+    public int sync() {
+        if (!enabled) {
+            return 0;
+        }
+        int shard = ShardContext.current();
+        List<UUID> changed = new ArrayList<>();
+        for (UUID loadId : pending) {
+            if (shardRouter.shardOf(loadId) == shard && pending.remove(loadId)) {
+                changed.add(loadId);
+            }
+        }
+
+        if (isDueFullReload(shard)) {
+            reloads.add(shard);
+        }
+        if (reloads.remove(shard)) {
+            try {
+                return reload(shard);
+            } catch (RuntimeException e) {
+                reloads.add(shard);
+                throw e;
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        try {
+            return refresh(changed);
+        } catch (RuntimeException e) {
+            pending.addAll(changed);
+            throw e;
+        }
+    }
+
+    @Override
+    public CachedEntity entity() {
+        return CachedEntity.LOAD;
+    }
+
+    /**
+     * The load's board row changed: re-read it on the next sync.
+     * load_board carries no version, so every announcement counts.
+     */
+    @Override
+    public void evict(UUID loadId, Long version) {
+        if (enabled) {
+            pending.add(loadId);
+        }
+    }
+
+    /**
+     * Changes may have been missed: reload every shard on the next syncs
+     */
+    @Override
+    public void evictAll() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            reloads.add(shard);
+        }
+    }
+
+    private boolean isDueFullReload(int shard) {
+        Long at = reloadedAt.get(shard);
+        return at != null && !fullReloadInterval.isZero() && !fullReloadInterval.isNegative()
+            && System.nanoTime() - at >= fullReloadInterval.toNanos();
+    }
+
+    private int refresh(List<UUID> loadIds) {
+        List<LoadBoardEntry> rows = loadBoardRepository.findAllById(loadIds);
+        Set<UUID> open = new HashSet<>();
+
+        lock.writeLock().lock();
+        try {
+            for (LoadBoardEntry row : rows) {
+                put(row);
+                open.add(row.getLoadId());
+            }
+            for (UUID loadId : loadIds) {
+                if (!open.contains(loadId)) {
+                    remove(loadId);  // no longer open
+                }
+            }
+            size = slots.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        incrementalRefreshes.increment(loadIds.size());
+        return loadIds.size();
+    }
+
+    private int reload(int shard) {
+        List<LoadBoardEntry> rows = loadBoardRepository.findAll();
+        Set<UUID> open = new HashSet<>();
+
+        lock.writeLock().lock();
+        try {
+            for (LoadBoardEntry row : rows) {
+                put(row);
+                open.add(row.getLoadId());
+            }
+            for (UUID loadId : new ArrayList<>(slots.keySet())) {
+                if (shardRouter.shardOf(loadId) == shard && !open.contains(loadId)) {
+                    remove(loadId);
+                }
+            }
+            size = slots.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        loadedShards.add(shard);
+        reloadedAt.put(shard, System.nanoTime());
+        fullRefreshes.increment(rows.size());
+        return rows.size();
+    }
+
+    // ---- below: callers hold the write lock ----
+
+    private void put(LoadBoardEntry row) {
+        Integer existing = slots.get(row.getLoadId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unindex(slot);
+        } else {
+            slot = takeSlot();
+            slots.put(row.getLoadId(), slot);
+        }
+
+        idHigh[slot] = row.getLoadId().getMostSignificantBits();
+        idLow[slot] = row.getLoadId().getLeastSignificantBits();
+        shipper[slot] = shippers.encode(row.getShipperId());
+        loadingCity[slot] = cities.encode(row.getLoadingCity());
+        unloadingCity[slot] = cities.encode(row.getUnloadingCity());
+        loadingDay[slot] = (int) row.getLoadingDate().toLocalDateTime().toLocalDate().toEpochDay();
+        loadingDate[slot] = toMicros(row.getLoadingDate());
+        productType[slot] = productTypes.encode(row.getProductType());
+        weight[slot] = row.getWeight();
+        weightUnit[slot] = (byte) row.getWeightUnit().ordinal();
+        truckType[slot] = truckTypes.encode(row.getTruckType());
+        noOfTrucks[slot] = row.getNoOfTrucks();
+        remainingTrucks[slot] = row.getRemainingTrucks();
+        status[slot] = (byte) row.getStatus().ordinal();
+        datePosted[slot] = toMicros(row.getDatePosted());
+        pendingBids[slot] = row.getPendingBids();
+        minRate[slot] = row.getMinRate() == null ? NONE : row.getMinRate();
+        topBidRate[slot] = row.getTopBidRate() == null ? NONE : row.getTopBidRate();
+        topBidScore[slot] = row.getTopBidScore() == null ? NONE : row.getTopBidScore();
+        topBidHigh[slot] = row.getTopBidId() == null ? 0L : row.getTopBidId().getMostSignificantBits();
+        topBidLow[slot] = row.getTopBidId() == null ? 0L : row.getTopBidId().getLeastSignificantBits();
+        topTransporterHigh[slot] = row.getTopBidTransporterId() == null ? 0L : row.getTopBidTransporterId().getMostSignificantBits();
+        topTransporterLow[slot] = row.getTopBidTransporterId() == null ? 0L : row.getTopBidTransporterId().getLeastSignificantBits();
+
+        index(slot);
+    }
+
+    private void remove(UUID loadId) {
+        Integer slot = slots.remove(loadId);
+        if (slot != null) {
+            unindex(slot);
+            freeSlots.add(slot);
+        }
+    }
+
+    private int takeSlot() {
+        if (!freeSlots.isEmpty()) {
+            int slot = freeSlots.first();
+            freeSlots.remove(slot);
+            return slot;
+        }
+        if (slotCount == idHigh.length) {
+            allocate(idHigh.length * 2);
+        }
+        return slotCount++;
+    }
+
+    private void index(int slot) {
+        bitmap(byTruckType, truckType[slot]).add(slot);
+        bitmap(byLoadingCity, loadingCity[slot]).add(slot);
+        bitmap(byUnloadingCity, unloadingCity[slot]).add(slot);
+        byLoadingDay.computeIfAbsent(loadingDay[slot], day -> new RoaringBitmap()).add(slot);
+    }
+
+    private void unindex(int slot) {
+        byTruckType.get(truckType[slot]).remove(slot);
+        byLoadingCity.get(loadingCity[slot]).remove(slot);
+        byUnloadingCity.get(unloadingCity[slot]).remove(slot);
+        RoaringBitmap day = byLoadingDay.get(loadingDay[slot]);
+        day.remove(slot);
+        if (day.isEmpty()) {
+            byLoadingDay.remove(loadingDay[slot]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        idHigh = idHigh == null ? new long[capacity] : Arrays.copyOf(idHigh, capacity);
+        idLow = idLow == null ? new long[capacity] : Arrays.copyOf(idLow, capacity);
+        shipper = shipper == null ? new int[capacity] : Arrays.copyOf(shipper, capacity);
+        loadingCity = loadingCity == null ? new int[capacity] : Arrays.copyOf(loadingCity, capacity);
+        unloadingCity = unloadingCity == null ? new int[capacity] : Arrays.copyOf(unloadingCity, capacity);
+        loadingDay = loadingDay == null ? new int[capacity] : Arrays.copyOf(loadingDay, capacity);
+        loadingDate = loadingDate == null ? new long[capacity] : Arrays.copyOf(loadingDate, capacity);
+        productType = productType == null ? new int[capacity] : Arrays.copyOf(productType, capacity);
+        weight = weight == null ? new double[capacity] : Arrays.copyOf(weight, capacity);
+        weightUnit = weightUnit == null ? new byte[capacity] : Arrays.copyOf(weightUnit, capacity);
+        truckType = truckType == null ? new int[capacity] : Arrays.copyOf(truckType, capacity);
+        noOfTrucks = noOfTrucks == null ? new int[capacity] : Arrays.copyOf(noOfTrucks, capacity);
+        remainingTrucks = remainingTrucks == null ? new int[capacity] : Arrays.copyOf(remainingTrucks, capacity);
+        status = status == null ? new byte[capacity] : Arrays.copyOf(status, capacity);
+        datePosted = datePosted == null ? new long[capacity] : Arrays.copyOf(datePosted, capacity);
+        pendingBids = pendingBids == null ? new int[capacity] : Arrays.copyOf(pendingBids, capacity);
+        minRate = minRate == null ? new double[capacity] : Arrays.copyOf(minRate, capacity);
+        topBidHigh = topBidHigh == null ? new long[capacity] : Arrays.copyOf(topBidHigh, capacity);
+        topBidLow = topBidLow == null ? new long[capacity] : Arrays.copyOf(topBidLow, capacity);
+        topTransporterHigh = topTransporterHigh == null ? new long[capacity] : Arrays.copyOf(topTransporterHigh, capacity);
+        topTransporterLow = topTransporterLow == null ? new long[capacity] : Arrays.copyOf(topTransporterLow, capacity);
+        topBidRate = topBidRate == null ? new double[capacity] : Arrays.copyOf(topBidRate, capacity);
+        topBidScore = topBidScore == null ? new double[capacity] : Arrays.copyOf(topBidScore, capacity);
+    }
+
+    // ---- below: callers hold the read or write lock ----
+
+    private NavigableMap<Integer, RoaringBitmap> days(LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            return from.isAfter(to)
+                ? new TreeMap<>()
+                : byLoadingDay.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true);
+        }
+        if (from != null) {
+            return byLoadingDay.tailMap((int) from.toEpochDay(), true);
+        }
+        if (to != null) {
+            return byLoadingDay.headMap((int) to.toEpochDay(), true);
+        }
+        return byLoadingDay;
+    }
+
+    /**
+     * @param code null = no filter on this column
+     */
+    private static RoaringBitmap and(RoaringBitmap filter, List<RoaringBitmap> index, Integer code) {
+        if (code == null) {
+            return filter;
+        }
+        RoaringBitmap matching = code == Dictionary.UNKNOWN || code >= index.size() ? new RoaringBitmap() : index.get(code);
+        return filter == null ? matching : RoaringBitmap.and(filter, matching);
+    }
+
+    private static RoaringBitmap bitmap(List<RoaringBitmap> index, int code) {
+        while (index.size() <= code) {
+            index.add(new RoaringBitmap());
+        }
+        return index.get(code);
+    }
+
+    private LoadBoardEntryResponse toResponse(int slot) {
+        boolean topBid = topBidHigh[slot] != 0L || topBidLow[slot] != 0L;
+        return LoadBoardEntryResponse.builder()
+            .loadId(new UUID(idHigh[slot], idLow[slot]))
+            .shipperId(shippers.valueOf(shipper[slot]))
+            .loadingCity(cities.valueOf(loadingCity[slot]))
+            .unloadingCity(cities.valueOf(unloadingCity[slot]))
+            .loadingDate(fromMicros(loadingDate[slot]))
+            .productType(productTypes.valueOf(productType[slot]))
+            .weight(weight[slot])
+            .weightUnit(WEIGHT_UNITS[weightUnit[slot]])
+            .truckType(truckTypes.valueOf(truckType[slot]))
+            .noOfTrucks(noOfTrucks[slot])
+            .remainingTrucks(remainingTrucks[slot])
+            .status(STATUSES[status[slot]])
+            .datePosted(fromMicros(datePosted[slot]))
+            .pendingBids(pendingBids[slot])
+            .minRate(Double.isNaN(minRate[slot]) ? null : minRate[slot])
+            .topBidId(topBid ? new UUID(topBidHigh[slot], topBidLow[slot]) : null)
+            .topBidTransporterId(topBid ? new UUID(topTransporterHigh[slot], topTransporterLow[slot]) : null)
+            .topBidRate(Double.isNaN(topBidRate[slot]) ? null : topBidRate[slot])
+            .topBidScore(Double.isNaN(topBidScore[slot]) ? null : topBidScore[slot])
+            .build();
+    }
+
+    // load_board keeps microseconds (timestamp(6))
+    private static long toMicros(Timestamp timestamp) {
+        return Math.floorDiv(timestamp.getTime(), 1000L) * 1_000_000L + timestamp.getNanos() / 1000;
+    }
+
+    private static Timestamp fromMicros(long micros) {
+        Timestamp timestamp = new Timestamp(Math.floorDiv(micros, 1_000_000L) * 1000L);
+        timestamp.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+        return timestamp;
+    }
+}
@@ -0,0 +1,220 @@
+package com.koustav.tms.cache;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the node-local caches (CoherentCache beans) of all app nodes in
+ * line when one node writes a cached row.
+ *
+ * WHY?
+ * A node only sees its own writes. Without this, another node's cache
+ * serves the old row until its TTL runs out or a drift check catches it.
+ *
+ * HOW:
+ * - the writer calls invalidate() inside its transaction; that runs
+ *   pg_notify on the transaction's connection, so Postgres delivers the
+ *   message on commit and drops it on rollback
+ * - its own caches are evicted after commit
+ * - InvalidationListener LISTENs on every node and hands messages to
+ *   received(), which evicts locally (a node skips its own messages)
+ * - when the listener (re)connects it can't know what it missed, so every
+ *   cache is flushed; bounded TTLs in the caches cover anything else
+ *
+ * Without PostgreSQL (H2 in tests) nothing is sent: caches are evicted on
+ * the writing node only and rely on their TTLs elsewhere.
+ *
+ * With sharding the message goes to the shard of the transaction; the
+ * listener listens on every shard.
+ *
+ * Metrics:
+ * - tms.cache.invalidations{direction=published|received|ignored}
+ * - tms.cache.flushes{cause}
+ */
+@Component
+public class CacheCoherence {
+
+    private static final String POSTGRES = "jdbc:postgresql:";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<CoherentCache> caches;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.cache.invalidation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.cache.invalidation.channel:tms_cache_invalidation}")
+    private String channel = "tms_cache_invalidation";
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl = "";
+
+    @Value("${tms.sharding.urls:}")
+    private String shardUrls = "";
+
+    // tells this node's messages apart from the others'
+    private final String node = UUID.randomUUID().toString().substring(0, 8);
+
+    private Counter published;
+    private Counter received;
+    private Counter ignored;
+
+    @PostConstruct
+    void registerMetrics() {
+        published = invalidationCounter("published");
+        received = invalidationCounter("received");
+        ignored = invalidationCounter("ignored");
+    }
+
+    /**
+     * Tell every node that a cached row changed.
+     * @param version the row's version as the writer has it; null = unknown
+     */
+    public void invalidate(CachedEntity entity, UUID id, Long version) {
+        Invalidation invalidation = new Invalidation(node, entity, id, version);
+        if (isNotifying() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, invalidation.encode());
+            published.increment();
+        }
+        evictLocalOnCommit(List.of(invalidation));
+    }
+
+    /**
+     * Same for many rows of unknown version - one round trip for all the messages
+     */
+    public void invalidate(CachedEntity entity, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Invalidation> invalidations = ids.stream().map(id -> new Invalidation(node, entity, id, null)).toList();
+        if (isNotifying() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String[] payloads = invalidations.stream().map(Invalidation::encode).toArray(String[]::new);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "SELECT count(pg_notify(?, payload)) FROM unnest(CAST(? AS text[])) AS payload");
+                statement.setString(1, channel);
+                statement.setArray(2, connection.createArrayOf("text", payloads));
+                return statement;
+            }, rs -> null);
+            published.increment(payloads.length);
+        }
+        evictLocalOnCommit(invalidations);
+    }
+
+    /**
+     * For writers that NOTIFY from SQL (tms_project_load_board): the channel
+     * to send on, or null when nothing should be sent
+     */
+    public String notifyChannel() {
+        return isNotifying() ? channel : null;
+    }
+
+    /**
+     * Payload node of this node's messages (Invalidation)
+     */
+    public String node() {
+        return node;
+    }
+
+    /**
+     * The rows' messages went out from SQL with notifyChannel() and node():
+     * count them, and evict this node's caches (on commit when in a transaction)
+     */
+    public void notified(CachedEntity entity, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (isNotifying()) {
+            published.increment(ids.size());
+        }
+        evictLocalOnCommit(ids.stream().map(id -> new Invalidation(node, entity, id, null)).toList());
+    }
+
+    /**
+     * A NOTIFY payload from the listener
+     */
+    public void received(String payload) {
+        Invalidation invalidation = Invalidation.decode(payload);
+        if (invalidation == null || node.equals(invalidation.getNode())) {
+            ignored.increment();
+            return;
+        }
+        received.increment();
+        evictLocal(invalidation);
+    }
+
+    public void flushAll(String cause) {
+        caches.orderedStream().forEach(CoherentCache::evictAll);
+        Counter.builder("tms.cache.flushes")
+            .description("full flushes of the local caches")
+            .tag("cause", cause)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * @return true when every database is PostgreSQL, i.e. NOTIFY / LISTEN work
+     */
+    public boolean isNotifying() {
+        List<String> urls = databaseUrls();
+        return enabled && !urls.isEmpty() && urls.stream().allMatch(url -> url.startsWith(POSTGRES));
+    }
+
+    /**
+     * Databases a write can land on: the shards, or the one datasource
+     */
+    public List<String> databaseUrls() {
+        String urls = shardUrls.isBlank() ? datasourceUrl : shardUrls;
+        return Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    private void evictLocalOnCommit(List<Invalidation> invalidations) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidations.forEach(this::evictLocal);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidations.forEach(CacheCoherence.this::evictLocal);
+            }
+        });
+    }
+
+    private void evictLocal(Invalidation invalidation) {
+        caches.orderedStream()
+            .filter(cache -> cache.entity() == invalidation.getEntity())
+            .forEach(cache -> cache.evict(invalidation.getId(), invalidation.getVersion()));
+    }
+
+    private Counter invalidationCounter(String direction) {
+        return Counter.builder("tms.cache.invalidations")
+            .description("cache invalidation messages")
+            .tag("direction", direction)
+            .register(meterRegistry);
+    }
+}
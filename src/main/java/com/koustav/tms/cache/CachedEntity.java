@@ -0,0 +1,10 @@
+package com.koustav.tms.cache;
+
+/**
+ * What an invalidation is about - one constant per kind of row held in a
+ * node-local cache (see CoherentCache).
+ */
+public enum CachedEntity {
+    TRANSPORTER,
+    LOAD
+}
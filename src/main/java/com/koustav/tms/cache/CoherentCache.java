@@ -0,0 +1,23 @@
+package com.koustav.tms.cache;
+
+import java.util.UUID;
+
+/**
+ * A node-local cache kept in line with the other nodes by CacheCoherence.
+ * Implementations are picked up as beans.
+ */
+public interface CoherentCache {
+
+    CachedEntity entity();
+
+    /**
+     * Drop the entry unless it is newer than version.
+     * @param version row version the writer saw; null = drop whatever is cached
+     */
+    void evict(UUID id, Long version);
+
+    /**
+     * Drop everything - invalidations may have been missed
+     */
+    void evictAll();
+}
@@ -0,0 +1,54 @@
+package com.koustav.tms.cache;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One "this row changed" message, sent as a NOTIFY payload.
+ *
+ * FORMAT: node|entity|id|version, e.g.
+ *   3f2a9c1e|TRANSPORTER|6c1f...|42
+ * ~70 bytes, well under Postgres' 8000 byte payload limit. version is
+ * empty when the writer doesn't know it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Invalidation {
+
+    private static final String SEPARATOR = "|";
+
+    private String node;
+    private CachedEntity entity;
+    private UUID id;
+    private Long version;
+
+    public String encode() {
+        return node + SEPARATOR + entity.name() + SEPARATOR + id + SEPARATOR + (version == null ? "" : version);
+    }
+
+    /**
+     * @return null if the payload isn't an invalidation (another sender on the channel, an older format)
+     */
+    public static Invalidation decode(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return new Invalidation(
+                parts[0],
+                CachedEntity.valueOf(parts[1]),
+                UUID.fromString(parts[2]),
+                parts[3].isEmpty() ? null : Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
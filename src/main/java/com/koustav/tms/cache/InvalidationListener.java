@@ -0,0 +1,137 @@
+package com.koustav.tms.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * LISTENs for cache invalidations (see CacheCoherence), one daemon thread
+ * and one dedicated connection per database - not from the pool, a
+ * LISTEN connection is held for good.
+ *
+ * After every (re)connect all local caches are flushed: whatever was
+ * committed while nobody listened is lost. A broken connection is retried
+ * every tms.cache.invalidation.reconnect-delay.
+ *
+ * Not started without PostgreSQL (H2 in tests).
+ *
+ * Metrics:
+ * - tms.cache.listener.connected (gauge, listening connections)
+ */
+@Component
+public class InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationListener.class);
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.username:}")
+    private String username = "";
+
+    @Value("${spring.datasource.password:}")
+    private String password = "";
+
+    @Value("${tms.cache.invalidation.poll-interval:PT0.5S}")
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    @Value("${tms.cache.invalidation.reconnect-delay:PT5S}")
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("tms.cache.listener.connected", connected, AtomicInteger::get)
+            .register(meterRegistry);
+        if (!cacheCoherence.isNotifying()) {
+            log.info("Cache invalidation: no PostgreSQL to LISTEN on, local caches rely on their TTLs");
+            return;
+        }
+        if (!cacheCoherence.channel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cache invalidation channel: " + cacheCoherence.channel());
+        }
+
+        running = true;
+        List<String> urls = cacheCoherence.databaseUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i);
+            Thread thread = new Thread(() -> listen(url), "cache-invalidation-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+
+    private void listen(String url) {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + cacheCoherence.channel());
+                }
+                connected.incrementAndGet();
+                try {
+                    // anything committed before LISTEN took effect was not heard
+                    cacheCoherence.flushAll("reconnect");
+                    poll(connection.unwrap(PGConnection.class));
+                } finally {
+                    connected.decrementAndGet();
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost {}, retrying in {}: {}", url, reconnectDelay, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(reconnectDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void poll(PGConnection connection) throws SQLException {
+        int timeout = (int) Math.max(1, pollInterval.toMillis());
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications(timeout);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                cacheCoherence.received(notification.getParameter());
+            }
+        }
+    }
+}
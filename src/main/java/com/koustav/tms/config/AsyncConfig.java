@@ -0,0 +1,13 @@
+package com.koustav.tms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async post-commit listeners (infeasible bid withdrawal, ...)
+ * on Spring Boot's task executor (spring.task.execution.*)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
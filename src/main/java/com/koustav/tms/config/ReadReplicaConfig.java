@@ -0,0 +1,100 @@
+package com.koustav.tms.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replica routing, on when tms.datasource.replica.url is set (and tms.sharding.urls is not).
+ *
+ * WHY?
+ * Load, bid and booking lookups shared the primary's connections and CPU
+ * with booking writes. Read-only transactions of GET requests now run on
+ * a replica pool; writes, jobs and everything else stay on the primary.
+ *
+ * HOW:
+ * - primaryDataSource: the usual spring.datasource.* (+ spring.datasource.hikari.*) pool
+ * - replicaDataSource: a read-only Hikari pool on tms.datasource.replica.*
+ * - dataSource (@Primary, used by JPA, Flyway, ...): LazyConnectionDataSourceProxy
+ *   over ReplicaRoutingDataSource, which picks per transaction
+ * - ReadYourWritesFilter: which requests may use the replica, write tokens
+ *
+ * Read-only transactions (@Transactional(readOnly = true)) also run with
+ * Hibernate FlushMode.MANUAL: no dirty checking, no flush at commit.
+ *
+ * Any JDBC database with the same schema can act as the replica - a
+ * streaming Postgres standby in production, a second H2 in tests.
+ */
+@Configuration
+// not together with sharding (ShardingConfig owns the DataSource then)
+@ConditionalOnExpression("'${tms.datasource.replica.url:}' != '' and '${tms.sharding.urls:}' == ''")
+public class ReadReplicaConfig {
+
+    @Value("${tms.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${tms.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${tms.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${tms.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize = 10;
+
+    @Value("${tms.datasource.replica.pin-window:PT5S}")
+    private Duration pinWindow = Duration.ofSeconds(5);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replicaUrl);
+        dataSource.setUsername(replicaUsername);
+        dataSource.setPassword(replicaPassword);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replicaPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(meterRegistry);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+            ReplicaRoutingDataSource.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter(pinWindow);
+    }
+}
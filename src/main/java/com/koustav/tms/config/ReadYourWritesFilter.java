@@ -0,0 +1,65 @@
+package com.koustav.tms.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Decides per request whether its read-only transactions may use the replica.
+ *
+ * - GET / HEAD: replica, unless the request carries a write token younger
+ *   than the pin window - then primary, so the client reads what it just wrote
+ * - anything else: primary, and the response carries a fresh write token
+ *
+ * The token is the write's epoch millis in the X-Read-Your-Writes header;
+ * clients echo the latest one they got on their next reads. The pin window
+ * (tms.datasource.replica.pin-window) must exceed the replica's usual lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private final Duration pinWindow;
+
+    public ReadYourWritesFilter(Duration pinWindow) {
+        this.pinWindow = pinWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            if (!isFreshWrite(request.getHeader(HEADER))) {
+                ReplicaRouting.allowReplica();
+            }
+        } else {
+            // set before the body is written; a failed write just pins the client a little longer
+            response.setHeader(HEADER, Long.toString(System.currentTimeMillis()));
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.clear();
+        }
+    }
+
+    private boolean isFreshWrite(String token) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            return System.currentTimeMillis() - Long.parseLong(token.trim()) < pinWindow.toMillis();
+        } catch (NumberFormatException e) {
+            return true;  // unreadable token - err on the side of the primary
+        }
+    }
+}
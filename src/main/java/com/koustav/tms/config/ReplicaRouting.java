@@ -0,0 +1,28 @@
+package com.koustav.tms.config;
+
+/**
+ * Per-thread switch that lets read-only transactions go to the read replica.
+ *
+ * Off unless ReadYourWritesFilter turns it on for a GET that carries no fresh
+ * write token - writes, scheduled jobs, async listeners and idempotency
+ * checks always stay on the primary, where they see their own commits.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static void allowReplica() {
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    public static boolean isReplicaAllowed() {
+        return REPLICA_ALLOWED.get() != null;
+    }
+}
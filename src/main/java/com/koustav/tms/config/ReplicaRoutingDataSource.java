@@ -0,0 +1,49 @@
+package com.koustav.tms.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hands out replica connections to read-only transactions (readOnly = true)
+ * where ReplicaRouting allows it, primary connections to everything else.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for its connection before the transaction is marked read-only, the
+ * proxy only picks the real one at the first statement.
+ *
+ * Metrics:
+ * - tms.datasource.routed{target=primary|replica} (counter, per physical connection)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final Counter routedPrimary;
+    private final Counter routedReplica;
+
+    public ReplicaRoutingDataSource(MeterRegistry meterRegistry) {
+        routedPrimary = routedCounter(meterRegistry, PRIMARY);
+        routedReplica = routedCounter(meterRegistry, REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaRouting.isReplicaAllowed() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routedReplica.increment();
+            return REPLICA;
+        }
+        routedPrimary.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("tms.datasource.routed")
+            .description("connections handed out per database")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+}
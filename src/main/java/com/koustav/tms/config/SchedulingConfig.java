@@ -0,0 +1,12 @@
+package com.koustav.tms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled housekeeping jobs (idempotency purge, auction expiry, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,110 @@
+package com.koustav.tms.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sharding by shipper, on when tms.sharding.urls lists the shard databases
+ * (comma separated, shard 0 first; user, password and driver from spring.datasource.*).
+ *
+ * WHAT LIVES WHERE:
+ * - loads, bids, bookings: on the shard of the load's shipper (ShardRouter,
+ *   ShardResolver); their ids name that shard (ShardIds)
+ * - transporters: a copy on every shard, same id - bids and bookings keep
+ *   their foreign keys and joins local. Registration and truck updates go
+ *   to every shard, the home shard (named by the id) first; available
+ *   trucks are authoritative on the home shard only (HomeShardCapacity)
+ * - idempotency records: shard 0
+ *
+ * HOW:
+ * - dataSource (@Primary): LazyConnectionDataSourceProxy over
+ *   ShardRoutingDataSource, which picks the ShardContext shard at a
+ *   transaction's first statement
+ * - Flyway migrates every shard
+ * - every @Scheduled job runs once per shard per tick
+ * - @Async work runs on the shard of the thread that submitted it
+ *
+ * Not combined with the read replica (ReadReplicaConfig stays off).
+ */
+@Configuration
+@ConditionalOnProperty(name = "tms.sharding.urls")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Value("${tms.sharding.urls}")
+    private String urls;
+
+    @Value("${tms.sharding.maximum-pool-size:10}")
+    private int poolSize = 10;
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (String url : Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList()) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setJdbcUrl(url);
+            shard.setUsername(properties.determineUsername());
+            shard.setPassword(properties.determinePassword());
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setMaximumPoolSize(poolSize);
+            shards.add(shard);
+        }
+        log.info("Sharding over {} databases", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy migrateEveryShard(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            for (int shard = 0; shard < shardRoutingDataSource.shardCount(); shard++) {
+                ShardContext.runOn(shard, flyway::migrate);
+            }
+        };
+    }
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer runScheduledJobsOnEveryShard(ShardRoutingDataSource shardRoutingDataSource) {
+        int shardCount = shardRoutingDataSource.shardCount();
+        return scheduler -> scheduler.setTaskDecorator(task -> () -> {
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.runOn(shard, task);
+            }
+        });
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer keepShardOnAsyncTasks() {
+        return executor -> executor.setTaskDecorator(task -> {
+            int shard = ShardContext.current();
+            return () -> ShardContext.runOn(shard, task);
+        });
+    }
+}
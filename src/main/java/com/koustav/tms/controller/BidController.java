@@ -4,14 +4,18 @@ import com.koustav.tms.dto.request.BidRequest;
 import com.koustav.tms.dto.response.BidResponse;
 import com.koustav.tms.entity.BidStatus;
 import com.koustav.tms.service.BidService;
+import com.koustav.tms.service.IdempotencyService;
+import com.koustav.tms.shard.ShardRouter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -20,11 +24,26 @@ public class BidController {
     
     @Autowired
     private BidService bidService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ShardRouter shardRouter;
     
     @PostMapping
-    public ResponseEntity<BidResponse> submitBid(@Valid @RequestBody BidRequest request) {
-        BidResponse response = bidService.submitBid(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<BidResponse> submitBid(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BidRequest request) {
+
+        // a bid lives on its load's shard
+        int shard = shardRouter.shardOf(request.getLoadId());
+        if (idempotencyKey == null) {
+            BidResponse response = shardRouter.onShard(shard, () -> bidService.submitBid(request));
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /bid", request,
+            HttpStatus.CREATED, BidResponse.class, () -> shardRouter.onShard(shard, () -> bidService.submitBid(request)));
     }
     
     @GetMapping
@@ -32,21 +51,28 @@ public class BidController {
             @RequestParam(required = false) UUID loadId,
             @RequestParam(required = false) UUID transporterId,
             @RequestParam(required = false) BidStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate submittedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate submittedTo,
             Pageable pageable) {
         
-        Page<BidResponse> bids = bidService.getBids(loadId, transporterId, status, pageable);
+        // by load: that load's shard; otherwise (e.g. a transporter's bids) every shard
+        Page<BidResponse> bids = loadId != null
+            ? shardRouter.onShard(shardRouter.shardOf(loadId),
+                () -> bidService.getBids(loadId, transporterId, status, submittedFrom, submittedTo, pageable))
+            : shardRouter.fanOutPage(pageable,
+                page -> bidService.getBids(null, transporterId, status, submittedFrom, submittedTo, page));
         return ResponseEntity.ok(bids);
     }
     
     @GetMapping("/{bidId}")
     public ResponseEntity<BidResponse> getBid(@PathVariable UUID bidId) {
-        BidResponse response = bidService.getBid(bidId);
+        BidResponse response = shardRouter.onShard(shardRouter.shardOf(bidId), () -> bidService.getBid(bidId));
         return ResponseEntity.ok(response);
     }
     
     @PatchMapping("/{bidId}/reject")
     public ResponseEntity<Void> rejectBid(@PathVariable UUID bidId) {
-        bidService.rejectBid(bidId);
+        shardRouter.onShard(shardRouter.shardOf(bidId), () -> bidService.rejectBid(bidId));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
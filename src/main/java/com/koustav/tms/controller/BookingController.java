@@ -1,8 +1,15 @@
 package com.koustav.tms.controller;
 
+import com.koustav.tms.dto.request.BatchBookingRequest;
 import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BatchBookingResponse;
 import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.service.BatchBookingService;
+import com.koustav.tms.service.BookingSequencer;
 import com.koustav.tms.service.BookingService;
+import com.koustav.tms.service.IdempotencyService;
+import com.koustav.tms.service.ProcedureBookingService;
+import com.koustav.tms.shard.ShardRouter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,22 +24,73 @@ public class BookingController {
     
     @Autowired
     private BookingService bookingService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BookingSequencer bookingSequencer;
+
+    @Autowired
+    private BatchBookingService batchBookingService;
+
+    @Autowired
+    private ProcedureBookingService procedureBookingService;
+
+    @Autowired
+    private ShardRouter shardRouter;
     
     @PostMapping
-    public ResponseEntity<BookingResponse> acceptBid(@Valid @RequestBody BookingRequest request) {
-        BookingResponse response = bookingService.acceptBid(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<BookingResponse> acceptBid(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingRequest request) {
+
+        if (idempotencyKey == null) {
+            BookingResponse response = accept(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /booking", request,
+            HttpStatus.CREATED, BookingResponse.class, () -> accept(request));
     }
     
+    // many accepts across loads, one result per bid - 200 even if some failed
+    @PostMapping("/batch")
+    public ResponseEntity<BatchBookingResponse> acceptBatch(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchBookingRequest request) {
+
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(batchBookingService.acceptBatch(request.getBookings()));
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /booking/batch", request,
+            HttpStatus.OK, BatchBookingResponse.class, () -> batchBookingService.acceptBatch(request.getBookings()));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponse> getBooking(@PathVariable UUID bookingId) {
-        BookingResponse response = bookingService.getBooking(bookingId);
+        BookingResponse response = shardRouter.onShard(shardRouter.shardOf(bookingId),
+            () -> bookingService.getBooking(bookingId));
         return ResponseEntity.ok(response);
     }
     
+    // hot loads: per-load mailbox with group commit, see BookingSequencer
+    // tms.booking.engine=procedure: one database call per accept, see ProcedureBookingService
+    // on the bid's shard
+    private BookingResponse accept(BookingRequest request) {
+        return shardRouter.onShard(shardRouter.shardOf(request.getBidId()), () -> {
+            if (bookingSequencer.isEnabled()) {
+                return bookingSequencer.accept(request);
+            }
+            if (procedureBookingService.isEnabled()) {
+                return procedureBookingService.acceptBid(request);
+            }
+            return bookingService.acceptBid(request);
+        });
+    }
+
     @PatchMapping("/{bookingId}/cancel")
     public ResponseEntity<Void> cancelBooking(@PathVariable UUID bookingId) {
-        bookingService.cancelBooking(bookingId);
+        shardRouter.onShard(shardRouter.shardOf(bookingId), () -> bookingService.cancelBooking(bookingId));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
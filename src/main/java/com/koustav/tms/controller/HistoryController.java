@@ -0,0 +1,46 @@
+package com.koustav.tms.controller;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.dto.response.HistoryResponse;
+import com.koustav.tms.service.HistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/history")
+public class HistoryController {
+
+    @Autowired
+    private HistoryService historyService;
+
+    @GetMapping("/bids")
+    public ResponseEntity<HistoryResponse> getBidHistory(
+            @RequestParam(required = false) UUID transporterId,
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) String unloadingCity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(historyService.getHistory(
+            ArchiveKind.BID, transporterId, loadingCity, unloadingCity, from, to, limit));
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<HistoryResponse> getBookingHistory(
+            @RequestParam(required = false) UUID transporterId,
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) String unloadingCity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(historyService.getHistory(
+            ArchiveKind.BOOKING, transporterId, loadingCity, unloadingCity, from, to, limit));
+    }
+}
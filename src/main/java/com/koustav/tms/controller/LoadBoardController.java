@@ -0,0 +1,53 @@
+package com.koustav.tms.controller;
+
+import com.koustav.tms.dto.response.LoadBoardResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.service.LoadBoardService;
+import com.koustav.tms.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/load-board")
+public class LoadBoardController {
+
+    @Autowired
+    private LoadBoardService loadBoardService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // every shard's page after the cursor, merged - the cursor is the global board order
+    @GetMapping
+    public ResponseEntity<LoadBoardResponse> getBoard(
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant afterPosted,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(required = false) Integer limit) {
+
+        LoadBoardResponse board = loadBoardService.merge(
+            shardRouter.onEachShard(() -> loadBoardService.getBoard(truckType, loadingCity, afterPosted, afterId, limit)),
+            limit);
+        return ResponseEntity.ok(board);
+    }
+
+    // answered from this node's memory - every shard's loads are there, no fan-out
+    @GetMapping("/open")
+    public ResponseEntity<OpenLoadBoardResponse> browse(
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) String unloadingCity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(loadBoardService.browse(truckType, loadingCity, unloadingCity, from, to, limit));
+    }
+}
@@ -18,11 +18,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.koustav.tms.dto.request.LoadRequest;
+import com.koustav.tms.dto.response.AutoBookingResponse;
 import com.koustav.tms.dto.response.BidResponse;
+import com.koustav.tms.dto.response.BulkRejectionResponse;
 import com.koustav.tms.dto.response.LoadDetailResponse;
 import com.koustav.tms.dto.response.LoadResponse;
 import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.service.BookingService;
 import com.koustav.tms.service.LoadService;
+import com.koustav.tms.shard.ShardRouter;
 
 import jakarta.validation.Valid;
 
@@ -32,11 +36,18 @@ public class LoadController {
     
     @Autowired 
     private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ShardRouter shardRouter;
     
     //Create Load
     @PostMapping
     public ResponseEntity<LoadResponse> createLoad(@Valid @RequestBody LoadRequest request) {
-        LoadResponse response = loadService.createLoad(request);
+        LoadResponse response = shardRouter.onShard(shardRouter.shardForShipper(request.getShipperId()),
+            () -> loadService.createLoad(request));
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -47,29 +58,48 @@ public class LoadController {
             @RequestParam(required = false) LoadStatus status,
             Pageable pageable) {
         
-        Page<LoadResponse> loads = loadService.listLoads(shipperId, status, pageable);
+        // one shipper's loads live on its shard, everyone's on all of them
+        Page<LoadResponse> loads = shipperId != null
+            ? shardRouter.onShard(shardRouter.shardForShipper(shipperId),
+                () -> loadService.listLoads(shipperId, status, pageable))
+            : shardRouter.fanOutPage(pageable, page -> loadService.listLoads(null, status, page));
         return ResponseEntity.ok(loads);
     }
 
     // Get load with active bids
     @GetMapping("/{loadId}")
     public ResponseEntity<LoadDetailResponse> getLoad(@PathVariable UUID loadId) {
-        LoadDetailResponse response = loadService.getLoad(loadId);
+        LoadDetailResponse response = shardRouter.onShard(shardRouter.shardOf(loadId), () -> loadService.getLoad(loadId));
         return ResponseEntity.ok(response);
     }
 
     //Cancel load
     @PatchMapping("/{loadId}/cancel")
     public ResponseEntity<Void> cancelLoad(@PathVariable UUID loadId) {
-        loadService.cancelLoad(loadId);
+        shardRouter.onShard(shardRouter.shardOf(loadId), () -> loadService.cancelLoad(loadId));
         return ResponseEntity.noContent().build();
     }
 
+    //Reject every pending bid on the load at once
+    @PatchMapping("/{loadId}/bids/reject")
+    public ResponseEntity<BulkRejectionResponse> rejectPendingBids(@PathVariable UUID loadId) {
+        BulkRejectionResponse response = shardRouter.onShard(shardRouter.shardOf(loadId),
+            () -> loadService.rejectPendingBids(loadId));
+        return ResponseEntity.ok(response);
+    }
+
     //Get sorted Bid Suggestions
     @GetMapping("/{loadId}/best-bids")
     public ResponseEntity<List<BidResponse>> getBestBids(@PathVariable UUID loadId) {
-        List<BidResponse> bids = loadService.getBestBids(loadId);
+        List<BidResponse> bids = shardRouter.onShard(shardRouter.shardOf(loadId), () -> loadService.getBestBids(loadId));
         return ResponseEntity.ok(bids);
     }
+
+    //Fill the load from its best bids in one go
+    @PostMapping("/{loadId}/auto-book")
+    public ResponseEntity<AutoBookingResponse> autoBook(@PathVariable UUID loadId) {
+        AutoBookingResponse response = shardRouter.onShard(shardRouter.shardOf(loadId), () -> bookingService.autoBook(loadId));
+        return ResponseEntity.ok(response);
+    }
     
 }
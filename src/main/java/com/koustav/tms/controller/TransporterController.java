@@ -1,5 +1,8 @@
 package com.koustav.tms.controller;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +14,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.koustav.tms.dto.request.TransporterRequest;
 import com.koustav.tms.dto.request.UpdateTrucksRequest;
+import com.koustav.tms.dto.response.RecommendedLoadsResponse;
 import com.koustav.tms.dto.response.TransporterResponse;
+import com.koustav.tms.service.LoadRecommendationService;
 import com.koustav.tms.service.TransporterService;
+import com.koustav.tms.shard.ShardRouter;
 
 import jakarta.validation.Valid;
 
@@ -27,17 +34,35 @@ public class TransporterController {
     @Autowired
     private TransporterService transporterService;
 
+    @Autowired
+    private LoadRecommendationService loadRecommendationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
     @PostMapping
     public ResponseEntity<TransporterResponse> registerTransporter(
             @Valid @RequestBody TransporterRequest request) {
         
-        TransporterResponse response = transporterService.registerTransporter(request);
+        // sharded: registered on its home shard (the id names it), then copied under the same id to every other shard
+        int home = shardRouter.shardForNewTransporter();
+        TransporterResponse response = shardRouter.onShard(home, () -> transporterService.registerTransporter(request));
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (shard != home) {
+                shardRouter.onShard(shard, () -> transporterService.registerTransporter(request, response.getTransporterId()));
+            }
+        }
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @GetMapping("/{transporterId}")
     public ResponseEntity<TransporterResponse> getTransporter(@PathVariable UUID transporterId) {
-        TransporterResponse response = transporterService.getTransporter(transporterId);
+        // capacity from the home shard, pending bids from every shard
+        Map<String, Integer> pendingExposure = new HashMap<>();
+        shardRouter.onEachShard(() -> transporterService.pendingExposure(transporterId))
+            .forEach(shard -> shard.forEach((truckType, trucks) -> pendingExposure.merge(truckType, trucks, Integer::sum)));
+        TransporterResponse response = shardRouter.onShard(shardRouter.homeShardOf(transporterId),
+            () -> transporterService.getTransporter(transporterId, pendingExposure));
         return ResponseEntity.ok(response);
     }
 
@@ -46,8 +71,27 @@ public class TransporterController {
             @PathVariable UUID transporterId,
             @Valid @RequestBody UpdateTrucksRequest request) {
         
-        TransporterResponse response = transporterService.updateTrucks(transporterId, request);
+        // every shard's copy; answers with the home shard's, the authoritative one
+        int home = shardRouter.homeShardOf(transporterId);
+        TransporterResponse response = shardRouter.onShard(home, () -> transporterService.updateTrucks(transporterId, request));
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (shard != home) {
+                shardRouter.onShard(shard, () -> transporterService.updateTrucks(transporterId, request));
+            }
+        }
         return ResponseEntity.ok(response);
     }
 
+    // lane history from every shard; the candidate loads come from this node's memory
+    @GetMapping("/{transporterId}/recommended-loads")
+    public ResponseEntity<RecommendedLoadsResponse> getRecommendedLoads(
+            @PathVariable UUID transporterId,
+            @RequestParam(required = false) Integer limit) {
+
+        List<Map<String, Long>> laneBookings =
+            shardRouter.onEachShard(() -> loadRecommendationService.laneBookings(transporterId));
+        return ResponseEntity.ok(shardRouter.onShard(shardRouter.homeShardOf(transporterId),
+            () -> loadRecommendationService.recommend(transporterId, laneBookings, limit)));
+    }
+
 }
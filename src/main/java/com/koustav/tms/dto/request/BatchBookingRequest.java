@@ -0,0 +1,22 @@
+package com.koustav.tms.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingRequest {
+
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = 500, message = "At most 500 bookings per batch")
+    private List<@Valid BookingRequest> bookings;
+}
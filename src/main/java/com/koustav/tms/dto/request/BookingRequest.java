@@ -16,4 +16,7 @@ public class BookingRequest {
 
     @NotNull(message = "Bid ID is required")
     private UUID bidId;
+
+    // book only the trucks the load still needs when the bid offers more
+    private boolean allowPartial;
 }
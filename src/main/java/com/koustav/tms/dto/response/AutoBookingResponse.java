@@ -0,0 +1,24 @@
+package com.koustav.tms.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.koustav.tms.entity.LoadStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoBookingResponse {
+
+    private UUID loadId;
+    private LoadStatus status;
+    private int remainingTrucks;
+    private List<BookingResponse> bookings;
+    private List<UUID> rejectedBidIds;
+}
@@ -0,0 +1,20 @@
+package com.koustav.tms.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingResponse {
+
+    private int booked;
+    private int failed;
+    // one per requested bid, in request order
+    private List<BatchBookingResult> results;
+}
@@ -0,0 +1,24 @@
+package com.koustav.tms.dto.response;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchBookingResult {
+
+    private UUID bidId;
+    // what POST /booking would have answered for this bid (201, 400, 404, 409, ...)
+    private int status;
+    private BookingResponse booking;
+    private String message;
+}
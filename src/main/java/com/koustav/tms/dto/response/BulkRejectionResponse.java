@@ -0,0 +1,21 @@
+package com.koustav.tms.dto.response;
+
+import java.util.UUID;
+
+import com.koustav.tms.entity.LoadStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRejectionResponse {
+
+    private UUID loadId;
+    private LoadStatus status;
+    private int rejectedBids;
+}
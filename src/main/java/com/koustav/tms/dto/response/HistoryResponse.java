@@ -0,0 +1,23 @@
+package com.koustav.tms.dto.response;
+
+import java.util.List;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.archive.ArchiveRecord;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryResponse {
+
+    private ArchiveKind kind;
+    private int count;
+    // newest first
+    private List<ArchiveRecord> records;
+}
@@ -0,0 +1,39 @@
+package com.koustav.tms.dto.response;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.entity.WeightUnit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadBoardEntryResponse {
+
+    private UUID loadId;
+    private String shipperId;
+    private String loadingCity;
+    private String unloadingCity;
+    private Timestamp loadingDate;
+    private String productType;
+    private double weight;
+    private WeightUnit weightUnit;
+    private String truckType;
+    private int noOfTrucks;
+    private int remainingTrucks;
+    private LoadStatus status;
+    private Timestamp datePosted;
+    private int pendingBids;
+    private Double minRate;
+    private UUID topBidId;
+    private UUID topBidTransporterId;
+    private Double topBidRate;
+    private Double topBidScore;
+}
@@ -0,0 +1,24 @@
+package com.koustav.tms.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadBoardResponse {
+
+    // newest first
+    private List<LoadBoardEntryResponse> loads;
+    private int count;
+    // pass back as afterPosted / afterId for the next page; null on the last page
+    private Instant nextAfterPosted;
+    private UUID nextAfterId;
+}
@@ -0,0 +1,23 @@
+package com.koustav.tms.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenLoadBoardResponse {
+
+    // soonest loading date first
+    private List<LoadBoardEntryResponse> loads;
+    private int count;
+    // open loads matching the filters, beyond the limit too
+    private long matches;
+    // false until the board has been loaded from every shard - until then the answer may be incomplete
+    private boolean ready;
+}
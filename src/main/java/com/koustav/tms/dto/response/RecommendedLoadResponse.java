@@ -0,0 +1,19 @@
+package com.koustav.tms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendedLoadResponse {
+
+    private LoadBoardEntryResponse load;
+    private double score;
+    // of the load's remaining trucks, how many the transporter has of its truck type
+    private int coverableTrucks;
+    private long laneBookings;
+}
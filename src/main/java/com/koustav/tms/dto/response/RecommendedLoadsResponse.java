@@ -0,0 +1,25 @@
+package com.koustav.tms.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendedLoadsResponse {
+
+    private UUID transporterId;
+    // best first
+    private List<RecommendedLoadResponse> loads;
+    private int count;
+    // open loads needing one of the transporter's truck types within the horizon
+    private int candidates;
+    // false until the in-memory board has been loaded from every shard
+    private boolean ready;
+}
@@ -18,4 +18,6 @@ public class TransporterResponse {
     private String companyName;
     private double rating;
     private Map<String, Integer> availableTrucks;
+    // trucks offered in PENDING bids, per truck type
+    private Map<String, Integer> pendingExposure;
 }
@@ -3,15 +3,14 @@ package com.koustav.tms.entity;
 import java.sql.Timestamp;
 import java.util.UUID;
 
+import com.koustav.tms.shard.ShardedId;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.ForeignKey;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -23,14 +22,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "bid", indexes = {
-    @Index(name = "idx_bid_load_id", columnList = "load_id"),
-    @Index(name = "idx_bid_transporter_id", columnList = "transporter_id"),
-    @Index(name = "idx_bid_status", columnList = "bid_status"),
-    @Index(name = "idx_bid_date_submitted", columnList = "date_submitted DESC"),
-    @Index(name = "idx_bid_composite_load_status", columnList = "load_id, bid_status"),
-    @Index(name = "idx_bid_composite_transporter_status", columnList = "transporter_id, bid_status")
-})
+// indexes live in the Flyway migrations (db/migration), not here
+@Table(name = "bid")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,7 +32,7 @@ import lombok.Setter;
 public class Bid {
 
     @Id
-    @GeneratedValue(strategy=GenerationType.UUID)
+    @ShardedId
     @Column(name="bid_id", nullable=false, updatable=false)
     private UUID bidId;
 
@@ -3,5 +3,6 @@ package com.koustav.tms.entity;
 public enum BidStatus {
     PENDING,
     ACCEPTED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
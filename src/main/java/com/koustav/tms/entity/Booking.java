@@ -3,15 +3,14 @@ package com.koustav.tms.entity;
 import java.sql.Timestamp;
 import java.util.UUID;
 
+import com.koustav.tms.shard.ShardedId;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.ForeignKey;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -24,13 +23,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "booking", indexes = {
-    @Index(name = "idx_booking_load_id", columnList = "load_id"),
-    @Index(name = "idx_booking_transporter_id", columnList = "transporter_id"),
-    @Index(name = "idx_booking_bid_id", columnList = "bid_id"),
-    @Index(name = "idx_booking_status", columnList = "booking_status"),
-    @Index(name = "idx_booking_booked_at", columnList = "booked_at DESC")
-})
+// indexes live in the Flyway migrations (db/migration), not here
+@Table(name = "booking")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,7 +33,7 @@ import lombok.Setter;
 public class Booking {
     
     @Id
-    @GeneratedValue(strategy=GenerationType.UUID)
+    @ShardedId
     @Column(name="booking_id", nullable=false, updatable=false) 
     private UUID bookingId;
 
@@ -48,6 +42,9 @@ public class Booking {
                 foreignKey = @ForeignKey(name = "fk_booking_load"))
     private Load load;
 
+    // PostgreSQL: bid and booking are partitioned by date, so neither the FK nor
+    // the unique constraint exists there (V3 migration) - one booking per bid
+    // comes from the PENDING -> ACCEPTED transition under the load lock
     @OneToOne
     @JoinColumn(name="bid_id", nullable=false, unique=true,
                 foreignKey = @ForeignKey(name = "fk_booking_bid"))
@@ -0,0 +1,71 @@
+package com.koustav.tms.entity;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A capacity change on a transporter's home shard whose booking on another
+ * shard hasn't been settled yet (HomeShardCapacity). Lives on the home
+ * shard, written in the same transaction as the change itself.
+ */
+@Entity
+@Table(name = "capacity_hold",
+       uniqueConstraints = @UniqueConstraint(name = "uk_capacity_hold_bid_kind", columnNames = {"bid_id", "hold_kind"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CapacityHold {
+
+    @Id
+    @GeneratedValue(strategy=GenerationType.UUID)
+    @Column(name="hold_id", nullable=false, updatable=false)
+    private UUID holdId;
+
+    // the booking it belongs to is found by bid id on the bid's shard
+    @Column(name="bid_id", nullable=false, updatable=false)
+    private UUID bidId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="hold_kind", nullable=false, updatable=false)
+    private CapacityHoldKind kind;
+
+    @Column(name="transporter_id", nullable=false, updatable=false)
+    private UUID transporterId;
+
+    @Column(name="truck_type", nullable=false, updatable=false)
+    private String truckType;
+
+    @Column(name="trucks", nullable=false, updatable=false)
+    private int trucks;
+
+    @Column(name="created_at", nullable=false, updatable=false)
+    private Timestamp createdAt;
+
+    @Column(name="expires_at", nullable=false, updatable=false)
+    private Timestamp expiresAt;
+
+    @PrePersist  // ← JPA lifecycle callback: runs before INSERT
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = new Timestamp(System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.koustav.tms.entity;
+
+public enum CapacityHoldKind {
+    DEBIT,   // trucks taken for a booking not yet settled
+    CREDIT   // trucks to give back once a cancellation commits
+}
@@ -0,0 +1,76 @@
+package com.koustav.tms.entity;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Remembers the outcome of a POST that carried an Idempotency-Key header,
+ * so a client retry is answered from here instead of re-running the booking/bid.
+ * Only a SHA-256 fingerprint of the request is kept, not the request itself.
+ */
+@Entity
+@Table(name = "idempotency_record")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy=GenerationType.UUID)
+    @Column(name="record_id", nullable=false, updatable=false)
+    private UUID recordId;
+
+    // unique constraint is what makes two concurrent first attempts race safely
+    @Column(name="idempotency_key", nullable=false, updatable=false, unique=true)
+    private String idempotencyKey;
+
+    @Column(name="request_fingerprint", nullable=false, updatable=false, length=64)
+    private String requestFingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="record_status", nullable=false)
+    private IdempotencyStatus status;
+
+    @Column(name="response_status")
+    private Integer responseStatus;
+
+    @Column(name="response_body", columnDefinition="text")
+    private String responseBody;
+
+    @Column(name="created_at", nullable=false, updatable=false)
+    private Timestamp createdAt;
+
+    @Column(name="expires_at", nullable=false)
+    private Timestamp expiresAt;
+
+    @PrePersist  // ← JPA lifecycle callback: runs before INSERT
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = new Timestamp(System.currentTimeMillis());
+        }
+        if (status == null) {
+            status = IdempotencyStatus.IN_PROGRESS;
+        }
+    }
+
+    public boolean isExpired(Timestamp now) {
+        return expiresAt.before(now);
+    }
+}
@@ -0,0 +1,6 @@
+package com.koustav.tms.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -5,15 +5,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import com.koustav.tms.shard.ShardedId;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -25,13 +24,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "load", indexes = {
-    @Index(name = "idx_load_shipper_id", columnList = "shipper_id"),
-    @Index(name = "idx_load_status", columnList = "status"),
-    @Index(name = "idx_load_date_posted", columnList = "date_posted DESC"),
-    @Index(name = "idx_load_composite_shipper_status", columnList = "shipper_id, status"),
-    @Index(name = "idx_load_loading_date", columnList = "loading_date")
-})
+// indexes live in the Flyway migrations (db/migration), not here
+@Table(name = "load")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,7 +34,7 @@ import lombok.Setter;
 public class Load {
 
     @Id  // ← Primary key
-    @GeneratedValue(strategy=GenerationType.UUID)  // ← Auto-generate UUID
+    @ShardedId  // ← shard-aware UUID (see ShardIds)
     @Column(name="load_id", updatable=false, nullable=false)
     private UUID loadId;
     
@@ -71,6 +65,12 @@ public class Load {
     
     @Column(name="no_of_trucks", nullable=false)
     private int noOfTrucks;
+
+    // SUM(allocated_trucks) of CONFIRMED bookings, kept in step by the booking/cancel paths.
+    // Changes go through save() so they are covered by @Version like any other load update.
+    @Column(name="allocated_trucks", nullable=false, columnDefinition="integer default 0")
+    @Builder.Default
+    private int allocatedTrucks = 0;
     
     @Enumerated(EnumType.STRING)
     @Column(name="status", nullable=false)
@@ -97,5 +97,37 @@ public class Load {
         }
     }
 
+    // Business Logics
+
+    /**
+     * how many more trucks does this load need? (O(1), no booking aggregate)
+     */
+    public int getRemainingTrucks() {
+        return noOfTrucks - allocatedTrucks;
+    }
+
+    /**
+     * Allocate trucks when a booking is confirmed
+     */
+    public void allocateTrucks(int count) {
+        if (count > getRemainingTrucks()) {
+            throw new IllegalStateException(
+                String.format("Load only needs %d more trucks, Required: %d", getRemainingTrucks(), count)
+            );
+        }
+        allocatedTrucks += count;
+    }
+
+    /**
+     * release trucks when a booking is cancelled
+     */
+    public void releaseTrucks(int count) {
+        if (count > allocatedTrucks) {
+            throw new IllegalStateException(
+                String.format("Can't release %d trucks, only %d allocated", count, allocatedTrucks)
+            );
+        }
+        allocatedTrucks -= count;
+    }
 
 }
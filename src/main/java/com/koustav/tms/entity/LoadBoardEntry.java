@@ -0,0 +1,92 @@
+package com.koustav.tms.entity;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One open load on the load board - a read model, never written from Java.
+ * The rows are maintained in the database (V5__load_board.sql, LoadBoardProjectionJob).
+ */
+@Entity
+@Immutable
+@Table(name = "load_board")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadBoardEntry {
+
+    @Id
+    @Column(name="load_id", nullable=false, updatable=false)
+    private UUID loadId;
+
+    @Column(name="shipper_id", nullable=false)
+    private String shipperId;
+
+    @Column(name="loading_city", nullable=false, length=100)
+    private String loadingCity;
+
+    @Column(name="unloading_city", nullable=false, length=100)
+    private String unloadingCity;
+
+    @Column(name="loading_date", nullable=false)
+    private Timestamp loadingDate;
+
+    @Column(name="product_type", nullable=false)
+    private String productType;
+
+    @Column(name="weight", nullable=false)
+    private double weight;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="weight_unit", nullable=false)
+    private WeightUnit weightUnit;
+
+    @Column(name="truck_type", nullable=false)
+    private String truckType;
+
+    @Column(name="no_of_trucks", nullable=false)
+    private int noOfTrucks;
+
+    @Column(name="remaining_trucks", nullable=false)
+    private int remainingTrucks;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="status", nullable=false)
+    private LoadStatus status;
+
+    @Column(name="date_posted", nullable=false)
+    private Timestamp datePosted;
+
+    @Column(name="pending_bids", nullable=false)
+    private int pendingBids;
+
+    // null while there are no PENDING bids
+    @Column(name="min_rate")
+    private Double minRate;
+
+    @Column(name="top_bid_id")
+    private UUID topBidId;
+
+    @Column(name="top_bid_transporter_id")
+    private UUID topBidTransporterId;
+
+    @Column(name="top_bid_rate")
+    private Double topBidRate;
+
+    @Column(name="top_bid_score")
+    private Double topBidScore;
+}
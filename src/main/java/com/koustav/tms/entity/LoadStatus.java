@@ -4,5 +4,20 @@ public enum LoadStatus {
     POSTED,
     OPEN_FOR_BIDS,
     BOOKED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED;
+
+    /**
+     * still accepting bids and bookings
+     */
+    public boolean isOpen() {
+        return this == POSTED || this == OPEN_FOR_BIDS;
+    }
+
+    /**
+     * closed for good - nothing moves the load out of it
+     */
+    public boolean isTerminal() {
+        return this == CANCELLED || this == EXPIRED;
+    }
 }
@@ -3,13 +3,12 @@ package com.koustav.tms.entity;
 import java.util.Map;
 import java.util.UUID;
 
+import com.koustav.tms.shard.ShardedId;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -18,10 +17,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "transporter", indexes = {
-    @Index(name = "idx_transporter_company_name", columnList = "company_name"),
-    @Index(name = "idx_transporter_rating", columnList = "rating DESC")
-})
+// indexes live in the Flyway migrations (db/migration), not here
+@Table(name = "transporter")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,7 +26,7 @@ import lombok.NoArgsConstructor;
 public class Transporter {
     
     @Id
-    @GeneratedValue(strategy=GenerationType.AUTO)
+    @ShardedId  // same id on every shard (copies keep it)
     @Column(name="transporter_id", updatable=false, nullable=false)
     private UUID transporterId;
 
@@ -58,6 +55,19 @@ public class Transporter {
         return trucksOffered > 0 && trucksOffered <= trucksAvailable;
     }
 
+    /**
+     * bidding stays optimistic, but bounded: trucks already offered in PENDING
+     * bids plus this offer may not exceed overcommitRatio x available trucks.
+     * a ratio <= 0 switches the limit off
+     */
+    public boolean withinOvercommit(String truckType, long pendingTrucks, int trucksOffered, double overcommitRatio) {
+        if (overcommitRatio <= 0) {
+            return true;
+        }
+        int trucksAvailable = availableTrucks.getOrDefault(truckType, 0);
+        return pendingTrucks + trucksOffered <= overcommitRatio * trucksAvailable;
+    }
+
     /**
      * Deduct trucks when Booking is confired
      */
@@ -0,0 +1,20 @@
+package com.koustav.tms.event;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * PENDING bids rejected because their transporter no longer has the trucks they offer
+ */
+@Data
+@AllArgsConstructor
+public class BidsWithdrawnEvent {
+
+    private UUID transporterId;
+    private String truckType;
+    private int availableTrucks;
+    private List<UUID> bidIds;
+}
@@ -0,0 +1,143 @@
+package com.koustav.tms.event;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.service.HomeShardCapacity;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Rejects a transporter's PENDING bids that its lowered capacity can no longer cover.
+ *
+ * PROBLEM:
+ * After a booking (or a lower updateTrucks) the transporter's other bids
+ * that need more trucks than remain can never be accepted. Without this they
+ * are found one failed accept (and one 409) at a time.
+ *
+ * FLOW:
+ * 1. the writing transaction publishes TransporterCapacityReducedEvent
+ * 2. after it commits, this listener runs on the async executor - the
+ *    request thread and its connection are not held up
+ * 3. per truck type: claim the infeasible bids (FOR UPDATE SKIP LOCKED),
+ *    reject them in one UPDATE, publish BidsWithdrawnEvent with their ids -
+ *    on every shard, the capacity is the transporter's (HomeShardCapacity)
+ *    and its bids sit on the shards of their loads
+ *
+ * The event only says which truck types went down. Feasibility is judged
+ * against the current count - joined in the locking query on the home
+ * shard, read from the home shard just before it elsewhere - so trucks
+ * credited back since the event (a cancellation) keep their bids alive.
+ * A bid is infeasible only when the count can't cover even a partial
+ * accept: LEAST(trucks offered, trucks its load still needs).
+ *
+ * Rolled back transactions publish nothing. Rows locked by an in-flight
+ * accept are skipped; that accept re-checks capacity itself.
+ *
+ * Metrics:
+ * - tms.bid.withdrawn (bids rejected for lack of capacity)
+ */
+@Component
+public class InfeasibleBidWithdrawalListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InfeasibleBidWithdrawalListener.class);
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private HomeShardCapacity homeCapacity;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.bid-withdrawal.enabled:true}")
+    private boolean enabled = true;
+
+    private Counter withdrawn;
+
+    @PostConstruct
+    void registerMetrics() {
+        withdrawn = Counter.builder("tms.bid.withdrawn")
+            .description("PENDING bids rejected because the transporter no longer has the trucks")
+            .register(meterRegistry);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCapacityReduced(TransporterCapacityReducedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.onEachShard(() -> {
+            for (String truckType : event.getAvailableTrucks().keySet()) {
+                withdraw(event.getTransporterId(), truckType);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * On the current shard
+     * @return ids of the bids rejected
+     */
+    public List<UUID> withdraw(UUID transporterId, String truckType) {
+        boolean home = homeCapacity.isHome(transporterId);
+        // before this shard's transaction: a read on another shard can't join it
+        int homeAvailable = home ? 0 : homeCapacity.availableTrucks(transporterId, truckType);
+
+        Withdrawal withdrawal = transactionTemplate.execute(status -> {
+            List<UUID> infeasible = home
+                ? bidRepository.lockPendingIdsInfeasible(transporterId, truckType)
+                : bidRepository.lockPendingIdsExceeding(transporterId, truckType, homeAvailable);
+            if (infeasible.isEmpty()) {
+                return new Withdrawal(infeasible, homeAvailable);
+            }
+            bidRepository.updateStatusByIds(infeasible, BidStatus.PENDING, BidStatus.REJECTED);
+            Integer available = home ? transporterRepository.findAvailableTrucks(transporterId, truckType) : null;
+            return new Withdrawal(infeasible, available != null ? available : homeAvailable);
+        });
+
+        List<UUID> bidIds = withdrawal.bidIds();
+        if (!bidIds.isEmpty()) {
+            withdrawn.increment(bidIds.size());
+            log.debug("Withdrew {} pending {} bids of transporter {} (now {} available)",
+                bidIds.size(), truckType, transporterId, withdrawal.availableTrucks());
+            eventPublisher.publishEvent(
+                new BidsWithdrawnEvent(transporterId, truckType, withdrawal.availableTrucks(), bidIds));
+        }
+        return bidIds;
+    }
+
+    private record Withdrawal(List<UUID> bidIds, int availableTrucks) {
+    }
+}
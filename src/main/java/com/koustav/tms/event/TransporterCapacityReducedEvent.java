@@ -0,0 +1,21 @@
+package com.koustav.tms.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A transaction lowered a transporter's available trucks.
+ * Published inside that transaction, handled after it commits.
+ */
+@Data
+@AllArgsConstructor
+public class TransporterCapacityReducedEvent {
+
+    private UUID transporterId;
+    // new availability of the truck types that went down, as of that transaction -
+    // InfeasibleBidWithdrawalListener re-reads the current count
+    private Map<String, Integer> availableTrucks;
+}
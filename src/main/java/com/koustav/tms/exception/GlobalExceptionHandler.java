@@ -114,6 +114,52 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
     
+    /**
+     * Handle 422 - Unprocessable Entity (Idempotency-Key reuse)
+     * 
+     * Catches: IdempotencyKeyMismatchException
+     * Returns: 422 UNPROCESSABLE ENTITY
+     * 
+     * When: Same Idempotency-Key sent with a different request body or endpoint
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex,
+            WebRequest request) {
+        
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.UNPROCESSABLE_ENTITY.value(),
+            ex.getMessage(),
+            extractPath(request),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
+    /**
+     * Handle 400 - Bad Request (Invalid Idempotency-Key)
+     * 
+     * Catches: InvalidIdempotencyKeyException
+     * Returns: 400 BAD REQUEST
+     * 
+     * When: Idempotency-Key header is blank or longer than a stored key can be
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(
+            InvalidIdempotencyKeyException ex,
+            WebRequest request) {
+        
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            ex.getMessage(),
+            extractPath(request),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
     /**
      * Handle 400 - Bad Request (Validation Errors)
      * 
@@ -0,0 +1,19 @@
+package com.koustav.tms.exception;
+
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Thrown when an Idempotency-Key is reused with a different request body
+     * (or on a different endpoint) than the one it was first used for.
+     *
+     * Usage:
+     * throw new IdempotencyKeyMismatchException("abc-123");
+     *
+     * Result message:
+     * "Idempotency-Key 'abc-123' was already used for a different request"
+     */
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super(String.format("Idempotency-Key '%s' was already used for a different request", idempotencyKey));
+    }
+}
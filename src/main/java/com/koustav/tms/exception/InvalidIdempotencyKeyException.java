@@ -0,0 +1,19 @@
+package com.koustav.tms.exception;
+
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    /**
+     * Thrown when an Idempotency-Key header can't be stored as a key:
+     * blank, or longer than the idempotency_record column allows.
+     *
+     * Usage:
+     * throw new InvalidIdempotencyKeyException("must be at most 255 characters");
+     *
+     * Result message:
+     * "Invalid Idempotency-Key: must be at most 255 characters"
+     */
+    public InvalidIdempotencyKeyException(String reason) {
+        super("Invalid Idempotency-Key: " + reason);
+    }
+}
@@ -0,0 +1,35 @@
+package com.koustav.tms.mapper;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.entity.LoadBoardEntry;
+
+public class LoadBoardMapper {
+
+    private LoadBoardMapper() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static LoadBoardEntryResponse toResponse(LoadBoardEntry entry) {
+        return LoadBoardEntryResponse.builder()
+            .loadId(entry.getLoadId())
+            .shipperId(entry.getShipperId())
+            .loadingCity(entry.getLoadingCity())
+            .unloadingCity(entry.getUnloadingCity())
+            .loadingDate(entry.getLoadingDate())
+            .productType(entry.getProductType())
+            .weight(entry.getWeight())
+            .weightUnit(entry.getWeightUnit())
+            .truckType(entry.getTruckType())
+            .noOfTrucks(entry.getNoOfTrucks())
+            .remainingTrucks(entry.getRemainingTrucks())
+            .status(entry.getStatus())
+            .datePosted(entry.getDatePosted())
+            .pendingBids(entry.getPendingBids())
+            .minRate(entry.getMinRate())
+            .topBidId(entry.getTopBidId())
+            .topBidTransporterId(entry.getTopBidTransporterId())
+            .topBidRate(entry.getTopBidRate())
+            .topBidScore(entry.getTopBidScore())
+            .build();
+    }
+}
@@ -3,23 +3,17 @@ package com.koustav.tms.mapper;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.koustav.tms.dto.response.BidResponse;
 import com.koustav.tms.dto.response.LoadDetailResponse;
 import com.koustav.tms.dto.response.LoadResponse;
 import com.koustav.tms.entity.Bid;
-import com.koustav.tms.entity.BookingStatus;
 import com.koustav.tms.entity.Load;
-import com.koustav.tms.repository.BookingRepository;
 
 @Component
 public class LoadMapper {
 
-    @Autowired
-    private BookingRepository bookingRepository;
-
     public LoadResponse toResponse(Load load) {
         return LoadResponse.builder()
             .loadId(load.getLoadId())
@@ -39,11 +33,6 @@ public class LoadMapper {
     }
 
     public LoadDetailResponse toDetailResponse(Load load, List<Bid> activeBids) {
-        // how many more trucks does this load need?
-        Integer allocatedSum = bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(
-            load.getLoadId(), BookingStatus.CONFIRMED);
-        int remainingTrucks = load.getNoOfTrucks() - (allocatedSum != null ? allocatedSum : 0);
-
         List<BidResponse> bidResponses = new ArrayList<>();
         for (Bid b : activeBids) {
             bidResponses.add(BidMapper.toResponse(b));
@@ -57,7 +46,7 @@ public class LoadMapper {
             .productType(load.getProductType())
             .truckType(load.getTruckType())
             .noOfTrucks(load.getNoOfTrucks())
-            .remainingTrucks(remainingTrucks)
+            .remainingTrucks(load.getRemainingTrucks())
             .weight(load.getWeight())
             .weightUnit(load.getWeightUnit())
             .loadingDate(load.getLoadingDate())
@@ -1,5 +1,7 @@
 package com.koustav.tms.mapper;
 
+import java.util.Map;
+
 import com.koustav.tms.dto.response.TransporterResponse;
 import com.koustav.tms.entity.Transporter;
 
@@ -10,11 +12,16 @@ public class TransporterMapper {
     }
 
     public static TransporterResponse toResponse(Transporter transporter) {
+        return toResponse(transporter, Map.of());
+    }
+
+    public static TransporterResponse toResponse(Transporter transporter, Map<String, Integer> pendingExposure) {
         return TransporterResponse.builder()
             .transporterId(transporter.getTransporterId())
             .companyName(transporter.getCompanyName())
             .rating(transporter.getRating())
             .availableTrucks(transporter.getAvailableTrucks())
+            .pendingExposure(pendingExposure)
             .build();
     }
 }
@@ -5,11 +5,17 @@ import com.koustav.tms.entity.BidStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -52,6 +58,28 @@ public interface BidRepository extends JpaRepository<Bid, UUID> {
         @Param("status") BidStatus status,
         Pageable pageable
     );
+
+    /**
+     * API: GET /bid?...&submittedFrom=&submittedTo=
+     *
+     * Same filters within [from, to). bid is partitioned by month on
+     * date_submitted; the range is a plain comparison (no "IS NULL OR") so the
+     * planner - or the executor, for a cached generic plan - only scans the
+     * months it covers. Callers fill an open end with a far-away bound.
+     */
+    @Query("SELECT b FROM Bid b WHERE " +
+           "b.dateSubmitted >= :from AND b.dateSubmitted < :to AND " +
+           "(:loadId IS NULL OR b.load.loadId = :loadId) AND " +
+           "(:transporterId IS NULL OR b.transporter.transporterId = :transporterId) AND " +
+           "(:status IS NULL OR b.status = :status)")
+    Page<Bid> findByFiltersSubmittedBetween(
+        @Param("loadId") UUID loadId,
+        @Param("transporterId") UUID transporterId,
+        @Param("status") BidStatus status,
+        @Param("from") Timestamp from,
+        @Param("to") Timestamp to,
+        Pageable pageable
+    );
     
     // ========================================
     // METHOD 2: Get Bids for Best-Bids API
@@ -83,8 +111,15 @@ public interface BidRepository extends JpaRepository<Bid, UUID> {
      * 3. Calculate score = (1/rate)*0.7 + (rating/5)*0.3
      * 4. Sort by score DESC
      * 5. Return top results
+     *
+     * WHY 'PENDING' AS A LITERAL?
+     * Served by the partial index idx_bid_pending_load (WHERE bid_status = 'PENDING').
+     * The planner can only use a partial index when it can prove the predicate;
+     * with a bound :status a cached generic plan can't, so the status is spelled out.
      */
-    List<Bid> findByLoad_LoadIdAndStatus(UUID loadId, BidStatus status);
+    @Query("SELECT b FROM Bid b WHERE b.load.loadId = :loadId " +
+           "AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    List<Bid> findPendingByLoadId(@Param("loadId") UUID loadId);
     
     // ========================================
     // METHOD 3: Count Pending Bids
@@ -109,7 +144,7 @@ public interface BidRepository extends JpaRepository<Bid, UUID> {
      * - Load status = BOOKED
      * 
      * Then B1 and B2 are cancelled:
-     * - Check: countByLoad_LoadIdAndStatus(loadId, PENDING)
+     * - Check: countPendingByLoadId(loadId)
      * - If count > 0 → There are still interested transporters → OPEN_FOR_BIDS
      * - If count = 0 → No interest → POSTED
      * 
@@ -117,6 +152,415 @@ public interface BidRepository extends JpaRepository<Bid, UUID> {
      * - More efficient - doesn't load bid objects into memory
      * - We only care about existence (count > 0), not the actual bids
      * - Database can optimize COUNT queries better
+     * - Index-only scan on idx_bid_pending_load (literal status, see METHOD 2)
+     */
+    @Query("SELECT COUNT(b) FROM Bid b WHERE b.load.loadId = :loadId " +
+           "AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    long countPendingByLoadId(@Param("loadId") UUID loadId);
+
+    // ========================================
+    // METHOD 4: Transporters with Pending Bids
+    // ========================================
+
+    /**
+     * Used internally by: BookingService.autoBook()
+     *
+     * RATIONALE:
+     * Auto-booking must lock the transporters BEFORE their bids (and with them
+     * the transporter entities) are loaded, otherwise the persistence context
+     * would hold capacity read before the lock was taken.
+     * Only the ids are needed for that, not the bids.
+     */
+    @Query("SELECT DISTINCT b.transporter.transporterId FROM Bid b " +
+           "WHERE b.load.loadId = :loadId AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    List<UUID> findPendingTransporterIdsByLoadId(@Param("loadId") UUID loadId);
+
+    /**
+     * Used by: BookingService.acceptBidsForLoad(), BookingService.acceptBid()
+     * Same as above for an explicit set of bids (one BookingSequencer batch, or one accept).
+     */
+    @Query("SELECT DISTINCT b.transporter.transporterId FROM Bid b WHERE b.bidId IN :bidIds")
+    List<UUID> findTransporterIdsByBidIds(@Param("bidIds") Collection<UUID> bidIds);
+
+    /**
+     * Used by: BookingSequencer - picks the mailbox before any transaction is opened,
+     *          BookingService.acceptBid() - finds the load row to lock first
+     */
+    @Query("SELECT b.load.loadId FROM Bid b WHERE b.bidId = :bidId")
+    Optional<UUID> findLoadIdByBidId(@Param("bidId") UUID bidId);
+
+    /**
+     * Used by: BatchBookingService - groups a batch by load before any lock is taken
+     */
+    @Query("SELECT b.bidId AS bidId, b.load.loadId AS loadId FROM Bid b WHERE b.bidId IN :bidIds")
+    List<BidLoad> findLoadIdsByBidIds(@Param("bidIds") Collection<UUID> bidIds);
+
+    interface BidLoad {
+        UUID getBidId();
+        UUID getLoadId();
+    }
+
+    /**
+     * Used by: BookingService before a booking transaction opens (sharded only)
+     *
+     * What each bid would take from its transporter's capacity, so
+     * HomeShardCapacity can hold it on the transporter's home shard first.
+     * A plain read without locks: the booking transaction re-checks every
+     * bid under its own locks, and a hold it doesn't use is settled back.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.bidId AS bidId, b.transporter.transporterId AS transporterId, " +
+           "b.load.truckType AS truckType, b.trucksOffered AS trucks FROM Bid b " +
+           "WHERE b.bidId IN :bidIds AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    List<CapacityNeed> findPendingCapacityNeeds(@Param("bidIds") Collection<UUID> bidIds);
+
+    /**
+     * Same as above for autoBook: every PENDING bid of the load that still fits it
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.bidId AS bidId, b.transporter.transporterId AS transporterId, " +
+           "b.load.truckType AS truckType, b.trucksOffered AS trucks FROM Bid b " +
+           "WHERE b.load.loadId = :loadId AND b.status = com.koustav.tms.entity.BidStatus.PENDING " +
+           "AND b.trucksOffered <= b.load.noOfTrucks - b.load.allocatedTrucks")
+    List<CapacityNeed> findPendingCapacityNeedsByLoadId(@Param("loadId") UUID loadId);
+
+    interface CapacityNeed {
+        UUID getBidId();
+        UUID getTransporterId();
+        String getTruckType();
+        Integer getTrucks();
+    }
+
+    // ========================================
+    // METHOD 4b: Pending Exposure per Transporter
+    // ========================================
+
+    /**
+     * Used by: BidService.submitBid() (over-commit limit)
+     *
+     * Trucks a transporter has already offered in PENDING bids for one truck type.
+     * Computed, not stored: every transition out of PENDING (accept, reject,
+     * expiry, the bulk rejections) would otherwise have to keep a counter in step.
+     *
+     * PERFORMANCE:
+     * - idx_bid_pending_transporter holds only PENDING bids, so this reads
+     *   the transporter's open bids and nothing else (literal status, see METHOD 2)
+     */
+    @Query("SELECT COALESCE(SUM(b.trucksOffered), 0) FROM Bid b " +
+           "WHERE b.transporter.transporterId = :transporterId AND b.load.truckType = :truckType " +
+           "AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    long sumPendingTrucksOffered(
+        @Param("transporterId") UUID transporterId,
+        @Param("truckType") String truckType
+    );
+
+    /**
+     * Used by: TransporterService (pendingExposure on TransporterResponse)
+     * Same figure for every truck type in one query.
+     */
+    @Query("SELECT b.load.truckType AS truckType, SUM(b.trucksOffered) AS trucksOffered FROM Bid b " +
+           "WHERE b.transporter.transporterId = :transporterId " +
+           "AND b.status = com.koustav.tms.entity.BidStatus.PENDING " +
+           "GROUP BY b.load.truckType")
+    List<PendingExposure> findPendingExposureByTransporterId(@Param("transporterId") UUID transporterId);
+
+    interface PendingExposure {
+        String getTruckType();
+        Long getTrucksOffered();
+    }
+
+    /**
+     * Used by: InfeasibleBidWithdrawalListener (on the transporter's home shard)
+     *
+     * PENDING bids of a transporter for one truck type that its current
+     * available_trucks can't cover even partly - none of them can ever be
+     * accepted. A bid needs LEAST(trucks offered, trucks the load still
+     * needs): with allowPartial an accept books just the remainder.
+     * The transporter row is joined, so the count is the one committed when
+     * this statement runs, not the one carried by the event.
+     * Row-locked so the ids returned are exactly the ones the following
+     * UPDATE rejects; bids locked by an in-flight accept are skipped.
+     */
+    @Query(value = "SELECT b.bid_id FROM bid b JOIN load l ON l.load_id = b.load_id " +
+                   "JOIN transporter t ON t.transporter_id = b.transporter_id " +
+                   "WHERE b.transporter_id = :transporterId AND b.bid_status = 'PENDING' " +
+                   "AND l.truck_type = :truckType " +
+                   "AND COALESCE(CAST(t.available_trucks ->> l.truck_type AS integer), 0) " +
+                   "< LEAST(b.trucks_offered, l.no_of_trucks - l.allocated_trucks) " +
+                   "FOR UPDATE OF b SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockPendingIdsInfeasible(
+        @Param("transporterId") UUID transporterId,
+        @Param("truckType") String truckType
+    );
+
+    /**
+     * Used by: InfeasibleBidWithdrawalListener (on the other shards)
+     *
+     * Same as lockPendingIdsInfeasible, against a count read from the home
+     * shard just before - the transporter copy on this shard isn't its
+     * capacity (HomeShardCapacity).
+     */
+    @Query(value = "SELECT b.bid_id FROM bid b JOIN load l ON l.load_id = b.load_id " +
+                   "WHERE b.transporter_id = :transporterId AND b.bid_status = 'PENDING' " +
+                   "AND l.truck_type = :truckType " +
+                   "AND :availableTrucks < LEAST(b.trucks_offered, l.no_of_trucks - l.allocated_trucks) " +
+                   "FOR UPDATE OF b SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockPendingIdsExceeding(
+        @Param("transporterId") UUID transporterId,
+        @Param("truckType") String truckType,
+        @Param("availableTrucks") int availableTrucks
+    );
+
+    // ========================================
+    // METHOD 5: Bid Expiry (AuctionExpiryJob)
+    // ========================================
+
+    /**
+     * Used by: AuctionExpiryJob
+     *
+     * RATIONALE:
+     * Claims one bounded batch of stale PENDING bids and row-locks them.
+     * SKIP LOCKED lets several nodes run the job at once - each node claims
+     * a disjoint batch instead of queueing behind the others' row locks.
+     * Oldest first, so lag is burned down in order.
+     */
+    @Query(value = "SELECT bid_id FROM bid " +
+                   "WHERE bid_status = 'PENDING' AND date_submitted < :cutoff " +
+                   "ORDER BY date_submitted LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockStalePendingBidIds(@Param("cutoff") Timestamp cutoff, @Param("limit") int limit);
+
+    /**
+     * Set-based status change for a batch of bids.
+     * The "status = :from" guard makes it a no-op for bids already decided elsewhere.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bid b SET b.status = :to WHERE b.bidId IN :bidIds AND b.status = :from")
+    int updateStatusByIds(
+        @Param("bidIds") Collection<UUID> bidIds,
+        @Param("from") BidStatus from,
+        @Param("to") BidStatus to
+    );
+
+    /**
+     * Same as above, for every bid of the given loads (loads being closed)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bid b SET b.status = :to WHERE b.load.loadId IN :loadIds AND b.status = :from")
+    int updateStatusByLoadIds(
+        @Param("loadIds") Collection<UUID> loadIds,
+        @Param("from") BidStatus from,
+        @Param("to") BidStatus to
+    );
+
+    /**
+     * Used by: StatusTransitionService
+     * Compare-and-set status change of one bid: 1 row = moved, 0 rows = not in :from (or missing)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bid b SET b.status = :to WHERE b.bidId = :bidId AND b.status IN :from")
+    int compareAndSetStatus(
+        @Param("bidId") UUID bidId,
+        @Param("from") Collection<BidStatus> from,
+        @Param("to") BidStatus to
+    );
+
+    @Query("SELECT b.status FROM Bid b WHERE b.bidId = :bidId")
+    Optional<BidStatus> findStatusById(@Param("bidId") UUID bidId);
+
+    /**
+     * Used by: LoadService.cancelLoad(), LoadService.rejectPendingBids(),
+     *          BookingService.acceptBid() / autoBook() once the load is BOOKED
+     *
+     * RATIONALE:
+     * Once a load is cancelled or full, none of its PENDING bids can ever be
+     * accepted. Leaving them PENDING keeps them in the pending partial indexes
+     * and in every transporter's "my pending bids" list.
+     * One UPDATE for the whole load instead of loading and saving each bid.
+     *
+     * flushAutomatically: the caller's own bid change (e.g. ACCEPTED) is
+     * written first, so the winning bid is no longer PENDING when this runs.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bid b SET b.status = com.koustav.tms.entity.BidStatus.REJECTED " +
+           "WHERE b.load.loadId = :loadId AND b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    int rejectPendingByLoadId(@Param("loadId") UUID loadId);
+
+    /**
+     * Used by: BookingService.autoBook(), which reports the bids it rejected
+     *
+     * Same rejections as updateStatusByIds(ids, PENDING, REJECTED) and
+     * rejectPendingByLoadId, returning the ids the UPDATE actually changed:
+     * a bid withdrawn or expired since it was read is left alone and not
+     * reported. No @Modifying - RETURNING makes it a query; native SQL
+     * flushes the persistence context first.
+     */
+    @Query(value = "UPDATE bid SET bid_status = 'REJECTED' " +
+                   "WHERE bid_id IN (:bidIds) AND bid_status = 'PENDING' RETURNING bid_id",
+           nativeQuery = true)
+    List<UUID> rejectPendingByIdsReturningIds(@Param("bidIds") Collection<UUID> bidIds);
+
+    @Query(value = "UPDATE bid SET bid_status = 'REJECTED' " +
+                   "WHERE load_id = :loadId AND bid_status = 'PENDING' RETURNING bid_id",
+           nativeQuery = true)
+    List<UUID> rejectPendingByLoadIdReturningIds(@Param("loadId") UUID loadId);
+
+    /**
+     * Oldest PENDING bid - feeds the expiry lag gauge.
+     * First entry of idx_bid_pending_date_submitted.
+     */
+    @Query("SELECT MIN(b.dateSubmitted) FROM Bid b WHERE b.status = com.koustav.tms.entity.BidStatus.PENDING")
+    Timestamp findOldestPendingDateSubmitted();
+
+    // ========================================
+    // METHOD 5b: Retention (RetentionPurgeJob)
+    // ========================================
+
+    /**
+     * Next chunk of bids in :status submitted before :cutoff, in
+     * (date_submitted, bid_id) order after the previous chunk's last key
+     * (keyset, see LoadRepository.lockCancelledLoadKeysAfter).
+     * The date range prunes to the months before the cutoff.
+     */
+    @Query(value = "SELECT bid_id AS \"bidId\", date_submitted AS \"dateSubmitted\" FROM bid " +
+                   "WHERE bid_status = :status AND date_submitted < :cutoff " +
+                   "AND (date_submitted, bid_id) > (:afterDate, :afterId) " +
+                   "ORDER BY date_submitted, bid_id LIMIT :limit",
+           nativeQuery = true)
+    List<BidKey> findBidKeysAfter(
+        @Param("status") String status,
+        @Param("cutoff") Timestamp cutoff,
+        @Param("afterDate") Timestamp afterDate,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Deletes one chunk. The date bounds of the chunk let the planner skip
+     * every other month; the status guard keeps a bid that changed since the
+     * chunk was read.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM bid WHERE bid_id IN (:bidIds) AND bid_status = :status " +
+                   "AND date_submitted BETWEEN :firstDate AND :lastDate",
+           nativeQuery = true)
+    int deleteByIdsInStatus(
+        @Param("bidIds") Collection<UUID> bidIds,
+        @Param("status") String status,
+        @Param("firstDate") Timestamp firstDate,
+        @Param("lastDate") Timestamp lastDate
+    );
+
+    /**
+     * Used by: RetentionPurgeJob, before the loads themselves are deleted.
+     * The loads have no bookings left but CANCELLED ones (deleted just
+     * before), so nothing live references these bids.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM bid WHERE load_id IN (:loadIds)", nativeQuery = true)
+    int deleteByLoadIds(@Param("loadIds") Collection<UUID> loadIds);
+
+    interface BidKey {
+        UUID getBidId();
+        Timestamp getDateSubmitted();
+    }
+
+    // ========================================
+    // METHOD 5c: Archiving (HistoryArchiveJob)
+    // ========================================
+
+    /**
+     * Next chunk of decided bids submitted before :cutoff, with their load's
+     * lane, in (date_submitted, bid_id) keyset order:
+     * - REJECTED / EXPIRED
+     * - ACCEPTED once their booking is gone (archived itself, or purged)
+     *
+     * SKIP LOCKED: a bid another transaction holds is picked up next run.
+     */
+    @Query(value = "SELECT b.bid_id AS \"id\", b.load_id AS \"loadId\", b.bid_id AS \"bidId\", " +
+                   "b.transporter_id AS \"transporterId\", l.loading_city AS \"loadingCity\", " +
+                   "l.unloading_city AS \"unloadingCity\", l.truck_type AS \"truckType\", " +
+                   "b.bid_status AS \"status\", b.trucks_offered AS \"trucks\", " +
+                   "b.proposed_rate AS \"rate\", b.date_submitted AS \"at\" " +
+                   "FROM bid b JOIN load l ON l.load_id = b.load_id " +
+                   "WHERE b.date_submitted < :cutoff " +
+                   "AND (b.bid_status IN ('REJECTED', 'EXPIRED') OR (b.bid_status = 'ACCEPTED' " +
+                   "AND NOT EXISTS (SELECT 1 FROM booking k WHERE k.bid_id = b.bid_id))) " +
+                   "AND (b.date_submitted, b.bid_id) > (:afterDate, :afterId) " +
+                   "ORDER BY b.date_submitted, b.bid_id LIMIT :limit " +
+                   "FOR UPDATE OF b SKIP LOCKED",
+           nativeQuery = true)
+    List<ArchiveRow> lockArchivableBids(
+        @Param("cutoff") Timestamp cutoff,
+        @Param("afterDate") Timestamp afterDate,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Deletes a chunk written to the archive; the date bounds prune to its months.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM bid WHERE bid_id IN (:bidIds) " +
+                   "AND date_submitted BETWEEN :firstDate AND :lastDate",
+           nativeQuery = true)
+    int deleteArchivedBids(
+        @Param("bidIds") Collection<UUID> bidIds,
+        @Param("firstDate") Timestamp firstDate,
+        @Param("lastDate") Timestamp lastDate
+    );
+
+    /**
+     * A bid or booking as it goes into the archive (see ArchiveRecord).
+     * Also returned by BookingRepository.lockArchivableBookings.
+     */
+    interface ArchiveRow {
+        UUID getId();
+        UUID getLoadId();
+        UUID getBidId();
+        UUID getTransporterId();
+        String getLoadingCity();
+        String getUnloadingCity();
+        String getTruckType();
+        String getStatus();
+        Integer getTrucks();
+        Double getRate();
+        Timestamp getAt();
+    }
+
+    // ========================================
+    // METHOD 6: Partition Maintenance
+    // ========================================
+
+    /**
+     * Used by: PartitionMaintenanceJob
+     *
+     * Creates the missing monthly partitions of bid from the current month up
+     * to monthsAhead months ahead (tms_ensure_month_partitions, V3 migration).
+     * @Transactional: query methods default to read-only, this one runs DDL.
+     *
+     * @return number of partitions created
+     */
+    @Transactional
+    @Query(value = "SELECT tms_ensure_month_partitions('bid', CURRENT_DATE, :monthsAhead)", nativeQuery = true)
+    int ensureMonthPartitions(@Param("monthsAhead") int monthsAhead);
+
+    /**
+     * Used by: PartitionMaintenanceJob (retention)
+     * Detaches - and with drop=true drops - every month of bid ending on or before :before.
+     *
+     * @return number of partitions removed
+     */
+    @Transactional
+    @Query(value = "SELECT tms_detach_month_partitions('bid', :before, :drop)", nativeQuery = true)
+    int detachMonthPartitionsBefore(@Param("before") LocalDate before, @Param("drop") boolean drop);
+
+    /**
+     * Rows that fell into bid_default - no monthly partition covered them.
+     * Anything here blocks creating that month's partition, so it is alerted on.
      */
-    long countByLoad_LoadIdAndStatus(UUID loadId, BidStatus status);
-}
\ No newline at end of file
+    @Query(value = "SELECT COUNT(*) FROM bid_default", nativeQuery = true)
+    long countInDefaultPartition();
+}
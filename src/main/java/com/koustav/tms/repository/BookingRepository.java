@@ -1,13 +1,22 @@
 package com.koustav.tms.repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.koustav.tms.entity.Booking;
 import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.repository.BidRepository.ArchiveRow;
+import com.koustav.tms.repository.BidRepository.CapacityNeed;
 
 public interface BookingRepository extends JpaRepository<Booking, UUID>{
     
@@ -24,4 +33,159 @@ public interface BookingRepository extends JpaRepository<Booking, UUID>{
         @Param("loadId") UUID loadId,
         @Param("status") BookingStatus status
     );
+
+    /**
+     * Used by: StatusTransitionService
+     * Compare-and-set status change of one booking: 1 row = moved, 0 rows = not in :from (or missing)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to WHERE b.bookingId = :bookingId AND b.status IN :from")
+    int compareAndSetStatus(
+        @Param("bookingId") UUID bookingId,
+        @Param("from") Collection<BookingStatus> from,
+        @Param("to") BookingStatus to
+    );
+
+    @Query("SELECT b.status FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<BookingStatus> findStatusById(@Param("bookingId") UUID bookingId);
+
+    /**
+     * Used by: BookingService.cancelBooking() before its transaction opens (sharded only) -
+     * the trucks a cancellation gives back, for HomeShardCapacity to record first
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.bid.bidId AS bidId, b.transporter.transporterId AS transporterId, " +
+           "b.load.truckType AS truckType, b.allocatedTrucks AS trucks FROM Booking b " +
+           "WHERE b.bookingId = :bookingId AND b.status = com.koustav.tms.entity.BookingStatus.CONFIRMED")
+    Optional<CapacityNeed> findConfirmedCapacityNeedById(@Param("bookingId") UUID bookingId);
+
+    /**
+     * Used by: HomeShardCapacity settling a hold - what became of its bid
+     * (no row: the booking transaction rolled back or never ran)
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.allocatedTrucks AS allocatedTrucks, b.status AS status FROM Booking b " +
+           "WHERE b.bid.bidId = :bidId")
+    Optional<BookedTrucks> findBookedTrucksByBidId(@Param("bidId") UUID bidId);
+
+    interface BookedTrucks {
+        Integer getAllocatedTrucks();
+        BookingStatus getStatus();
+    }
+
+    /**
+     * Used by: ProcedureBookingService (tms.booking.engine=procedure)
+     *
+     * The whole accept - locks, checks, booking insert, status and counter
+     * updates - in one round trip. See db/migration/R__tms_accept_bid.sql.
+     * bookingId is made by the caller (ShardIds) - the function inserts it as is.
+     * Aliases are quoted so Postgres keeps their case for the projection.
+     */
+    @Query(value = "SELECT outcome AS \"outcome\", detail AS \"detail\", booking_id AS \"bookingId\", " +
+                   "load_id AS \"loadId\", transporter_id AS \"transporterId\", " +
+                   "transporter_name AS \"transporterName\", allocated_trucks AS \"allocatedTrucks\", " +
+                   "final_rate AS \"finalRate\", booked_at AS \"bookedAt\", truck_type AS \"truckType\", " +
+                   "trucks_left AS \"trucksLeft\" " +
+                   "FROM tms_accept_bid(:bidId, :allowPartial, :bookingId)",
+           nativeQuery = true)
+    AcceptBidResult acceptBidInDatabase(@Param("bidId") UUID bidId, @Param("allowPartial") boolean allowPartial,
+                                        @Param("bookingId") UUID bookingId);
+
+    interface AcceptBidResult {
+        String getOutcome();
+        String getDetail();
+        UUID getBookingId();
+        UUID getLoadId();
+        UUID getTransporterId();
+        String getTransporterName();
+        Integer getAllocatedTrucks();
+        Double getFinalRate();
+        Timestamp getBookedAt();
+        String getTruckType();
+        Integer getTrucksLeft();
+    }
+
+    /**
+     * Used by: LoadRecommendationService - the transporter's bookings per lane
+     * since :since (cancelled ones don't count). idx_booking_transporter_id,
+     * and only the partitions after :since are read.
+     */
+    @Query(value = "SELECT l.loading_city AS \"loadingCity\", l.unloading_city AS \"unloadingCity\", " +
+                   "COUNT(*) AS \"bookings\" " +
+                   "FROM booking k JOIN load l ON l.load_id = k.load_id " +
+                   "WHERE k.transporter_id = :transporterId AND k.booked_at >= :since " +
+                   "AND k.booking_status <> 'CANCELLED' " +
+                   "GROUP BY l.loading_city, l.unloading_city",
+           nativeQuery = true)
+    List<LaneBookings> findLaneBookings(
+        @Param("transporterId") UUID transporterId,
+        @Param("since") Timestamp since
+    );
+
+    interface LaneBookings {
+        String getLoadingCity();
+        String getUnloadingCity();
+        Long getBookings();
+    }
+
+    /**
+     * Used by: RetentionPurgeJob, before purged loads are deleted.
+     * Only CANCELLED bookings - a load cancelled while partly booked keeps
+     * its live ones, and LoadRepository.lockCancelledLoadKeysAfter never
+     * hands out such a load.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM booking WHERE load_id IN (:loadIds) AND booking_status = 'CANCELLED'",
+           nativeQuery = true)
+    int deleteCancelledByLoadIds(@Param("loadIds") Collection<UUID> loadIds);
+
+    /**
+     * Used by: HistoryArchiveJob - next chunk of COMPLETED / CANCELLED bookings
+     * booked before :cutoff, in (booked_at, booking_id) keyset order
+     * (see BidRepository.lockArchivableBids)
+     */
+    @Query(value = "SELECT k.booking_id AS \"id\", k.load_id AS \"loadId\", k.bid_id AS \"bidId\", " +
+                   "k.transporter_id AS \"transporterId\", l.loading_city AS \"loadingCity\", " +
+                   "l.unloading_city AS \"unloadingCity\", l.truck_type AS \"truckType\", " +
+                   "k.booking_status AS \"status\", k.allocated_trucks AS \"trucks\", " +
+                   "k.final_rate AS \"rate\", k.booked_at AS \"at\" " +
+                   "FROM booking k JOIN load l ON l.load_id = k.load_id " +
+                   "WHERE k.booked_at < :cutoff AND k.booking_status IN ('COMPLETED', 'CANCELLED') " +
+                   "AND (k.booked_at, k.booking_id) > (:afterDate, :afterId) " +
+                   "ORDER BY k.booked_at, k.booking_id LIMIT :limit " +
+                   "FOR UPDATE OF k SKIP LOCKED",
+           nativeQuery = true)
+    List<ArchiveRow> lockArchivableBookings(
+        @Param("cutoff") Timestamp cutoff,
+        @Param("afterDate") Timestamp afterDate,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM booking WHERE booking_id IN (:bookingIds) " +
+                   "AND booked_at BETWEEN :firstDate AND :lastDate",
+           nativeQuery = true)
+    int deleteArchivedBookings(
+        @Param("bookingIds") Collection<UUID> bookingIds,
+        @Param("firstDate") Timestamp firstDate,
+        @Param("lastDate") Timestamp lastDate
+    );
+
+    /**
+     * Used by: PartitionMaintenanceJob - same as BidRepository.ensureMonthPartitions for booking
+     */
+    @Transactional
+    @Query(value = "SELECT tms_ensure_month_partitions('booking', CURRENT_DATE, :monthsAhead)", nativeQuery = true)
+    int ensureMonthPartitions(@Param("monthsAhead") int monthsAhead);
+
+    /**
+     * Used by: PartitionMaintenanceJob (retention) - see BidRepository.detachMonthPartitionsBefore
+     */
+    @Transactional
+    @Query(value = "SELECT tms_detach_month_partitions('booking', :before, :drop)", nativeQuery = true)
+    int detachMonthPartitionsBefore(@Param("before") LocalDate before, @Param("drop") boolean drop);
+
+    @Query(value = "SELECT COUNT(*) FROM booking_default", nativeQuery = true)
+    long countInDefaultPartition();
 }
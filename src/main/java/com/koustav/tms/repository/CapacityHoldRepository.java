@@ -0,0 +1,36 @@
+package com.koustav.tms.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.entity.CapacityHold;
+
+@Repository
+public interface CapacityHoldRepository extends JpaRepository<CapacityHold, UUID> {
+
+    /**
+     * Used by: HomeShardCapacity, in the transaction that credits what the
+     * hold no longer covers. Of two nodes settling the same hold (the request
+     * and CapacityHoldResolutionJob) only the one that deletes the row credits.
+     */
+    @Modifying
+    @Query("DELETE FROM CapacityHold h WHERE h.holdId = :holdId")
+    int deleteByHoldId(@Param("holdId") UUID holdId);
+
+    /**
+     * Used by: CapacityHoldResolutionJob - holds whose request died before
+     * settling them. Served by idx_capacity_hold_expires_at.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT * FROM capacity_hold WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+           nativeQuery = true)
+    List<CapacityHold> findExpired(@Param("now") Timestamp now, @Param("limit") int limit);
+}
@@ -0,0 +1,71 @@
+package com.koustav.tms.repository;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Used by: IdempotencyService when the wrapped call fails
+     *
+     * Failed calls are not remembered - releasing the key lets the client
+     * retry the same request instead of being stuck behind an IN_PROGRESS row.
+     * Only the caller's own claim: if its lease ran out and a retry took the
+     * key over, the retry's claim stays.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordId = :recordId " +
+           "AND r.status = com.koustav.tms.entity.IdempotencyStatus.IN_PROGRESS")
+    int deleteClaim(@Param("recordId") UUID recordId);
+
+    /**
+     * Used by: IdempotencyService once the wrapped call has committed
+     *
+     * Stores the response on the caller's own claim in one statement.
+     * 0 rows = the claim is gone: its lease ran out and a retry took the
+     * key over (that retry's outcome is the one kept).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.koustav.tms.entity.IdempotencyStatus.COMPLETED, " +
+           "r.responseStatus = :responseStatus, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+           "WHERE r.recordId = :recordId AND r.status = com.koustav.tms.entity.IdempotencyStatus.IN_PROGRESS")
+    int markCompleted(@Param("recordId") UUID recordId, @Param("responseStatus") int responseStatus,
+                      @Param("responseBody") String responseBody, @Param("expiresAt") Timestamp expiresAt);
+
+    /**
+     * Used by: IdempotencyService before claiming a key whose record expired -
+     * a COMPLETED record past its TTL, or an IN_PROGRESS one past its lease
+     * (the request that claimed it died or hangs).
+     *
+     * Conditional on expires_at, so of two retries racing to take a key over
+     * the second can't delete the fresh claim of the first.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteExpiredByIdempotencyKey(@Param("key") String key, @Param("now") Timestamp now);
+
+    /**
+     * Used by: IdempotencyService.purgeExpired() (scheduled)
+     * Single set-based delete, served by idx_idempotency_expires_at
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
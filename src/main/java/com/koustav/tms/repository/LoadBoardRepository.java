@@ -0,0 +1,56 @@
+package com.koustav.tms.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.entity.LoadBoardEntry;
+
+public interface LoadBoardRepository extends JpaRepository<LoadBoardEntry, UUID> {
+
+    /**
+     * Used by: LoadBoardService (GET /load-board)
+     * One keyset page, newest first: the rows after (afterPosted, afterId)
+     * in (date_posted DESC, load_id DESC) order - a range scan of
+     * idx_load_board_date_posted (or the truck type / city index), however deep the page.
+     */
+    @Query(value = "SELECT * FROM load_board " +
+                   "WHERE (CAST(:truckType AS varchar) IS NULL OR truck_type = :truckType) " +
+                   "AND (CAST(:loadingCity AS varchar) IS NULL OR loading_city = :loadingCity) " +
+                   "AND (date_posted, load_id) < (:afterPosted, :afterId) " +
+                   "ORDER BY date_posted DESC, load_id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<LoadBoardEntry> findPage(
+        @Param("truckType") String truckType,
+        @Param("loadingCity") String loadingCity,
+        @Param("afterPosted") Timestamp afterPosted,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Used by: LoadBoardProjectionJob - claims up to :limit outbox entries and
+     * refreshes their loads' board rows (see V5__load_board.sql, V6), and
+     * NOTIFYs :channel of each refreshed load in the same transaction (V7)
+     * @param channel null = no notifications
+     * @param node payload node of the notifications (CacheCoherence)
+     * @return one row per refreshed load; empty when the outbox was empty
+     */
+    @Transactional
+    @Query(value = "SELECT load_id AS \"loadId\", consumed AS \"consumed\" " +
+                   "FROM tms_project_load_board(:limit, CAST(:channel AS text), CAST(:node AS text))",
+           nativeQuery = true)
+    List<ProjectedLoad> projectPending(@Param("limit") int limit, @Param("channel") String channel,
+                                       @Param("node") String node);
+
+    interface ProjectedLoad {
+        UUID getLoadId();
+        // outbox entries the whole chunk consumed (same on every row)
+        Integer getConsumed();
+    }
+}
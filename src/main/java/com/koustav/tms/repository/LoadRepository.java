@@ -1,17 +1,26 @@
 package com.koustav.tms.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.koustav.tms.entity.BookingStatus;
 import com.koustav.tms.entity.Load;
 import com.koustav.tms.entity.LoadStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface LoadRepository extends JpaRepository<Load, UUID> {
 
@@ -34,5 +43,183 @@ public interface LoadRepository extends JpaRepository<Load, UUID> {
         @Param("status") LoadStatus status,
         Pageable pageable
     );
+
+    /**
+     * Used by: BookingService.autoBook()
+     * SELECT ... FOR UPDATE on the load row - always the FIRST lock taken,
+     * transporters are locked after it (see TransporterRepository.findAllByIdForUpdate)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Load l WHERE l.loadId = :loadId")
+    Optional<Load> findByIdForUpdate(@Param("loadId") UUID loadId);
+
+    /**
+     * Used by: BookingService.acceptBidsForLoads() (POST /booking/batch)
+     *
+     * Several loads locked in ONE statement, ordered by id - the same
+     * canonical order as TransporterRepository.findAllByIdForUpdate.
+     * Loads are always locked before transporters.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Load l WHERE l.loadId IN :loadIds ORDER BY l.loadId")
+    List<Load> findAllByIdForUpdate(@Param("loadIds") Collection<UUID> loadIds);
+
+    /**
+     * Used by: AuctionExpiryJob
+     * Claims a bounded batch of open loads whose loading date has passed.
+     * SKIP LOCKED: other nodes (and bookings holding a load) are skipped, not waited on.
+     */
+    @Query(value = "SELECT load_id FROM load " +
+                   "WHERE status IN ('POSTED', 'OPEN_FOR_BIDS') AND loading_date < :now " +
+                   "ORDER BY loading_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockOverdueOpenLoadIds(@Param("now") Timestamp now, @Param("limit") int limit);
+
+    /**
+     * Set-based close of a batch of loads.
+     * Bumps version so a booking that read the load before it was closed fails its optimistic check.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Load l SET l.status = :to, l.version = l.version + 1 " +
+           "WHERE l.loadId IN :loadIds AND l.status IN :from")
+    int updateStatusByIds(
+        @Param("loadIds") Collection<UUID> loadIds,
+        @Param("from") Collection<LoadStatus> from,
+        @Param("to") LoadStatus to
+    );
+
+    // ========================================
+    // Status transitions (StatusTransitionService)
+    // ========================================
+
+    /**
+     * Compare-and-set status change: 1 row = moved, 0 rows = not in :from (or missing).
+     * Leaves version alone - for moves that don't change what can be booked.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Load l SET l.status = :to WHERE l.loadId = :loadId AND l.status IN :from")
+    int compareAndSetStatus(
+        @Param("loadId") UUID loadId,
+        @Param("from") Collection<LoadStatus> from,
+        @Param("to") LoadStatus to
+    );
+
+    /**
+     * Same, but also bumps version so a booking holding an older read of the load fails its optimistic check
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Load l SET l.status = :to, l.version = l.version + 1 " +
+           "WHERE l.loadId = :loadId AND l.status IN :from")
+    int compareAndSetStatusBumpingVersion(
+        @Param("loadId") UUID loadId,
+        @Param("from") Collection<LoadStatus> from,
+        @Param("to") LoadStatus to
+    );
+
+    /**
+     * Only read when a transition didn't apply, to explain why
+     */
+    @Query("SELECT l.status FROM Load l WHERE l.loadId = :loadId")
+    Optional<LoadStatus> findStatusById(@Param("loadId") UUID loadId);
+
+    /**
+     * Earliest loading date among open loads - feeds the expiry lag gauge.
+     * Statuses are literals so the partial idx_load_open_loading_date applies.
+     */
+    @Query("SELECT MIN(l.loadingDate) FROM Load l WHERE l.status IN " +
+           "(com.koustav.tms.entity.LoadStatus.POSTED, com.koustav.tms.entity.LoadStatus.OPEN_FOR_BIDS)")
+    Timestamp findEarliestOpenLoadingDate();
+
+    // ========================================
+    // Allocation counter reconciliation
+    // ========================================
+
+    /**
+     * Keyset page of load ids (ORDER BY load_id) for LoadAllocationReconciliationJob
+     */
+    @Query("SELECT l.loadId FROM Load l WHERE l.loadId > :after ORDER BY l.loadId")
+    List<UUID> findLoadIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Loads among :loadIds whose allocated_trucks counter disagrees with
+     * SUM(allocated_trucks) of their CONFIRMED bookings.
+     * One statement → one snapshot, so a booking committing mid-check can't
+     * produce a false mismatch.
+     */
+    @Query("SELECT l.loadId AS loadId, l.allocatedTrucks AS recorded, " +
+           "COALESCE(SUM(b.allocatedTrucks), 0) AS actual " +
+           "FROM Load l LEFT JOIN Booking b ON b.load = l AND b.status = :status " +
+           "WHERE l.loadId IN :loadIds " +
+           "GROUP BY l.loadId, l.allocatedTrucks " +
+           "HAVING l.allocatedTrucks <> COALESCE(SUM(b.allocatedTrucks), 0)")
+    List<AllocationMismatch> findAllocationMismatches(
+        @Param("loadIds") Collection<UUID> loadIds,
+        @Param("status") BookingStatus status
+    );
+
+    /**
+     * Repair one counter - only if nobody changed it since it was checked
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Load l SET l.allocatedTrucks = :actual, l.version = l.version + 1 " +
+           "WHERE l.loadId = :loadId AND l.allocatedTrucks = :recorded")
+    int repairAllocatedTrucks(
+        @Param("loadId") UUID loadId,
+        @Param("recorded") int recorded,
+        @Param("actual") int actual
+    );
+
+    interface AllocationMismatch {
+        UUID getLoadId();
+        Integer getRecorded();
+        Long getActual();
+    }
+
+    // ========================================
+    // Retention (RetentionPurgeJob)
+    // ========================================
+
+    /**
+     * Next chunk of CANCELLED loads posted before :cutoff, in (date_posted, load_id)
+     * order after the previous chunk's last key.
+     *
+     * WHY KEYSET?
+     * A plain "LIMIT n" after each delete restarts at the front of the index and
+     * steps over the dead tuples of every previous chunk; continuing from the last
+     * key reads each entry once. Served by idx_load_cancelled_date_posted (V4).
+     * Row-locked, so a bid racing onto one of these loads waits for the purge;
+     * rows locked elsewhere are skipped and picked up by the next run.
+     *
+     * A load cancelled while partly booked keeps its CONFIRMED / COMPLETED
+     * bookings (cancelLoad only rejects PENDING bids) - such loads are never
+     * purged, only those whose bookings are all CANCELLED.
+     */
+    @Query(value = "SELECT l.load_id AS \"loadId\", l.date_posted AS \"datePosted\" FROM load l " +
+                   "WHERE l.status = 'CANCELLED' AND l.date_posted < :cutoff " +
+                   "AND NOT EXISTS (SELECT 1 FROM booking k WHERE k.load_id = l.load_id " +
+                   "AND k.booking_status <> 'CANCELLED') " +
+                   "AND (l.date_posted, l.load_id) > (:afterDate, :afterId) " +
+                   "ORDER BY l.date_posted, l.load_id LIMIT :limit FOR UPDATE OF l SKIP LOCKED",
+           nativeQuery = true)
+    List<LoadKey> lockCancelledLoadKeysAfter(
+        @Param("cutoff") Timestamp cutoff,
+        @Param("afterDate") Timestamp afterDate,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Plain SQL delete - Load.bids is cascade ALL / orphanRemoval, so a JPA delete
+     * would load every bid and remove them one row at a time.
+     * The caller removes the loads' bookings and bids first (FKs).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM load WHERE load_id IN (:loadIds) AND status = 'CANCELLED'", nativeQuery = true)
+    int deleteCancelledByIds(@Param("loadIds") Collection<UUID> loadIds);
+
+    interface LoadKey {
+        UUID getLoadId();
+        Timestamp getDatePosted();
+    }
     
 }
@@ -1,13 +1,88 @@
 package com.koustav.tms.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.koustav.tms.entity.Transporter;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface TransporterRepository extends JpaRepository<Transporter, UUID>{
-    //find and save will do
+
+    /**
+     * Used by: BookingService.autoBook()
+     *
+     * Locks all involved transporters in ONE statement, ordered by id.
+     * Every multi-row locker acquires rows in this canonical order so two
+     * transactions can never hold each other's transporters (no deadlock).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transporter t WHERE t.transporterId IN :ids ORDER BY t.transporterId")
+    List<Transporter> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Used by: CapacityLedgerDriftJob
+     *
+     * Only id + version - no available_trucks, so no JSON is read or parsed.
+     * A chunk whose versions all match the ledger costs one index lookup per id.
+     */
+    @Query("SELECT t.transporterId AS transporterId, t.version AS version " +
+           "FROM Transporter t WHERE t.transporterId IN :ids")
+    List<TransporterVersion> findVersionsByIds(@Param("ids") Collection<UUID> ids);
+
+    interface TransporterVersion {
+        UUID getTransporterId();
+        Long getVersion();
+    }
+
+    /**
+     * Used by: HomeShardCapacity - a booking on another shard takes the trucks
+     *
+     * Conditional decrement in one statement: 0 rows = not enough trucks of
+     * that type (or no such transporter), nothing changed. Bumps the version
+     * so JPA writers of the same row see the change.
+     */
+    @Modifying
+    @Query(value = "UPDATE transporter " +
+                   "SET available_trucks = jsonb_set(available_trucks, ARRAY[CAST(:truckType AS text)], " +
+                   "to_jsonb(CAST(available_trucks ->> CAST(:truckType AS text) AS integer) - :trucks)), " +
+                   "version = version + 1 " +
+                   "WHERE transporter_id = :transporterId " +
+                   "AND CAST(available_trucks ->> CAST(:truckType AS text) AS integer) >= :trucks",
+           nativeQuery = true)
+    int debitTrucks(@Param("transporterId") UUID transporterId, @Param("truckType") String truckType,
+                    @Param("trucks") int trucks);
+
+    /**
+     * Used by: HomeShardCapacity - a cancellation, or a debit whose booking didn't happen
+     */
+    @Modifying
+    @Query(value = "UPDATE transporter " +
+                   "SET available_trucks = jsonb_set(available_trucks, ARRAY[CAST(:truckType AS text)], " +
+                   "to_jsonb(COALESCE(CAST(available_trucks ->> CAST(:truckType AS text) AS integer), 0) + :trucks)), " +
+                   "version = version + 1 " +
+                   "WHERE transporter_id = :transporterId",
+           nativeQuery = true)
+    int creditTrucks(@Param("transporterId") UUID transporterId, @Param("truckType") String truckType,
+                     @Param("trucks") int trucks);
+
+    @Query(value = "SELECT CAST(available_trucks ->> CAST(:truckType AS text) AS integer) FROM transporter " +
+                   "WHERE transporter_id = :transporterId",
+           nativeQuery = true)
+    Integer findAvailableTrucks(@Param("transporterId") UUID transporterId, @Param("truckType") String truckType);
+
+    /**
+     * Bounds the row lock waits of the current transaction (SET LOCAL lock_timeout)
+     */
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
 }
@@ -0,0 +1,182 @@
+package com.koustav.tms.scheduler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.statemachine.StatusTransitions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Closes the auction side of the marketplace:
+ * - PENDING bids older than tms.auction.bid-ttl → EXPIRED
+ * - open loads whose loading date has passed → EXPIRED (with their PENDING bids)
+ *
+ * Works in bounded batches, one short transaction each, claimed with
+ * FOR UPDATE SKIP LOCKED so any number of nodes can run it side by side.
+ *
+ * Metrics:
+ * - tms.auction.bids.expired / tms.auction.loads.expired (counters)
+ * - tms.auction.expiry.lag{type=bid|load} (seconds the oldest overdue item has been waiting)
+ */
+@Component
+public class AuctionExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionExpiryJob.class);
+
+    // POSTED / OPEN_FOR_BIDS - whatever the load lifecycle allows to expire
+    private static final Set<LoadStatus> OPEN_STATUSES = StatusTransitions.LOAD.sourcesOf(LoadStatus.EXPIRED);
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.auction.expiry.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.auction.bid-ttl:P7D}")
+    private Duration bidTtl = Duration.ofDays(7);
+
+    @Value("${tms.auction.expiry.batch-size:500}")
+    private int batchSize = 500;
+
+    // caps one run so a huge backlog can't hog the scheduler thread
+    @Value("${tms.auction.expiry.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    private Counter expiredBids;
+    private Counter expiredLoads;
+    private final AtomicLong bidLagSeconds = new AtomicLong();
+    private final AtomicLong loadLagSeconds = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        expiredBids = Counter.builder("tms.auction.bids.expired")
+            .description("PENDING bids moved to EXPIRED")
+            .register(meterRegistry);
+        expiredLoads = Counter.builder("tms.auction.loads.expired")
+            .description("open loads closed after their loading date")
+            .register(meterRegistry);
+        Gauge.builder("tms.auction.expiry.lag", bidLagSeconds, AtomicLong::get)
+            .tag("type", "bid")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("tms.auction.expiry.lag", loadLagSeconds, AtomicLong::get)
+            .tag("type", "load")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.auction.expiry.interval:PT1M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int bids = expireStaleBids();
+        int loads = expireOverdueLoads();
+        if (bids > 0 || loads > 0) {
+            log.info("Auction expiry: {} bids expired, {} loads expired", bids, loads);
+        }
+        refreshLag();
+    }
+
+    /**
+     * @return number of bids moved to EXPIRED
+     */
+    public int expireStaleBids() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - bidTtl.toMillis());
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int[] claimedAndExpired = transactionTemplate.execute(status -> {
+                List<UUID> bidIds = bidRepository.lockStalePendingBidIds(cutoff, batchSize);
+                if (bidIds.isEmpty()) {
+                    return new int[] {0, 0};
+                }
+                int expired = bidRepository.updateStatusByIds(bidIds, BidStatus.PENDING, BidStatus.EXPIRED);
+                return new int[] {bidIds.size(), expired};
+            });
+
+            total += claimedAndExpired[1];
+            expiredBids.increment(claimedAndExpired[1]);
+            if (claimedAndExpired[0] < batchSize) {
+                break;  // backlog drained (or the rest is locked by another node)
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return number of loads moved to EXPIRED
+     */
+    public int expireOverdueLoads() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int[] claimedAndExpired = transactionTemplate.execute(status -> {
+                List<UUID> loadIds = loadRepository.lockOverdueOpenLoadIds(now, batchSize);
+                if (loadIds.isEmpty()) {
+                    return new int[] {0, 0};
+                }
+                int expired = loadRepository.updateStatusByIds(loadIds, OPEN_STATUSES, LoadStatus.EXPIRED);
+                bidRepository.updateStatusByLoadIds(loadIds, BidStatus.PENDING, BidStatus.EXPIRED);
+                return new int[] {loadIds.size(), expired};
+            });
+
+            total += claimedAndExpired[1];
+            expiredLoads.increment(claimedAndExpired[1]);
+            if (claimedAndExpired[0] < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private void refreshLag() {
+        long now = System.currentTimeMillis();
+
+        Timestamp oldestBid = bidRepository.findOldestPendingDateSubmitted();
+        long bidOverdueSince = oldestBid == null ? now : oldestBid.getTime() + bidTtl.toMillis();
+        bidLagSeconds.set(Math.max(0, (now - bidOverdueSince) / 1000));
+
+        Timestamp earliestLoading = loadRepository.findEarliestOpenLoadingDate();
+        long loadOverdueSince = earliestLoading == null ? now : earliestLoading.getTime();
+        loadLagSeconds.set(Math.max(0, (now - loadOverdueSince) / 1000));
+    }
+
+    long bidLagSeconds() {
+        return bidLagSeconds.get();
+    }
+
+    long loadLagSeconds() {
+        return loadLagSeconds.get();
+    }
+}
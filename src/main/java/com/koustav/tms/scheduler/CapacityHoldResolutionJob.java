@@ -0,0 +1,49 @@
+package com.koustav.tms.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.service.HomeShardCapacity;
+
+/**
+ * Settles capacity holds their request never settled (HomeShardCapacity).
+ *
+ * A booking on another shard than its transporter's home holds the trucks
+ * there first and settles the hold once its transaction has ended. A
+ * request that dies (or loses the home shard) in between leaves the hold
+ * row behind, the trucks unavailable. Past tms.sharding.capacity-hold-timeout
+ * its booking transaction is over for sure, and this job settles it the
+ * way the request would have: credit what no booking took.
+ *
+ * Runs once per shard per tick (ShardingConfig) - each run settles the
+ * holds homed on that shard. Nothing to do with one shard.
+ */
+@Component
+public class CapacityHoldResolutionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityHoldResolutionJob.class);
+
+    @Autowired
+    private HomeShardCapacity homeCapacity;
+
+    @Value("${tms.capacity-hold.resolution.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.capacity-hold.resolution.batch-size:100}")
+    private int batchSize = 100;
+
+    @Scheduled(fixedDelayString = "${tms.capacity-hold.resolution.interval:PT30S}")
+    public void run() {
+        if (!enabled || !homeCapacity.isSharded()) {
+            return;
+        }
+        int resolved = homeCapacity.resolveExpired(batchSize);
+        if (resolved > 0) {
+            log.warn("Settled {} capacity holds left behind by their requests", resolved);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.koustav.tms.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.repository.TransporterRepository.TransporterVersion;
+import com.koustav.tms.service.HomeShardCapacity;
+import com.koustav.tms.service.TransporterCapacityLedger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps TransporterCapacityLedger in line with the database.
+ *
+ * Compares the ledger's snapshot versions with transporter.version in
+ * chunks (id + version only). Entries whose version differs - written by
+ * another node, or a mirror that never ran - are reloaded; transporters
+ * that no longer exist are evicted.
+ *
+ * Sharded, the run on each shard checks the transporters homed there: the
+ * ledger follows their authoritative copy (HomeShardCapacity), never the
+ * declared-fleet copies on the other shards.
+ *
+ * Metrics:
+ * - tms.capacity.ledger.drift (entries resynced or evicted, all runs)
+ */
+@Component
+public class CapacityLedgerDriftJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityLedgerDriftJob.class);
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private HomeShardCapacity homeCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.capacity-ledger.drift-check.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.capacity-ledger.drift-check.chunk-size:500}")
+    private int chunkSize = 500;
+
+    private Counter drift;
+
+    @PostConstruct
+    void registerMetrics() {
+        drift = Counter.builder("tms.capacity.ledger.drift")
+            .description("capacity ledger entries that disagreed with the database")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.capacity-ledger.drift-check.interval:PT30S}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int resynced = resync();
+        if (resynced > 0) {
+            log.info("Capacity ledger: {} stale entries resynced", resynced);
+        }
+    }
+
+    /**
+     * @return number of ledger entries reloaded or evicted
+     */
+    public int resync() {
+        List<UUID> ids = capacityLedger.transporterIds().stream().filter(homeCapacity::isHome).toList();
+        int resynced = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+
+            Map<UUID, Long> dbVersions = new HashMap<>();
+            for (TransporterVersion row : transporterRepository.findVersionsByIds(chunk)) {
+                dbVersions.put(row.getTransporterId(), row.getVersion() == null ? 0L : row.getVersion());
+            }
+
+            List<UUID> stale = new ArrayList<>();
+            for (UUID id : chunk) {
+                if (!dbVersions.containsKey(id)) {
+                    capacityLedger.evict(id);
+                    resynced++;
+                } else if (!Objects.equals(dbVersions.get(id), capacityLedger.versionOf(id))) {
+                    stale.add(id);
+                }
+            }
+
+            if (!stale.isEmpty()) {
+                transporterRepository.findAllById(stale).forEach(capacityLedger::apply);
+                resynced += stale.size();
+            }
+        }
+
+        drift.increment(resynced);
+        return resynced;
+    }
+}
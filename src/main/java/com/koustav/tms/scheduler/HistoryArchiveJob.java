@@ -0,0 +1,201 @@
+package com.koustav.tms.scheduler;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.archive.ArchiveRecord;
+import com.koustav.tms.archive.SegmentStore;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.ArchiveRow;
+import com.koustav.tms.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves decided history out of the OLTP tables into SegmentStore:
+ * - COMPLETED / CANCELLED bookings booked more than tms.archive.age ago
+ * - REJECTED / EXPIRED bids, and ACCEPTED bids whose booking is gone,
+ *   submitted more than tms.archive.age ago
+ * Bookings go first, so their ACCEPTED bids qualify in the same run.
+ *
+ * WHY?
+ * Decided rows are almost never read again but keep bid (six indexes) and
+ * booking large. Moved out, the tables hold the live working set and
+ * /history still answers lookups by transporter, lane and date.
+ *
+ * HOW (one transaction per chunk of tms.archive.segment-rows):
+ * 1. lock the chunk (keyset, SKIP LOCKED - see BidRepository.lockArchivableBids)
+ * 2. write it as one segment (fsync'ed before the delete)
+ * 3. delete the rows
+ * If the transaction rolls back the segment is discarded again. A crash
+ * between 2 and the commit leaves a segment whose rows are still in the
+ * table: they are archived again next run and SegmentStore.query shows each id once.
+ *
+ * Keep tms.archive.age below the tms.retention ages, or the purge deletes
+ * the rows before they are archived. Off by default.
+ *
+ * Metrics:
+ * - tms.archive.archived{kind} (counter)
+ */
+@Component
+public class HistoryArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryArchiveJob.class);
+
+    private static final Timestamp FIRST_DATE = new Timestamp(0L);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SegmentStore segmentStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.archive.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${tms.archive.age:P30D}")
+    private Duration age = Duration.ofDays(30);
+
+    @Value("${tms.archive.segment-rows:5000}")
+    private int segmentRows = 5000;
+
+    @Value("${tms.archive.max-segments-per-run:20}")
+    private int maxSegmentsPerRun = 20;
+
+    private Counter archivedBids;
+    private Counter archivedBookings;
+
+    @PostConstruct
+    void registerMetrics() {
+        archivedBids = archivedCounter(ArchiveKind.BID);
+        archivedBookings = archivedCounter(ArchiveKind.BOOKING);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.archive.interval:PT1H}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int bookings = archive(ArchiveKind.BOOKING);
+        int bids = archive(ArchiveKind.BID);
+        if (bookings > 0 || bids > 0) {
+            log.info("History archive: {} bookings, {} bids moved to segments", bookings, bids);
+        }
+    }
+
+    /**
+     * @return number of rows archived
+     */
+    public int archive(ArchiveKind kind) {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - age.toMillis());
+        Counter archived = kind == ArchiveKind.BID ? archivedBids : archivedBookings;
+        Timestamp afterDate = FIRST_DATE;
+        UUID afterId = FIRST_ID;
+        int total = 0;
+
+        for (int segment = 0; segment < maxSegmentsPerRun && !Thread.currentThread().isInterrupted(); segment++) {
+            Timestamp fromDate = afterDate;
+            UUID fromId = afterId;
+            List<ArchiveRow> rows = transactionTemplate.execute(status -> archiveChunk(kind, cutoff, fromDate, fromId));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            total += rows.size();
+            archived.increment(rows.size());
+            ArchiveRow last = rows.get(rows.size() - 1);
+            afterDate = last.getAt();
+            afterId = last.getId();
+            if (rows.size() < segmentRows) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private List<ArchiveRow> archiveChunk(ArchiveKind kind, Timestamp cutoff, Timestamp afterDate, UUID afterId) {
+        List<ArchiveRow> rows = kind == ArchiveKind.BID
+            ? bidRepository.lockArchivableBids(cutoff, afterDate, afterId, segmentRows)
+            : bookingRepository.lockArchivableBookings(cutoff, afterDate, afterId, segmentRows);
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        Path segment = segmentStore.append(kind, rows.stream().map(HistoryArchiveJob::toRecord).toList());
+        discardOnRollback(kind, segment);
+
+        List<UUID> ids = rows.stream().map(ArchiveRow::getId).toList();
+        Timestamp firstDate = rows.get(0).getAt();
+        Timestamp lastDate = rows.get(rows.size() - 1).getAt();
+        if (kind == ArchiveKind.BID) {
+            bidRepository.deleteArchivedBids(ids, firstDate, lastDate);
+        } else {
+            bookingRepository.deleteArchivedBookings(ids, firstDate, lastDate);
+        }
+        return rows;
+    }
+
+    private void discardOnRollback(ArchiveKind kind, Path segment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    segmentStore.discard(kind, segment);
+                }
+            }
+        });
+    }
+
+    private static ArchiveRecord toRecord(ArchiveRow row) {
+        return ArchiveRecord.builder()
+            .id(row.getId())
+            .loadId(row.getLoadId())
+            .bidId(row.getBidId())
+            .transporterId(row.getTransporterId())
+            .loadingCity(row.getLoadingCity())
+            .unloadingCity(row.getUnloadingCity())
+            .truckType(row.getTruckType())
+            .status(row.getStatus())
+            .trucks(row.getTrucks())
+            .rate(row.getRate())
+            .at(row.getAt())
+            .build();
+    }
+
+    private Counter archivedCounter(ArchiveKind kind) {
+        return Counter.builder("tms.archive.archived")
+            .description("rows moved from the tables into archive segments")
+            .tag("kind", kind.name().toLowerCase())
+            .register(meterRegistry);
+    }
+}
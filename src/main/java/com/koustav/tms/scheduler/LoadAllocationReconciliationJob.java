@@ -0,0 +1,121 @@
+package com.koustav.tms.scheduler;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.LoadRepository.AllocationMismatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Verifies Load.allocatedTrucks against the CONFIRMED bookings it summarises.
+ *
+ * Walks all loads in keyset-ordered chunks (one aggregate query per chunk).
+ * Mismatches are logged and counted; with tms.reconciliation.repair=true
+ * the counter is also rewritten, guarded by its old value so a booking that
+ * commits in between is never overwritten.
+ *
+ * Metrics:
+ * - tms.load.allocation.mismatches (counter, all runs)
+ * - tms.load.allocation.mismatches.last-run (gauge)
+ */
+@Component
+public class LoadAllocationReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadAllocationReconciliationJob.class);
+
+    private static final UUID FIRST_KEY = new UUID(0L, 0L);
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.reconciliation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.reconciliation.repair:false}")
+    private boolean repair = false;
+
+    @Value("${tms.reconciliation.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    private Counter mismatches;
+    private final AtomicLong lastRunMismatches = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        mismatches = Counter.builder("tms.load.allocation.mismatches")
+            .description("loads whose allocated_trucks disagreed with their CONFIRMED bookings")
+            .register(meterRegistry);
+        Gauge.builder("tms.load.allocation.mismatches.last-run", lastRunMismatches, AtomicLong::get)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.reconciliation.interval:PT15M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int found = reconcile();
+        if (found > 0) {
+            log.warn("Load allocation reconciliation: {} mismatched loads ({})",
+                found, repair ? "repaired" : "repair disabled");
+        }
+    }
+
+    /**
+     * @return number of mismatched loads found
+     */
+    public int reconcile() {
+        UUID after = FIRST_KEY;
+        int found = 0;
+
+        while (true) {
+            List<UUID> loadIds = loadRepository.findLoadIdsAfter(after, PageRequest.ofSize(chunkSize));
+            if (loadIds.isEmpty()) {
+                break;
+            }
+
+            List<AllocationMismatch> chunkMismatches =
+                loadRepository.findAllocationMismatches(loadIds, BookingStatus.CONFIRMED);
+            for (AllocationMismatch mismatch : chunkMismatches) {
+                log.warn("Load {} allocated_trucks={} but CONFIRMED bookings sum to {}",
+                    mismatch.getLoadId(), mismatch.getRecorded(), mismatch.getActual());
+                if (repair) {
+                    transactionTemplate.executeWithoutResult(status -> loadRepository.repairAllocatedTrucks(
+                        mismatch.getLoadId(), mismatch.getRecorded(), mismatch.getActual().intValue()));
+                }
+            }
+            found += chunkMismatches.size();
+
+            if (loadIds.size() < chunkSize) {
+                break;
+            }
+            after = loadIds.get(loadIds.size() - 1);
+        }
+
+        mismatches.increment(found);
+        lastRunMismatches.set(found);
+        return found;
+    }
+}
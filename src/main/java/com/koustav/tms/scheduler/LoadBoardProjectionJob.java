@@ -0,0 +1,105 @@
+package com.koustav.tms.scheduler;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.repository.LoadBoardRepository;
+import com.koustav.tms.repository.LoadBoardRepository.ProjectedLoad;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Brings load_board up to date with the writes since the last run.
+ *
+ * Every write that changes what the board shows appends the load to
+ * load_board_outbox in its own transaction (triggers, V5__load_board.sql).
+ * This job drains the outbox in chunks of tms.load-board.projection.chunk-size,
+ * one transaction per chunk; each load is recomputed once per chunk
+ * however many writes it had.
+ *
+ * Chunks are claimed with SKIP LOCKED, so every node can run the job.
+ * The refreshed loads of each chunk are announced (CachedEntity.LOAD) by
+ * pg_notify inside the chunk's own transaction (V7), so every node's
+ * OpenLoadBoard re-reads them - no window between the commit and the
+ * announcement in which a crash loses it. OpenLoadBoard's periodic full
+ * reload covers messages a listener misses anyway.
+ *
+ * Metrics:
+ * - tms.load.board.projected (outbox entries consumed)
+ */
+@Component
+public class LoadBoardProjectionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBoardProjectionJob.class);
+
+    @Autowired
+    private LoadBoardRepository loadBoardRepository;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.load-board.projection.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.load-board.projection.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${tms.load-board.projection.max-chunks-per-run:20}")
+    private int maxChunksPerRun = 20;
+
+    private Counter projected;
+
+    @PostConstruct
+    void registerMetrics() {
+        projected = Counter.builder("tms.load.board.projected")
+            .description("load board outbox entries applied to load_board")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.load-board.projection.interval:PT1S}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            project();
+        } catch (DataAccessException e) {
+            log.warn("Load board projection failed, retrying next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return outbox entries consumed
+     */
+    public int project() {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun && !Thread.currentThread().isInterrupted(); chunk++) {
+            List<ProjectedLoad> refreshed = loadBoardRepository.projectPending(
+                chunkSize, cacheCoherence.notifyChannel(), cacheCoherence.node());
+            int consumed = refreshed.isEmpty() ? 0 : refreshed.get(0).getConsumed();
+            List<UUID> loadIds = refreshed.stream().map(ProjectedLoad::getLoadId).toList();
+            cacheCoherence.notified(CachedEntity.LOAD, loadIds);
+            total += consumed;
+            projected.increment(consumed);
+            if (consumed < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,42 @@
+package com.koustav.tms.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.board.OpenLoadBoard;
+
+/**
+ * Applies the load board changes announced since the last run to the
+ * in-memory OpenLoadBoard - or loads it whole on the first run and after a
+ * listener reconnect. Runs once per shard per tick, like every job.
+ *
+ * Every node runs it: the board is node-local.
+ */
+@Component
+public class OpenLoadBoardSyncJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoadBoardSyncJob.class);
+
+    @Autowired
+    private OpenLoadBoard openLoadBoard;
+
+    @Value("${tms.load-board.memory.sync.enabled:true}")
+    private boolean enabled = true;
+
+    @Scheduled(fixedDelayString = "${tms.load-board.memory.sync.interval:PT1S}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            openLoadBoard.sync();
+        } catch (DataAccessException e) {
+            log.warn("Open load board sync failed, retrying next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.koustav.tms.scheduler;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the monthly partitions of bid (date_submitted) and booking (booked_at)
+ * ahead of the clock, and optionally retires old months.
+ *
+ * - creates the partitions up to tms.partitioning.months-ahead months ahead,
+ *   so inserts never land in the *_default partitions
+ * - with tms.partitioning.retention-months > 0, detaches every month older
+ *   than that (dropped too with tms.partitioning.drop-detached=true).
+ *   Metadata only - no DELETE, no vacuum debt, however many rows the month holds.
+ *   Only retire months whose bids and bookings are all history.
+ *
+ * Both SQL functions are idempotent, so every node can run the job.
+ * A failure on one table is logged and the other table is still maintained.
+ *
+ * Metrics:
+ * - tms.partition.created / tms.partition.removed (counters)
+ * - tms.partition.default.rows{table=bid|booking} (gauge, should stay 0)
+ */
+@Component
+public class PartitionMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.partitioning.maintenance.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.partitioning.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    // 0 = keep every month
+    @Value("${tms.partitioning.retention-months:0}")
+    private int retentionMonths = 0;
+
+    @Value("${tms.partitioning.drop-detached:false}")
+    private boolean dropDetached = false;
+
+    private Counter created;
+    private Counter removed;
+    private final AtomicLong bidDefaultRows = new AtomicLong();
+    private final AtomicLong bookingDefaultRows = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        created = Counter.builder("tms.partition.created")
+            .description("monthly bid/booking partitions created ahead of time")
+            .register(meterRegistry);
+        removed = Counter.builder("tms.partition.removed")
+            .description("monthly bid/booking partitions detached or dropped by retention")
+            .register(meterRegistry);
+        Gauge.builder("tms.partition.default.rows", bidDefaultRows, AtomicLong::get)
+            .tag("table", "bid")
+            .register(meterRegistry);
+        Gauge.builder("tms.partition.default.rows", bookingDefaultRows, AtomicLong::get)
+            .tag("table", "booking")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.partitioning.maintenance.interval:PT6H}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int partitions = createAhead();
+        int retired = retireOldMonths();
+        if (partitions > 0 || retired > 0) {
+            log.info("Partition maintenance: {} partitions created, {} retired", partitions, retired);
+        }
+        refreshDefaultRows();
+    }
+
+    /**
+     * @return number of partitions created (both tables)
+     */
+    public int createAhead() {
+        int total = maintain("bid", () -> bidRepository.ensureMonthPartitions(monthsAhead))
+            + maintain("booking", () -> bookingRepository.ensureMonthPartitions(monthsAhead));
+        created.increment(total);
+        return total;
+    }
+
+    /**
+     * @return number of partitions detached or dropped (both tables)
+     */
+    public int retireOldMonths() {
+        if (retentionMonths <= 0) {
+            return 0;
+        }
+        // whole months only: everything ending on or before the 1st, retentionMonths ago
+        LocalDate before = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        int total = maintain("bid", () -> bidRepository.detachMonthPartitionsBefore(before, dropDetached))
+            + maintain("booking", () -> bookingRepository.detachMonthPartitionsBefore(before, dropDetached));
+        removed.increment(total);
+        return total;
+    }
+
+    private int maintain(String table, IntSupplier step) {
+        try {
+            return step.getAsInt();
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance of {} failed", table, e);
+            return 0;
+        }
+    }
+
+    private void refreshDefaultRows() {
+        bidDefaultRows.set(countDefault("bid", bidRepository::countInDefaultPartition));
+        bookingDefaultRows.set(countDefault("booking", bookingRepository::countInDefaultPartition));
+    }
+
+    private long countDefault(String table, LongSupplier count) {
+        long rows = count.getAsLong();
+        if (rows > 0) {
+            log.warn("{} rows in {}_default - no monthly partition covers them, check tms.partitioning.months-ahead",
+                rows, table);
+        }
+        return rows;
+    }
+}
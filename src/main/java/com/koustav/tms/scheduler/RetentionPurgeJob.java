@@ -0,0 +1,294 @@
+package com.koustav.tms.scheduler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.BidKey;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.LoadRepository.LoadKey;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deletes history past its retention age:
+ * - CANCELLED loads posted more than tms.retention.cancelled-load-age ago,
+ *   with their bids and cancelled bookings. A load cancelled while partly
+ *   booked still has live bookings and is kept.
+ * - REJECTED / EXPIRED bids submitted more than their own age ago
+ *
+ * WHY NOT loadRepository.delete()?
+ * Load.bids is cascade ALL + orphanRemoval: JPA loads every bid of the load
+ * and deletes them one statement at a time. Here each chunk is a few plain
+ * SQL statements in one short transaction.
+ *
+ * HOW:
+ * - keyset chunks of tms.retention.chunk-size, oldest first (see
+ *   LoadRepository.lockCancelledLoadKeysAfter), so no chunk re-reads what
+ *   earlier chunks deleted
+ * - throttled to tms.retention.max-rows-per-second (0 = as fast as possible)
+ *   so vacuum and replicas keep up; sleeps between chunks, never holding locks
+ * - at most tms.retention.max-chunks-per-run chunks per run and type
+ *
+ * Off by default - deleting data is opt-in.
+ *
+ * Metrics:
+ * - tms.retention.deleted{table, status} (counter)
+ * - tms.retention.lag{table, status} (seconds the run's last purged row was
+ *   older than its cutoff; 0 = caught up)
+ */
+@Component
+public class RetentionPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionPurgeJob.class);
+
+    private static final Timestamp FIRST_DATE = new Timestamp(0L);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.retention.enabled:false}")
+    private boolean enabled = false;
+
+    // a zero age switches that purge off
+    @Value("${tms.retention.cancelled-load-age:P180D}")
+    private Duration cancelledLoadAge = Duration.ofDays(180);
+
+    @Value("${tms.retention.rejected-bid-age:P90D}")
+    private Duration rejectedBidAge = Duration.ofDays(90);
+
+    @Value("${tms.retention.expired-bid-age:P90D}")
+    private Duration expiredBidAge = Duration.ofDays(90);
+
+    @Value("${tms.retention.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${tms.retention.max-rows-per-second:1000}")
+    private int maxRowsPerSecond = 1000;
+
+    @Value("${tms.retention.max-chunks-per-run:100}")
+    private int maxChunksPerRun = 100;
+
+    private Counter deletedLoads;
+    private Counter deletedRejectedBids;
+    private Counter deletedExpiredBids;
+    private final AtomicLong loadLagSeconds = new AtomicLong();
+    private final AtomicLong rejectedBidLagSeconds = new AtomicLong();
+    private final AtomicLong expiredBidLagSeconds = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        deletedLoads = deletedCounter("load", "CANCELLED");
+        deletedRejectedBids = deletedCounter("bid", "REJECTED");
+        deletedExpiredBids = deletedCounter("bid", "EXPIRED");
+        lagGauge("load", "CANCELLED", loadLagSeconds);
+        lagGauge("bid", "REJECTED", rejectedBidLagSeconds);
+        lagGauge("bid", "EXPIRED", expiredBidLagSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.retention.interval:PT1H}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int rejected = purgeBids(BidStatus.REJECTED);
+        int expired = purgeBids(BidStatus.EXPIRED);
+        int loads = purgeCancelledLoads();
+        if (rejected > 0 || expired > 0 || loads > 0) {
+            log.info("Retention purge: {} REJECTED bids, {} EXPIRED bids, {} CANCELLED loads deleted",
+                rejected, expired, loads);
+        }
+    }
+
+    /**
+     * @return number of loads deleted
+     */
+    public int purgeCancelledLoads() {
+        if (cancelledLoadAge.isZero()) {
+            return 0;
+        }
+        Timestamp cutoff = cutoff(cancelledLoadAge);
+        Chunk last = Chunk.start();
+        int total = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun && !Thread.currentThread().isInterrupted(); chunk++) {
+            long started = System.nanoTime();
+            Chunk after = last;
+            last = transactionTemplate.execute(status -> {
+                List<LoadKey> keys = loadRepository.lockCancelledLoadKeysAfter(
+                    cutoff, after.lastDate, after.lastId, chunkSize);
+                if (keys.isEmpty()) {
+                    return Chunk.empty(after);
+                }
+                List<UUID> loadIds = keys.stream().map(LoadKey::getLoadId).toList();
+                // FK order: bookings and bids before their loads
+                bookingRepository.deleteCancelledByLoadIds(loadIds);
+                bidRepository.deleteByLoadIds(loadIds);
+                int deleted = loadRepository.deleteCancelledByIds(loadIds);
+                LoadKey lastKey = keys.get(keys.size() - 1);
+                return new Chunk(keys.size(), deleted, lastKey.getDatePosted(), lastKey.getLoadId());
+            });
+
+            total += last.deleted;
+            deletedLoads.increment(last.deleted);
+            if (last.claimed < chunkSize) {
+                break;  // reached the cutoff (rows locked elsewhere come next run)
+            }
+            throttle(last.deleted, started);
+        }
+
+        loadLagSeconds.set(lagSeconds(last, cutoff));
+        return total;
+    }
+
+    /**
+     * @return number of bids deleted
+     */
+    public int purgeBids(BidStatus bidStatus) {
+        if (bidStatus == BidStatus.REJECTED) {
+            return purgeBids(bidStatus, rejectedBidAge, deletedRejectedBids, rejectedBidLagSeconds);
+        }
+        if (bidStatus == BidStatus.EXPIRED) {
+            return purgeBids(bidStatus, expiredBidAge, deletedExpiredBids, expiredBidLagSeconds);
+        }
+        throw new IllegalArgumentException("Only REJECTED and EXPIRED bids are purged, not " + bidStatus);
+    }
+
+    private int purgeBids(BidStatus bidStatus, Duration age, Counter deletedCounter, AtomicLong lag) {
+        if (age.isZero()) {
+            return 0;
+        }
+        Timestamp cutoff = cutoff(age);
+        Chunk last = Chunk.start();
+        int total = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun && !Thread.currentThread().isInterrupted(); chunk++) {
+            long started = System.nanoTime();
+            Chunk after = last;
+            last = transactionTemplate.execute(status -> {
+                List<BidKey> keys = bidRepository.findBidKeysAfter(
+                    bidStatus.name(), cutoff, after.lastDate, after.lastId, chunkSize);
+                if (keys.isEmpty()) {
+                    return Chunk.empty(after);
+                }
+                List<UUID> bidIds = keys.stream().map(BidKey::getBidId).toList();
+                BidKey lastKey = keys.get(keys.size() - 1);
+                int deleted = bidRepository.deleteByIdsInStatus(bidIds, bidStatus.name(),
+                    keys.get(0).getDateSubmitted(), lastKey.getDateSubmitted());
+                return new Chunk(keys.size(), deleted, lastKey.getDateSubmitted(), lastKey.getBidId());
+            });
+
+            total += last.deleted;
+            deletedCounter.increment(last.deleted);
+            if (last.claimed < chunkSize) {
+                break;
+            }
+            throttle(last.deleted, started);
+        }
+
+        lag.set(lagSeconds(last, cutoff));
+        return total;
+    }
+
+    // sleeps whatever is left of the time this chunk is allowed at maxRowsPerSecond
+    private void throttle(int rows, long startedNanos) {
+        if (maxRowsPerSecond <= 0 || rows == 0) {
+            return;
+        }
+        long budgetNanos = rows * 1_000_000_000L / maxRowsPerSecond;
+        long remainingMillis = (budgetNanos - (System.nanoTime() - startedNanos)) / 1_000_000;
+        if (remainingMillis > 0) {
+            pause(remainingMillis);
+        }
+    }
+
+    void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();  // shutting down, the loops stop at the next chunk
+        }
+    }
+
+    private long lagSeconds(Chunk last, Timestamp cutoff) {
+        if (last.claimed < chunkSize || last.lastDate == null) {
+            return 0;
+        }
+        return Math.max(0, (cutoff.getTime() - last.lastDate.getTime()) / 1000);
+    }
+
+    private Timestamp cutoff(Duration age) {
+        return new Timestamp(System.currentTimeMillis() - age.toMillis());
+    }
+
+    private Counter deletedCounter(String table, String status) {
+        return Counter.builder("tms.retention.deleted")
+            .description("rows deleted by the retention purge")
+            .tag("table", table)
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+
+    private void lagGauge(String table, String status, AtomicLong seconds) {
+        Gauge.builder("tms.retention.lag", seconds, AtomicLong::get)
+            .tag("table", table)
+            .tag("status", status)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * One chunk's outcome; its last key is where the next chunk starts
+     */
+    private static class Chunk {
+        final int claimed;
+        final int deleted;
+        final Timestamp lastDate;
+        final UUID lastId;
+
+        Chunk(int claimed, int deleted, Timestamp lastDate, UUID lastId) {
+            this.claimed = claimed;
+            this.deleted = deleted;
+            this.lastDate = lastDate;
+            this.lastId = lastId;
+        }
+
+        static Chunk start() {
+            return new Chunk(0, 0, FIRST_DATE, FIRST_ID);
+        }
+
+        // nothing left - keep the position
+        static Chunk empty(Chunk after) {
+            return new Chunk(0, 0, after.lastDate, after.lastId);
+        }
+    }
+}
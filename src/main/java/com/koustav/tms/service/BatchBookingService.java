@@ -0,0 +1,196 @@
+package com.koustav.tms.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BatchBookingResponse;
+import com.koustav.tms.dto.response.BatchBookingResult;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.exception.InvalidStatusTransitionException;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.BidLoad;
+import com.koustav.tms.service.BookingService.AcceptOutcome;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardIds;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * POST /booking/batch - accept winners across many loads in a few transactions.
+ *
+ * PROBLEM:
+ * End-of-day acceptance as N separate POST /booking calls means N
+ * transactions, and calls whose bids share a transporter abort each other
+ * on its version check.
+ *
+ * APPROACH:
+ * 1. resolve every bid's load in one query (unknown bids → 404 result)
+ * 2. sort loads by id and cut them into chunks of ~tms.booking.batch.chunk-size
+ *    bids (a load is never split, so its accepts see each other's allocation)
+ * 3. each chunk is one transaction (BookingService.acceptBidsForLoads):
+ *    loads locked in id order, then transporters in id order - the order
+ *    every pessimistic locker in the system uses, so no deadlocks
+ * 4. a chunk that fails as a whole is retried one acceptBid per request
+ *
+ * Sharded, the bids are first split by shard (ShardIds) and each shard's
+ * share goes through the steps above on that shard.
+ *
+ * Earlier chunks stay committed if a later one fails. The response has one
+ * result per requested bid, with the status POST /booking would have returned.
+ */
+@Service
+public class BatchBookingService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchBookingService.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Value("${tms.booking.batch.chunk-size:50}")
+    private int chunkSize = 50;
+
+    public BatchBookingResponse acceptBatch(List<BookingRequest> requests) {
+        BatchBookingResult[] results = new BatchBookingResult[requests.size()];
+
+        // sharded: each shard's bids are accepted on that shard, shard after shard
+        Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            positionsByShard.computeIfAbsent(ShardIds.shardOf(requests.get(i).getBidId()), s -> new ArrayList<>()).add(i);
+        }
+        positionsByShard.forEach((shard, positions) ->
+            ShardContext.runOn(shard, () -> acceptOnShard(positions, requests, results)));
+
+        List<BatchBookingResult> ordered = Arrays.asList(results);
+        int booked = (int) ordered.stream().filter(r -> r.getBooking() != null).count();
+        return BatchBookingResponse.builder()
+            .booked(booked)
+            .failed(ordered.size() - booked)
+            .results(ordered)
+            .build();
+    }
+
+    private void acceptOnShard(List<Integer> shardPositions, List<BookingRequest> requests,
+            BatchBookingResult[] results) {
+        Map<UUID, UUID> loadIdByBidId = new HashMap<>();
+        List<UUID> bidIds = shardPositions.stream().map(i -> requests.get(i).getBidId()).toList();
+        for (BidLoad row : bidRepository.findLoadIdsByBidIds(bidIds)) {
+            loadIdByBidId.put(row.getBidId(), row.getLoadId());
+        }
+
+        // load → positions in the request, loads in id order
+        Map<UUID, List<Integer>> positionsByLoad = new TreeMap<>();
+        for (int i : shardPositions) {
+            UUID bidId = requests.get(i).getBidId();
+            UUID loadId = loadIdByBidId.get(bidId);
+            if (loadId == null) {
+                results[i] = failed(bidId, new ResourceNotFoundException("Bid", "bidId", bidId));
+            } else {
+                positionsByLoad.computeIfAbsent(loadId, id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<UUID, List<Integer>> chunk = new LinkedHashMap<>();
+        int chunkBids = 0;
+        for (Map.Entry<UUID, List<Integer>> entry : positionsByLoad.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            chunkBids += entry.getValue().size();
+            if (chunkBids >= chunkSize) {
+                commitChunk(chunk, requests, results);
+                chunk = new LinkedHashMap<>();
+                chunkBids = 0;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commitChunk(chunk, requests, results);
+        }
+    }
+
+    private void commitChunk(Map<UUID, List<Integer>> chunk, List<BookingRequest> requests,
+            BatchBookingResult[] results) {
+        Map<UUID, List<BookingRequest>> requestsByLoad = new LinkedHashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        chunk.forEach((loadId, loadPositions) -> {
+            requestsByLoad.put(loadId, loadPositions.stream().map(requests::get).toList());
+            positions.addAll(loadPositions);
+        });
+
+        List<AcceptOutcome> outcomes;
+        try {
+            outcomes = bookingService.acceptBidsForLoads(requestsByLoad);
+        } catch (RuntimeException e) {
+            log.debug("Batch chunk of {} accepts failed, retrying one by one", positions.size(), e);
+            for (int position : positions) {
+                results[position] = acceptAlone(requests.get(position));
+            }
+            return;
+        }
+
+        for (int i = 0; i < positions.size(); i++) {
+            AcceptOutcome outcome = outcomes.get(i);
+            results[positions.get(i)] = outcome.isBooked()
+                ? BatchBookingResult.builder()
+                    .bidId(outcome.getBidId())
+                    .status(HttpStatus.CREATED.value())
+                    .booking(outcome.getResponse())
+                    .build()
+                : failed(outcome.getBidId(), outcome.getError());
+        }
+    }
+
+    private BatchBookingResult acceptAlone(BookingRequest request) {
+        try {
+            return BatchBookingResult.builder()
+                .bidId(request.getBidId())
+                .status(HttpStatus.CREATED.value())
+                .booking(bookingService.acceptBid(request))
+                .build();
+        } catch (RuntimeException e) {
+            return failed(request.getBidId(), e);
+        }
+    }
+
+    private BatchBookingResult failed(UUID bidId, RuntimeException error) {
+        return BatchBookingResult.builder()
+            .bidId(bidId)
+            .status(statusOf(error).value())
+            .message(error.getMessage())
+            .build();
+    }
+
+    // same mapping as GlobalExceptionHandler
+    private HttpStatus statusOf(RuntimeException error) {
+        if (error instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (error instanceof InvalidStatusTransitionException || error instanceof InsufficientCapacityException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (error instanceof ConflictException || error instanceof OptimisticLockException
+                || error instanceof OptimisticLockingFailureException
+                || error instanceof PessimisticLockingFailureException) {
+            return HttpStatus.CONFLICT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
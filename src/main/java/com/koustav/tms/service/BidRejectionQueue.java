@@ -0,0 +1,192 @@
+package com.koustav.tms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardIds;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Rejects bids found to be unfulfillable during Phase 2 of acceptBid
+ * (transporter no longer has the trucks).
+ *
+ * WHY NOT REQUIRES_NEW?
+ * acceptBid throws right after detecting this, so its own transaction rolls
+ * back - the rejection has to be written somewhere else. Doing that in a
+ * REQUIRES_NEW transaction takes a second pool connection while the first
+ * is still held. Under load every request can end up holding one and waiting
+ * for another → pool exhausted, nobody progresses.
+ *
+ * FLOW:
+ * 1. enqueue() registers the bid id with the current transaction
+ * 2. the id is handed to the queue in afterCompletion - the outer
+ *    transaction has finished (commit or rollback), its connection is on its way back
+ * 3. drain() runs on the scheduler and rejects queued ids in batches,
+ *    one short transaction (one connection) per batch
+ *
+ * DURABILITY:
+ * The queue is in memory and drained on shutdown. An id lost in a crash
+ * only leaves a bid PENDING that can't be fulfilled. The next accept
+ * attempt detects the same shortage and enqueues it again, and
+ * AuctionExpiryJob expires it at the latest. The UPDATE only touches PENDING
+ * bids, so a replayed or duplicate id is harmless.
+ *
+ * Metrics:
+ * - tms.bid.rejection.enqueued / applied / dropped / failed (counters)
+ * - tms.bid.rejection.queue.size (gauge)
+ */
+@Service
+public class BidRejectionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(BidRejectionQueue.class);
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.bid-rejection.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${tms.bid-rejection.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    private BlockingQueue<UUID> queue;
+
+    private Counter enqueued;
+    private Counter applied;
+    private Counter dropped;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        enqueued = Counter.builder("tms.bid.rejection.enqueued")
+            .description("bids handed over for asynchronous rejection")
+            .register(meterRegistry);
+        applied = Counter.builder("tms.bid.rejection.applied")
+            .description("bids moved PENDING -> REJECTED by the queue")
+            .register(meterRegistry);
+        dropped = Counter.builder("tms.bid.rejection.dropped")
+            .description("bids not queued because the queue was full")
+            .register(meterRegistry);
+        failed = Counter.builder("tms.bid.rejection.failed")
+            .description("drain batches that failed and were re-queued")
+            .register(meterRegistry);
+        Gauge.builder("tms.bid.rejection.queue.size", queue, BlockingQueue::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reject the bid once the current transaction is over, whatever its outcome.
+     * Outside a transaction the bid is queued right away.
+     */
+    public void enqueue(UUID bidId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(bidId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                offer(bidId);
+            }
+        });
+    }
+
+    /**
+     * @return number of bids actually rejected
+     */
+    @Scheduled(fixedDelayString = "${tms.bid-rejection.drain-interval:PT1S}")
+    public int drain() {
+        int total = 0;
+        List<UUID> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            List<UUID> bidIds = List.copyOf(batch);
+            batch.clear();
+            try {
+                // sharded: one transaction per shard the bids live on (ShardIds)
+                int rejected = 0;
+                for (Map.Entry<Integer, List<UUID>> shard : byShard(bidIds).entrySet()) {
+                    rejected += ShardContext.callOn(shard.getKey(), () -> transactionTemplate.execute(status ->
+                        bidRepository.updateStatusByIds(shard.getValue(), BidStatus.PENDING, BidStatus.REJECTED)));
+                }
+                total += rejected;
+                applied.increment(rejected);
+            } catch (RuntimeException e) {
+                // put them back for the next run, stop hammering a failing database
+                failed.increment();
+                bidIds.forEach(this::requeue);
+                log.warn("Bid rejection batch of {} failed, re-queued", bidIds.size(), e);
+                break;
+            }
+        }
+        return total;
+    }
+
+    private static Map<Integer, List<UUID>> byShard(List<UUID> bidIds) {
+        Map<Integer, List<UUID>> byShard = new TreeMap<>();
+        for (UUID bidId : bidIds) {
+            byShard.computeIfAbsent(ShardIds.shardOf(bidId), shard -> new ArrayList<>()).add(bidId);
+        }
+        return byShard;
+    }
+
+    @PreDestroy
+    void flush() {
+        int rejected = drain();
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} bid rejections not applied", queue.size());
+        } else if (rejected > 0) {
+            log.info("Applied {} queued bid rejections on shutdown", rejected);
+        }
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    private void requeue(UUID bidId) {
+        if (!queue.offer(bidId)) {
+            dropped.increment();
+        }
+    }
+
+    private void offer(UUID bidId) {
+        if (queue.offer(bidId)) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            log.warn("Bid rejection queue full, bid {} stays PENDING until re-detected", bidId);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.koustav.tms.service;
 
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,11 +25,17 @@ import com.koustav.tms.mapper.BidMapper;
 import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.LoadRepository;
 import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
 
 @Service
 @Transactional
 public class BidService {
 
+    // open ends of a submitted-date range
+    private static final Timestamp EARLIEST = new Timestamp(0L);
+    private static final Timestamp LATEST = Timestamp.valueOf("9999-12-31 00:00:00");
+
     @Autowired
     private BidRepository bidRepository;
 
@@ -37,24 +45,52 @@ public class BidService {
     @Autowired
     private TransporterRepository transporterRepository;
 
+    @Autowired
+    private StatusTransitionService statusTransitionService;
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    // pending trucks offered per truck type may reach this multiple of available trucks
+    @Value("${tms.bidding.overcommit-ratio:3.0}")
+    private double overcommitRatio = 3.0;
 
     public BidResponse submitBid(BidRequest request) {
         Load load = loadRepository.findById(request.getLoadId())
             .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", request.getLoadId()));
         
         // validate load status
-        if (load.getStatus() == LoadStatus.BOOKED || load.getStatus() == LoadStatus.CANCELLED) {
+        if (!load.getStatus().isOpen()) {
             throw new InvalidStatusTransitionException("Can't bid on a load with status " + load.getStatus());
         }
 
+        // obviously impossible? turned down from memory, no transporter read
+        if (capacityLedger.definitelyCannotCover(
+                request.getTransporterId(), load.getTruckType(), request.getTrucksOffered())) {
+            throw insufficientTrucks(request, load);
+        }
+
         Transporter transporter = transporterRepository.findById(request.getTransporterId())
             .orElseThrow(() -> new ResourceNotFoundException("Transporter", "transporterId", request.getTransporterId()));
+        capacityLedger.mirror(transporter);
         
         // does the transporter have enouught trucks?
         if (!transporter.canBid(load.getTruckType(), request.getTrucksOffered())) {
-            throw new InsufficientCapacityException(
-                String.format("Transporter doesn't have %d %s trucks available",
-                    request.getTrucksOffered(), load.getTruckType()));   
+            throw insufficientTrucks(request, load);
+        }
+
+        // and not already promised to too many other loads?
+        // (soft limit - two concurrent submits can both pass, acceptBid stays the hard check)
+        if (overcommitRatio > 0) {
+            long pendingTrucks = bidRepository.sumPendingTrucksOffered(
+                transporter.getTransporterId(), load.getTruckType());
+            if (!transporter.withinOvercommit(load.getTruckType(), pendingTrucks,
+                    request.getTrucksOffered(), overcommitRatio)) {
+                throw new InsufficientCapacityException(
+                    String.format("Transporter already offers %d %s trucks in pending bids against %d available",
+                        pendingTrucks, load.getTruckType(),
+                        transporter.getAvailableTrucks().getOrDefault(load.getTruckType(), 0)));
+            }
         }
 
         //create a Bid
@@ -70,21 +106,39 @@ public class BidService {
         Bid saved = bidRepository.save(bid);
 
         // upadte load status if this was the firstbid
+        // conditional UPDATE, no version bump - a booking in flight on this load is unaffected
         if (load.getStatus() == LoadStatus.POSTED) {
-            load.setStatus(LoadStatus.OPEN_FOR_BIDS);
-            loadRepository.save(load);
+            TransitionResult<LoadStatus> opened =
+                statusTransitionService.transitionLoad(load.getLoadId(), LoadStatus.OPEN_FOR_BIDS);
+
+            // lost a race: fine if another bid opened it, not if it was closed meanwhile
+            if (!opened.isApplied() && opened.getCurrentStatus() != LoadStatus.OPEN_FOR_BIDS) {
+                throw new InvalidStatusTransitionException(
+                    "Can't bid on a load with status " + opened.getCurrentStatus());
+            }
         }
 
         return BidMapper.toResponse(saved);
     }
 
     //get bids after applying filters
-    public Page<BidResponse> getBids(UUID loadId, UUID transporterId, BidStatus status, Pageable pageable) {
-        Page<Bid> bids = bidRepository.findByFilters(loadId, transporterId, status, pageable);
+    // a submitted-date range (either end optional, dates inclusive) restricts the scan to those months
+    @Transactional(readOnly = true)
+    public Page<BidResponse> getBids(UUID loadId, UUID transporterId, BidStatus status,
+                                     LocalDate submittedFrom, LocalDate submittedTo, Pageable pageable) {
+        if (submittedFrom == null && submittedTo == null) {
+            return bidRepository.findByFilters(loadId, transporterId, status, pageable).map(BidMapper::toResponse);
+        }
+
+        Timestamp from = submittedFrom == null ? EARLIEST : Timestamp.valueOf(submittedFrom.atStartOfDay());
+        Timestamp to = submittedTo == null ? LATEST : Timestamp.valueOf(submittedTo.plusDays(1).atStartOfDay());
+        Page<Bid> bids = bidRepository.findByFiltersSubmittedBetween(
+            loadId, transporterId, status, from, to, pageable);
         return bids.map(BidMapper::toResponse);
     }
 
     // get a single bid
+    @Transactional(readOnly = true)
     public BidResponse getBid(UUID bidId) {
         Bid bid = bidRepository.findById(bidId)
             .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", bidId));
@@ -93,13 +147,20 @@ public class BidService {
     }
 
     public void rejectBid(UUID bidId) {
-        Bid bid = bidRepository.findById(bidId)
-            .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", bidId));
-        
-        if (bid.getStatus() != BidStatus.PENDING) {
-            throw new InvalidStatusTransitionException("can only reject PENDING bids. Current status: " + bid.getStatus());
+        TransitionResult<BidStatus> result = statusTransitionService.transitionBid(bidId, BidStatus.REJECTED);
+
+        if (result.isMissing()) {
+            throw new ResourceNotFoundException("Bid", "bidId", bidId);
+        }
+        if (!result.isApplied()) {
+            throw new InvalidStatusTransitionException(
+                "can only reject PENDING bids. Current status: " + result.getCurrentStatus());
         }
-        bid.setStatus(BidStatus.REJECTED);
-        bidRepository.save(bid);
+    }
+
+    private InsufficientCapacityException insufficientTrucks(BidRequest request, Load load) {
+        return new InsufficientCapacityException(
+            String.format("Transporter doesn't have %d %s trucks available",
+                request.getTrucksOffered(), load.getTruckType()));
     }
 }
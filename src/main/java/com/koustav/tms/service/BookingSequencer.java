@@ -0,0 +1,233 @@
+package com.koustav.tms.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.service.BookingService.AcceptOutcome;
+import com.koustav.tms.shard.ShardContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional accept path (tms.booking.sequencer.enabled=true) for hot loads.
+ *
+ * PROBLEM:
+ * N shippers' clicks on the same load run N acceptBid transactions in
+ * parallel. They all read the same Load row and all but one fail the
+ * version check, so the callers retry and collide again.
+ *
+ * APPROACH (mailbox per load):
+ * - each accept is routed by hash(loadId) to one of N single-threaded stripes,
+ *   so all accepts for one load run on one thread, one after the other
+ * - the stripe takes everything waiting in its mailbox and commits the accepts
+ *   for each load together (BookingService.acceptBidsForLoad: one transaction,
+ *   one load lock, validated against the load read once)
+ * - while a batch commits, new accepts queue up and form the next batch
+ *   → throughput grows with contention instead of collapsing
+ *
+ * Each caller blocks on its own future and gets its own booking or its own
+ * exception. If a whole batch fails (e.g. a transporter changed under it on
+ * another load), its accepts are retried one transaction each via acceptBid.
+ *
+ * The mailbox only orders work within this node; the load row lock keeps
+ * several nodes correct.
+ *
+ * Metrics:
+ * - tms.booking.sequencer.batch.size (accepts per group commit)
+ * - tms.booking.sequencer.fallbacks (batches retried one by one)
+ * - tms.booking.sequencer.mailbox.size (gauge)
+ */
+@Service
+public class BookingSequencer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSequencer.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.booking.sequencer.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${tms.booking.sequencer.stripes:16}")
+    private int stripes = 16;
+
+    @Value("${tms.booking.sequencer.max-batch:50}")
+    private int maxBatch = 50;
+
+    private ExecutorService[] executors;
+    private List<Queue<PendingAccept>> mailboxes;
+
+    private DistributionSummary batchSize;
+    private Counter fallbacks;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        executors = new ExecutorService[stripes];
+        mailboxes = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            String name = "booking-sequencer-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            mailboxes.add(new ConcurrentLinkedQueue<>());
+        }
+
+        batchSize = DistributionSummary.builder("tms.booking.sequencer.batch.size")
+            .description("accepts committed together for one load")
+            .register(meterRegistry);
+        fallbacks = Counter.builder("tms.booking.sequencer.fallbacks")
+            .description("group commits that failed and were retried one accept at a time")
+            .register(meterRegistry);
+        Gauge.builder("tms.booking.sequencer.mailbox.size", this, BookingSequencer::pending)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Same contract as BookingService.acceptBid: the booking, or the exception acceptBid would throw
+     */
+    public BookingResponse accept(BookingRequest request) {
+        UUID bidId = request.getBidId();
+        UUID loadId = bidRepository.findLoadIdByBidId(bidId)
+            .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", bidId));
+
+        PendingAccept pending = new PendingAccept(request, loadId);
+        int stripe = Math.floorMod(loadId.hashCode(), stripes);
+        mailboxes.get(stripe).add(pending);
+        executors[stripe].execute(() -> drain(stripe));
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executors == null) {
+            return;
+        }
+        // let queued accepts finish, their callers are waiting
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        for (ExecutorService executor : executors) {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Booking sequencer stripe did not drain in time");
+            }
+        }
+    }
+
+    /**
+     * Runs on the stripe's thread. One call per submitted accept, but the
+     * first one usually picks up the whole mailbox and the rest find it empty.
+     */
+    private void drain(int stripe) {
+        Queue<PendingAccept> mailbox = mailboxes.get(stripe);
+        Map<UUID, List<PendingAccept>> byLoad = new LinkedHashMap<>();
+
+        PendingAccept next;
+        int taken = 0;
+        while (taken < maxBatch && (next = mailbox.poll()) != null) {
+            byLoad.computeIfAbsent(next.loadId, id -> new ArrayList<>()).add(next);
+            taken++;
+        }
+
+        byLoad.forEach(this::commitGroup);
+    }
+
+    private void commitGroup(UUID loadId, List<PendingAccept> group) {
+        List<BookingRequest> requests = group.stream().map(p -> p.request).toList();
+
+        List<AcceptOutcome> outcomes;
+        try {
+            // the stripe thread takes the shard the callers were on (one load = one shard)
+            outcomes = ShardContext.callOn(group.get(0).shard, () -> bookingService.acceptBidsForLoad(loadId, requests));
+        } catch (RuntimeException e) {
+            log.debug("Group commit of {} accepts on load {} failed, retrying one by one", group.size(), loadId, e);
+            fallbacks.increment();
+            group.forEach(this::acceptAlone);
+            return;
+        }
+
+        batchSize.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            AcceptOutcome outcome = outcomes.get(i);
+            CompletableFuture<BookingResponse> result = group.get(i).result;
+            if (outcome.isBooked()) {
+                result.complete(outcome.getResponse());
+            } else {
+                result.completeExceptionally(outcome.getError());
+            }
+        }
+    }
+
+    private void acceptAlone(PendingAccept pending) {
+        try {
+            pending.result.complete(ShardContext.callOn(pending.shard, () -> bookingService.acceptBid(pending.request)));
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private double pending() {
+        return mailboxes.stream().mapToInt(Queue::size).sum();
+    }
+
+    private static final class PendingAccept {
+
+        private final BookingRequest request;
+        private final UUID loadId;
+        private final int shard = ShardContext.current();
+        private final CompletableFuture<BookingResponse> result = new CompletableFuture<>();
+
+        private PendingAccept(BookingRequest request, UUID loadId) {
+            this.request = request;
+            this.loadId = loadId;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.koustav.tms.service;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import jakarta.persistence.OptimisticLockException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
 import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.AutoBookingResponse;
 import com.koustav.tms.dto.response.BookingResponse;
 import com.koustav.tms.entity.Bid;
 import com.koustav.tms.entity.BidStatus;
@@ -18,15 +29,20 @@ import com.koustav.tms.entity.BookingStatus;
 import com.koustav.tms.entity.Load;
 import com.koustav.tms.entity.LoadStatus;
 import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
 import com.koustav.tms.exception.ConflictException;
 import com.koustav.tms.exception.InsufficientCapacityException;
 import com.koustav.tms.exception.InvalidStatusTransitionException;
 import com.koustav.tms.exception.ResourceNotFoundException;
 import com.koustav.tms.mapper.BookingMapper;
 import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.CapacityNeed;
 import com.koustav.tms.repository.BookingRepository;
 import com.koustav.tms.repository.LoadRepository;
 import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
+import com.koustav.tms.strategy.BidScoringStrategy;
 
 @Service
 public class BookingService {
@@ -44,7 +60,30 @@ public class BookingService {
     private TransporterRepository transporterRepository;
     
     @Autowired
-    private BidTransactionService bidTransactionService;  // ← NEW: Inject separate service
+    private BidRejectionQueue bidRejectionQueue;
+
+    @Autowired
+    private BidScoringStrategy bidScoringStrategy;
+
+    @Autowired
+    private StatusTransitionService statusTransitionService;
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    @Autowired
+    private HomeShardCapacity homeCapacity;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // booking paths open their transaction themselves: capacity on another
+    // shard is held before it and settled after it (HomeShardCapacity)
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
     public BookingResponse getBooking(UUID bookingId) {
@@ -54,11 +93,35 @@ public class BookingService {
         return BookingMapper.toResponse(booking);
     }
 
-    @Transactional
+    /**
+     * Accept one bid.
+     *
+     * Lock order as in autoBook and the batch paths: load row (FOR UPDATE),
+     * then the bid's transporter, then the bid claim. Only ids are read before
+     * the locks, so the load and transporter entities hold locked state, and an
+     * accept never waits on a load while holding a transporter another
+     * booking path needs.
+     */
     public BookingResponse acceptBid(BookingRequest request) {
+        CapacityHolds holds = holdTrucks(() -> bidRepository.findPendingCapacityNeeds(List.of(request.getBidId())));
         try {
-            Bid bid = bidRepository.findById(request.getBidId())
-                .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", request.getBidId()));
+            return transactionTemplate.execute(status -> acceptBid(request, holds));
+        } finally {
+            homeCapacity.settle(holds);
+        }
+    }
+
+    private BookingResponse acceptBid(BookingRequest request, CapacityHolds holds) {
+        try {
+            UUID bidId = request.getBidId();
+            UUID loadId = bidRepository.findLoadIdByBidId(bidId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", bidId));
+            loadRepository.findByIdForUpdate(loadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
+            transporterRepository.findAllByIdForUpdate(bidRepository.findTransporterIdsByBidIds(List.of(bidId)));
+
+            Bid bid = bidRepository.findById(bidId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bid", "bidId", bidId));
             
             // Validate bid status
             if (bid.getStatus() != BidStatus.PENDING) {
@@ -69,32 +132,39 @@ public class BookingService {
             Load load = bid.getLoad();
             Transporter transporter = bid.getTransporter();
 
-            // Calculate remaining capacity
-            Integer allocatedSum = bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(
-                load.getLoadId(), BookingStatus.CONFIRMED);
-            int currentlyAllocated = allocatedSum != null ? allocatedSum : 0;
-            int remainingTrucks = load.getNoOfTrucks() - currentlyAllocated;
+            // Remaining capacity - maintained counter on the load row
+            int remainingTrucks = load.getRemainingTrucks();
 
-            // Validate load capacity
-            if (bid.getTrucksOffered() > remainingTrucks) {
-                throw new InsufficientCapacityException(
-                    String.format("Load only needs %d more trucks, but bid offers %d",
-                        remainingTrucks, bid.getTrucksOffered()));
-            }
+            // Validate load capacity (all of the bid, or what's left with allowPartial)
+            int trucksToBook = trucksToBook(bid, remainingTrucks, request.isAllowPartial());
 
             // Phase 2: Prevent overbooking
-            if (!transporter.canAcceptBooking(load.getTruckType(), bid.getTrucksOffered())) {
-                // ✅ Call separate service (goes through Spring proxy!)
-                bidTransactionService.rejectBidInNewTransaction(bid.getBidId());
-                
-                // Now throw exception (bid rejection already committed)
+            if (!reserveTrucks(bid, load.getTruckType(), trucksToBook, holds)) {
+                // This transaction rolls back below - the rejection is applied
+                // after it has ended, without holding a second connection
+                bidRejectionQueue.enqueue(bid.getBidId());
+                if (homeCapacity.isHome(transporter.getTransporterId())) {
+                    // the row as read is committed state - let the ledger catch up with it
+                    capacityLedger.apply(transporter);
+                }
+
                 throw new InsufficientCapacityException(
                     String.format("Transporter no longer has sufficient %s capacity. Bid automatically rejected.",
                         load.getTruckType()));
             }
 
+            // Claim the bid: PENDING → ACCEPTED in one conditional UPDATE.
+            // The check above is only a fast path - this is what stops an accept
+            // racing a withdrawal or expiry (which don't lock the load).
+            // (a throw rolls back - a home shard hold is settled back then)
+            TransitionResult<BidStatus> claimed = statusTransitionService.transitionBid(bid.getBidId(), BidStatus.ACCEPTED);
+            if (!claimed.isApplied()) {
+                throw new InvalidStatusTransitionException(
+                    "Can only accept PENDING bids. Current status: " + claimed.getCurrentStatus());
+            }
+
             // Deduct trucks (triggers optimistic lock check on save)
-            transporter.deductTrucks(load.getTruckType(), bid.getTrucksOffered());
+            takeTrucks(transporter, load.getTruckType(), trucksToBook);
             transporterRepository.save(transporter);
 
             // Create booking
@@ -102,7 +172,7 @@ public class BookingService {
                 .bid(bid)
                 .load(load)
                 .transporter(transporter)
-                .allocatedTrucks(bid.getTrucksOffered())
+                .allocatedTrucks(trucksToBook)
                 .finalRate(bid.getProposedRate())
                 .status(BookingStatus.CONFIRMED)
                 .bookedAt(new Timestamp(System.currentTimeMillis()))
@@ -110,14 +180,12 @@ public class BookingService {
             
             Booking saved = bookingRepository.save(booking);
 
-            // Update bid status
-            bid.setStatus(BidStatus.ACCEPTED);
-            bidRepository.save(bid);
-
-            // Update load status if fully booked
-            int newRemaining = remainingTrucks - bid.getTrucksOffered();
-            if (newRemaining == 0) {
+            // Update allocation and load status if fully booked
+            load.allocateTrucks(trucksToBook);
+            if (load.getRemainingTrucks() == 0) {
                 load.setStatus(LoadStatus.BOOKED);
+                // losing bids can never be accepted now - one UPDATE, not a save per bid
+                bidRepository.rejectPendingByLoadId(load.getLoadId());
             }
             // ALWAYS save load (triggers version check for concurrent requests)
             //Shipper accepts overbooking on a same load, we should throw exception
@@ -133,39 +201,503 @@ public class BookingService {
         }
     }
 
-    @Transactional
+    /**
+     * Group commit for BookingSequencer: several accepts on ONE load in one transaction.
+     *
+     * Same rules as acceptBid, applied one request after the other against
+     * the load state read once under its row lock, so accepts on a hot load
+     * never abort each other. A request that fails validation gets its own
+     * error outcome and leaves the rest of the batch alone.
+     *
+     * Lock order as in autoBook: load first, then the transporters sorted by id.
+     *
+     * @return one outcome per request, in request order
+     */
+    public List<AcceptOutcome> acceptBidsForLoad(UUID loadId, List<BookingRequest> requests) {
+        List<UUID> bidIds = requests.stream().map(BookingRequest::getBidId).toList();
+        CapacityHolds holds = holdTrucks(() -> bidRepository.findPendingCapacityNeeds(bidIds));
+        try {
+            return transactionTemplate.execute(status -> acceptBidsForLoad(loadId, requests, bidIds, holds));
+        } finally {
+            homeCapacity.settle(holds);
+        }
+    }
+
+    private List<AcceptOutcome> acceptBidsForLoad(
+            UUID loadId, List<BookingRequest> requests, List<UUID> bidIds, CapacityHolds holds) {
+        Load load = loadRepository.findByIdForUpdate(loadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
+
+        List<UUID> transporterIds = bidRepository.findTransporterIdsByBidIds(bidIds);
+        if (!transporterIds.isEmpty()) {
+            transporterRepository.findAllByIdForUpdate(transporterIds);
+        }
+
+        Map<UUID, Bid> bidsById = new HashMap<>();
+        bidRepository.findAllById(bidIds).forEach(bid -> bidsById.put(bid.getBidId(), bid));
+
+        List<Booking> bookings = new ArrayList<>();
+        List<AcceptOutcome> outcomes = acceptOnLockedLoad(load, requests, bidsById, bookings, holds);
+
+        // transporters are managed - flushed with the commit
+        bookingRepository.saveAll(bookings);
+        loadRepository.save(load);
+
+        return outcomes;
+    }
+
+    /**
+     * One chunk of POST /booking/batch: accepts spread over several loads,
+     * validated and allocated together in one transaction.
+     *
+     * Locks in the canonical order - all loads sorted by id, then all
+     * transporters sorted by id - so chunks that share transporters or loads
+     * queue behind each other instead of deadlocking, and never deadlock
+     * with autoBook or acceptBidsForLoad (same order, fewer rows).
+     *
+     * @return one outcome per request, loads in map order, requests in list order
+     */
+    public List<AcceptOutcome> acceptBidsForLoads(Map<UUID, List<BookingRequest>> requestsByLoad) {
+        List<UUID> bidIds = requestsByLoad.values().stream()
+            .flatMap(List::stream)
+            .map(BookingRequest::getBidId)
+            .toList();
+        CapacityHolds holds = holdTrucks(() -> bidRepository.findPendingCapacityNeeds(bidIds));
+        try {
+            return transactionTemplate.execute(status -> acceptBidsForLoads(requestsByLoad, bidIds, holds));
+        } finally {
+            homeCapacity.settle(holds);
+        }
+    }
+
+    private List<AcceptOutcome> acceptBidsForLoads(
+            Map<UUID, List<BookingRequest>> requestsByLoad, List<UUID> bidIds, CapacityHolds holds) {
+        List<UUID> loadIds = requestsByLoad.keySet().stream().sorted().toList();
+
+        Map<UUID, Load> loadsById = new HashMap<>();
+        loadRepository.findAllByIdForUpdate(loadIds).forEach(load -> loadsById.put(load.getLoadId(), load));
+
+        List<UUID> transporterIds = bidRepository.findTransporterIdsByBidIds(bidIds);
+        if (!transporterIds.isEmpty()) {
+            transporterRepository.findAllByIdForUpdate(transporterIds);
+        }
+
+        Map<UUID, Bid> bidsById = new HashMap<>();
+        bidRepository.findAllById(bidIds).forEach(bid -> bidsById.put(bid.getBidId(), bid));
+
+        List<AcceptOutcome> outcomes = new ArrayList<>(bidIds.size());
+        List<Booking> bookings = new ArrayList<>();
+
+        requestsByLoad.forEach((loadId, requests) -> {
+            Load load = loadsById.get(loadId);
+            if (load == null) {
+                requests.forEach(request -> outcomes.add(AcceptOutcome.failed(
+                    request.getBidId(), new ResourceNotFoundException("Load", "loadId", loadId))));
+                return;
+            }
+            outcomes.addAll(acceptOnLockedLoad(load, requests, bidsById, bookings, holds));
+        });
+
+        bookingRepository.saveAll(bookings);
+        loadRepository.saveAll(loadsById.values());
+
+        return outcomes;
+    }
+
+    /**
+     * acceptBid's rules for several requests on one load whose row (and whose
+     * bids' transporters) the caller has locked. New bookings are added to
+     * bookings for the caller to save.
+     */
+    private List<AcceptOutcome> acceptOnLockedLoad(Load load, List<BookingRequest> requests,
+            Map<UUID, Bid> bidsById, List<Booking> bookings, CapacityHolds holds) {
+        UUID loadId = load.getLoadId();
+        String truckType = load.getTruckType();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<AcceptOutcome> outcomes = new ArrayList<>(requests.size());
+        boolean booked = false;
+
+        for (BookingRequest request : requests) {
+            UUID bidId = request.getBidId();
+            Bid bid = bidsById.get(bidId);
+            if (bid == null || !bid.getLoad().getLoadId().equals(loadId)) {
+                outcomes.add(AcceptOutcome.failed(bidId, new ResourceNotFoundException("Bid", "bidId", bidId)));
+                continue;
+            }
+
+            if (bid.getStatus() != BidStatus.PENDING) {
+                outcomes.add(AcceptOutcome.failed(bidId, new InvalidStatusTransitionException(
+                    "Can only accept PENDING bids. Current status: " + bid.getStatus())));
+                continue;
+            }
+
+            int trucksToBook;
+            try {
+                trucksToBook = trucksToBook(bid, load.getRemainingTrucks(), request.isAllowPartial());
+            } catch (InsufficientCapacityException e) {
+                outcomes.add(AcceptOutcome.failed(bidId, e));
+                continue;
+            }
+
+            Transporter transporter = bid.getTransporter();
+            boolean reserved;
+            try {
+                reserved = reserveTrucks(bid, truckType, trucksToBook, holds);
+            } catch (ConflictException e) {
+                outcomes.add(AcceptOutcome.failed(bidId, e));
+                continue;
+            }
+            if (!reserved) {
+                bidRejectionQueue.enqueue(bidId);
+                if (homeCapacity.isHome(transporter.getTransporterId())) {
+                    capacityLedger.apply(transporter);
+                }
+                outcomes.add(AcceptOutcome.failed(bidId, new InsufficientCapacityException(
+                    String.format("Transporter no longer has sufficient %s capacity. Bid automatically rejected.",
+                        truckType))));
+                continue;
+            }
+
+            // conditional UPDATE - also catches a duplicate of the same bid in this batch
+            TransitionResult<BidStatus> claimed = statusTransitionService.transitionBid(bidId, BidStatus.ACCEPTED);
+            if (!claimed.isApplied()) {
+                // a home shard hold is settled back after the transaction
+                outcomes.add(AcceptOutcome.failed(bidId, new InvalidStatusTransitionException(
+                    "Can only accept PENDING bids. Current status: " + claimed.getCurrentStatus())));
+                continue;
+            }
+
+            takeTrucks(transporter, truckType, trucksToBook);
+            load.allocateTrucks(trucksToBook);
+
+            Booking booking = Booking.builder()
+                .bid(bid)
+                .load(load)
+                .transporter(transporter)
+                .allocatedTrucks(trucksToBook)
+                .finalRate(bid.getProposedRate())
+                .status(BookingStatus.CONFIRMED)
+                .bookedAt(now)
+                .build();
+            bookings.add(booking);
+            booked = true;
+            outcomes.add(AcceptOutcome.booked(bidId, booking));
+        }
+
+        if (booked && load.getRemainingTrucks() == 0) {
+            load.setStatus(LoadStatus.BOOKED);
+            bidRepository.rejectPendingByLoadId(loadId);
+        }
+
+        return outcomes;
+    }
+
+    /**
+     * Trucks a booking of this bid takes: all it offers, or - with allowPartial -
+     * just the remainingTrucks the load still needs. The bid is ACCEPTED either
+     * way; the transporter keeps the trucks that weren't needed.
+     */
+    private int trucksToBook(Bid bid, int remainingTrucks, boolean allowPartial) {
+        if (bid.getTrucksOffered() <= remainingTrucks) {
+            return bid.getTrucksOffered();
+        }
+        if (allowPartial && remainingTrucks > 0) {
+            return remainingTrucks;
+        }
+        throw new InsufficientCapacityException(
+            String.format("Load only needs %d more trucks, but bid offers %d",
+                remainingTrucks, bid.getTrucksOffered()));
+    }
+
+    /**
+     * Result of one accept inside acceptBidsForLoad - either a booking or the
+     * exception acceptBid would have thrown for it
+     */
+    public static final class AcceptOutcome {
+
+        private final UUID bidId;
+        private final Booking booking;
+        private final RuntimeException error;
+
+        private AcceptOutcome(UUID bidId, Booking booking, RuntimeException error) {
+            this.bidId = bidId;
+            this.booking = booking;
+            this.error = error;
+        }
+
+        static AcceptOutcome booked(UUID bidId, Booking booking) {
+            return new AcceptOutcome(bidId, booking, null);
+        }
+
+        static AcceptOutcome failed(UUID bidId, RuntimeException error) {
+            return new AcceptOutcome(bidId, null, error);
+        }
+
+        public UUID getBidId() {
+            return bidId;
+        }
+
+        public boolean isBooked() {
+            return error == null;
+        }
+
+        // read after commit - booking ids are assigned on saveAll
+        public BookingResponse getResponse() {
+            return BookingMapper.toResponse(booking);
+        }
+
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Sharded, with the transporter homed on another shard: the trucks to
+     * give back are recorded there first, and credited once the
+     * cancellation has committed (HomeShardCapacity.holdCredit / settle).
+     */
     public void cancelBooking(UUID bookingId) {
+        CapacityHolds holds = homeCapacity.isSharded()
+            ? bookingRepository.findConfirmedCapacityNeedById(bookingId)
+                .map(homeCapacity::holdCredit)
+                .orElseGet(CapacityHolds::none)
+            : CapacityHolds.none();
+        try {
+            transactionTemplate.executeWithoutResult(status -> cancelBooking(bookingId, holds));
+        } finally {
+            homeCapacity.settle(holds);
+        }
+    }
+
+    private void cancelBooking(UUID bookingId, CapacityHolds holds) {
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new ResourceNotFoundException("Booking", "bookingId", bookingId));
         
-        if (booking.getStatus() == BookingStatus.CANCELLED) {
-            throw new InvalidStatusTransitionException("Booking is already cancelled.");
+        // Cancel booking - conditional UPDATE, so a concurrent second cancel
+        // gets 0 rows here and can't restore the same trucks twice
+        TransitionResult<BookingStatus> result =
+            statusTransitionService.transitionBooking(bookingId, BookingStatus.CANCELLED);
+        if (!result.isApplied()) {
+            throw new InvalidStatusTransitionException(
+                "Booking is already " + result.getCurrentStatus().name().toLowerCase() + ".");
         }
 
-        // Cancel booking
-        booking.setStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
-
-        // Restore transporter trucks
+        // Restore transporter trucks - on its home shard (HomeShardCapacity)
         Load load = booking.getLoad();
         Transporter transporter = booking.getTransporter();
-        transporter.restoreTrucks(load.getTruckType(), booking.getAllocatedTrucks());
-        transporterRepository.save(transporter);
+        if (homeCapacity.isHome(transporter.getTransporterId())) {
+            transporter.restoreTrucks(load.getTruckType(), booking.getAllocatedTrucks());
+            transporterRepository.save(transporter);
+            transporterWritten(transporter);
+        } else if (!holds.isCrediting(booking.getBid().getBidId())) {
+            // confirmed only after the read before this transaction - nothing recorded to give back
+            throw new ConflictException("Booking",
+                "Its trucks couldn't be recorded for return on the transporter's home shard. Please retry.");
+        }
+
+        // Release the allocation on the load (saved with version check below)
+        load.releaseTrucks(booking.getAllocatedTrucks());
 
         // Update load status
         updateStatusAfterCancellation(load);
     }
 
+    /**
+     * Fill a load from its best PENDING bids in one transaction.
+     *
+     * Lock order (same for every multi-row booking path):
+     * 1. load row (FOR UPDATE)
+     * 2. transporters of the pending bids, sorted by id, one statement
+     *
+     * Greedy allocation by BidScoringStrategy score (best first):
+     * - bid offers more than the load still needs → skipped, a smaller bid may fit
+     * - transporter can no longer cover the bid → REJECTED (same rule as Phase 2 in acceptBid)
+     * - otherwise → booking CONFIRMED, bid ACCEPTED, trucks deducted
+     * Once the load is fully booked every remaining PENDING bid is REJECTED.
+     *
+     * Bids aren't locked, so every status change is a PENDING-guarded UPDATE
+     * (never a dirty bid entity): a bid withdrawn or expired since it was read
+     * is skipped instead of being booked or overwritten. rejectedBidIds in
+     * the response are the ids those UPDATEs actually changed.
+     *
+     * Sharded, every pending bid that fits the load and whose transporter
+     * is homed on another shard is held there first - more than the greedy
+     * pass may book; what it doesn't is settled back right after.
+     */
+    public AutoBookingResponse autoBook(UUID loadId) {
+        CapacityHolds holds = holdTrucks(() -> bidRepository.findPendingCapacityNeedsByLoadId(loadId));
+        try {
+            return transactionTemplate.execute(status -> autoBook(loadId, holds));
+        } finally {
+            homeCapacity.settle(holds);
+        }
+    }
+
+    private AutoBookingResponse autoBook(UUID loadId, CapacityHolds holds) {
+        Load load = loadRepository.findByIdForUpdate(loadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
+
+        if (!load.getStatus().isOpen()) {
+            throw new InvalidStatusTransitionException("Can't auto-book a load with status " + load.getStatus());
+        }
+
+        int remainingTrucks = load.getRemainingTrucks();
+
+        // lock transporters before their bids pull them into the persistence context
+        List<UUID> transporterIds = bidRepository.findPendingTransporterIdsByLoadId(loadId);
+        if (!transporterIds.isEmpty()) {
+            transporterRepository.findAllByIdForUpdate(transporterIds);
+        }
+
+        List<Bid> pendingBids = new ArrayList<>(bidRepository.findPendingByLoadId(loadId));
+        pendingBids.sort(Comparator.comparingDouble((Bid b) -> bidScoringStrategy.calculateScore(b)).reversed());
+
+        String truckType = load.getTruckType();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Booking> bookings = new ArrayList<>();
+        List<UUID> refusedBidIds = new ArrayList<>();
+
+        for (Bid bid : pendingBids) {
+            if (remainingTrucks == 0) {
+                break;
+            }
+
+            if (bid.getTrucksOffered() > remainingTrucks) {
+                continue;
+            }
+
+            Transporter transporter = bid.getTransporter();
+            boolean reserved;
+            try {
+                reserved = reserveTrucks(bid, truckType, bid.getTrucksOffered(), holds);
+            } catch (ConflictException e) {
+                // not held - another call holds it; left PENDING
+                continue;
+            }
+            if (!reserved) {
+                refusedBidIds.add(bid.getBidId());
+                continue;
+            }
+
+            if (!statusTransitionService.transitionBid(bid.getBidId(), BidStatus.ACCEPTED).isApplied()) {
+                // withdrawn or expired since it was read (a hold is settled back after the transaction)
+                continue;
+            }
+
+            takeTrucks(transporter, truckType, bid.getTrucksOffered());
+            load.allocateTrucks(bid.getTrucksOffered());
+            remainingTrucks -= bid.getTrucksOffered();
+
+            bookings.add(Booking.builder()
+                .bid(bid)
+                .load(load)
+                .transporter(transporter)
+                .allocatedTrucks(bid.getTrucksOffered())
+                .finalRate(bid.getProposedRate())
+                .status(BookingStatus.CONFIRMED)
+                .bookedAt(now)
+                .build());
+        }
+
+        // reported from what the UPDATEs changed, not from pendingBids as read
+        List<UUID> rejectedBidIds = new ArrayList<>();
+        if (!refusedBidIds.isEmpty()) {
+            rejectedBidIds.addAll(bidRepository.rejectPendingByIdsReturningIds(refusedBidIds));
+        }
+
+        if (remainingTrucks == 0) {
+            load.setStatus(LoadStatus.BOOKED);
+
+            // load is full - nothing left can ever be accepted, one UPDATE
+            rejectedBidIds.addAll(bidRepository.rejectPendingByLoadIdReturningIds(loadId));
+        }
+
+        // transporters are managed - flushed with the commit, no per-row save needed
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        loadRepository.save(load);
+
+        return AutoBookingResponse.builder()
+            .loadId(loadId)
+            .status(load.getStatus())
+            .remainingTrucks(remainingTrucks)
+            .bookings(saved.stream().map(BookingMapper::toResponse).toList())
+            .rejectedBidIds(rejectedBidIds)
+            .build();
+    }
+
+    /**
+     * Sharded only: hold what the bids would book on their transporters'
+     * home shards, before the booking transaction opens - so it never needs
+     * a second connection. Every caller settles the result afterwards.
+     */
+    private CapacityHolds holdTrucks(Supplier<List<CapacityNeed>> needs) {
+        if (!homeCapacity.isSharded()) {
+            return CapacityHolds.none();
+        }
+        return homeCapacity.hold(needs.get());
+    }
+
+    /**
+     * Phase 2 - can the transporter still cover the trucks? Asked of its
+     * authoritative copy (HomeShardCapacity): the row locked here, or - homed
+     * on another shard - the hold taken there before this transaction.
+     * @throws ConflictException when the bid has no hold (another call holds it)
+     */
+    private boolean reserveTrucks(Bid bid, String truckType, int trucks, CapacityHolds holds) {
+        Transporter transporter = bid.getTransporter();
+        if (homeCapacity.isHome(transporter.getTransporterId())) {
+            return transporter.canAcceptBooking(truckType, trucks);
+        }
+        if (holds.covers(bid.getBidId(), trucks)) {
+            return true;
+        }
+        if (holds.isRefused(bid.getBidId())) {
+            return false;
+        }
+        throw new ConflictException("Transporter",
+            "Its capacity for this bid couldn't be held on its home shard. Please retry.");
+    }
+
+    // the bid is claimed - deducts the locked row when this shard is home (else its hold took them)
+    private void takeTrucks(Transporter transporter, String truckType, int trucks) {
+        if (homeCapacity.isHome(transporter.getTransporterId())) {
+            transporter.deductTrucks(truckType, trucks);
+            transporterWritten(transporter);
+            publishCapacityReduced(transporter, truckType);
+        }
+    }
+
+    /**
+     * available_trucks changed in this transaction: this node's ledger
+     * mirrors it on commit, the other nodes drop their copy
+     */
+    private void transporterWritten(Transporter transporter) {
+        capacityLedger.mirror(transporter);
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, transporter.getTransporterId(), transporter.getVersion());
+    }
+
+    /**
+     * Once the booking commits, the transporter's other bids it can no longer
+     * cover are rejected in one go (InfeasibleBidWithdrawalListener).
+     * The event carries the count left right after this deduction; the
+     * listener only takes the truck type from it and judges the bids against
+     * the count current when it runs. Published once per deduction, so a
+     * batch booking several bids of one transporter costs one mostly no-op
+     * query per extra event.
+     */
+    private void publishCapacityReduced(Transporter transporter, String truckType) {
+        eventPublisher.publishEvent(new TransporterCapacityReducedEvent(
+            transporter.getTransporterId(), Map.of(truckType, transporter.getAvailableTrucks().get(truckType))));
+    }
+
     private void updateStatusAfterCancellation(Load load) {
-        Integer allocatedSum = bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(
-            load.getLoadId(), BookingStatus.CONFIRMED);
-        int currentlyAllocated = allocatedSum != null ? allocatedSum : 0;
-        int remainingTrucks = load.getNoOfTrucks() - currentlyAllocated;
+        int remainingTrucks = load.getRemainingTrucks();
 
-        if (remainingTrucks == load.getNoOfTrucks()) {
+        if (load.getStatus().isTerminal()) {
+            // EXPIRED / CANCELLED stay closed - only the allocation is released
+        } else if (remainingTrucks == load.getNoOfTrucks()) {
             // All bookings cancelled - check for pending bids
-            long pendingBids = bidRepository.countByLoad_LoadIdAndStatus(
-                load.getLoadId(), BidStatus.PENDING);
+            long pendingBids = bidRepository.countPendingByLoadId(load.getLoadId());
             
             if (pendingBids > 0) {
                 load.setStatus(LoadStatus.OPEN_FOR_BIDS);
@@ -0,0 +1,75 @@
+package com.koustav.tms.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.koustav.tms.entity.CapacityHold;
+import com.koustav.tms.entity.CapacityHoldKind;
+
+/**
+ * The capacity HomeShardCapacity has held on home shards for one booking
+ * call, by bid: made before the booking transaction opens, read inside it
+ * (BookingService.reserveTrucks), settled once it has ended.
+ * A bid in none of these wasn't held - its transporter is at home, or
+ * another call holds it right now.
+ */
+public final class CapacityHolds {
+
+    private final List<CapacityHold> holds = new ArrayList<>();
+    private final Map<UUID, CapacityHold> debits = new HashMap<>();
+    private final Set<UUID> credits = new HashSet<>();
+    private final Set<UUID> refused = new HashSet<>();
+
+    public static CapacityHolds none() {
+        return new CapacityHolds();
+    }
+
+    void held(CapacityHold hold) {
+        holds.add(hold);
+        if (hold.getKind() == CapacityHoldKind.DEBIT) {
+            debits.put(hold.getBidId(), hold);
+        } else {
+            credits.add(hold.getBidId());
+        }
+    }
+
+    void refused(UUID bidId) {
+        refused.add(bidId);
+    }
+
+    /**
+     * @return true when the trucks were taken on the home shard for this bid
+     */
+    public boolean covers(UUID bidId, int trucks) {
+        CapacityHold debit = debits.get(bidId);
+        return debit != null && debit.getTrucks() >= trucks;
+    }
+
+    /**
+     * @return true when the home shard couldn't cover the bid - it can be rejected
+     */
+    public boolean isRefused(UUID bidId) {
+        return refused.contains(bidId);
+    }
+
+    /**
+     * @return true when the trucks of this bid's booking are recorded to go back to the home shard
+     */
+    public boolean isCrediting(UUID bidId) {
+        return credits.contains(bidId);
+    }
+
+    public boolean isEmpty() {
+        return holds.isEmpty();
+    }
+
+    List<CapacityHold> all() {
+        return Collections.unmodifiableList(holds);
+    }
+}
@@ -0,0 +1,52 @@
+package com.koustav.tms.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.archive.ArchiveRecord;
+import com.koustav.tms.archive.HistoryQuery;
+import com.koustav.tms.archive.SegmentStore;
+import com.koustav.tms.dto.response.HistoryResponse;
+
+/**
+ * Lookups over archived bids and bookings (see HistoryArchiveJob).
+ * Reads the segment files only - rows still in the tables are served by /bid and /booking.
+ */
+@Service
+public class HistoryService {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private SegmentStore segmentStore;
+
+    /**
+     * @param from first day, inclusive (null = no lower bound)
+     * @param to   last day, inclusive (null = no upper bound); before from = nothing
+     */
+    public HistoryResponse getHistory(ArchiveKind kind, UUID transporterId, String loadingCity,
+                                      String unloadingCity, LocalDate from, LocalDate to, Integer limit) {
+        HistoryQuery query = HistoryQuery.builder()
+            .transporterId(transporterId)
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .from(from == null ? null : Timestamp.valueOf(from.atStartOfDay()))
+            .to(to == null ? null : Timestamp.valueOf(to.plusDays(1).atStartOfDay()))
+            .limit(limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT)))
+            .build();
+
+        List<ArchiveRecord> records = segmentStore.query(kind, query);
+        return HistoryResponse.builder()
+            .kind(kind)
+            .count(records.size())
+            .records(records)
+            .build();
+    }
+}
@@ -0,0 +1,374 @@
+package com.koustav.tms.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.CapacityHold;
+import com.koustav.tms.entity.CapacityHoldKind;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.repository.BidRepository.CapacityNeed;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.BookingRepository.BookedTrucks;
+import com.koustav.tms.repository.CapacityHoldRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Transporter capacity under sharding: one authoritative copy per transporter.
+ *
+ * PROBLEM:
+ * A transporter is copied to every shard (bids and bookings keep their
+ * foreign keys local). If each booking deducted the copy on its load's
+ * shard, a transporter with 10 trucks could book 10 on every shard.
+ *
+ * RULE:
+ * available_trucks is authoritative on the transporter's home shard only -
+ * the shard in its id (ShardRouter.homeShardOf), picked at registration.
+ * The other copies keep the declared fleet for the soft checks at bid time.
+ * - booking on the home shard: BookingService deducts the row it has
+ *   locked, as before
+ * - booking on another shard: hold -> book -> settle, below
+ *
+ * HOLD -> BOOK -> SETTLE:
+ * A request never holds two connections (one per pool at most, one at a
+ * time), and nothing here runs inside a transaction - each step is a
+ * short transaction of its own, on one shard:
+ * 1. hold(): before the booking transaction opens, one home shard
+ *    transaction per bid takes the trucks (conditional UPDATE) and writes
+ *    a capacity_hold row (DEBIT) with them
+ * 2. the booking transaction on the load's shard books against the holds
+ *    (CapacityHolds) - it never touches the home shard
+ * 3. settle(): once it has ended, the booking's row on the bid's shard
+ *    says what was used; one home shard transaction deletes the hold and
+ *    credits back what the booking didn't take (all of it if there's no
+ *    booking: rolled back, or the bid wasn't claimed)
+ * A cancellation writes a CREDIT hold first and settles it the same way:
+ * the trucks go back only if the booking is CANCELLED by then.
+ *
+ * The hold row commits with the capacity change, so the two databases
+ * can't disagree for good: a request that dies before settle() leaves
+ * its holds to CapacityHoldResolutionJob, which settles them once past
+ * tms.sharding.capacity-hold-timeout - longer than any booking
+ * transaction, so it never settles one that may still commit. Until
+ * then the held trucks are unavailable. Only the transaction that
+ * deletes a hold credits, so the request and the job can't both.
+ * (bid_id, kind) is unique: a second concurrent accept of the same bid
+ * gets nothing held and a ConflictException.
+ *
+ * A home shard transaction waits at most tms.sharding.capacity-lock-timeout
+ * for the transporter row (a booking on the home shard may hold it); the
+ * caller gets a ConflictException and retries. With one shard every
+ * transporter is at home and none of this runs.
+ *
+ * Metrics:
+ * - tms.capacity.home.writes{op=hold, outcome=applied|insufficient|busy}
+ * - tms.capacity.home.writes{op=settle, outcome=applied|failed}
+ */
+@Service
+public class HomeShardCapacity {
+
+    private static final Logger log = LoggerFactory.getLogger(HomeShardCapacity.class);
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private CapacityHoldRepository holdRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.sharding.capacity-lock-timeout:PT2S}")
+    private Duration lockTimeout = Duration.ofSeconds(2);
+
+    @Value("${tms.sharding.capacity-hold-timeout:PT5M}")
+    private Duration holdTimeout = Duration.ofMinutes(5);
+
+    private TransactionTemplate homeTransaction;
+
+    private Counter held;
+    private Counter insufficient;
+    private Counter busy;
+    private Counter settled;
+    private Counter failedSettles;
+
+    @PostConstruct
+    void registerMetrics() {
+        // never nested: every caller is outside a transaction (requireNoTransaction)
+        homeTransaction = new TransactionTemplate(transactionManager);
+
+        held = writeCounter("hold", "applied");
+        insufficient = writeCounter("hold", "insufficient");
+        busy = writeCounter("hold", "busy");
+        settled = writeCounter("settle", "applied");
+        failedSettles = writeCounter("settle", "failed");
+    }
+
+    /**
+     * @return true when there is more than one shard - only then can a transporter be homed elsewhere
+     */
+    public boolean isSharded() {
+        return shardRouter.shardCount() > 1;
+    }
+
+    /**
+     * @return true when the current shard holds the transporter's authoritative capacity
+     */
+    public boolean isHome(UUID transporterId) {
+        return shardRouter.homeShardOf(transporterId) == ShardContext.current();
+    }
+
+    /**
+     * Take the trucks of each bid whose transporter is homed on another
+     * shard, before the booking transaction opens. settle() the result
+     * once that transaction has ended, whatever its outcome.
+     * @param needs what each bid would book (bids of home transporters are skipped)
+     */
+    public CapacityHolds hold(List<CapacityNeed> needs) {
+        requireNoTransaction("hold");
+        CapacityHolds holds = new CapacityHolds();
+        Timestamp expiresAt = new Timestamp(System.currentTimeMillis() + holdTimeout.toMillis());
+
+        try {
+            for (CapacityNeed need : needs) {
+                if (isHome(need.getTransporterId())) {
+                    continue;
+                }
+                CapacityHold hold = CapacityHold.builder()
+                    .bidId(need.getBidId())
+                    .kind(CapacityHoldKind.DEBIT)
+                    .transporterId(need.getTransporterId())
+                    .truckType(need.getTruckType())
+                    .trucks(need.getTrucks())
+                    .expiresAt(expiresAt)
+                    .build();
+                try {
+                    boolean taken = onHomeShard(need.getTransporterId(), () -> {
+                        if (transporterRepository.debitTrucks(
+                                hold.getTransporterId(), hold.getTruckType(), hold.getTrucks()) == 0) {
+                            return false;
+                        }
+                        holdRepository.saveAndFlush(hold);
+                        changed(hold.getTransporterId());
+                        return true;
+                    });
+                    if (taken) {
+                        held.increment();
+                        holds.held(hold);
+                    } else {
+                        insufficient.increment();
+                        holds.refused(need.getBidId());
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // another accept of this bid holds it - the debit rolled back with the insert
+                    busy.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            settle(holds);
+            throw e;
+        }
+        return holds;
+    }
+
+    /**
+     * Record, before the cancellation transaction opens, that a booking's
+     * trucks go back to its transporter's home shard; settle() credits them
+     * once that transaction has committed.
+     * @return nothing held when the transporter is at home
+     */
+    public CapacityHolds holdCredit(CapacityNeed booking) {
+        requireNoTransaction("holdCredit");
+        CapacityHolds holds = new CapacityHolds();
+        if (isHome(booking.getTransporterId())) {
+            return holds;
+        }
+        CapacityHold hold = CapacityHold.builder()
+            .bidId(booking.getBidId())
+            .kind(CapacityHoldKind.CREDIT)
+            .transporterId(booking.getTransporterId())
+            .truckType(booking.getTruckType())
+            .trucks(booking.getTrucks())
+            .expiresAt(new Timestamp(System.currentTimeMillis() + holdTimeout.toMillis()))
+            .build();
+        try {
+            onHomeShard(booking.getTransporterId(), () -> holdRepository.saveAndFlush(hold));
+        } catch (DataIntegrityViolationException e) {
+            busy.increment();
+            throw new ConflictException("Booking", "It is already being cancelled. Please retry.");
+        }
+        holds.held(hold);
+        return holds;
+    }
+
+    /**
+     * Resolve the holds of a booking call whose transaction has ended.
+     * Never throws: a hold that can't be settled now stays for
+     * CapacityHoldResolutionJob.
+     */
+    public void settle(CapacityHolds holds) {
+        if (holds.isEmpty()) {
+            return;
+        }
+        requireNoTransaction("settle");
+        for (CapacityHold hold : holds.all()) {
+            try {
+                resolve(hold);
+            } catch (RuntimeException e) {
+                failedSettles.increment();
+                log.warn("Could not settle the {} hold of {} {} trucks for bid {} - "
+                    + "CapacityHoldResolutionJob settles it after {}",
+                    hold.getKind(), hold.getTrucks(), hold.getTruckType(), hold.getBidId(), hold.getExpiresAt(), e);
+            }
+        }
+    }
+
+    /**
+     * Used by: CapacityHoldResolutionJob - settle holds on the current shard
+     * that are past their timeout
+     * @return number of holds settled by this call
+     */
+    public int resolveExpired(int limit) {
+        requireNoTransaction("resolveExpired");
+        int resolved = 0;
+        for (CapacityHold hold : holdRepository.findExpired(new Timestamp(System.currentTimeMillis()), limit)) {
+            try {
+                if (resolve(hold)) {
+                    resolved++;
+                }
+            } catch (RuntimeException e) {
+                failedSettles.increment();
+                log.warn("Could not settle the expired {} hold of bid {}", hold.getKind(), hold.getBidId(), e);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Current count on the home shard, read in a transaction of its own
+     * (a missing truck type counts as 0)
+     */
+    public int availableTrucks(UUID transporterId, String truckType) {
+        requireNoTransaction("availableTrucks");
+        Integer available = onHomeShard(transporterId,
+            () -> transporterRepository.findAvailableTrucks(transporterId, truckType));
+        return available == null ? 0 : available;
+    }
+
+    /**
+     * Read the booking on the bid's shard, then delete the hold and credit
+     * what it no longer covers on the home shard - two transactions, one after the other.
+     * @return false when the hold was already settled elsewhere
+     */
+    private boolean resolve(CapacityHold hold) {
+        BookedTrucks booking = shardRouter.onShard(shardRouter.shardOf(hold.getBidId()),
+            () -> bookingRepository.findBookedTrucksByBidId(hold.getBidId())).orElse(null);
+
+        boolean debit = hold.getKind() == CapacityHoldKind.DEBIT;
+        int allocated = booking == null ? 0 : booking.getAllocatedTrucks();
+        boolean booked = debit && allocated > 0;
+        // DEBIT: what the booking didn't take (one cancelled since has a CREDIT hold of its own)
+        // CREDIT: the booking's trucks, if the cancellation committed
+        int credit = debit
+            ? Math.max(0, hold.getTrucks() - allocated)
+            : booking != null && booking.getStatus() == BookingStatus.CANCELLED ? hold.getTrucks() : 0;
+
+        boolean resolved = onHomeShard(hold.getTransporterId(), () -> {
+            if (holdRepository.deleteByHoldId(hold.getHoldId()) == 0) {
+                return false;
+            }
+            if (credit > 0) {
+                transporterRepository.creditTrucks(hold.getTransporterId(), hold.getTruckType(), credit);
+                changed(hold.getTransporterId());
+            }
+            if (booked) {
+                // bound to this transaction: a booking that rolled back withdraws no bids
+                Integer trucksLeft = transporterRepository.findAvailableTrucks(hold.getTransporterId(), hold.getTruckType());
+                eventPublisher.publishEvent(new TransporterCapacityReducedEvent(
+                    hold.getTransporterId(), Map.of(hold.getTruckType(), trucksLeft == null ? 0 : trucksLeft)));
+            }
+            return true;
+        });
+        if (resolved) {
+            settled.increment();
+        }
+        return resolved;
+    }
+
+    private <T> T onHomeShard(UUID transporterId, Supplier<T> work) {
+        try {
+            return shardRouter.onShard(shardRouter.homeShardOf(transporterId), () -> homeTransaction.execute(status -> {
+                transporterRepository.setLocalLockTimeout(lockTimeout.toMillis() + "ms");
+                return work.get();
+            }));
+        } catch (PessimisticLockingFailureException e) {
+            throw new ConflictException("Transporter",
+                "Its capacity is being changed on its home shard. Please retry.");
+        }
+    }
+
+    // a connection taken here while the caller's transaction holds one is what starves the pools
+    private void requireNoTransaction(String operation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("HomeShardCapacity." + operation
+                + " must run outside a transaction - the caller would hold two connections");
+        }
+    }
+
+    // inside the home shard transaction: this node's ledger drops its copy, the other nodes on commit
+    private void changed(UUID transporterId) {
+        capacityLedger.evict(transporterId);
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, transporterId, null);
+    }
+
+    private Counter writeCounter(String op, String outcome) {
+        return Counter.builder("tms.capacity.home.writes")
+            .description("capacity changes applied on a transporter's home shard for a booking on another shard")
+            .tag("op", op)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
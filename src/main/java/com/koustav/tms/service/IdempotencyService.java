@@ -0,0 +1,238 @@
+package com.koustav.tms.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koustav.tms.entity.IdempotencyRecord;
+import com.koustav.tms.entity.IdempotencyStatus;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.exception.IdempotencyKeyMismatchException;
+import com.koustav.tms.exception.InvalidIdempotencyKeyException;
+import com.koustav.tms.repository.IdempotencyRecordRepository;
+
+/**
+ * Answers client retries of POST /bid and POST /booking from a small store
+ * instead of running the transactional path again.
+ *
+ * FLOW (per Idempotency-Key):
+ * 1. Claim the key by inserting an IN_PROGRESS row (unique key → one winner),
+ *    leased for tms.idempotency.in-progress-timeout (its expires_at)
+ * 2. Run the real operation in its own transaction
+ * 3. Store status + JSON body as COMPLETED, kept until expires_at (ttl)
+ *
+ * A duplicate that arrives after step 3 gets the stored response back with
+ * no booking/bid work. A duplicate during step 2 gets 409 and should retry.
+ *
+ * If step 2 throws, the claim is released so the client can retry. If the
+ * node dies (or the release fails) the claim outlives nobody: once its lease
+ * runs out a retry deletes it and claims the key afresh. The lease must be
+ * longer than any request takes - a request still running past it may see
+ * its key taken over, and then leaves the retry's claim alone.
+ *
+ * NOT @Transactional on purpose: the claim must be committed before the
+ * operation runs, otherwise concurrent duplicates can't see it.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // idempotency_record.idempotency_key is varchar(255)
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tms.idempotency.ttl:PT24H}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${tms.idempotency.in-progress-timeout:PT1M}")
+    private Duration inProgressTimeout = Duration.ofMinutes(1);
+
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object request,
+            HttpStatus successStatus, Class<T> responseType, Supplier<T> action) {
+
+        validate(idempotencyKey);
+        String fingerprint = fingerprint(operation, request);
+
+        Claim<T> claim = claim(idempotencyKey, fingerprint, responseType);
+        if (claim.replay() != null) {
+            return claim.replay();
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            // don't remember failures, the client may fix the cause and retry with the same key
+            release(claim.recordId(), ex);
+            throw ex;
+        }
+
+        complete(idempotencyKey, claim.recordId(), successStatus, response);
+        return new ResponseEntity<>(response, successStatus);
+    }
+
+    @Scheduled(fixedDelayString = "${tms.idempotency.purge-interval:PT10M}")
+    public int purgeExpired() {
+        return idempotencyRecordRepository.deleteExpired(now());
+    }
+
+    /**
+     * A key the store can't hold would fail the claim's INSERT, which reads
+     * like a concurrent duplicate and answers 409 on every retry - reject it up front
+     */
+    private void validate(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new InvalidIdempotencyKeyException("must not be blank");
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private <T> Claim<T> claim(String idempotencyKey, String fingerprint, Class<T> responseType) {
+        Timestamp now = now();
+
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey);
+        if (existing.isPresent()) {
+            if (!existing.get().isExpired(now)) {
+                return Claim.replay(replayOrReject(existing.get(), fingerprint, responseType));
+            }
+            // past its TTL, or an IN_PROGRESS claim past its lease - take the key over
+            idempotencyRecordRepository.deleteExpiredByIdempotencyKey(idempotencyKey, now);
+        }
+
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+            .idempotencyKey(idempotencyKey)
+            .requestFingerprint(fingerprint)
+            .status(IdempotencyStatus.IN_PROGRESS)
+            .createdAt(now)
+            .expiresAt(new Timestamp(now.getTime() + inProgressTimeout.toMillis()))
+            .build();
+
+        try {
+            idempotencyRecordRepository.saveAndFlush(claim);
+            return Claim.owned(claim.getRecordId());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent duplicate claimed the key between our lookup and insert
+            IdempotencyRecord winner = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey)
+                .orElseThrow(() -> inProgress(idempotencyKey));
+            return Claim.replay(replayOrReject(winner, fingerprint, responseType));
+        }
+    }
+
+    private void release(UUID recordId, RuntimeException cause) {
+        try {
+            idempotencyRecordRepository.deleteClaim(recordId);
+        } catch (RuntimeException e) {
+            // the lease runs out instead; the caller still sees the original failure
+            cause.addSuppressed(e);
+            log.warn("Could not release idempotency claim {}, it frees up when its lease ends: {}",
+                recordId, e.getMessage());
+        }
+    }
+
+    private <T> ResponseEntity<T> replayOrReject(IdempotencyRecord record, String fingerprint, Class<T> responseType) {
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(record.getIdempotencyKey());
+        }
+
+        if (record.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+            throw inProgress(record.getIdempotencyKey());
+        }
+
+        try {
+            T body = objectMapper.readValue(record.getResponseBody(), responseType);
+            return ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+        } catch (JsonProcessingException jpe) {
+            throw new IllegalStateException("Failed to read stored idempotent response", jpe);
+        }
+    }
+
+    /**
+     * Runs after the action has committed, so it never fails the request:
+     * if the response can't be stored, the claim stays IN_PROGRESS until its
+     * lease ends and a retry after that runs the action again.
+     */
+    private void complete(String idempotencyKey, UUID recordId, HttpStatus status, Object response) {
+        try {
+            int stored = idempotencyRecordRepository.markCompleted(recordId, status.value(),
+                objectMapper.writeValueAsString(response),
+                new Timestamp(System.currentTimeMillis() + ttl.toMillis()));
+            if (stored == 0) {
+                // our lease ran out and a retry owns the key now - its outcome is the one kept
+                log.warn("Idempotency claim for key {} was taken over before the request finished", idempotencyKey);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Could not store the response for Idempotency-Key {} - a retry after the claim's lease "
+                + "runs the request again", idempotencyKey, e);
+        }
+    }
+
+    /**
+     * SHA-256 of operation + JSON request body, so the same key can't be
+     * replayed against a different endpoint or a modified request.
+     */
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private ConflictException inProgress(String idempotencyKey) {
+        return new ConflictException(
+            "Idempotency-Key " + idempotencyKey,
+            "The original request is still being processed. Please retry.");
+    }
+
+    private Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Outcome of a claim: the key is ours (recordId), or the response to send instead
+     */
+    private record Claim<T>(UUID recordId, ResponseEntity<T> replay) {
+
+        static <T> Claim<T> owned(UUID recordId) {
+            return new Claim<>(recordId, null);
+        }
+
+        static <T> Claim<T> replay(ResponseEntity<T> replay) {
+            return new Claim<>(null, replay);
+        }
+    }
+}
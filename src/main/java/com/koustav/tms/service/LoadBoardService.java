@@ -0,0 +1,110 @@
+package com.koustav.tms.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.board.BoardQuery;
+import com.koustav.tms.board.OpenLoadBoard;
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.LoadBoardResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.mapper.LoadBoardMapper;
+import com.koustav.tms.repository.LoadBoardRepository;
+
+/**
+ * The load board: open loads with their remaining trucks and bid summary,
+ * read from the load_board read model (see LoadBoardProjectionJob).
+ * Keyset paged - a page is one index range scan, however deep.
+ *
+ * browse() answers the lane / loading date filters from the in-memory
+ * OpenLoadBoard instead, without touching the database.
+ */
+@Service
+public class LoadBoardService {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    // first page: after everything
+    private static final Timestamp LAST_DATE = Timestamp.valueOf("9999-12-31 00:00:00");
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    // the database's (date_posted DESC, load_id DESC); uuids compare as unsigned bytes there, like their hex
+    private static final Comparator<LoadBoardEntryResponse> BOARD_ORDER = Comparator
+        .comparing(LoadBoardEntryResponse::getDatePosted)
+        .thenComparing(entry -> entry.getLoadId().toString())
+        .reversed();
+
+    @Autowired
+    private LoadBoardRepository loadBoardRepository;
+
+    @Autowired
+    private OpenLoadBoard openLoadBoard;
+
+    /**
+     * @param afterPosted / afterId cursor from the previous page (nextAfterPosted / nextAfterId); null = first page
+     */
+    @Transactional(readOnly = true)
+    public LoadBoardResponse getBoard(String truckType, String loadingCity, Instant afterPosted, UUID afterId,
+                                      Integer limit) {
+        int pageSize = pageSize(limit);
+        Timestamp fromDate = afterPosted == null ? LAST_DATE : Timestamp.from(afterPosted);
+        UUID fromId = afterPosted == null || afterId == null ? LAST_ID : afterId;
+
+        List<LoadBoardEntryResponse> loads = loadBoardRepository
+            .findPage(truckType, loadingCity, fromDate, fromId, pageSize).stream()
+            .map(LoadBoardMapper::toResponse)
+            .toList();
+        return page(loads, pageSize);
+    }
+
+    /**
+     * @param from first loading day, inclusive (null = no lower bound)
+     * @param to   last loading day, inclusive (null = no upper bound); before from = nothing
+     */
+    public OpenLoadBoardResponse browse(String truckType, String loadingCity, String unloadingCity,
+                                        LocalDate from, LocalDate to, Integer limit) {
+        return openLoadBoard.browse(BoardQuery.builder()
+            .truckType(truckType)
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .from(from)
+            .to(to)
+            .limit(pageSize(limit))
+            .build());
+    }
+
+    /**
+     * Combines the first pages of several shards into one page of the board
+     */
+    public LoadBoardResponse merge(List<LoadBoardResponse> pages, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<LoadBoardEntryResponse> loads = new ArrayList<>();
+        pages.forEach(page -> loads.addAll(page.getLoads()));
+        loads.sort(BOARD_ORDER);
+        return page(loads.subList(0, Math.min(pageSize, loads.size())), pageSize);
+    }
+
+    private static LoadBoardResponse page(List<LoadBoardEntryResponse> loads, int pageSize) {
+        LoadBoardEntryResponse last = loads.size() < pageSize ? null : loads.get(loads.size() - 1);
+        return LoadBoardResponse.builder()
+            .loads(new ArrayList<>(loads))
+            .count(loads.size())
+            .nextAfterPosted(last == null ? null : last.getDatePosted().toInstant())
+            .nextAfterId(last == null ? null : last.getLoadId())
+            .build();
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
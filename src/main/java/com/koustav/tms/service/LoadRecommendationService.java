@@ -0,0 +1,132 @@
+package com.koustav.tms.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.board.OpenLoadBoard;
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.RecommendedLoadResponse;
+import com.koustav.tms.dto.response.RecommendedLoadsResponse;
+import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.strategy.LoadRecommendationStrategy;
+import com.koustav.tms.strategy.RecommendationContext;
+
+/**
+ * Open loads a transporter could take, best first.
+ *
+ * Candidates come from the in-memory OpenLoadBoard: the loads needing one of
+ * the truck types the transporter has trucks of, loading between today and
+ * tms.recommendation.horizon-days - bitmap lookups, no scan. Only those are
+ * ranked, by LoadRecommendationStrategy.
+ *
+ * Lane history is the transporter's bookings per lane over
+ * tms.recommendation.lane-history-days, counted on every shard (laneBookings).
+ */
+@Service
+public class LoadRecommendationService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final Comparator<RecommendedLoadResponse> RANKING = Comparator
+        .comparingDouble(RecommendedLoadResponse::getScore).reversed()
+        .thenComparing(recommended -> recommended.getLoad().getLoadingDate())
+        .thenComparing(recommended -> recommended.getLoad().getLoadId().toString());
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OpenLoadBoard openLoadBoard;
+
+    @Autowired
+    private LoadRecommendationStrategy recommendationStrategy;
+
+    @Value("${tms.recommendation.horizon-days:14}")
+    private int horizonDays = 14;
+
+    @Value("${tms.recommendation.lane-history-days:180}")
+    private int laneHistoryDays = 180;
+
+    /**
+     * The transporter's recent bookings per lane on the current shard
+     * @return lane (RecommendationContext.lane) -> bookings
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> laneBookings(UUID transporterId) {
+        Timestamp since = Timestamp.valueOf(LocalDate.now().minusDays(laneHistoryDays).atStartOfDay());
+        return bookingRepository.findLaneBookings(transporterId, since).stream()
+            .collect(Collectors.toMap(
+                row -> RecommendationContext.lane(row.getLoadingCity(), row.getUnloadingCity()),
+                BookingRepository.LaneBookings::getBookings,
+                Long::sum));
+    }
+
+    /**
+     * @param laneBookings laneBookings() of every shard
+     */
+    @Transactional(readOnly = true)
+    public RecommendedLoadsResponse recommend(UUID transporterId, List<Map<String, Long>> laneBookings, Integer limit) {
+        Transporter transporter = transporterRepository.findById(transporterId)
+            .orElseThrow(() -> new ResourceNotFoundException("Transporter", "transporterId", transporterId));
+
+        Map<String, Long> lanes = new HashMap<>();
+        laneBookings.forEach(shard -> shard.forEach((lane, bookings) -> lanes.merge(lane, bookings, Long::sum)));
+
+        // a jsonb entry may hold null - no count, no trucks (Map.copyOf would throw)
+        Map<String, Integer> availableTrucks = transporter.getAvailableTrucks().entrySet().stream()
+            .filter(trucks -> trucks.getKey() != null && trucks.getValue() != null)
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        LocalDate today = LocalDate.now();
+        RecommendationContext context = RecommendationContext.builder()
+            .availableTrucks(availableTrucks)
+            .laneBookings(lanes)
+            .today(today)
+            .build();
+
+        Set<String> truckTypes = availableTrucks.entrySet().stream()
+            .filter(trucks -> trucks.getValue() > 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+        List<LoadBoardEntryResponse> candidates = openLoadBoard.candidates(truckTypes, today, today.plusDays(horizonDays));
+
+        List<RecommendedLoadResponse> ranked = candidates.stream()
+            .filter(load -> load.getRemainingTrucks() > 0)
+            .map(load -> RecommendedLoadResponse.builder()
+                .load(load)
+                .score(recommendationStrategy.calculateScore(load, context))
+                .coverableTrucks(Math.min(context.availableTrucks(load.getTruckType()), load.getRemainingTrucks()))
+                .laneBookings(context.laneBookings(load.getLoadingCity(), load.getUnloadingCity()))
+                .build())
+            .sorted(RANKING)
+            .limit(limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT)))
+            .toList();
+
+        return RecommendedLoadsResponse.builder()
+            .transporterId(transporterId)
+            .loads(ranked)
+            .count(ranked.size())
+            .candidates(candidates.size())
+            .ready(openLoadBoard.isReady())
+            .build();
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.koustav.tms.dto.request.LoadRequest;
 import com.koustav.tms.dto.response.BidResponse;
+import com.koustav.tms.dto.response.BulkRejectionResponse;
 import com.koustav.tms.dto.response.LoadDetailResponse;
 import com.koustav.tms.dto.response.LoadResponse;
 import com.koustav.tms.entity.Bid;
@@ -22,9 +23,12 @@ import com.koustav.tms.mapper.BidMapper;
 import com.koustav.tms.mapper.LoadMapper;
 import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
 import com.koustav.tms.strategy.BidScoringStrategy;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,6 +48,9 @@ public class LoadService {
     @Autowired
     private BidScoringStrategy bidScoringStrategy;
 
+    @Autowired
+    private StatusTransitionService statusTransitionService;
+
     public LoadResponse createLoad(LoadRequest request) {
         Load load = Load.builder()
             .shipperId(request.getShipperId())
@@ -64,11 +71,14 @@ public class LoadService {
 
     }
 
+    // read-only: MANUAL flush, and served by the read replica when one is configured
+    @Transactional(readOnly = true)
     public Page<LoadResponse> listLoads(String shipperId, LoadStatus status, Pageable pageable) {
         Page<Load> loads = loadRepository.findByFilters(shipperId, status, pageable);
         return loads.map(loadMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public LoadDetailResponse getLoad(UUID loadId) {
         Load load = loadRepository.findById(loadId)
             .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
@@ -82,27 +92,63 @@ public class LoadService {
     }
 
     public void cancelLoad(UUID loadId) {
-        Load load = loadRepository.findById(loadId)
-            .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
-        
-        // only cancel POSTED or OPEN_FOR_BIDS loads
-        if (load.getStatus() == LoadStatus.BOOKED) {
-            throw new InvalidStatusTransitionException("Can't cancel a BOOKED load");
+        // only POSTED or OPEN_FOR_BIDS loads can be cancelled - checked by the UPDATE itself.
+        // Bumps version so a booking that already read the load fails instead of booking it.
+        TransitionResult<LoadStatus> result = statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED);
+
+        if (result.isMissing()) {
+            throw new ResourceNotFoundException("Load", "loadId", loadId);
         }
+        if (!result.isApplied()) {
+            if (result.getCurrentStatus() == LoadStatus.BOOKED) {
+                throw new InvalidStatusTransitionException("Can't cancel a BOOKED load");
+            }
+
+            if (result.getCurrentStatus() == LoadStatus.CANCELLED) {
+                throw new InvalidStatusTransitionException("Load is already cancelled");
+            }
 
-        if (load.getStatus() == LoadStatus.CANCELLED) {
-            throw new InvalidStatusTransitionException("Load is already cancelled");
+            throw new InvalidStatusTransitionException("Can't cancel an " + result.getCurrentStatus() + " load");
         }
 
-        load.setStatus(LoadStatus.CANCELLED);
-        loadRepository.save(load);
+        // nothing can be booked on a cancelled load - close its bids in one statement
+        bidRepository.rejectPendingByLoadId(loadId);
+    }
+
+    /**
+     * Shipper closes bidding on a load without cancelling it:
+     * every PENDING bid is REJECTED with a single set-based UPDATE.
+     * The load goes back to POSTED as no bid is pending any more - unless it
+     * is partly booked: POSTED means nothing allocated (see cancelBooking),
+     * so a partly booked load stays OPEN_FOR_BIDS.
+     */
+    public BulkRejectionResponse rejectPendingBids(UUID loadId) {
+        // lock the load so a concurrent accept/auto-book sees either all bids or none rejected
+        Load load = loadRepository.findByIdForUpdate(loadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
+
+        int rejected = bidRepository.rejectPendingByLoadId(loadId);
+
+        LoadStatus status = load.getStatus();
+        if (rejected > 0 && status == LoadStatus.OPEN_FOR_BIDS && load.getAllocatedTrucks() == 0) {
+            // cosmetic move, no version bump
+            statusTransitionService.transitionLoad(loadId, EnumSet.of(LoadStatus.OPEN_FOR_BIDS), LoadStatus.POSTED);
+            status = LoadStatus.POSTED;
+        }
+
+        return BulkRejectionResponse.builder()
+            .loadId(loadId)
+            .status(status)
+            .rejectedBids(rejected)
+            .build();
     }
 
+    @Transactional(readOnly = true)
     public List<BidResponse> getBestBids(UUID loadId) {
         Load load = loadRepository.findById(loadId)
             .orElseThrow(() -> new ResourceNotFoundException("Load", "loadId", loadId));
         
-            List<Bid> pendingBids = bidRepository.findByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING);
+            List<Bid> pendingBids = bidRepository.findPendingByLoadId(loadId);
 
             if (pendingBids.isEmpty()) {
                 return new ArrayList<> ();
@@ -0,0 +1,116 @@
+package com.koustav.tms.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.exception.InvalidStatusTransitionException;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.BookingRepository.AcceptBidResult;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardIds;
+import com.koustav.tms.shard.ShardRouter;
+
+/**
+ * Booking engine that runs acceptBid inside PostgreSQL (tms.booking.engine=procedure).
+ *
+ * WHY?
+ * The JPA path needs ~6 round trips per booking (bid + load + transporter
+ * reads, transporter update, booking insert, bid and load updates). Under
+ * contention every round trip is time the row locks are held.
+ * tms_accept_bid does the same work in one call: locks (load, then
+ * transporter), checks, insert and updates, and returns the result row.
+ *
+ * Same API contract as BookingService.acceptBid - same exceptions and messages.
+ * The Java engine stays the default, and is used whenever sharding is on: the
+ * function can only debit the transporter row of its own database, while the
+ * authoritative copy may live on another shard (HomeShardCapacity). The function is a repeatable Flyway
+ * migration (db/migration/R__tms_accept_bid.sql), present whichever engine is selected.
+ */
+@Service
+public class ProcedureBookingService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${tms.booking.engine:java}")
+    private String engine = "java";
+
+    public boolean isEnabled() {
+        return "procedure".equalsIgnoreCase(engine) && shardRouter.shardCount() == 1;
+    }
+
+    // TRANSPORTER_CAPACITY has rejected the bid in the database - that must commit
+    @Transactional(noRollbackFor = InsufficientCapacityException.class)
+    public BookingResponse acceptBid(BookingRequest request) {
+        // made here, not by gen_random_uuid(), so the id routes back to this shard
+        UUID bookingId = ShardIds.newId(ShardContext.current());
+        AcceptBidResult result =
+            bookingRepository.acceptBidInDatabase(request.getBidId(), request.isAllowPartial(), bookingId);
+        String outcome = result.getOutcome();
+
+        if ("BID_NOT_FOUND".equals(outcome)) {
+            throw new ResourceNotFoundException("Bid", "bidId", request.getBidId());
+        }
+        if ("BID_NOT_PENDING".equals(outcome)) {
+            throw new InvalidStatusTransitionException(
+                "Can only accept PENDING bids. Current status: " + result.getDetail());
+        }
+        if ("LOAD_CAPACITY".equals(outcome)) {
+            String[] remainingAndOffered = result.getDetail().split(",");
+            throw new InsufficientCapacityException(
+                String.format("Load only needs %s more trucks, but bid offers %s",
+                    remainingAndOffered[0], remainingAndOffered[1]));
+        }
+
+        // the transporter row changed outside JPA - drop it, the next read re-mirrors it
+        capacityLedger.evict(result.getTransporterId());
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, result.getTransporterId(), null);
+
+        if ("TRANSPORTER_CAPACITY".equals(outcome)) {
+            throw new InsufficientCapacityException(
+                String.format("Transporter no longer has sufficient %s capacity. Bid automatically rejected.",
+                    result.getTruckType()));
+        }
+
+        eventPublisher.publishEvent(new TransporterCapacityReducedEvent(
+            result.getTransporterId(), Map.of(result.getTruckType(), result.getTrucksLeft())));
+
+        return BookingResponse.builder()
+            .bookingId(result.getBookingId())
+            .bidId(request.getBidId())
+            .loadId(result.getLoadId())
+            .transporterId(result.getTransporterId())
+            .transporterName(result.getTransporterName())
+            .allocatedTrucks(result.getAllocatedTrucks())
+            .finalRate(result.getFinalRate())
+            .status(BookingStatus.CONFIRMED)
+            .bookedAt(result.getBookedAt())
+            .build();
+    }
+}
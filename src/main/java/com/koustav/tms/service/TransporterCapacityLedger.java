@@ -0,0 +1,188 @@
+package com.koustav.tms.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.cache.CoherentCache;
+import com.koustav.tms.entity.Transporter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory copy of each transporter's available trucks, used to turn down
+ * bids that obviously can't be covered without reading (and JSON-parsing)
+ * the transporter row.
+ *
+ * The database stays authoritative:
+ * - the ledger only ever says "definitely not" - an unknown transporter
+ *   or a request it can cover goes on to the normal DB check
+ * - acceptBid still validates against the row it locks
+ *
+ * HOW IT STAYS CURRENT:
+ * - every transaction that writes available_trucks (booking, cancellation,
+ *   updateTrucks, registration) calls mirror(); the snapshot is taken in
+ *   afterCommit, so a rolled back change never reaches the ledger
+ * - snapshots carry the row's @Version and only a newer version replaces
+ *   an older one, so commits mirrored out of order can't go backwards
+ * - writes from other nodes arrive as cache invalidations (CacheCoherence)
+ *   and evict the entry; a flush after a listener reconnect empties the ledger
+ * - snapshots older than tms.capacity-ledger.ttl are ignored, in case an
+ *   invalidation never arrives
+ * - CapacityLedgerDriftJob compares versions with the database and
+ *   resyncs whatever is still stale
+ *
+ * Reads are lock-free (ConcurrentHashMap.get of an immutable snapshot).
+ *
+ * Metrics:
+ * - tms.capacity.ledger.rejections (requests turned down from memory)
+ * - tms.capacity.ledger.size (gauge)
+ */
+@Service
+public class TransporterCapacityLedger implements CoherentCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.capacity-ledger.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.capacity-ledger.ttl:PT10M}")
+    private Duration ttl = Duration.ofMinutes(10);
+
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private Counter rejections;
+
+    @PostConstruct
+    void registerMetrics() {
+        rejections = Counter.builder("tms.capacity.ledger.rejections")
+            .description("bids turned down from the in-memory capacity ledger")
+            .register(meterRegistry);
+        Gauge.builder("tms.capacity.ledger.size", snapshots, Map::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return true only if the ledger knows the transporter and it can't cover
+     *         trucksOffered of that type - false means "ask the database"
+     */
+    public boolean definitelyCannotCover(UUID transporterId, String truckType, int trucksOffered) {
+        if (!enabled) {
+            return false;
+        }
+        Snapshot snapshot = snapshots.get(transporterId);
+        if (snapshot != null && snapshot.expired(ttl)) {
+            snapshots.remove(transporterId, snapshot);
+            return false;
+        }
+        if (snapshot == null || trucksOffered <= snapshot.trucks.getOrDefault(truckType, 0)) {
+            return false;
+        }
+        rejections.increment();
+        return true;
+    }
+
+    /**
+     * Mirror the transporter's trucks once the current transaction commits.
+     * Outside a transaction the entity is taken as it is now.
+     */
+    public void mirror(Transporter transporter) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(transporter);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // read here, not at registration: the flush has bumped the version by now
+                apply(transporter);
+            }
+        });
+    }
+
+    /**
+     * Replace the snapshot if this one is newer (used by the drift job after a DB read)
+     */
+    public void apply(Transporter transporter) {
+        Snapshot next = new Snapshot(versionOf(transporter), Map.copyOf(transporter.getAvailableTrucks()));
+        snapshots.merge(transporter.getTransporterId(), next,
+            (current, candidate) -> candidate.version >= current.version ? candidate : current);
+    }
+
+    public void evict(UUID transporterId) {
+        snapshots.remove(transporterId);
+    }
+
+    @Override
+    public CachedEntity entity() {
+        return CachedEntity.TRANSPORTER;
+    }
+
+    /**
+     * Another node wrote the transporter: drop the snapshot unless it is
+     * already newer than what that node saw
+     */
+    @Override
+    public void evict(UUID transporterId, Long version) {
+        snapshots.computeIfPresent(transporterId,
+            (id, snapshot) -> version != null && snapshot.version > version ? snapshot : null);
+    }
+
+    @Override
+    public void evictAll() {
+        snapshots.clear();
+    }
+
+    public Set<UUID> transporterIds() {
+        return Set.copyOf(snapshots.keySet());
+    }
+
+    /**
+     * @return version of the mirrored snapshot, or null if the transporter isn't in the ledger
+     */
+    public Long versionOf(UUID transporterId) {
+        Snapshot snapshot = snapshots.get(transporterId);
+        return snapshot == null ? null : snapshot.version;
+    }
+
+    int size() {
+        return snapshots.size();
+    }
+
+    private static long versionOf(Transporter transporter) {
+        return transporter.getVersion() == null ? 0L : transporter.getVersion();
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<String, Integer> trucks;
+        private final long mirroredAt = System.nanoTime();
+
+        private Snapshot(long version, Map<String, Integer> trucks) {
+            this.version = version;
+            this.trucks = trucks;
+        }
+
+        private boolean expired(Duration ttl) {
+            return System.nanoTime() - mirroredAt > ttl.toNanos();
+        }
+    }
+}
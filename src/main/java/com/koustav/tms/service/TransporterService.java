@@ -1,16 +1,23 @@
 package com.koustav.tms.service;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
 import com.koustav.tms.dto.request.TransporterRequest;
 import com.koustav.tms.dto.request.UpdateTrucksRequest;
 import com.koustav.tms.dto.response.TransporterResponse;
 import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
 import com.koustav.tms.exception.ResourceNotFoundException;
 import com.koustav.tms.mapper.TransporterMapper;
+import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.TransporterRepository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,31 +28,99 @@ public class TransporterService {
     @Autowired
     private TransporterRepository transporterRepository;
 
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TransporterCapacityLedger capacityLedger;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private HomeShardCapacity homeCapacity;
+
     public TransporterResponse registerTransporter(TransporterRequest request) {
+        return registerTransporter(request, null);
+    }
+
+    /**
+     * @param transporterId id to register under - the copies on the other
+     *                      shards reuse the home shard's (see ShardingConfig); null = new id
+     */
+    public TransporterResponse registerTransporter(TransporterRequest request, UUID transporterId) {
         Transporter transporter = Transporter.builder()
+            .transporterId(transporterId)
             .companyName(request.getCompanyName())
             .rating(request.getRating())
             .availableTrucks(request.getAvailableTrucks())
             .build();
 
         Transporter saved = transporterRepository.save(transporter);
+        if (homeCapacity.isHome(saved.getTransporterId())) {
+            capacityLedger.mirror(saved);
+        }
         return TransporterMapper.toResponse(saved);
     }
 
+    @Transactional(readOnly = true)
     public TransporterResponse getTransporter(UUID transporterId) {
+        return getTransporter(transporterId, pendingExposure(transporterId));
+    }
+
+    /**
+     * Read on the home shard (its capacity is authoritative there)
+     * @param pendingExposure pendingExposure() summed over every shard
+     */
+    @Transactional(readOnly = true)
+    public TransporterResponse getTransporter(UUID transporterId, Map<String, Integer> pendingExposure) {
         Transporter transporter = transporterRepository.findById(transporterId)
             .orElseThrow(() -> new ResourceNotFoundException("Transporter", "transporterId", transporterId));
 
-        return TransporterMapper.toResponse(transporter);
+        return TransporterMapper.toResponse(transporter, pendingExposure);
     }
 
+    /**
+     * Another shard's copy is only the declared fleet for bid-time checks:
+     * the ledger, other nodes and the withdrawal of bids follow the home copy.
+     */
     public TransporterResponse updateTrucks(UUID transporterId, UpdateTrucksRequest request) {
         Transporter transporter = transporterRepository.findById(transporterId)
             .orElseThrow(() -> new ResourceNotFoundException("Transporter", "transporterId", transporterId));
         
+        // truck types that went down (or disappeared) → their pending bids may no longer fit
+        Map<String, Integer> reduced = new HashMap<>();
+        transporter.getAvailableTrucks().forEach((truckType, before) -> {
+            int after = request.getAvailableTrucks().getOrDefault(truckType, 0);
+            if (after < before) {
+                reduced.put(truckType, after);
+            }
+        });
+
         transporter.setAvailableTrucks(request.getAvailableTrucks());
 
         Transporter updated = transporterRepository.save(transporter);
-        return TransporterMapper.toResponse(updated);
+        if (homeCapacity.isHome(transporterId)) {
+            capacityLedger.mirror(updated);
+            cacheCoherence.invalidate(CachedEntity.TRANSPORTER, transporterId, updated.getVersion());
+            if (!reduced.isEmpty()) {
+                eventPublisher.publishEvent(new TransporterCapacityReducedEvent(transporterId, reduced));
+            }
+        }
+        return TransporterMapper.toResponse(updated, pendingExposure(transporterId));
+    }
+
+    /**
+     * Trucks offered in PENDING bids per truck type, on the current shard
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> pendingExposure(UUID transporterId) {
+        Map<String, Integer> exposure = new HashMap<>();
+        bidRepository.findPendingExposureByTransporterId(transporterId)
+            .forEach(row -> exposure.put(row.getTruckType(), row.getTrucksOffered().intValue()));
+        return exposure;
     }
 }
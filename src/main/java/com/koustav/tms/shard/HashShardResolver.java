@@ -0,0 +1,19 @@
+package com.koustav.tms.shard;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * hash(shipperId) mod shard count.
+ *
+ * String.hashCode is fixed by the language spec, so every node and every
+ * restart agrees. Changing the shard count moves most shippers: adding a
+ * shard needs their loads copied over first.
+ */
+@Component
+public class HashShardResolver implements ShardResolver {
+
+    @Override
+    public int shardOf(String shipperId, int shardCount) {
+        return Math.floorMod(shipperId.hashCode(), shardCount);
+    }
+}
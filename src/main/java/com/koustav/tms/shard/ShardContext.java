@@ -0,0 +1,48 @@
+package com.koustav.tms.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on - read by ShardRoutingDataSource
+ * when a transaction takes its first connection, and by ShardedIdGenerator
+ * for new ids. Shard 0 unless set; with sharding off everything is shard 0.
+ *
+ * Set it BEFORE entering a @Transactional method: the transaction's
+ * connection comes from the shard current at its first statement.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * Runs work on the shard, then puts back whatever the thread had before.
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void runOn(int shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
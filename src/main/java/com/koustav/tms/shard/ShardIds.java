@@ -0,0 +1,44 @@
+package com.koustav.tms.shard;
+
+import java.util.UUID;
+
+/**
+ * Shard-aware ids: a load, bid or booking id names the shard it lives on,
+ * so a findById resolves its database without a lookup table.
+ *
+ * LAYOUT: a version 8 (custom) UUID
+ *   bits 127..112  shard number (0..65535)
+ *   bits  79..76   version = 8
+ *   bits  63..62   variant = 10
+ *   everything else random, from UUID.randomUUID()
+ *
+ * Ids made before sharding (version 4) belong to shard 0.
+ */
+public final class ShardIds {
+
+    static final int MAX_SHARDS = 1 << 16;
+
+    private static final long SHARD_AND_VERSION_MASK = 0x0000_FFFF_FFFF_0FFFL;
+    private static final long VERSION_8 = 0x0000_0000_0000_8000L;
+
+    private ShardIds() {
+    }
+
+    public static UUID newId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard out of range: " + shard);
+        }
+        UUID random = UUID.randomUUID();
+        long high = (random.getMostSignificantBits() & SHARD_AND_VERSION_MASK)
+            | ((long) shard << 48)
+            | VERSION_8;
+        return new UUID(high, random.getLeastSignificantBits());
+    }
+
+    public static int shardOf(UUID id) {
+        if (id == null || id.version() != 8) {
+            return 0;
+        }
+        return (int) (id.getMostSignificantBits() >>> 48);
+    }
+}
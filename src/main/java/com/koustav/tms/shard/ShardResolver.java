@@ -0,0 +1,16 @@
+package com.koustav.tms.shard;
+
+/**
+ * Which shard owns a shipper's loads (and with them their bids and bookings).
+ *
+ * Pluggable: HashShardResolver is the default, declare a @Primary
+ * ShardResolver bean to replace it (a directory table, ranges, regions, ...).
+ * Must be stable - a shipper that moves shard leaves its loads behind.
+ */
+public interface ShardResolver {
+
+    /**
+     * @return shard index in [0, shardCount)
+     */
+    int shardOf(String shipperId, int shardCount);
+}
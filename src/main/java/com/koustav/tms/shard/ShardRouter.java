@@ -0,0 +1,191 @@
+package com.koustav.tms.shard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Where the controllers decide which shard a request runs on.
+ *
+ * - by shipper: shardForShipper (ShardResolver) - creating a load, listing one shipper's loads
+ * - by id: shardOf - the shard is encoded in load, bid and booking ids (ShardIds)
+ * - by transporter: homeShardOf - the shard holding its authoritative capacity
+ *   (HomeShardCapacity), picked at registration by shardForNewTransporter
+ * - no shard key (e.g. all bids of a transporter): onEachShard / fanOutPage
+ *   query every shard in parallel and merge
+ *
+ * With tms.sharding.urls unset there is one shard and all of this runs
+ * inline on the calling thread.
+ */
+@Component
+public class ShardRouter {
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    // same list ShardingConfig builds the pools from
+    @Value("${tms.sharding.urls:}")
+    private String urls = "";
+
+    @Value("${tms.sharding.fan-out-threads:8}")
+    private int fanOutThreads = 8;
+
+    private int shardCount = 1;
+    private ExecutorService fanOut;
+
+    @PostConstruct
+    void start() {
+        shardCount = (int) Math.max(1, Arrays.stream(urls.split(",")).filter(url -> !url.isBlank()).count());
+        if (shardCount > 1) {
+            AtomicInteger threads = new AtomicInteger();
+            fanOut = Executors.newFixedThreadPool(Math.max(fanOutThreads, shardCount), r -> {
+                Thread thread = new Thread(r, "shard-fan-out-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForShipper(String shipperId) {
+        return shardCount == 1 ? 0 : shardResolver.shardOf(shipperId, shardCount);
+    }
+
+    public int shardOf(UUID id) {
+        int shard = ShardIds.shardOf(id);
+        return shard < shardCount ? shard : 0;
+    }
+
+    public int homeShardOf(UUID transporterId) {
+        return shardOf(transporterId);
+    }
+
+    // spreads transporters - and the capacity writes of their bookings - over the shards
+    public int shardForNewTransporter() {
+        return shardCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, work);
+    }
+
+    public void onShard(int shard, Runnable work) {
+        ShardContext.runOn(shard, work);
+    }
+
+    /**
+     * Runs work once per shard, in parallel.
+     * @return the results in shard order; the first failure is rethrown
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (shardCount == 1) {
+            List<T> result = new ArrayList<>(1);
+            result.add(onShard(0, work));
+            return result;
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.callOn(target, work), fanOut));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One page of a query that has no shard key.
+     *
+     * Each shard returns its first offset + size rows in the requested order,
+     * the merge re-sorts them and cuts out the page; totals are summed.
+     * Deep pages cost every shard offset + size rows. Sort properties are
+     * read from the results, so they must exist on the response type too.
+     */
+    public <T> Page<T> fanOutPage(Pageable pageable, Function<Pageable, Page<T>> query) {
+        if (shardCount == 1) {
+            return onShard(0, () -> query.apply(pageable));
+        }
+
+        Pageable perShard = pageable.isPaged()
+            ? PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort())
+            : pageable;
+        List<T> merged = new ArrayList<>();
+        long total = 0;
+        for (Page<T> page : onEachShard(() -> query.apply(perShard))) {
+            merged.addAll(page.getContent());
+            total += page.getTotalElements();
+        }
+        if (pageable.getSort().isSorted()) {
+            merged.sort(comparator(pageable.getSort()));
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged, pageable, total);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    private static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = (a, b) -> compareValues(
+                new BeanWrapperImpl(a).getPropertyValue(order.getProperty()),
+                new BeanWrapperImpl(b).getPropertyValue(order.getProperty()),
+                order.isIgnoreCase());
+            result = result.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b, boolean ignoreCase) {
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? 1 : -1);  // nulls last
+        }
+        if (ignoreCase && a instanceof String left && b instanceof String right) {
+            return left.compareToIgnoreCase(right);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+}
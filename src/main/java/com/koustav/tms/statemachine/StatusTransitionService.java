@@ -0,0 +1,96 @@
+package com.koustav.tms.statemachine;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+
+/**
+ * Runs status transitions as compare-and-set UPDATEs:
+ *
+ *   UPDATE load SET status = :to WHERE load_id = :id AND status IN (:allowed sources)
+ *
+ * 1 row  → applied, one round trip, no entity loaded
+ * 0 rows → one extra lookup of the current status to tell "wrong state" from "not found"
+ *
+ * The check and the write are one statement, so two concurrent requests
+ * can't both see PENDING and both win - the loser gets 0 rows.
+ *
+ * NOTE: the UPDATE bypasses the persistence context. A caller that already
+ * holds the entity must not save() it afterwards, otherwise the stale
+ * status in memory is written back.
+ */
+@Service
+@Transactional
+public class StatusTransitionService {
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    public TransitionResult<LoadStatus> transitionLoad(UUID loadId, LoadStatus to) {
+        return transitionLoad(loadId, StatusTransitions.LOAD.sourcesOf(to), to);
+    }
+
+    /**
+     * Same, restricted to some of the legal sources (e.g. only OPEN_FOR_BIDS → POSTED, not BOOKED → POSTED)
+     */
+    public TransitionResult<LoadStatus> transitionLoad(UUID loadId, Set<LoadStatus> from, LoadStatus to) {
+        Collection<LoadStatus> sources = checkedSources(StatusTransitions.LOAD, from, to);
+        int updated = StatusTransitions.LOAD.bumpsVersion(to)
+            ? loadRepository.compareAndSetStatusBumpingVersion(loadId, sources, to)
+            : loadRepository.compareAndSetStatus(loadId, sources, to);
+
+        return updated == 1
+            ? TransitionResult.applied(to)
+            : TransitionResult.rejected(loadRepository.findStatusById(loadId));
+    }
+
+    public TransitionResult<BidStatus> transitionBid(UUID bidId, BidStatus to) {
+        Collection<BidStatus> sources = checkedSources(StatusTransitions.BID, StatusTransitions.BID.sourcesOf(to), to);
+        int updated = bidRepository.compareAndSetStatus(bidId, sources, to);
+
+        return updated == 1
+            ? TransitionResult.applied(to)
+            : TransitionResult.rejected(bidRepository.findStatusById(bidId));
+    }
+
+    public TransitionResult<BookingStatus> transitionBooking(UUID bookingId, BookingStatus to) {
+        Collection<BookingStatus> sources =
+            checkedSources(StatusTransitions.BOOKING, StatusTransitions.BOOKING.sourcesOf(to), to);
+        int updated = bookingRepository.compareAndSetStatus(bookingId, sources, to);
+
+        return updated == 1
+            ? TransitionResult.applied(to)
+            : TransitionResult.rejected(bookingRepository.findStatusById(bookingId));
+    }
+
+    // a move missing from the table is a coding error, not a client error
+    private <S extends Enum<S>> Collection<S> checkedSources(TransitionTable<S> table, Set<S> from, S to) {
+        if (from.isEmpty()) {
+            throw new IllegalArgumentException(table.getType().getSimpleName() + " can never move to " + to);
+        }
+        for (S source : from) {
+            if (!table.allows(source, to)) {
+                throw new IllegalArgumentException(
+                    table.getType().getSimpleName() + " can't move from " + source + " to " + to);
+            }
+        }
+        return from;
+    }
+}
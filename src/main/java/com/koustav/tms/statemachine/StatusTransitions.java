@@ -0,0 +1,42 @@
+package com.koustav.tms.statemachine;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.LoadStatus;
+
+/**
+ * The lifecycle of Load, Bid and Booking in one place.
+ *
+ * LOAD:
+ *   POSTED ⇄ OPEN_FOR_BIDS        first bid / all bids rejected (no version bump)
+ *   OPEN_FOR_BIDS → BOOKED        last truck allocated
+ *   BOOKED → OPEN_FOR_BIDS/POSTED booking cancelled (goes through the entity, trucks change too)
+ *   POSTED/OPEN_FOR_BIDS → CANCELLED | EXPIRED
+ *
+ * BID:     PENDING → ACCEPTED | REJECTED | EXPIRED
+ * BOOKING: CONFIRMED → COMPLETED | CANCELLED
+ */
+public final class StatusTransitions {
+
+    public static final TransitionTable<LoadStatus> LOAD = TransitionTable.builder(LoadStatus.class)
+        .allow(LoadStatus.OPEN_FOR_BIDS, LoadStatus.POSTED, LoadStatus.BOOKED)
+        .allow(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS, LoadStatus.BOOKED)
+        .allowBumpingVersion(LoadStatus.BOOKED, LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS)
+        .allowBumpingVersion(LoadStatus.CANCELLED, LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS)
+        .allowBumpingVersion(LoadStatus.EXPIRED, LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS)
+        .build();
+
+    public static final TransitionTable<BidStatus> BID = TransitionTable.builder(BidStatus.class)
+        .allow(BidStatus.ACCEPTED, BidStatus.PENDING)
+        .allow(BidStatus.REJECTED, BidStatus.PENDING)
+        .allow(BidStatus.EXPIRED, BidStatus.PENDING)
+        .build();
+
+    public static final TransitionTable<BookingStatus> BOOKING = TransitionTable.builder(BookingStatus.class)
+        .allow(BookingStatus.COMPLETED, BookingStatus.CONFIRMED)
+        .allow(BookingStatus.CANCELLED, BookingStatus.CONFIRMED)
+        .build();
+
+    private StatusTransitions() {
+    }
+}
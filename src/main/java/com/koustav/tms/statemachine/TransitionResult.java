@@ -0,0 +1,44 @@
+package com.koustav.tms.statemachine;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one conditional status UPDATE.
+ *
+ * applied = the row moved to the target status.
+ * Otherwise currentStatus says why not (null = the row doesn't exist).
+ */
+public final class TransitionResult<S extends Enum<S>> {
+
+    private final boolean applied;
+    private final S currentStatus;
+
+    private TransitionResult(boolean applied, S currentStatus) {
+        this.applied = applied;
+        this.currentStatus = currentStatus;
+    }
+
+    public static <S extends Enum<S>> TransitionResult<S> applied(S target) {
+        return new TransitionResult<>(true, target);
+    }
+
+    public static <S extends Enum<S>> TransitionResult<S> rejected(Optional<S> currentStatus) {
+        return new TransitionResult<>(false, currentStatus.orElse(null));
+    }
+
+    public static <S extends Enum<S>> TransitionResult<S> missing() {
+        return new TransitionResult<>(false, null);
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public boolean isMissing() {
+        return !applied && currentStatus == null;
+    }
+
+    public S getCurrentStatus() {
+        return currentStatus;
+    }
+}
@@ -0,0 +1,87 @@
+package com.koustav.tms.statemachine;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Legal status moves of one entity type, keyed by target status.
+ *
+ * Stored "target → allowed sources" because that is exactly what a
+ * conditional UPDATE needs: SET status = :to WHERE status IN (:sources).
+ *
+ * A target can be marked as version-bumping. Use it for moves that must
+ * invalidate a concurrent optimistic read (the load is no longer bookable).
+ * Cosmetic moves such as POSTED → OPEN_FOR_BIDS leave the version alone,
+ * so they don't make an in-flight booking fail for nothing.
+ */
+public final class TransitionTable<S extends Enum<S>> {
+
+    private final Class<S> type;
+    private final Map<S, Set<S>> sourcesByTarget;
+    private final Set<S> versionBumpingTargets;
+
+    private TransitionTable(Class<S> type, Map<S, Set<S>> sourcesByTarget, Set<S> versionBumpingTargets) {
+        this.type = type;
+        this.sourcesByTarget = sourcesByTarget;
+        this.versionBumpingTargets = versionBumpingTargets;
+    }
+
+    public static <S extends Enum<S>> Builder<S> builder(Class<S> type) {
+        return new Builder<>(type);
+    }
+
+    /**
+     * @return every status the entity may be in to move to {@code target}, empty if unreachable
+     */
+    public Set<S> sourcesOf(S target) {
+        return sourcesByTarget.getOrDefault(target, Collections.emptySet());
+    }
+
+    public boolean allows(S from, S to) {
+        return sourcesOf(to).contains(from);
+    }
+
+    public boolean bumpsVersion(S target) {
+        return versionBumpingTargets.contains(target);
+    }
+
+    public Class<S> getType() {
+        return type;
+    }
+
+    public static final class Builder<S extends Enum<S>> {
+
+        private final Class<S> type;
+        private final Map<S, Set<S>> sourcesByTarget;
+        private final Set<S> versionBumpingTargets;
+
+        private Builder(Class<S> type) {
+            this.type = type;
+            this.sourcesByTarget = new EnumMap<>(type);
+            this.versionBumpingTargets = EnumSet.noneOf(type);
+        }
+
+        @SafeVarargs
+        public final Builder<S> allow(S to, S... from) {
+            sourcesByTarget.computeIfAbsent(to, t -> EnumSet.noneOf(type)).addAll(Set.of(from));
+            return this;
+        }
+
+        @SafeVarargs
+        public final Builder<S> allowBumpingVersion(S to, S... from) {
+            versionBumpingTargets.add(to);
+            return allow(to, from);
+        }
+
+        public TransitionTable<S> build() {
+            Map<S, Set<S>> frozen = new EnumMap<>(type);
+            sourcesByTarget.forEach((to, from) -> frozen.put(to, Collections.unmodifiableSet(EnumSet.copyOf(from))));
+            return new TransitionTable<>(type,
+                Collections.unmodifiableMap(frozen),
+                Collections.unmodifiableSet(EnumSet.copyOf(versionBumpingTargets)));
+        }
+    }
+}
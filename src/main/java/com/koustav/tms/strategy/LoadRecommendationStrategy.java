@@ -0,0 +1,20 @@
+package com.koustav.tms.strategy;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+
+/**
+ * Strategy interface for ranking open loads for a transporter.
+ * Different implementations can weigh lane history, timing and fit differently.
+ */
+public interface LoadRecommendationStrategy {
+
+    /**
+     * Calculate how well the load suits the transporter.
+     * Higher scores are recommended first.
+     *
+     * @param load    an open load needing one of the transporter's truck types
+     * @param context the transporter's trucks and lane history
+     * @return the calculated score
+     */
+    double calculateScore(LoadBoardEntryResponse load, RecommendationContext context);
+}
@@ -0,0 +1,39 @@
+package com.koustav.tms.strategy;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * What a LoadRecommendationStrategy knows about the transporter it ranks loads for.
+ */
+@Getter
+@Builder
+public class RecommendationContext {
+
+    // truck type -> trucks available now
+    private final Map<String, Integer> availableTrucks;
+
+    // lane(loadingCity, unloadingCity) -> recent bookings of the transporter on it
+    private final Map<String, Long> laneBookings;
+
+    private final LocalDate today;
+
+    public static String lane(String loadingCity, String unloadingCity) {
+        return loadingCity + "->" + unloadingCity;
+    }
+
+    public long laneBookings(String loadingCity, String unloadingCity) {
+        return laneBookings.getOrDefault(lane(loadingCity, unloadingCity), 0L);
+    }
+
+    public long busiestLaneBookings() {
+        return laneBookings.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+    }
+
+    public int availableTrucks(String truckType) {
+        return availableTrucks.getOrDefault(truckType, 0);
+    }
+}
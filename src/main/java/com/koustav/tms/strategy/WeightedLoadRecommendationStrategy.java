@@ -0,0 +1,59 @@
+package com.koustav.tms.strategy;
+
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Weighted recommendation strategy that combines, each on a 0-1 scale:
+ * - lane history: bookings on the load's lane relative to the transporter's busiest lane
+ * - loading date proximity: 1 today, falling to 0 at tms.recommendation.horizon-days
+ * - remaining trucks: share of the load's remaining trucks the transporter can cover
+ * Weights come from tms.recommendation.weight.* (default 40 / 35 / 25%).
+ * horizon-days must be positive - checked at startup, it divides the date score.
+ */
+@Component
+public class WeightedLoadRecommendationStrategy implements LoadRecommendationStrategy {
+
+    @Value("${tms.recommendation.weight.lane-history:0.4}")
+    private double laneHistoryWeight = 0.4;
+
+    @Value("${tms.recommendation.weight.loading-date:0.35}")
+    private double loadingDateWeight = 0.35;
+
+    @Value("${tms.recommendation.weight.remaining-trucks:0.25}")
+    private double remainingTrucksWeight = 0.25;
+
+    @Value("${tms.recommendation.horizon-days:14}")
+    private int horizonDays = 14;
+
+    @PostConstruct
+    void validate() {
+        if (horizonDays <= 0) {
+            throw new IllegalStateException("tms.recommendation.horizon-days must be positive, was " + horizonDays);
+        }
+    }
+
+    @Override
+    public double calculateScore(LoadBoardEntryResponse load, RecommendationContext context) {
+        long busiestLane = context.busiestLaneBookings();
+        double laneScore = busiestLane == 0
+            ? 0.0
+            : (double) context.laneBookings(load.getLoadingCity(), load.getUnloadingCity()) / busiestLane;
+
+        long daysAway = ChronoUnit.DAYS.between(context.getToday(), load.getLoadingDate().toLocalDateTime().toLocalDate());
+        double dateScore = 1.0 - (double) Math.min(Math.max(daysAway, 0), horizonDays) / horizonDays;
+
+        double truckScore = load.getRemainingTrucks() <= 0
+            ? 0.0
+            : (double) Math.min(context.availableTrucks(load.getTruckType()), load.getRemainingTrucks())
+                / load.getRemainingTrucks();
+
+        return laneScore * laneHistoryWeight + dateScore * loadingDateWeight + truckScore * remainingTrucksWeight;
+    }
+}
@@ -0,0 +1,113 @@
+-- Whole acceptBid in one call (tms.booking.engine=procedure, see ProcedureBookingService).
+-- Repeatable Flyway migration: re-applied (CREATE OR REPLACE) whenever this file changes.
+--
+-- Same rules as the Java path. Locks: the bid is looked up without a lock (only its
+-- load_id, which never changes), then load row FOR UPDATE, bid row, transporter row.
+-- Every accept path takes the load row before any bid or transporter row, so accepts
+-- of one load queue on it instead of deadlocking.
+-- p_booking_id comes from the caller (ShardIds.newId of the current shard) so the
+-- booking id names the shard it is stored on, like every JPA-inserted id.
+-- Outcomes: BOOKED | BID_NOT_FOUND | BID_NOT_PENDING | LOAD_CAPACITY | TRANSPORTER_CAPACITY.
+-- TRANSPORTER_CAPACITY also rejects the bid; the caller must commit, not roll back.
+-- Versions are bumped on load and transporter so concurrent JPA writers still see the change.
+DROP FUNCTION IF EXISTS tms_accept_bid(uuid, boolean);
+
+CREATE OR REPLACE FUNCTION tms_accept_bid(p_bid_id uuid, p_allow_partial boolean, p_booking_id uuid)
+RETURNS TABLE (
+    outcome          text,
+    detail           text,
+    booking_id       uuid,
+    load_id          uuid,
+    transporter_id   uuid,
+    transporter_name text,
+    allocated_trucks integer,
+    final_rate       double precision,
+    booked_at        timestamp,
+    truck_type       text,
+    trucks_left      integer
+)
+LANGUAGE plpgsql AS $$
+#variable_conflict use_column
+DECLARE
+    v_load_id        uuid;
+    v_transporter_id uuid;
+    v_status         text;
+    v_offered        integer;
+    v_rate           double precision;
+    v_truck_type     text;
+    v_remaining      integer;
+    v_available      integer;
+    v_company        text;
+    v_trucks         integer;
+    v_booking_id     uuid := p_booking_id;
+    v_now            timestamp := localtimestamp;
+BEGIN
+    SELECT b.load_id INTO v_load_id FROM bid b WHERE b.bid_id = p_bid_id;
+    IF NOT FOUND THEN
+        RETURN QUERY SELECT 'BID_NOT_FOUND'::text, NULL::text, NULL::uuid, NULL::uuid, NULL::uuid,
+            NULL::text, NULL::integer, NULL::double precision, NULL::timestamp, NULL::text, NULL::integer;
+        RETURN;
+    END IF;
+
+    SELECT l.truck_type, l.no_of_trucks - l.allocated_trucks INTO v_truck_type, v_remaining
+    FROM load l WHERE l.load_id = v_load_id FOR UPDATE;
+
+    -- re-read under the load lock: a concurrent accept may have decided it meanwhile
+    SELECT b.bid_status, b.trucks_offered, b.proposed_rate, b.transporter_id
+    INTO v_status, v_offered, v_rate, v_transporter_id
+    FROM bid b WHERE b.bid_id = p_bid_id FOR UPDATE;
+
+    IF v_status <> 'PENDING' THEN
+        RETURN QUERY SELECT 'BID_NOT_PENDING'::text, v_status, NULL::uuid, v_load_id, v_transporter_id,
+            NULL::text, NULL::integer, NULL::double precision, NULL::timestamp, v_truck_type, NULL::integer;
+        RETURN;
+    END IF;
+
+    IF v_offered <= v_remaining THEN
+        v_trucks := v_offered;
+    ELSIF p_allow_partial AND v_remaining > 0 THEN
+        v_trucks := v_remaining;
+    ELSE
+        RETURN QUERY SELECT 'LOAD_CAPACITY'::text, v_remaining || ',' || v_offered, NULL::uuid, v_load_id,
+            v_transporter_id, NULL::text, NULL::integer, NULL::double precision, NULL::timestamp, v_truck_type,
+            NULL::integer;
+        RETURN;
+    END IF;
+
+    SELECT COALESCE((t.available_trucks ->> v_truck_type)::integer, 0), t.company_name
+    INTO v_available, v_company
+    FROM transporter t WHERE t.transporter_id = v_transporter_id FOR UPDATE;
+
+    IF v_available < v_trucks THEN
+        UPDATE bid SET bid_status = 'REJECTED' WHERE bid.bid_id = p_bid_id;
+        RETURN QUERY SELECT 'TRANSPORTER_CAPACITY'::text, NULL::text, NULL::uuid, v_load_id, v_transporter_id,
+            v_company, NULL::integer, NULL::double precision, NULL::timestamp, v_truck_type, v_available;
+        RETURN;
+    END IF;
+
+    UPDATE transporter
+    SET available_trucks = jsonb_set(available_trucks, ARRAY[v_truck_type], to_jsonb(v_available - v_trucks)),
+        version = version + 1
+    WHERE transporter.transporter_id = v_transporter_id;
+
+    UPDATE bid SET bid_status = 'ACCEPTED' WHERE bid.bid_id = p_bid_id;
+
+    INSERT INTO booking (booking_id, load_id, bid_id, transporter_id, allocated_trucks, final_rate,
+                         booking_status, booked_at)
+    VALUES (v_booking_id, v_load_id, p_bid_id, v_transporter_id, v_trucks, v_rate, 'CONFIRMED', v_now);
+
+    UPDATE load
+    SET allocated_trucks = load.allocated_trucks + v_trucks,
+        status = CASE WHEN v_remaining = v_trucks THEN 'BOOKED' ELSE status END,
+        version = version + 1
+    WHERE load.load_id = v_load_id;
+
+    -- load full: nothing left can be accepted
+    IF v_remaining = v_trucks THEN
+        UPDATE bid SET bid_status = 'REJECTED' WHERE bid.load_id = v_load_id AND bid.bid_status = 'PENDING';
+    END IF;
+
+    RETURN QUERY SELECT 'BOOKED'::text, NULL::text, v_booking_id, v_load_id, v_transporter_id, v_company,
+        v_trucks, v_rate, v_now, v_truck_type, v_available - v_trucks;
+END;
+$$;
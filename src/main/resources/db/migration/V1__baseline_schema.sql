@@ -0,0 +1,84 @@
+-- Baseline: the schema as Hibernate ddl-auto=update + schema-postgresql.sql left it.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate)
+-- and skip this script; fresh databases start here.
+-- Indexes are in V2 so every index change stays its own reviewable migration.
+
+CREATE TABLE transporter (
+    transporter_id   uuid             NOT NULL,
+    company_name     varchar(255)     NOT NULL,
+    rating           double precision NOT NULL,
+    version          bigint,
+    available_trucks jsonb            NOT NULL,
+    CONSTRAINT transporter_pkey PRIMARY KEY (transporter_id)
+);
+
+CREATE TABLE load (
+    load_id          uuid             NOT NULL,
+    shipper_id       varchar(255)     NOT NULL,
+    loading_city     varchar(100)     NOT NULL,
+    unloading_city   varchar(100)     NOT NULL,
+    loading_date     timestamp(6)     NOT NULL,
+    product_type     varchar(255)     NOT NULL,
+    weight           double precision NOT NULL,
+    weight_unit      varchar(255)     NOT NULL,
+    truck_type       varchar(255)     NOT NULL,
+    no_of_trucks     integer          NOT NULL,
+    allocated_trucks integer          NOT NULL DEFAULT 0,
+    status           varchar(255)     NOT NULL,
+    version          bigint,
+    date_posted      timestamp(6)     NOT NULL,
+    CONSTRAINT load_pkey PRIMARY KEY (load_id),
+    CONSTRAINT load_weight_unit_check CHECK (weight_unit IN ('KG', 'TON')),
+    CONSTRAINT load_status_check
+        CHECK (status IN ('POSTED', 'OPEN_FOR_BIDS', 'BOOKED', 'CANCELLED', 'EXPIRED'))
+);
+
+CREATE TABLE bid (
+    bid_id         uuid             NOT NULL,
+    load_id        uuid             NOT NULL,
+    transporter_id uuid             NOT NULL,
+    proposed_rate  double precision NOT NULL,
+    trucks_offered integer          NOT NULL,
+    bid_status     varchar(255)     NOT NULL,
+    date_submitted timestamp(6)     NOT NULL,
+    CONSTRAINT bid_pkey PRIMARY KEY (bid_id),
+    CONSTRAINT fk_bid_load FOREIGN KEY (load_id) REFERENCES load (load_id),
+    CONSTRAINT fk_bid_transporter FOREIGN KEY (transporter_id) REFERENCES transporter (transporter_id),
+    CONSTRAINT bid_bid_status_check
+        CHECK (bid_status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'EXPIRED'))
+);
+
+CREATE TABLE booking (
+    booking_id       uuid             NOT NULL,
+    load_id          uuid             NOT NULL,
+    bid_id           uuid             NOT NULL,
+    transporter_id   uuid             NOT NULL,
+    allocated_trucks integer          NOT NULL,
+    final_rate       double precision NOT NULL,
+    booking_status   varchar(255)     NOT NULL,
+    booked_at        timestamp(6)     NOT NULL,
+    CONSTRAINT booking_pkey PRIMARY KEY (booking_id),
+    -- one booking per bid
+    CONSTRAINT uk_booking_bid_id UNIQUE (bid_id),
+    CONSTRAINT fk_booking_load FOREIGN KEY (load_id) REFERENCES load (load_id),
+    CONSTRAINT fk_booking_bid FOREIGN KEY (bid_id) REFERENCES bid (bid_id),
+    CONSTRAINT fk_booking_transporter FOREIGN KEY (transporter_id) REFERENCES transporter (transporter_id),
+    CONSTRAINT booking_booking_status_check
+        CHECK (booking_status IN ('CONFIRMED', 'COMPLETED', 'CANCELLED'))
+);
+
+CREATE TABLE idempotency_record (
+    record_id           uuid         NOT NULL,
+    idempotency_key     varchar(255) NOT NULL,
+    request_fingerprint varchar(64)  NOT NULL,
+    record_status       varchar(255) NOT NULL,
+    response_status     integer,
+    response_body       text,
+    created_at          timestamp(6) NOT NULL,
+    expires_at          timestamp(6) NOT NULL,
+    CONSTRAINT idempotency_record_pkey PRIMARY KEY (record_id),
+    -- what makes two concurrent first attempts race safely
+    CONSTRAINT uk_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT idempotency_record_record_status_check
+        CHECK (record_status IN ('IN_PROGRESS', 'COMPLETED'))
+);
@@ -0,0 +1,58 @@
+-- All secondary indexes, built CONCURRENTLY: no write lock on the table, so this
+-- is safe to run against a live database. Flyway runs the script outside a
+-- transaction (CONCURRENTLY can't run inside one) - keep it index-only.
+-- IF NOT EXISTS: databases baselined from ddl-auto already have most of these.
+--
+-- Partial indexes for the hot paths. Almost every read filters on PENDING bids or
+-- open loads, while history (ACCEPTED/REJECTED/EXPIRED bids, BOOKED/CANCELLED loads)
+-- only grows. Indexing just the live rows keeps these small enough to stay cached.
+-- Queries that should use them spell the status out as a literal (see BidRepository).
+
+-- load
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_load_date_posted
+    ON load (date_posted DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_load_composite_shipper_status
+    ON load (shipper_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_load_open_loading_date
+    ON load (loading_date) WHERE status IN ('POSTED', 'OPEN_FOR_BIDS');
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_load_open_date_posted
+    ON load (date_posted DESC) WHERE status IN ('POSTED', 'OPEN_FOR_BIDS');
+
+-- bid
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_date_submitted
+    ON bid (date_submitted DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_composite_load_status
+    ON bid (load_id, bid_status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_composite_transporter_status
+    ON bid (transporter_id, bid_status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_pending_load
+    ON bid (load_id) WHERE bid_status = 'PENDING';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_pending_transporter
+    ON bid (transporter_id) WHERE bid_status = 'PENDING';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bid_pending_date_submitted
+    ON bid (date_submitted) WHERE bid_status = 'PENDING';
+
+-- booking (bid_id is covered by uk_booking_bid_id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_load_id
+    ON booking (load_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_transporter_id
+    ON booking (transporter_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_booked_at
+    ON booking (booked_at DESC);
+
+-- transporter
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transporter_company_name
+    ON transporter (company_name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transporter_rating
+    ON transporter (rating DESC);
+
+-- idempotency_record: purge job scans by expiry
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_idempotency_expires_at
+    ON idempotency_record (expires_at);
+
+-- Redundant indexes a ddl-auto database may still carry.
+-- - idx_booking_bid_id: duplicate of the unique constraint's index
+-- - idx_booking_status: three distinct values, never selective
+-- (the bid/load ones were already dropped by the old schema-postgresql.sql)
+DROP INDEX CONCURRENTLY IF EXISTS idx_booking_bid_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_booking_status;
@@ -0,0 +1,174 @@
+-- Monthly range partitions: bid on date_submitted, booking on booked_at.
+--
+-- Why: both tables only grow, while almost every read touches the last few
+-- weeks. Per-month partitions keep each index (and vacuum run) month-sized,
+-- queries with a date filter only visit the matching months, and retiring
+-- a month is DETACH/DROP instead of a mass DELETE.
+--
+-- Consequences:
+-- - the partition key has to be part of every unique constraint, so the
+--   primary keys become (bid_id, date_submitted) / (booking_id, booked_at).
+--   The ids are still generated UUIDs, lookups by id use the PK index.
+-- - booking.bid_id can no longer reference bid or be UNIQUE across months.
+--   One booking per bid is still enforced by the PENDING -> ACCEPTED
+--   transition under the load lock; bid_id gets a plain index.
+--
+-- Rows are copied in this migration's transaction, with both tables locked.
+-- Run it in a maintenance window; time it on a copy of production first.
+
+-- ========================================
+-- Partition maintenance (PartitionMaintenanceJob)
+-- ========================================
+
+-- Partitions are named <parent>_yYYYYmMM. Each missing month from p_from up to
+-- p_months_ahead months past the current one is created as a plain table and
+-- then ATTACHed: ATTACH needs only SHARE UPDATE EXCLUSIVE on the parent, while
+-- CREATE TABLE ... PARTITION OF would block every read and write of it.
+CREATE OR REPLACE FUNCTION tms_ensure_month_partitions(p_parent text, p_from date, p_months_ahead integer)
+RETURNS integer
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_month   date := date_trunc('month', p_from)::date;
+    v_last    date := (date_trunc('month', current_date) + make_interval(months => p_months_ahead))::date;
+    v_name    text;
+    v_created integer := 0;
+BEGIN
+    WHILE v_month <= v_last LOOP
+        v_name := format('%s_y%sm%s', p_parent, to_char(v_month, 'YYYY'), to_char(v_month, 'MM'));
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                           v_name, p_parent);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           p_parent, v_name, v_month, (v_month + interval '1 month')::date);
+            v_created := v_created + 1;
+        END IF;
+        v_month := (v_month + interval '1 month')::date;
+    END LOOP;
+    RETURN v_created;
+END;
+$$;
+
+-- Removes every monthly partition that ends on or before p_before: detached
+-- (kept as a standalone table, e.g. for archiving) or dropped. Metadata only,
+-- no matter how many rows the month holds.
+CREATE OR REPLACE FUNCTION tms_detach_month_partitions(p_parent text, p_before date, p_drop boolean)
+RETURNS integer
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_partition record;
+    v_removed   integer := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname,
+               to_date(substring(c.relname FROM '_y([0-9]{4}m[0-9]{2})$'), 'YYYY"m"MM') AS month_start
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = p_parent::regclass
+          AND c.relname ~ '_y[0-9]{4}m[0-9]{2}$'
+        ORDER BY c.relname
+    LOOP
+        IF (v_partition.month_start + interval '1 month')::date <= p_before THEN
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_parent, v_partition.relname);
+            IF p_drop THEN
+                EXECUTE format('DROP TABLE %I', v_partition.relname);
+            END IF;
+            v_removed := v_removed + 1;
+        END IF;
+    END LOOP;
+    RETURN v_removed;
+END;
+$$;
+
+-- ========================================
+-- bid
+-- ========================================
+
+ALTER TABLE booking DROP CONSTRAINT IF EXISTS fk_booking_bid;
+
+-- free the index-backed names for the new table, the data is copied below
+ALTER TABLE bid RENAME TO bid_unpartitioned;
+ALTER TABLE bid_unpartitioned DROP CONSTRAINT bid_pkey;
+DROP INDEX IF EXISTS idx_bid_date_submitted;
+DROP INDEX IF EXISTS idx_bid_composite_load_status;
+DROP INDEX IF EXISTS idx_bid_composite_transporter_status;
+DROP INDEX IF EXISTS idx_bid_pending_load;
+DROP INDEX IF EXISTS idx_bid_pending_transporter;
+DROP INDEX IF EXISTS idx_bid_pending_date_submitted;
+
+CREATE TABLE bid (
+    bid_id         uuid             NOT NULL,
+    load_id        uuid             NOT NULL,
+    transporter_id uuid             NOT NULL,
+    proposed_rate  double precision NOT NULL,
+    trucks_offered integer          NOT NULL,
+    bid_status     varchar(255)     NOT NULL,
+    date_submitted timestamp(6)     NOT NULL,
+    CONSTRAINT bid_pkey PRIMARY KEY (bid_id, date_submitted),
+    CONSTRAINT fk_bid_load FOREIGN KEY (load_id) REFERENCES load (load_id),
+    CONSTRAINT fk_bid_transporter FOREIGN KEY (transporter_id) REFERENCES transporter (transporter_id),
+    CONSTRAINT bid_bid_status_check
+        CHECK (bid_status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'EXPIRED'))
+) PARTITION BY RANGE (date_submitted);
+
+SELECT tms_ensure_month_partitions('bid',
+    COALESCE((SELECT min(date_submitted) FROM bid_unpartitioned)::date, current_date), 3);
+-- safety net for rows outside the created months; PartitionMaintenanceJob keeps it empty
+CREATE TABLE bid_default PARTITION OF bid DEFAULT;
+
+INSERT INTO bid (bid_id, load_id, transporter_id, proposed_rate, trucks_offered, bid_status, date_submitted)
+SELECT bid_id, load_id, transporter_id, proposed_rate, trucks_offered, bid_status, date_submitted
+FROM bid_unpartitioned;
+
+DROP TABLE bid_unpartitioned;
+
+-- indexes after the copy; created on the parent, they cascade to every partition
+CREATE INDEX idx_bid_date_submitted ON bid (date_submitted DESC);
+CREATE INDEX idx_bid_composite_load_status ON bid (load_id, bid_status);
+CREATE INDEX idx_bid_composite_transporter_status ON bid (transporter_id, bid_status);
+CREATE INDEX idx_bid_pending_load ON bid (load_id) WHERE bid_status = 'PENDING';
+CREATE INDEX idx_bid_pending_transporter ON bid (transporter_id) WHERE bid_status = 'PENDING';
+CREATE INDEX idx_bid_pending_date_submitted ON bid (date_submitted) WHERE bid_status = 'PENDING';
+
+-- ========================================
+-- booking
+-- ========================================
+
+ALTER TABLE booking RENAME TO booking_unpartitioned;
+ALTER TABLE booking_unpartitioned DROP CONSTRAINT booking_pkey;
+DROP INDEX IF EXISTS idx_booking_load_id;
+DROP INDEX IF EXISTS idx_booking_transporter_id;
+DROP INDEX IF EXISTS idx_booking_booked_at;
+
+CREATE TABLE booking (
+    booking_id       uuid             NOT NULL,
+    load_id          uuid             NOT NULL,
+    bid_id           uuid             NOT NULL,
+    transporter_id   uuid             NOT NULL,
+    allocated_trucks integer          NOT NULL,
+    final_rate       double precision NOT NULL,
+    booking_status   varchar(255)     NOT NULL,
+    booked_at        timestamp(6)     NOT NULL,
+    CONSTRAINT booking_pkey PRIMARY KEY (booking_id, booked_at),
+    CONSTRAINT fk_booking_load FOREIGN KEY (load_id) REFERENCES load (load_id),
+    CONSTRAINT fk_booking_transporter FOREIGN KEY (transporter_id) REFERENCES transporter (transporter_id),
+    CONSTRAINT booking_booking_status_check
+        CHECK (booking_status IN ('CONFIRMED', 'COMPLETED', 'CANCELLED'))
+) PARTITION BY RANGE (booked_at);
+
+SELECT tms_ensure_month_partitions('booking',
+    COALESCE((SELECT min(booked_at) FROM booking_unpartitioned)::date, current_date), 3);
+CREATE TABLE booking_default PARTITION OF booking DEFAULT;
+
+INSERT INTO booking (booking_id, load_id, bid_id, transporter_id, allocated_trucks, final_rate,
+                     booking_status, booked_at)
+SELECT booking_id, load_id, bid_id, transporter_id, allocated_trucks, final_rate, booking_status, booked_at
+FROM booking_unpartitioned;
+
+DROP TABLE booking_unpartitioned;
+
+CREATE INDEX idx_booking_bid_id ON booking (bid_id);
+CREATE INDEX idx_booking_load_id ON booking (load_id);
+CREATE INDEX idx_booking_transporter_id ON booking (transporter_id);
+CREATE INDEX idx_booking_booked_at ON booking (booked_at DESC);
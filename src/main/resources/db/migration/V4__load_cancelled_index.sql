@@ -0,0 +1,4 @@
+-- RetentionPurgeJob walks CANCELLED loads in (date_posted, load_id) order.
+-- Partial: only the cancelled rows, and they leave it as they are purged.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_load_cancelled_date_posted
+    ON load (date_posted, load_id) WHERE status = 'CANCELLED';
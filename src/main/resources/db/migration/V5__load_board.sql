@@ -0,0 +1,197 @@
+-- load_board: read model of the open loads for GET /load-board (CQRS).
+--
+-- One row per POSTED / OPEN_FOR_BIDS load with everything a transporter
+-- browsing loads needs precomputed - remaining trucks, PENDING bid count,
+-- lowest rate and the top-scored bid - so a board page is one index range
+-- scan of one table, no joins or per-load aggregates.
+--
+-- Maintained through a transactional outbox:
+-- - triggers on load and bid append the load_id to load_board_outbox in
+--   the writing transaction - every path is covered (JPA, bulk native
+--   updates, tms_accept_bid), and a rolled back write leaves no trace
+-- - LoadBoardProjectionJob calls tms_project_load_board, which claims a
+--   chunk of the outbox and recomputes those loads' rows
+-- The board trails the writes by about one job interval.
+--
+-- Refreshing the row inside the trigger instead would serialize every
+-- writer of a load on the board row, against the load -> transporter lock
+-- order the booking paths keep; the outbox insert takes no shared lock.
+
+CREATE TABLE load_board (
+    load_id                uuid             NOT NULL,
+    shipper_id             varchar(255)     NOT NULL,
+    loading_city           varchar(100)     NOT NULL,
+    unloading_city         varchar(100)     NOT NULL,
+    loading_date           timestamp(6)     NOT NULL,
+    product_type           varchar(255)     NOT NULL,
+    weight                 double precision NOT NULL,
+    weight_unit            varchar(255)     NOT NULL,
+    truck_type             varchar(255)     NOT NULL,
+    no_of_trucks           integer          NOT NULL,
+    remaining_trucks       integer          NOT NULL,
+    status                 varchar(255)     NOT NULL,
+    date_posted            timestamp(6)     NOT NULL,
+    pending_bids           integer          NOT NULL,
+    min_rate               double precision,
+    top_bid_id             uuid,
+    top_bid_transporter_id uuid,
+    top_bid_rate           double precision,
+    top_bid_score          double precision,
+    CONSTRAINT load_board_pkey PRIMARY KEY (load_id)
+);
+
+-- keyset order of the board: newest first, load_id breaks ties
+CREATE INDEX idx_load_board_date_posted ON load_board (date_posted DESC, load_id DESC);
+CREATE INDEX idx_load_board_truck_type ON load_board (truck_type, date_posted DESC, load_id DESC);
+CREATE INDEX idx_load_board_loading_city ON load_board (loading_city, date_posted DESC, load_id DESC);
+
+-- No unique constraint on load_id: a unique insert would make concurrent
+-- writers of the same load wait for each other. Duplicates collapse when
+-- the projector claims them.
+CREATE TABLE load_board_outbox (
+    id      bigint GENERATED ALWAYS AS IDENTITY,
+    load_id uuid NOT NULL,
+    CONSTRAINT load_board_outbox_pkey PRIMARY KEY (id)
+);
+
+-- Recomputes one load's board row from load, bid and transporter: upserted
+-- while the load is open, deleted otherwise (or when the load is gone).
+-- Top bid uses the weights of WeightedBidScoringStrategy:
+-- 0.7 / proposed_rate + 0.3 * rating / 5.
+CREATE OR REPLACE FUNCTION tms_refresh_load_board(p_load_id uuid)
+RETURNS void
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO load_board (load_id, shipper_id, loading_city, unloading_city, loading_date, product_type,
+                            weight, weight_unit, truck_type, no_of_trucks, remaining_trucks, status, date_posted,
+                            pending_bids, min_rate, top_bid_id, top_bid_transporter_id, top_bid_rate, top_bid_score)
+    SELECT l.load_id, l.shipper_id, l.loading_city, l.unloading_city, l.loading_date, l.product_type,
+           l.weight, l.weight_unit, l.truck_type, l.no_of_trucks, l.no_of_trucks - l.allocated_trucks,
+           l.status, l.date_posted,
+           p.pending_bids, p.min_rate, t.bid_id, t.transporter_id, t.proposed_rate, t.score
+    FROM load l
+    CROSS JOIN LATERAL (
+        SELECT count(*)::integer AS pending_bids, min(b.proposed_rate) AS min_rate
+        FROM bid b
+        WHERE b.load_id = l.load_id AND b.bid_status = 'PENDING'
+    ) p
+    LEFT JOIN LATERAL (
+        SELECT b.bid_id, b.transporter_id, b.proposed_rate,
+               0.7 / b.proposed_rate + 0.3 * tr.rating / 5.0 AS score
+        FROM bid b
+        JOIN transporter tr ON tr.transporter_id = b.transporter_id
+        WHERE b.load_id = l.load_id AND b.bid_status = 'PENDING'
+        ORDER BY score DESC, b.bid_id
+        LIMIT 1
+    ) t ON true
+    WHERE l.load_id = p_load_id AND l.status IN ('POSTED', 'OPEN_FOR_BIDS')
+    ON CONFLICT (load_id) DO UPDATE SET
+        remaining_trucks       = EXCLUDED.remaining_trucks,
+        no_of_trucks           = EXCLUDED.no_of_trucks,
+        status                 = EXCLUDED.status,
+        loading_date           = EXCLUDED.loading_date,
+        pending_bids           = EXCLUDED.pending_bids,
+        min_rate               = EXCLUDED.min_rate,
+        top_bid_id             = EXCLUDED.top_bid_id,
+        top_bid_transporter_id = EXCLUDED.top_bid_transporter_id,
+        top_bid_rate           = EXCLUDED.top_bid_rate,
+        top_bid_score          = EXCLUDED.top_bid_score;
+
+    IF NOT FOUND THEN
+        DELETE FROM load_board WHERE load_id = p_load_id;
+    END IF;
+END;
+$$;
+
+-- One projector chunk: claims up to p_limit outbox entries (SKIP LOCKED, so
+-- nodes share the work) and refreshes each distinct load once.
+-- Loads are locked (advisory, transaction scoped) in id order before their
+-- refresh: two projectors never refresh one load at the same time, the one
+-- that waited recomputes from a newer snapshot, and the order rules out
+-- deadlocks between them.
+-- Returns the number of outbox entries consumed.
+CREATE OR REPLACE FUNCTION tms_project_load_board(p_limit integer)
+RETURNS integer
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_claimed  integer;
+    v_load_ids uuid[];
+    v_load_id  uuid;
+BEGIN
+    WITH claimed AS (
+        DELETE FROM load_board_outbox
+        WHERE id IN (SELECT id FROM load_board_outbox ORDER BY id LIMIT p_limit FOR UPDATE SKIP LOCKED)
+        RETURNING load_id
+    )
+    SELECT count(*)::integer, array_agg(DISTINCT load_id ORDER BY load_id)
+    INTO v_claimed, v_load_ids
+    FROM claimed;
+
+    IF v_claimed = 0 THEN
+        RETURN 0;
+    END IF;
+
+    FOREACH v_load_id IN ARRAY v_load_ids LOOP
+        PERFORM pg_advisory_xact_lock(hashtextextended('load_board:' || v_load_id::text, 0));
+        PERFORM tms_refresh_load_board(v_load_id);
+    END LOOP;
+    RETURN v_claimed;
+END;
+$$;
+
+-- ========================================
+-- Outbox triggers
+-- ========================================
+
+CREATE OR REPLACE FUNCTION tms_load_board_mark()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO load_board_outbox (load_id) VALUES (OLD.load_id);
+    ELSE
+        INSERT INTO load_board_outbox (load_id) VALUES (NEW.load_id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- load: new, gone, or a change of what the board shows
+CREATE TRIGGER load_board_load_insert_delete
+    AFTER INSERT OR DELETE ON load
+    FOR EACH ROW EXECUTE FUNCTION tms_load_board_mark();
+CREATE TRIGGER load_board_load_update
+    AFTER UPDATE ON load
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status
+          OR OLD.allocated_trucks IS DISTINCT FROM NEW.allocated_trucks
+          OR OLD.no_of_trucks IS DISTINCT FROM NEW.no_of_trucks
+          OR OLD.loading_date IS DISTINCT FROM NEW.loading_date)
+    EXECUTE FUNCTION tms_load_board_mark();
+
+-- bid: only PENDING bids count. Row triggers on the partitioned parent
+-- are cloned to every partition, including the ones attached later.
+CREATE TRIGGER load_board_bid_insert
+    AFTER INSERT ON bid
+    FOR EACH ROW
+    WHEN (NEW.bid_status = 'PENDING')
+    EXECUTE FUNCTION tms_load_board_mark();
+CREATE TRIGGER load_board_bid_delete
+    AFTER DELETE ON bid
+    FOR EACH ROW
+    WHEN (OLD.bid_status = 'PENDING')
+    EXECUTE FUNCTION tms_load_board_mark();
+CREATE TRIGGER load_board_bid_update
+    AFTER UPDATE ON bid
+    FOR EACH ROW
+    WHEN ((OLD.bid_status = 'PENDING' OR NEW.bid_status = 'PENDING')
+          AND (OLD.bid_status IS DISTINCT FROM NEW.bid_status
+               OR OLD.proposed_rate IS DISTINCT FROM NEW.proposed_rate))
+    EXECUTE FUNCTION tms_load_board_mark();
+
+-- backfill: every open load goes through the projector once
+INSERT INTO load_board_outbox (load_id)
+SELECT load_id FROM load WHERE status IN ('POSTED', 'OPEN_FOR_BIDS');
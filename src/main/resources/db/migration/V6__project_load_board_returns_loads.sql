@@ -0,0 +1,41 @@
+-- tms_project_load_board now also says which loads it refreshed, so
+-- LoadBoardProjectionJob can tell the in-memory boards (OpenLoadBoard) of
+-- every node which rows to re-read. Same claiming and locking as in V5.
+--
+-- One row per refreshed load; consumed (outbox entries claimed by the
+-- chunk) is repeated on every row. No rows = the outbox was empty.
+
+DROP FUNCTION tms_project_load_board(integer);
+
+CREATE FUNCTION tms_project_load_board(p_limit integer)
+RETURNS TABLE (load_id uuid, consumed integer)
+LANGUAGE plpgsql
+AS $$
+#variable_conflict use_column
+DECLARE
+    v_claimed  integer;
+    v_load_ids uuid[];
+    v_load_id  uuid;
+BEGIN
+    WITH claimed AS (
+        DELETE FROM load_board_outbox o
+        WHERE o.id IN (SELECT x.id FROM load_board_outbox x ORDER BY x.id LIMIT p_limit FOR UPDATE SKIP LOCKED)
+        RETURNING o.load_id
+    )
+    SELECT count(*)::integer, array_agg(DISTINCT c.load_id ORDER BY c.load_id)
+    INTO v_claimed, v_load_ids
+    FROM claimed c;
+
+    IF v_claimed = 0 THEN
+        RETURN;
+    END IF;
+
+    FOREACH v_load_id IN ARRAY v_load_ids LOOP
+        PERFORM pg_advisory_xact_lock(hashtextextended('load_board:' || v_load_id::text, 0));
+        PERFORM tms_refresh_load_board(v_load_id);
+        load_id := v_load_id;
+        consumed := v_claimed;
+        RETURN NEXT;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,47 @@
+-- tms_project_load_board now announces the loads it refreshed itself:
+-- one pg_notify per load in the function's own transaction, so Postgres
+-- delivers them exactly when the refreshed rows commit. Before, the job
+-- sent them in a second transaction after the commit, and a crash or a
+-- lost connection in between left every node's OpenLoadBoard stale.
+--
+-- p_channel / p_node: the CacheCoherence channel and the calling node
+-- (payload node|LOAD|load_id|, see Invalidation). p_channel NULL = send
+-- nothing. Same claiming, locking and result rows as in V6.
+
+DROP FUNCTION tms_project_load_board(integer);
+
+CREATE FUNCTION tms_project_load_board(p_limit integer, p_channel text, p_node text)
+RETURNS TABLE (load_id uuid, consumed integer)
+LANGUAGE plpgsql
+AS $$
+#variable_conflict use_column
+DECLARE
+    v_claimed  integer;
+    v_load_ids uuid[];
+    v_load_id  uuid;
+BEGIN
+    WITH claimed AS (
+        DELETE FROM load_board_outbox o
+        WHERE o.id IN (SELECT x.id FROM load_board_outbox x ORDER BY x.id LIMIT p_limit FOR UPDATE SKIP LOCKED)
+        RETURNING o.load_id
+    )
+    SELECT count(*)::integer, array_agg(DISTINCT c.load_id ORDER BY c.load_id)
+    INTO v_claimed, v_load_ids
+    FROM claimed c;
+
+    IF v_claimed = 0 THEN
+        RETURN;
+    END IF;
+
+    FOREACH v_load_id IN ARRAY v_load_ids LOOP
+        PERFORM pg_advisory_xact_lock(hashtextextended('load_board:' || v_load_id::text, 0));
+        PERFORM tms_refresh_load_board(v_load_id);
+        IF p_channel IS NOT NULL THEN
+            PERFORM pg_notify(p_channel, p_node || '|LOAD|' || v_load_id::text || '|');
+        END IF;
+        load_id := v_load_id;
+        consumed := v_claimed;
+        RETURN NEXT;
+    END LOOP;
+END;
+$$;
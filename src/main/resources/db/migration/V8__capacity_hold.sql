@@ -0,0 +1,27 @@
+-- Trucks a booking on another shard has taken from (DEBIT) or is giving
+-- back to (CREDIT) a transporter's authoritative capacity on its home
+-- shard (HomeShardCapacity). Written on the home shard in the same
+-- transaction as the capacity change, before the booking transaction
+-- starts, and deleted once the booking's outcome has been settled - so a
+-- row here is a capacity change whose booking side is still open.
+-- CapacityHoldResolutionJob settles rows past expires_at.
+
+CREATE TABLE capacity_hold (
+    hold_id        uuid         NOT NULL,
+    bid_id         uuid         NOT NULL,
+    hold_kind      varchar(255) NOT NULL,
+    transporter_id uuid         NOT NULL,
+    truck_type     varchar(255) NOT NULL,
+    trucks         integer      NOT NULL,
+    created_at     timestamp(6) NOT NULL,
+    expires_at     timestamp(6) NOT NULL,
+    CONSTRAINT capacity_hold_pkey PRIMARY KEY (hold_id),
+    -- one open change of each kind per bid: a concurrent second accept of a bid
+    -- fails here instead of taking its trucks twice
+    CONSTRAINT uk_capacity_hold_bid_kind UNIQUE (bid_id, hold_kind),
+    CONSTRAINT capacity_hold_hold_kind_check
+        CHECK (hold_kind IN ('DEBIT', 'CREDIT')),
+    CONSTRAINT capacity_hold_trucks_check CHECK (trucks > 0)
+);
+
+CREATE INDEX idx_capacity_hold_expires_at ON capacity_hold (expires_at);
@@ -0,0 +1,176 @@
+package com.koustav.tms.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SegmentStore Tests")
+class SegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+    private SegmentStore segmentStore;
+
+    private UUID transporterA;
+    private UUID transporterB;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        segmentStore = newStore();
+        transporterA = UUID.randomUUID();
+        transporterB = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should read back every column of what was written")
+    void append_RoundTrip() {
+        // Arrange
+        ArchiveRecord written = record(transporterA, "Mumbai", "Pune", 1_000L);
+        segmentStore.append(ArchiveKind.BOOKING, List.of(written));
+
+        // Act
+        List<ArchiveRecord> found = segmentStore.query(ArchiveKind.BOOKING, HistoryQuery.builder().limit(10).build());
+
+        // Assert
+        assertEquals(List.of(written), found);
+        assertTrue(segmentStore.query(ArchiveKind.BID, HistoryQuery.builder().limit(10).build()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter by transporter and lane, newest first")
+    void query_TransporterAndLane() {
+        // Arrange
+        segmentStore.append(ArchiveKind.BID, List.of(
+            record(transporterA, "Mumbai", "Pune", 1_000L),
+            record(transporterB, "Mumbai", "Pune", 2_000L),
+            record(transporterA, "Delhi", "Jaipur", 3_000L),
+            record(transporterA, "Mumbai", "Pune", 4_000L)));
+
+        // Act
+        List<ArchiveRecord> found = segmentStore.query(ArchiveKind.BID, HistoryQuery.builder()
+            .transporterId(transporterA).loadingCity("Mumbai").unloadingCity("Pune").limit(10).build());
+
+        // Assert
+        assertEquals(2, found.size());
+        assertEquals(4_000L, found.get(0).getAt().getTime());
+        assertEquals(1_000L, found.get(1).getAt().getTime());
+    }
+
+    @Test
+    @DisplayName("Should skip segments outside the date range without reading them")
+    void query_PrunesByDate() {
+        // Arrange
+        segmentStore.append(ArchiveKind.BID, List.of(record(transporterA, "Mumbai", "Pune", 1_000L)));
+        segmentStore.append(ArchiveKind.BID, List.of(
+            record(transporterA, "Mumbai", "Pune", 10_000L),
+            record(transporterA, "Mumbai", "Pune", 20_000L)));
+
+        // Act
+        List<ArchiveRecord> found = segmentStore.query(ArchiveKind.BID, HistoryQuery.builder()
+            .from(new Timestamp(10_000L)).to(new Timestamp(20_000L)).limit(10).build());
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals(10_000L, found.get(0).getAt().getTime());
+        assertEquals(1.0, meterRegistry.get("tms.archive.query.segments").tag("outcome", "pruned").counter().count());
+        assertEquals(1.0, meterRegistry.get("tms.archive.query.segments").tag("outcome", "scanned").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop at the limit without reading older segments")
+    void query_LimitStopsEarly() {
+        // Arrange
+        List<ArchiveRecord> old = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            old.add(record(transporterA, "Mumbai", "Pune", 1_000L + i));
+        }
+        segmentStore.append(ArchiveKind.BID, old);
+        segmentStore.append(ArchiveKind.BID, List.of(
+            record(transporterA, "Mumbai", "Pune", 50_000L),
+            record(transporterA, "Mumbai", "Pune", 60_000L)));
+
+        // Act
+        List<ArchiveRecord> found = segmentStore.query(ArchiveKind.BID, HistoryQuery.builder().limit(2).build());
+
+        // Assert
+        assertEquals(List.of(60_000L, 50_000L), found.stream().map(r -> r.getAt().getTime()).toList());
+        assertEquals(1.0, meterRegistry.get("tms.archive.query.segments").tag("outcome", "scanned").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should show a row archived twice only once")
+    void query_DeduplicatesIds() {
+        // Arrange
+        ArchiveRecord record = record(transporterA, "Mumbai", "Pune", 1_000L);
+        segmentStore.append(ArchiveKind.BID, List.of(record));
+        segmentStore.append(ArchiveKind.BID, List.of(record));
+
+        // Act
+        List<ArchiveRecord> found = segmentStore.query(ArchiveKind.BID, HistoryQuery.builder().limit(10).build());
+
+        // Assert
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    @DisplayName("Should reopen segments on startup and drop discarded ones")
+    void open_ReopensAndDiscards() throws Exception {
+        // Arrange
+        segmentStore.append(ArchiveKind.BID, List.of(record(transporterA, "Mumbai", "Pune", 1_000L)));
+        Path discarded = segmentStore.append(ArchiveKind.BID, List.of(record(transporterB, "Delhi", "Agra", 2_000L)));
+        segmentStore.discard(ArchiveKind.BID, discarded);
+        Files.writeString(directory.resolve("bid").resolve("leftover.seg.tmp"), "half written");
+
+        // Act
+        SegmentStore reopened = newStore();
+
+        // Assert
+        assertEquals(1, reopened.segmentCount(ArchiveKind.BID));
+        assertFalse(Files.exists(discarded));
+        assertFalse(Files.exists(directory.resolve("bid").resolve("leftover.seg.tmp")));
+        assertEquals(transporterA,
+            reopened.query(ArchiveKind.BID, HistoryQuery.builder().limit(10).build()).get(0).getTransporterId());
+    }
+
+    private SegmentStore newStore() {
+        SegmentStore store = new SegmentStore();
+        ReflectionTestUtils.setField(store, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        store.open();
+        return store;
+    }
+
+    private ArchiveRecord record(UUID transporterId, String loadingCity, String unloadingCity, long at) {
+        UUID id = UUID.randomUUID();
+        return ArchiveRecord.builder()
+            .id(id)
+            .loadId(UUID.randomUUID())
+            .bidId(id)
+            .transporterId(transporterId)
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .truckType("Flatbed")
+            .status("REJECTED")
+            .trucks(3)
+            .rate(5000.0)
+            .at(new Timestamp(at))
+            .build();
+    }
+}
@@ -0,0 +1,295 @@
+package com.koustav.tms.board;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.entity.LoadBoardEntry;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.mapper.LoadBoardMapper;
+import com.koustav.tms.repository.LoadBoardRepository;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OpenLoadBoard Tests")
+class OpenLoadBoardTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private LoadBoardRepository loadBoardRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OpenLoadBoard openLoadBoard;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(shardRouter.shardCount()).thenReturn(1);
+        lenient().when(shardRouter.shardOf(any())).thenReturn(0);
+        // tiny, so the columns have to grow
+        ReflectionTestUtils.setField(openLoadBoard, "initialCapacity", 2);
+        openLoadBoard.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Should load every open load on the first sync and give back each column as read")
+    void sync_FirstRunLoadsEverything() {
+        // Arrange
+        LoadBoardEntry withBid = row("Flatbed", "Mumbai", "Pune", MARCH_1)
+            .topBidId(UUID.randomUUID())
+            .topBidTransporterId(UUID.randomUUID())
+            .topBidRate(3900.0)
+            .topBidScore(0.42)
+            .build();
+        LoadBoardEntry withoutBid = row("Container", "Delhi", "Agra", MARCH_1.plusDays(1))
+            .pendingBids(0)
+            .minRate(null)
+            .build();
+        when(loadBoardRepository.findAll()).thenReturn(List.of(withBid, withoutBid,
+            entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(2))));
+        assertFalse(openLoadBoard.isReady());
+
+        // Act
+        int loaded = openLoadBoard.sync();
+
+        // Assert
+        assertEquals(3, loaded);
+        assertTrue(openLoadBoard.isReady());
+        assertEquals(3.0, meterRegistry.get("tms.load.board.memory.loads").gauge().value());
+        List<LoadBoardEntryResponse> loads = openLoadBoard.browse(query().build()).getLoads();
+        assertEquals(LoadBoardMapper.toResponse(withBid), loads.get(0));
+        assertEquals(LoadBoardMapper.toResponse(withoutBid), loads.get(1));
+    }
+
+    @Test
+    @DisplayName("Should AND the truck type, loading city and unloading city filters")
+    void browse_AndsFilters() {
+        // Arrange
+        LoadBoardEntry match = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        load(match,
+            entry("Flatbed", "Mumbai", "Nashik", MARCH_1),
+            entry("Flatbed", "Delhi", "Pune", MARCH_1),
+            entry("Container", "Mumbai", "Pune", MARCH_1),
+            entry("Container", "Pune", "Mumbai", MARCH_1));
+
+        // Act
+        OpenLoadBoardResponse board = openLoadBoard.browse(query()
+            .truckType("Flatbed").loadingCity("Mumbai").unloadingCity("Pune").build());
+
+        // Assert
+        assertEquals(1, board.getCount());
+        assertEquals(1, board.getMatches());
+        assertEquals(match.getLoadId(), board.getLoads().get(0).getLoadId());
+        assertEquals(3, openLoadBoard.browse(query().unloadingCity("Pune").build()).getMatches());
+    }
+
+    @Test
+    @DisplayName("Should return the soonest loads of the date window and count the rest")
+    void browse_DateWindowSoonestFirst() {
+        // Arrange
+        LoadBoardEntry third = entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(3));
+        LoadBoardEntry first = entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(1));
+        LoadBoardEntry second = entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(2));
+        load(entry("Flatbed", "Mumbai", "Pune", MARCH_1), third, first, second,
+            entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(9)));
+
+        // Act
+        OpenLoadBoardResponse board = openLoadBoard.browse(query()
+            .truckType("Flatbed").from(MARCH_1.plusDays(1)).to(MARCH_1.plusDays(5)).limit(2).build());
+
+        // Assert
+        assertEquals(List.of(first.getLoadId(), second.getLoadId()),
+            board.getLoads().stream().map(LoadBoardEntryResponse::getLoadId).toList());
+        assertEquals(3, board.getMatches());
+    }
+
+    @Test
+    @DisplayName("Should find nothing for a value no load has, or a window that ends before it starts")
+    void browse_NoMatch() {
+        // Arrange
+        load(entry("Flatbed", "Mumbai", "Pune", MARCH_1));
+
+        // Act & Assert
+        assertEquals(0, openLoadBoard.browse(query().loadingCity("Chennai").build()).getMatches());
+        assertEquals(0, openLoadBoard.browse(query().from(MARCH_1).to(MARCH_1.minusDays(1)).build()).getMatches());
+    }
+
+    @Test
+    @DisplayName("Should hand out the loads needing any of the truck types within the loading days")
+    void candidates_AnyTruckTypeWithinDays() {
+        // Arrange
+        LoadBoardEntry flatbed = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        LoadBoardEntry container = entry("Container", "Delhi", "Agra", MARCH_1.plusDays(2));
+        load(flatbed, container,
+            entry("Tanker", "Mumbai", "Pune", MARCH_1),
+            entry("Flatbed", "Mumbai", "Pune", MARCH_1.plusDays(20)));
+
+        // Act
+        List<LoadBoardEntryResponse> candidates =
+            openLoadBoard.candidates(List.of("Flatbed", "Container", "Reefer"), MARCH_1, MARCH_1.plusDays(14));
+
+        // Assert
+        assertEquals(List.of(flatbed.getLoadId(), container.getLoadId()),
+            candidates.stream().map(LoadBoardEntryResponse::getLoadId).toList());
+        assertTrue(openLoadBoard.candidates(List.of("Reefer"), MARCH_1, MARCH_1.plusDays(14)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should re-read announced loads, dropping the closed ones and reusing their slots")
+    void sync_RefreshesAnnouncedLoads() {
+        // Arrange
+        LoadBoardEntry changed = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        LoadBoardEntry closed = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        load(changed, closed);
+        LoadBoardEntry nowContainer = row("Container", "Mumbai", "Pune", MARCH_1)
+            .loadId(changed.getLoadId())
+            .remainingTrucks(1)
+            .build();
+        LoadBoardEntry posted = entry("Flatbed", "Delhi", "Agra", MARCH_1);
+        when(loadBoardRepository.findAllById(anyList())).thenReturn(List.of(nowContainer, posted));
+
+        openLoadBoard.evict(changed.getLoadId(), null);
+        openLoadBoard.evict(closed.getLoadId(), null);
+        openLoadBoard.evict(posted.getLoadId(), null);
+
+        // Act
+        int refreshed = openLoadBoard.sync();
+
+        // Assert
+        assertEquals(3, refreshed);
+        assertEquals(2, openLoadBoard.size());
+        assertEquals(1, openLoadBoard.browse(query().truckType("Flatbed").build()).getMatches());
+        assertEquals(LoadBoardMapper.toResponse(nowContainer),
+            openLoadBoard.browse(query().truckType("Container").build()).getLoads().get(0));
+        assertEquals(0, openLoadBoard.sync());
+        assertEquals(3.0, meterRegistry.get("tms.load.board.memory.refreshed").tag("kind", "incremental").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reload everything after evictAll, dropping loads that are gone")
+    void evictAll_Reloads() {
+        // Arrange
+        LoadBoardEntry kept = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        load(kept, entry("Flatbed", "Mumbai", "Pune", MARCH_1));
+        when(loadBoardRepository.findAll()).thenReturn(List.of(kept));
+
+        // Act
+        openLoadBoard.evictAll();
+        openLoadBoard.sync();
+
+        // Assert
+        assertEquals(1, openLoadBoard.size());
+        assertEquals(kept.getLoadId(), openLoadBoard.browse(query().build()).getLoads().get(0).getLoadId());
+    }
+
+    @Test
+    @DisplayName("Should reload the whole shard once the full reload interval has passed")
+    void sync_FullReloadInterval_Reloads() {
+        // Arrange - an announcement that never arrived
+        ReflectionTestUtils.setField(openLoadBoard, "fullReloadInterval", Duration.ofNanos(1));
+        LoadBoardEntry missed = entry("Flatbed", "Mumbai", "Pune", MARCH_1);
+        load();
+        when(loadBoardRepository.findAll()).thenReturn(List.of(missed));
+
+        // Act
+        openLoadBoard.sync();
+
+        // Assert
+        assertEquals(1, openLoadBoard.size());
+        verify(loadBoardRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should never reload on a timer with a zero interval")
+    void sync_NoFullReloadInterval() {
+        // Arrange
+        ReflectionTestUtils.setField(openLoadBoard, "fullReloadInterval", Duration.ZERO);
+        load();
+
+        // Act
+        assertEquals(0, openLoadBoard.sync());
+
+        // Assert
+        verify(loadBoardRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should keep the announced loads queued when the database can't be read")
+    void sync_FailureKeepsQueue() {
+        // Arrange
+        load();
+        UUID loadId = UUID.randomUUID();
+        openLoadBoard.evict(loadId, null);
+        when(loadBoardRepository.findAllById(List.of(loadId)))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> openLoadBoard.sync());
+        assertEquals(1, openLoadBoard.sync());
+    }
+
+    private void load(LoadBoardEntry... entries) {
+        when(loadBoardRepository.findAll()).thenReturn(List.of(entries));
+        openLoadBoard.sync();
+    }
+
+    private BoardQuery.BoardQueryBuilder query() {
+        return BoardQuery.builder().limit(50);
+    }
+
+    private LoadBoardEntry entry(String truckType, String loadingCity, String unloadingCity, LocalDate loadingDay) {
+        return row(truckType, loadingCity, unloadingCity, loadingDay).build();
+    }
+
+    private LoadBoardEntry.LoadBoardEntryBuilder row(String truckType, String loadingCity, String unloadingCity,
+                                                     LocalDate loadingDay) {
+        Timestamp posted = Timestamp.valueOf("2026-02-20 08:30:00");
+        posted.setNanos(123_456_000);
+        return LoadBoardEntry.builder()
+            .loadId(UUID.randomUUID())
+            .shipperId("SHIP-1")
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .loadingDate(Timestamp.valueOf(loadingDay.atTime(9, 0)))
+            .productType("Steel")
+            .weight(12.5)
+            .weightUnit(WeightUnit.TON)
+            .truckType(truckType)
+            .noOfTrucks(4)
+            .remainingTrucks(3)
+            .status(LoadStatus.OPEN_FOR_BIDS)
+            .datePosted(posted)
+            .pendingBids(1)
+            .minRate(4000.0);
+    }
+}
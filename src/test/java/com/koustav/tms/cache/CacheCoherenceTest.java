@@ -0,0 +1,182 @@
+package com.koustav.tms.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheCoherence Tests")
+class CacheCoherenceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<CoherentCache> caches;
+
+    @Mock
+    private CoherentCache transporterCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CacheCoherence cacheCoherence;
+
+    private UUID transporterId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheCoherence, "datasourceUrl", "jdbc:postgresql://localhost:5432/tms_db");
+        cacheCoherence.registerMetrics();
+        lenient().when(caches.orderedStream()).thenAnswer(inv -> Stream.of(transporterCache));
+        lenient().when(transporterCache.entity()).thenReturn(CachedEntity.TRANSPORTER);
+        transporterId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should NOTIFY inside the transaction and evict locally only after commit")
+    void invalidate_InTransaction() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, transporterId, 4L);
+
+        // Assert
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+            eq("tms_cache_invalidation"), argThat(payload -> ((String) payload).endsWith("|TRANSPORTER|" + transporterId + "|4")));
+        verify(transporterCache, never()).evict(any(), any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(transporterCache).evict(transporterId, 4L);
+        assertEquals(1.0, meterRegistry.get("tms.cache.invalidations").tag("direction", "published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should NOTIFY many loads in one statement and evict them at once outside a transaction")
+    void invalidate_Many() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Act
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, List.of(first, second));
+
+        // Assert
+        verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class));
+        verify(transporterCache).evict(first, null);
+        verify(transporterCache).evict(second, null);
+        assertEquals(2.0, meterRegistry.get("tms.cache.invalidations").tag("direction", "published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not NOTIFY an empty batch")
+    void invalidate_ManyEmpty() {
+        // Act
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, transporterCache);
+    }
+
+    @Test
+    @DisplayName("Should only evict locally when the database has no NOTIFY")
+    void invalidate_H2_LocalOnly() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheCoherence, "datasourceUrl", "jdbc:h2:mem:testdb");
+
+        // Act
+        cacheCoherence.invalidate(CachedEntity.TRANSPORTER, transporterId, 4L);
+
+        // Assert
+        assertFalse(cacheCoherence.isNotifying());
+        verifyNoInteractions(jdbcTemplate);
+        verify(transporterCache).evict(transporterId, 4L);
+    }
+
+    @Test
+    @DisplayName("Should evict on a message from another node")
+    void received_OtherNode() {
+        // Act
+        cacheCoherence.received(new Invalidation("othernode", CachedEntity.TRANSPORTER, transporterId, 7L).encode());
+
+        // Assert
+        verify(transporterCache).evict(transporterId, 7L);
+        assertEquals(1.0, meterRegistry.get("tms.cache.invalidations").tag("direction", "received").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should ignore its own messages and anything it can't read")
+    void received_OwnOrMalformed_Ignored() {
+        // Arrange
+        String node = (String) ReflectionTestUtils.getField(cacheCoherence, "node");
+
+        // Act
+        cacheCoherence.received(new Invalidation(node, CachedEntity.TRANSPORTER, transporterId, 7L).encode());
+        cacheCoherence.received("not an invalidation");
+        cacheCoherence.received("othernode|SHIPMENT|" + transporterId + "|1");
+
+        // Assert
+        verify(transporterCache, never()).evict(any(), any());
+        assertEquals(3.0, meterRegistry.get("tms.cache.invalidations").tag("direction", "ignored").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should round trip a message without a version")
+    void invalidation_UnknownVersion() {
+        // Arrange
+        Invalidation invalidation = new Invalidation("node1", CachedEntity.TRANSPORTER, transporterId, null);
+
+        // Act & Assert
+        assertEquals(invalidation, Invalidation.decode(invalidation.encode()));
+    }
+
+    @Test
+    @DisplayName("Should flush every cache and listen on every shard")
+    void flushAll_AndShardUrls() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheCoherence, "shardUrls",
+            "jdbc:postgresql://localhost:5432/tms_shard0, jdbc:postgresql://localhost:5432/tms_shard1");
+
+        // Act
+        cacheCoherence.flushAll("reconnect");
+
+        // Assert
+        verify(transporterCache).evictAll();
+        assertEquals(1.0, meterRegistry.get("tms.cache.flushes").tag("cause", "reconnect").counter().count());
+        assertEquals(List.of("jdbc:postgresql://localhost:5432/tms_shard0", "jdbc:postgresql://localhost:5432/tms_shard1"),
+            cacheCoherence.databaseUrls());
+    }
+}
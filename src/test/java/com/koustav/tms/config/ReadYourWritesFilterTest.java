@@ -0,0 +1,84 @@
+package com.koustav.tms.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+@DisplayName("ReadYourWritesFilter Tests")
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("Should let a plain GET read from the replica")
+    void get_WithoutToken_AllowsReplica() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/load");
+        AtomicBoolean allowed = new AtomicBoolean();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), recording(allowed));
+
+        // Assert
+        assertTrue(allowed.get());
+        assertFalse(ReplicaRouting.isReplicaAllowed());
+    }
+
+    @Test
+    @DisplayName("Should pin a GET with a fresh write token to the primary")
+    void get_WithFreshToken_UsesPrimary() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/booking/1");
+        request.addHeader(ReadYourWritesFilter.HEADER, Long.toString(System.currentTimeMillis()));
+        AtomicBoolean allowed = new AtomicBoolean();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), recording(allowed));
+
+        // Assert
+        assertFalse(allowed.get());
+    }
+
+    @Test
+    @DisplayName("Should let a GET with an old write token read from the replica")
+    void get_WithOldToken_AllowsReplica() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/booking/1");
+        request.addHeader(ReadYourWritesFilter.HEADER, Long.toString(System.currentTimeMillis() - 60_000L));
+        AtomicBoolean allowed = new AtomicBoolean();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), recording(allowed));
+
+        // Assert
+        assertTrue(allowed.get());
+    }
+
+    @Test
+    @DisplayName("Should keep writes on the primary and hand out a write token")
+    void post_IssuesToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/booking");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean allowed = new AtomicBoolean();
+
+        // Act
+        filter.doFilter(request, response, recording(allowed));
+
+        // Assert
+        assertFalse(allowed.get());
+        assertNotNull(response.getHeader(ReadYourWritesFilter.HEADER));
+    }
+
+    private FilterChain recording(AtomicBoolean allowed) {
+        return (request, response) -> allowed.set(ReplicaRouting.isReplicaAllowed());
+    }
+}
@@ -0,0 +1,108 @@
+package com.koustav.tms.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and its replica;
+ * each answers "which node am I" from its own table.
+ */
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = node("routing_primary");
+        DataSource replica = node("routing_replica");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(meterRegistry);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.PRIMARY, primary,
+            ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica when allowed")
+    void readOnly_Allowed_UsesReplica() {
+        // Arrange
+        ReplicaRouting.allowReplica();
+
+        // Act
+        String node = whoAmI(true);
+
+        // Assert
+        assertEquals("routing_replica", node);
+        assertEquals(1.0, meterRegistry.get("tms.datasource.routed").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep read-write transactions on the primary")
+    void readWrite_UsesPrimary() {
+        // Arrange
+        ReplicaRouting.allowReplica();
+
+        // Act
+        String node = whoAmI(false);
+
+        // Assert
+        assertEquals("routing_primary", node);
+    }
+
+    @Test
+    @DisplayName("Should keep read-only transactions on the primary unless the request allows the replica")
+    void readOnly_NotAllowed_UsesPrimary() {
+        // Act
+        String node = whoAmI(true);
+
+        // Assert
+        assertEquals("routing_primary", node);
+    }
+
+    private String whoAmI(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private DataSource node(String name) {
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE IF NOT EXISTS node (name varchar(50))");
+        setup.update("DELETE FROM node");
+        setup.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
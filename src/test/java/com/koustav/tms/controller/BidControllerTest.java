@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,8 +26,13 @@ import com.koustav.tms.dto.request.BidRequest;
 import com.koustav.tms.dto.response.BidResponse;
 import com.koustav.tms.entity.BidStatus;
 import com.koustav.tms.service.BidService;
+import com.koustav.tms.service.IdempotencyService;
+import com.koustav.tms.shard.HashShardResolver;
+import com.koustav.tms.shard.ShardRouter;
 
 @WebMvcTest(BidController.class)
+// single shard: the real router runs everything inline
+@Import({ShardRouter.class, HashShardResolver.class})
 @DisplayName("BidController Tests")
 class BidControllerTest {
 
@@ -38,6 +45,9 @@ class BidControllerTest {
     @MockBean
     private BidService bidService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     private UUID bidId;
     private UUID loadId;
     private UUID transporterId;
@@ -88,7 +98,7 @@ class BidControllerTest {
     void getBids_Success() throws Exception {
         // Arrange
         Page<BidResponse> bidPage = new PageImpl<>(java.util.List.of(bidResponse));
-        when(bidService.getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING), any()))
+        when(bidService.getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING), isNull(), isNull(), any()))
             .thenReturn(bidPage);
 
         // Act & Assert
@@ -101,7 +111,23 @@ class BidControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.content[0].bidId").value(bidId.toString()));
 
-        verify(bidService).getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING), any());
+        verify(bidService).getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING), isNull(), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("Should pass the submitted-date range through as dates")
+    void getBids_WithSubmittedRange() throws Exception {
+        // Arrange
+        when(bidService.getBids(isNull(), isNull(), isNull(), eq(LocalDate.of(2026, 1, 1)),
+            eq(LocalDate.of(2026, 1, 31)), any()))
+            .thenReturn(new PageImpl<>(java.util.List.of(bidResponse)));
+
+        // Act & Assert
+        mockMvc.perform(get("/bid")
+                .param("submittedFrom", "2026-01-01")
+                .param("submittedTo", "2026-01-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].bidId").value(bidId.toString()));
     }
 
     @Test
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,16 +14,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koustav.tms.dto.request.BatchBookingRequest;
 import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BatchBookingResponse;
+import com.koustav.tms.dto.response.BatchBookingResult;
 import com.koustav.tms.dto.response.BookingResponse;
 import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.service.BatchBookingService;
+import com.koustav.tms.service.BookingSequencer;
 import com.koustav.tms.service.BookingService;
+import com.koustav.tms.service.IdempotencyService;
+import com.koustav.tms.service.ProcedureBookingService;
+import com.koustav.tms.shard.HashShardResolver;
+import com.koustav.tms.shard.ShardRouter;
 
 @WebMvcTest(BookingController.class)
+// single shard: the real router runs everything inline
+@Import({ShardRouter.class, HashShardResolver.class})
 @DisplayName("BookingController Tests")
 class BookingControllerTest {
 
@@ -32,9 +47,21 @@ class BookingControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private BookingSequencer bookingSequencer;
+
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private BatchBookingService batchBookingService;
+
+    @MockBean
+    private ProcedureBookingService procedureBookingService;
+
     private UUID bookingId;
     private UUID bidId;
     private BookingRequest bookingRequest;
@@ -74,6 +101,66 @@ class BookingControllerTest {
         verify(bookingService).acceptBid(any(BookingRequest.class));
     }
 
+    @Test
+    @DisplayName("Should route POST /booking through the idempotency store when Idempotency-Key is sent")
+    void acceptBid_WithIdempotencyKey_UsesStore() throws Exception {
+        // Arrange
+        when(idempotencyService.execute(eq("retry-1"), eq("POST /booking"), any(BookingRequest.class),
+                eq(HttpStatus.CREATED), eq(BookingResponse.class), any()))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, "true")
+                .body(bookingResponse));
+
+        // Act & Assert
+        mockMvc.perform(post("/booking")
+                .header(IdempotencyService.HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookingRequest)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+            .andExpect(jsonPath("$.bookingId").value(bookingId.toString()));
+
+        verify(bookingService, never()).acceptBid(any(BookingRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should accept a batch and return 200 OK with one result per bid")
+    void acceptBatch_Success() throws Exception {
+        // Arrange
+        UUID unknownBid = UUID.randomUUID();
+        BatchBookingRequest batch = BatchBookingRequest.builder()
+            .bookings(List.of(bookingRequest, BookingRequest.builder().bidId(unknownBid).build()))
+            .build();
+        when(batchBookingService.acceptBatch(anyList())).thenReturn(BatchBookingResponse.builder()
+            .booked(1)
+            .failed(1)
+            .results(List.of(
+                BatchBookingResult.builder().bidId(bidId).status(201).booking(bookingResponse).build(),
+                BatchBookingResult.builder().bidId(unknownBid).status(404).message("Bid not found").build()))
+            .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/booking/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.booked").value(1))
+            .andExpect(jsonPath("$.results[0].booking.bookingId").value(bookingId.toString()))
+            .andExpect(jsonPath("$.results[1].status").value(404));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch with 400 BAD REQUEST")
+    void acceptBatch_Empty_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/booking/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookings\": []}"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(batchBookingService);
+    }
+
     @Test
     @DisplayName("Should get booking by ID and return 200 OK")
     void getBooking_Success() throws Exception {
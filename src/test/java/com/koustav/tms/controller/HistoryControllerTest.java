@@ -0,0 +1,81 @@
+package com.koustav.tms.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.archive.ArchiveRecord;
+import com.koustav.tms.dto.response.HistoryResponse;
+import com.koustav.tms.service.HistoryService;
+
+@WebMvcTest(HistoryController.class)
+@DisplayName("HistoryController Tests")
+class HistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HistoryService historyService;
+
+    @Test
+    @DisplayName("Should look up archived bookings of a transporter on a lane and date range")
+    void getBookingHistory_Filters() throws Exception {
+        // Arrange
+        UUID transporterId = UUID.randomUUID();
+        UUID bookingId = UUID.randomUUID();
+        ArchiveRecord record = ArchiveRecord.builder()
+            .id(bookingId)
+            .transporterId(transporterId)
+            .loadingCity("Mumbai")
+            .unloadingCity("Pune")
+            .status("COMPLETED")
+            .trucks(2)
+            .rate(4500.0)
+            .at(new Timestamp(1_000L))
+            .build();
+        when(historyService.getHistory(eq(ArchiveKind.BOOKING), eq(transporterId), eq("Mumbai"), eq("Pune"),
+                eq(LocalDate.of(2026, 1, 1)), eq(LocalDate.of(2026, 3, 31)), isNull()))
+            .thenReturn(HistoryResponse.builder().kind(ArchiveKind.BOOKING).count(1).records(List.of(record)).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/history/bookings")
+                .param("transporterId", transporterId.toString())
+                .param("loadingCity", "Mumbai")
+                .param("unloadingCity", "Pune")
+                .param("from", "2026-01-01")
+                .param("to", "2026-03-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.kind").value("BOOKING"))
+            .andExpect(jsonPath("$.count").value(1))
+            .andExpect(jsonPath("$.records[0].id").value(bookingId.toString()));
+    }
+
+    @Test
+    @DisplayName("Should look up archived bids without filters")
+    void getBidHistory_NoFilters() throws Exception {
+        // Arrange
+        when(historyService.getHistory(ArchiveKind.BID, null, null, null, null, null, 20))
+            .thenReturn(HistoryResponse.builder().kind(ArchiveKind.BID).count(0).records(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/history/bids").param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.kind").value("BID"))
+            .andExpect(jsonPath("$.records").isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.koustav.tms.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.LoadBoardResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.service.LoadBoardService;
+import com.koustav.tms.shard.HashShardResolver;
+import com.koustav.tms.shard.ShardRouter;
+
+@WebMvcTest(LoadBoardController.class)
+// single shard: the real router runs everything inline
+@Import({ShardRouter.class, HashShardResolver.class})
+@DisplayName("LoadBoardController Tests")
+class LoadBoardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LoadBoardService loadBoardService;
+
+    @Test
+    @DisplayName("Should page the board after the cursor")
+    void getBoard_WithCursor() throws Exception {
+        // Arrange
+        UUID afterId = UUID.randomUUID();
+        UUID loadId = UUID.randomUUID();
+        Instant afterPosted = Instant.parse("2026-03-01T10:15:30.123456Z");
+        LoadBoardResponse page = LoadBoardResponse.builder()
+            .loads(List.of(LoadBoardEntryResponse.builder().loadId(loadId).truckType("Flatbed").remainingTrucks(2).build()))
+            .count(1)
+            .build();
+        when(loadBoardService.getBoard("Flatbed", null, afterPosted, afterId, 20)).thenReturn(page);
+        when(loadBoardService.merge(List.of(page), 20)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/load-board")
+                .param("truckType", "Flatbed")
+                .param("afterPosted", "2026-03-01T10:15:30.123456Z")
+                .param("afterId", afterId.toString())
+                .param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1))
+            .andExpect(jsonPath("$.loads[0].loadId").value(loadId.toString()))
+            .andExpect(jsonPath("$.loads[0].remainingTrucks").value(2));
+    }
+
+    @Test
+    @DisplayName("Should serve the first page without a cursor")
+    void getBoard_FirstPage() throws Exception {
+        // Arrange
+        LoadBoardResponse empty = LoadBoardResponse.builder().loads(List.of()).count(0).build();
+        when(loadBoardService.getBoard(null, null, null, null, null)).thenReturn(empty);
+        when(loadBoardService.merge(anyList(), isNull())).thenReturn(empty);
+
+        // Act & Assert
+        mockMvc.perform(get("/load-board"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.loads").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should browse open loads by lane and loading dates")
+    void browse_LaneAndDates() throws Exception {
+        // Arrange
+        UUID loadId = UUID.randomUUID();
+        when(loadBoardService.browse("Flatbed", "Mumbai", "Pune", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7), 10))
+            .thenReturn(OpenLoadBoardResponse.builder()
+                .loads(List.of(LoadBoardEntryResponse.builder().loadId(loadId).build()))
+                .count(1)
+                .matches(12)
+                .ready(true)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/load-board/open")
+                .param("truckType", "Flatbed")
+                .param("loadingCity", "Mumbai")
+                .param("unloadingCity", "Pune")
+                .param("from", "2026-03-01")
+                .param("to", "2026-03-07")
+                .param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.loads[0].loadId").value(loadId.toString()))
+            .andExpect(jsonPath("$.matches").value(12))
+            .andExpect(jsonPath("$.ready").value(true));
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
@@ -22,15 +23,22 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.koustav.tms.dto.request.LoadRequest;
+import com.koustav.tms.dto.response.AutoBookingResponse;
 import com.koustav.tms.dto.response.BidResponse;
+import com.koustav.tms.dto.response.BulkRejectionResponse;
 import com.koustav.tms.dto.response.LoadDetailResponse;
 import com.koustav.tms.dto.response.LoadResponse;
 import com.koustav.tms.entity.BidStatus;
 import com.koustav.tms.entity.LoadStatus;
 import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.service.BookingService;
 import com.koustav.tms.service.LoadService;
+import com.koustav.tms.shard.HashShardResolver;
+import com.koustav.tms.shard.ShardRouter;
 
 @WebMvcTest(LoadController.class)
+// single shard: the real router runs everything inline
+@Import({ShardRouter.class, HashShardResolver.class})
 @DisplayName("LoadController Tests")
 class LoadControllerTest {
 
@@ -43,6 +51,9 @@ class LoadControllerTest {
     @MockBean
     private LoadService loadService;
 
+    @MockBean
+    private BookingService bookingService;
+
     private UUID loadId;
     private LoadRequest loadRequest;
     private LoadResponse loadResponse;
@@ -176,4 +187,46 @@ class LoadControllerTest {
 
         verify(loadService).getBestBids(loadId);
     }
+
+    @Test
+    @DisplayName("Should reject all pending bids of a load and return 200 OK")
+    void rejectPendingBids_Success() throws Exception {
+        // Arrange
+        BulkRejectionResponse response = BulkRejectionResponse.builder()
+            .loadId(loadId)
+            .status(LoadStatus.POSTED)
+            .rejectedBids(3)
+            .build();
+        when(loadService.rejectPendingBids(loadId)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(patch("/load/{loadId}/bids/reject", loadId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rejectedBids").value(3))
+            .andExpect(jsonPath("$.status").value("POSTED"));
+
+        verify(loadService).rejectPendingBids(loadId);
+    }
+
+    @Test
+    @DisplayName("Should auto-book a load and return 200 OK")
+    void autoBook_Success() throws Exception {
+        // Arrange
+        AutoBookingResponse response = AutoBookingResponse.builder()
+            .loadId(loadId)
+            .status(LoadStatus.BOOKED)
+            .remainingTrucks(0)
+            .bookings(List.of())
+            .rejectedBidIds(List.of())
+            .build();
+        when(bookingService.autoBook(loadId)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/load/{loadId}/auto-book", loadId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("BOOKED"))
+            .andExpect(jsonPath("$.remainingTrucks").value(0));
+
+        verify(bookingService).autoBook(loadId);
+    }
 }
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -14,16 +15,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.koustav.tms.dto.request.TransporterRequest;
 import com.koustav.tms.dto.request.UpdateTrucksRequest;
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.RecommendedLoadResponse;
+import com.koustav.tms.dto.response.RecommendedLoadsResponse;
 import com.koustav.tms.dto.response.TransporterResponse;
+import com.koustav.tms.service.LoadRecommendationService;
 import com.koustav.tms.service.TransporterService;
+import com.koustav.tms.shard.HashShardResolver;
+import com.koustav.tms.shard.ShardRouter;
 
 @WebMvcTest(TransporterController.class)
+// single shard: the real router runs everything inline
+@Import({ShardRouter.class, HashShardResolver.class})
 @DisplayName("TransporterController Tests")
 class TransporterControllerTest {
 
@@ -36,6 +46,9 @@ class TransporterControllerTest {
     @MockBean
     private TransporterService transporterService;
 
+    @MockBean
+    private LoadRecommendationService loadRecommendationService;
+
     private UUID transporterId;
     private TransporterRequest transporterRequest;
     private TransporterResponse transporterResponse;
@@ -80,7 +93,8 @@ class TransporterControllerTest {
     @DisplayName("Should get transporter by ID and return 200 OK")
     void getTransporter_Success() throws Exception {
         // Arrange
-        when(transporterService.getTransporter(transporterId)).thenReturn(transporterResponse);
+        when(transporterService.pendingExposure(transporterId)).thenReturn(Map.of("Flatbed", 4));
+        when(transporterService.getTransporter(transporterId, Map.of("Flatbed", 4))).thenReturn(transporterResponse);
 
         // Act & Assert
         mockMvc.perform(get("/transporter/{transporterId}", transporterId))
@@ -88,7 +102,7 @@ class TransporterControllerTest {
             .andExpect(jsonPath("$.transporterId").value(transporterId.toString()))
             .andExpect(jsonPath("$.rating").value(4.5));
 
-        verify(transporterService).getTransporter(transporterId);
+        verify(transporterService).getTransporter(transporterId, Map.of("Flatbed", 4));
     }
 
     @Test
@@ -119,4 +133,33 @@ class TransporterControllerTest {
 
         verify(transporterService).updateTrucks(eq(transporterId), any(UpdateTrucksRequest.class));
     }
+
+    @Test
+    @DisplayName("Should recommend loads ranked with the lane history of every shard")
+    void getRecommendedLoads_Success() throws Exception {
+        // Arrange
+        UUID loadId = UUID.randomUUID();
+        Map<String, Long> lanes = Map.of("Mumbai->Pune", 3L);
+        when(loadRecommendationService.laneBookings(transporterId)).thenReturn(lanes);
+        when(loadRecommendationService.recommend(transporterId, List.of(lanes), 5))
+            .thenReturn(RecommendedLoadsResponse.builder()
+                .transporterId(transporterId)
+                .loads(List.of(RecommendedLoadResponse.builder()
+                    .load(LoadBoardEntryResponse.builder().loadId(loadId).build())
+                    .score(0.8)
+                    .coverableTrucks(2)
+                    .laneBookings(3L)
+                    .build()))
+                .count(1)
+                .candidates(4)
+                .ready(true)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/transporter/{transporterId}/recommended-loads", transporterId).param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.loads[0].load.loadId").value(loadId.toString()))
+            .andExpect(jsonPath("$.loads[0].score").value(0.8))
+            .andExpect(jsonPath("$.candidates").value(4));
+    }
 }
@@ -283,4 +283,15 @@ class TransporterTest {
         assertTrue(transporter.canAcceptBooking("TRAILER", 3));
     }
 
+    @Test
+    @DisplayName("withinOvercommit: Should cap pending trucks at ratio x available")
+    void testWithinOvercommit() {
+        // 5 TRAILER trucks, ratio 2 → at most 10 trucks in pending bids
+        assertTrue(transporter.withinOvercommit("TRAILER", 5, 5, 2.0));
+        assertFalse(transporter.withinOvercommit("TRAILER", 6, 5, 2.0));
+        assertFalse(transporter.withinOvercommit("FLATBED", 0, 1, 2.0));
+
+        // ratio <= 0: no limit
+        assertTrue(transporter.withinOvercommit("TRAILER", 500, 5, 0));
+    }
 }
@@ -0,0 +1,144 @@
+package com.koustav.tms.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.service.HomeShardCapacity;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InfeasibleBidWithdrawalListener Tests")
+class InfeasibleBidWithdrawalListenerTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private TransporterRepository transporterRepository;
+
+    @Mock
+    private HomeShardCapacity homeCapacity;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private InfeasibleBidWithdrawalListener listener;
+
+    private UUID transporterId;
+
+    @BeforeEach
+    void setUp() {
+        listener.registerMetrics();
+        transporterId = UUID.randomUUID();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        // two shards
+        lenient().when(shardRouter.onEachShard(any())).thenAnswer(inv -> {
+            Supplier<?> work = inv.getArgument(0);
+            return Arrays.asList(work.get(), work.get());
+        });
+    }
+
+    @Test
+    @DisplayName("Should reject the bids the current count can't cover on every shard and announce them")
+    void onCapacityReduced_RejectsAndPublishes() {
+        // Arrange - home on the first shard, read from home on the second
+        List<UUID> infeasible = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(homeCapacity.isHome(transporterId)).thenReturn(true, false);
+        when(homeCapacity.availableTrucks(transporterId, "Flatbed")).thenReturn(2);
+        when(bidRepository.lockPendingIdsInfeasible(transporterId, "Flatbed")).thenReturn(infeasible);
+        when(bidRepository.lockPendingIdsExceeding(transporterId, "Flatbed", 2)).thenReturn(infeasible);
+        when(transporterRepository.findAvailableTrucks(transporterId, "Flatbed")).thenReturn(2);
+
+        // Act
+        listener.onCapacityReduced(new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 2)));
+
+        // Assert
+        verify(bidRepository, times(2)).updateStatusByIds(infeasible, BidStatus.PENDING, BidStatus.REJECTED);
+        verify(eventPublisher, times(2)).publishEvent(new BidsWithdrawnEvent(transporterId, "Flatbed", 2, infeasible));
+        assertEquals(4.0, meterRegistry.get("tms.bid.withdrawn").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should judge against the current count, not the one carried by the event")
+    void onCapacityReduced_TrucksCreditedSince_UsesCurrentCount() {
+        // Arrange - event says 0 left, a cancellation has since put 5 back
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(homeCapacity.availableTrucks(transporterId, "Flatbed")).thenReturn(5);
+        when(bidRepository.lockPendingIdsExceeding(transporterId, "Flatbed", 5)).thenReturn(List.of());
+
+        // Act
+        listener.onCapacityReduced(new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 0)));
+
+        // Assert
+        verify(bidRepository, never()).lockPendingIdsExceeding(transporterId, "Flatbed", 0);
+        verify(bidRepository, never()).updateStatusByIds(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should stay quiet when every pending bid still fits")
+    void withdraw_NothingInfeasible() {
+        // Arrange
+        when(homeCapacity.isHome(transporterId)).thenReturn(true);
+        when(bidRepository.lockPendingIdsInfeasible(transporterId, "Flatbed")).thenReturn(List.of());
+
+        // Act
+        List<UUID> withdrawn = listener.withdraw(transporterId, "Flatbed");
+
+        // Assert
+        assertTrue(withdrawn.isEmpty());
+        verify(homeCapacity, never()).availableTrucks(any(), any());
+        verify(bidRepository, never()).updateStatusByIds(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void onCapacityReduced_Disabled() {
+        // Arrange
+        ReflectionTestUtils.setField(listener, "enabled", false);
+
+        // Act
+        listener.onCapacityReduced(new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 0)));
+
+        // Assert
+        verifyNoInteractions(bidRepository, eventPublisher);
+    }
+}
@@ -0,0 +1,138 @@
+package com.koustav.tms.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.koustav.tms.dto.request.BidRequest;
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.request.LoadRequest;
+import com.koustav.tms.dto.request.TransporterRequest;
+import com.koustav.tms.dto.response.BatchBookingResponse;
+import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.service.BatchBookingService;
+import com.koustav.tms.service.BidService;
+import com.koustav.tms.service.BookingService;
+import com.koustav.tms.service.LoadService;
+import com.koustav.tms.service.TransporterService;
+
+/**
+ * POST /booking/batch vs the same accepts as sequential POST /booking calls.
+ *
+ * End-of-day shape: LOADS loads of 2 trucks each, every load won by two of
+ * TRANSPORTERS shared transporters (1 truck per bid). Prints both timings;
+ * both runs must book everything.
+ */
+@SpringBootTest
+@DisplayName("Batch Booking Benchmark")
+@org.junit.jupiter.api.Disabled("Benchmark - needs PostgreSQL, run manually")
+class BatchBookingBenchmarkTest {
+
+    private static final int LOADS = 200;
+    private static final int TRANSPORTERS = 10;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private TransporterService transporterService;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BatchBookingService batchBookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+        transporterRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Batch vs sequential accepts")
+    void batchVsSequential() {
+        List<BookingRequest> sequential = seed();
+        long start = System.nanoTime();
+        for (BookingRequest request : sequential) {
+            bookingService.acceptBid(request);
+        }
+        long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+
+        cleanUp();
+        List<BookingRequest> batch = seed();
+        start = System.nanoTime();
+        BatchBookingResponse response = batchBookingService.acceptBatch(batch);
+        long batchMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d accepts: sequential %d ms, batch %d ms%n", batch.size(), sequentialMillis, batchMillis);
+        assertEquals(batch.size(), response.getBooked());
+    }
+
+    private List<BookingRequest> seed() {
+        List<UUID> transporters = new ArrayList<>();
+        for (int t = 0; t < TRANSPORTERS; t++) {
+            transporters.add(transporterService.registerTransporter(TransporterRequest.builder()
+                .companyName("Carrier " + t)
+                .rating(4.0)
+                .availableTrucks(Map.of("Flatbed", LOADS))
+                .build()).getTransporterId());
+        }
+
+        List<BookingRequest> accepts = new ArrayList<>();
+        for (int l = 0; l < LOADS; l++) {
+            UUID loadId = loadService.createLoad(LoadRequest.builder()
+                .shipperId("SHIP-BATCH")
+                .loadingCity("Pune")
+                .unloadingCity("Delhi")
+                .productType("Steel")
+                .truckType("Flatbed")
+                .noOfTrucks(2)
+                .weight(1000.0)
+                .weightUnit(WeightUnit.KG)
+                .loadingDate(new Timestamp(System.currentTimeMillis() + 86400000))
+                .build()).getLoadId();
+
+            for (int w = 0; w < 2; w++) {
+                BidRequest bid = new BidRequest();
+                bid.setLoadId(loadId);
+                bid.setTransporterId(transporters.get((l + w) % TRANSPORTERS));
+                bid.setProposedRate(1000.0);
+                bid.setTrucksOffered(1);
+                accepts.add(BookingRequest.builder().bidId(bidService.submitBid(bid).getBidId()).build());
+            }
+        }
+        return accepts;
+    }
+}
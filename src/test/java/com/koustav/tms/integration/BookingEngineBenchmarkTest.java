@@ -0,0 +1,173 @@
+package com.koustav.tms.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.koustav.tms.dto.request.BidRequest;
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.request.LoadRequest;
+import com.koustav.tms.dto.request.TransporterRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.service.BidService;
+import com.koustav.tms.service.BookingService;
+import com.koustav.tms.service.LoadService;
+import com.koustav.tms.service.ProcedureBookingService;
+import com.koustav.tms.service.TransporterService;
+
+/**
+ * Java (JPA) accept vs tms_accept_bid under contention.
+ *
+ * LOADS hot loads, each wanting BIDS_PER_LOAD trucks and receiving that many
+ * 1-truck bids from TRANSPORTERS shared transporters. THREADS workers accept
+ * all bids at once, so every accept queues on the same load and transporter
+ * rows. Prints p50 / p99 per engine; both runs must book everything.
+ */
+@SpringBootTest
+@DisplayName("Booking Engine Benchmark")
+@org.junit.jupiter.api.Disabled("Benchmark - needs PostgreSQL, run manually")
+class BookingEngineBenchmarkTest {
+
+    private static final int LOADS = 10;
+    private static final int BIDS_PER_LOAD = 20;
+    private static final int TRANSPORTERS = 5;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private TransporterService transporterService;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ProcedureBookingService procedureBookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+        transporterRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Java vs procedure accept latency under contention")
+    void javaVsProcedure() throws Exception {
+        List<Long> java = run(seed(), bookingService::acceptBid);
+
+        cleanUp();
+        List<Long> procedure = run(seed(), procedureBookingService::acceptBid);
+
+        System.out.printf("%d accepts, %d threads: java p50 %.2f ms p99 %.2f ms, procedure p50 %.2f ms p99 %.2f ms%n",
+            java.size(), THREADS, percentile(java, 50), percentile(java, 99),
+            percentile(procedure, 50), percentile(procedure, 99));
+        assertEquals(LOADS * BIDS_PER_LOAD, java.size());
+        assertEquals(LOADS * BIDS_PER_LOAD, procedure.size());
+    }
+
+    /**
+     * @return latency of every accept in nanoseconds, sorted
+     */
+    private List<Long> run(List<BookingRequest> accepts, Function<BookingRequest, BookingResponse> engine)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (BookingRequest request : accepts) {
+                futures.add(pool.submit(() -> {
+                    long start = System.nanoTime();
+                    engine.apply(request);
+                    return System.nanoTime() - start;
+                }));
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> future : futures) {
+                latencies.add(future.get());
+            }
+            Collections.sort(latencies);
+            return latencies;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double percentile(List<Long> sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private List<BookingRequest> seed() {
+        List<UUID> transporters = new ArrayList<>();
+        for (int t = 0; t < TRANSPORTERS; t++) {
+            transporters.add(transporterService.registerTransporter(TransporterRequest.builder()
+                .companyName("Carrier " + t)
+                .rating(4.0)
+                .availableTrucks(Map.of("Flatbed", LOADS * BIDS_PER_LOAD))
+                .build()).getTransporterId());
+        }
+
+        List<BookingRequest> accepts = new ArrayList<>();
+        for (int l = 0; l < LOADS; l++) {
+            UUID loadId = loadService.createLoad(LoadRequest.builder()
+                .shipperId("SHIP-ENGINE")
+                .loadingCity("Pune")
+                .unloadingCity("Delhi")
+                .productType("Steel")
+                .truckType("Flatbed")
+                .noOfTrucks(BIDS_PER_LOAD)
+                .weight(1000.0)
+                .weightUnit(WeightUnit.KG)
+                .loadingDate(new Timestamp(System.currentTimeMillis() + 86400000))
+                .build()).getLoadId();
+
+            for (int b = 0; b < BIDS_PER_LOAD; b++) {
+                BidRequest bid = new BidRequest();
+                bid.setLoadId(loadId);
+                bid.setTransporterId(transporters.get(b % TRANSPORTERS));
+                bid.setProposedRate(1000.0 + b);
+                bid.setTrucksOffered(1);
+                accepts.add(BookingRequest.builder().bidId(bidService.submitBid(bid).getBidId()).build());
+            }
+        }
+        return accepts;
+    }
+}
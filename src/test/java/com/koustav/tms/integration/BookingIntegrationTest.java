@@ -3,6 +3,7 @@ package com.koustav.tms.integration;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.koustav.tms.dto.request.BidRequest;
@@ -36,6 +38,7 @@ import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.BookingRepository;
 import com.koustav.tms.repository.LoadRepository;
 import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.scheduler.RetentionPurgeJob;
 import com.koustav.tms.service.BidService;
 import com.koustav.tms.service.BookingService;
 import com.koustav.tms.service.LoadService;
@@ -77,6 +80,9 @@ class BookingIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private RetentionPurgeJob retentionPurgeJob;
+
     @BeforeEach
     @Transactional
     void cleanUp() {
@@ -357,4 +363,54 @@ class BookingIntegrationTest {
         BookingResponse cancelledBooking = bookingService.getBooking(booking.getBookingId());
         assertEquals(BookingStatus.CANCELLED, cancelledBooking.getStatus());
     }
+
+    @Test
+    @DisplayName("Should not purge a cancelled load that still has a confirmed booking")
+    @Transactional
+    void purgeCancelledLoads_KeepsPartlyBookedLoad() throws InterruptedException {
+        // Book 3 of 5 trucks, then cancel the load
+        TransporterRequest transporterRequest = TransporterRequest.builder()
+            .companyName("Fast Logistics")
+            .rating(4.5)
+            .availableTrucks(new HashMap<>(Map.of("Flatbed", 10)))
+            .build();
+        TransporterResponse transporter = transporterService.registerTransporter(transporterRequest);
+
+        LoadRequest loadRequest = LoadRequest.builder()
+            .shipperId("SHIP123")
+            .loadingCity("New York")
+            .unloadingCity("Los Angeles")
+            .productType("Steel")
+            .truckType("Flatbed")
+            .noOfTrucks(5)
+            .weight(10000.0)
+            .weightUnit(WeightUnit.KG)
+            .loadingDate(new Timestamp(System.currentTimeMillis() + 86400000))
+            .build();
+        LoadResponse load = loadService.createLoad(loadRequest);
+
+        BidRequest bidRequest = new BidRequest();
+        bidRequest.setLoadId(load.getLoadId());
+        bidRequest.setTransporterId(transporter.getTransporterId());
+        bidRequest.setProposedRate(5000.0);
+        bidRequest.setTrucksOffered(3);
+        BidResponse bid = bidService.submitBid(bidRequest);
+
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setBidId(bid.getBidId());
+        BookingResponse booking = bookingService.acceptBid(bookingRequest);
+
+        loadService.cancelLoad(load.getLoadId());
+
+        // Purge everything cancelled before now
+        ReflectionTestUtils.setField(retentionPurgeJob, "cancelledLoadAge", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(retentionPurgeJob, "maxRowsPerSecond", 0);
+        Thread.sleep(10);
+
+        assertEquals(0, retentionPurgeJob.purgeCancelledLoads());
+
+        // The confirmed booking and its load are still there
+        assertEquals(BookingStatus.CONFIRMED, bookingService.getBooking(booking.getBookingId()).getStatus());
+        assertTrue(loadRepository.existsById(load.getLoadId()));
+    }
 }
@@ -45,6 +45,7 @@ class TransporterMapperTest {
         assertEquals(3, response.getAvailableTrucks().size());
         assertEquals(10, response.getAvailableTrucks().get("Flatbed"));
         assertEquals(5, response.getAvailableTrucks().get("Container"));
+        assertTrue(response.getPendingExposure().isEmpty());
         assertEquals(8, response.getAvailableTrucks().get("Tanker"));
     }
 
@@ -0,0 +1,147 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.LoadRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuctionExpiryJob Tests")
+class AuctionExpiryJobTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AuctionExpiryJob auctionExpiryJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auctionExpiryJob, "batchSize", 2);
+        ReflectionTestUtils.setField(auctionExpiryJob, "maxBatchesPerRun", 5);
+        auctionExpiryJob.registerMetrics();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should expire stale bids batch by batch until a short batch is claimed")
+    void expireStaleBids_ProcessesBatchesUntilDrained() {
+        // Arrange
+        List<UUID> fullBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> lastBatch = List.of(UUID.randomUUID());
+        when(bidRepository.lockStalePendingBidIds(any(Timestamp.class), eq(2)))
+            .thenReturn(fullBatch)
+            .thenReturn(lastBatch);
+        when(bidRepository.updateStatusByIds(fullBatch, BidStatus.PENDING, BidStatus.EXPIRED)).thenReturn(2);
+        when(bidRepository.updateStatusByIds(lastBatch, BidStatus.PENDING, BidStatus.EXPIRED)).thenReturn(1);
+
+        // Act
+        int expired = auctionExpiryJob.expireStaleBids();
+
+        // Assert
+        assertEquals(3, expired);
+        verify(bidRepository, times(2)).lockStalePendingBidIds(any(Timestamp.class), eq(2));
+        assertEquals(3.0, meterRegistry.get("tms.auction.bids.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop after max batches per run even if backlog remains")
+    void expireStaleBids_RespectsMaxBatchesPerRun() {
+        // Arrange
+        List<UUID> fullBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(bidRepository.lockStalePendingBidIds(any(Timestamp.class), eq(2))).thenReturn(fullBatch);
+        when(bidRepository.updateStatusByIds(fullBatch, BidStatus.PENDING, BidStatus.EXPIRED)).thenReturn(2);
+
+        // Act
+        int expired = auctionExpiryJob.expireStaleBids();
+
+        // Assert
+        assertEquals(10, expired);
+        verify(transactionTemplate, times(5)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should expire overdue loads together with their pending bids")
+    void expireOverdueLoads_ExpiresLoadsAndTheirBids() {
+        // Arrange
+        List<UUID> loadIds = List.of(UUID.randomUUID());
+        when(loadRepository.lockOverdueOpenLoadIds(any(Timestamp.class), eq(2))).thenReturn(loadIds);
+        when(loadRepository.updateStatusByIds(eq(loadIds), anyCollection(), eq(LoadStatus.EXPIRED))).thenReturn(1);
+
+        // Act
+        int expired = auctionExpiryJob.expireOverdueLoads();
+
+        // Assert
+        assertEquals(1, expired);
+        verify(bidRepository).updateStatusByLoadIds(loadIds, BidStatus.PENDING, BidStatus.EXPIRED);
+        assertEquals(1.0, meterRegistry.get("tms.auction.loads.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should report lag of the oldest overdue bid and load")
+    void run_RefreshesLagGauges() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        when(bidRepository.lockStalePendingBidIds(any(Timestamp.class), anyInt())).thenReturn(List.of());
+        when(loadRepository.lockOverdueOpenLoadIds(any(Timestamp.class), anyInt())).thenReturn(List.of());
+        // submitted 7 days + 1 hour ago with a 7 day TTL → ~1 hour overdue
+        when(bidRepository.findOldestPendingDateSubmitted())
+            .thenReturn(new Timestamp(now - Duration.ofDays(7).plusHours(1).toMillis()));
+        when(loadRepository.findEarliestOpenLoadingDate())
+            .thenReturn(new Timestamp(now + Duration.ofDays(1).toMillis()));
+
+        // Act
+        auctionExpiryJob.run();
+
+        // Assert
+        assertTrue(Math.abs(auctionExpiryJob.bidLagSeconds() - 3600) < 5);
+        assertEquals(0, auctionExpiryJob.loadLagSeconds());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled_DoesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(auctionExpiryJob, "enabled", false);
+
+        // Act
+        auctionExpiryJob.run();
+
+        // Assert
+        verifyNoInteractions(bidRepository, loadRepository, transactionTemplate);
+    }
+}
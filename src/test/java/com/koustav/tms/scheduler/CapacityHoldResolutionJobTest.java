@@ -0,0 +1,54 @@
+package com.koustav.tms.scheduler;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.service.HomeShardCapacity;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CapacityHoldResolutionJob Tests")
+class CapacityHoldResolutionJobTest {
+
+    @Mock
+    private HomeShardCapacity homeCapacity;
+
+    @InjectMocks
+    private CapacityHoldResolutionJob resolutionJob;
+
+    @Test
+    @DisplayName("Should settle one batch of expired holds when sharded")
+    void run_Sharded_ResolvesExpired() {
+        // Arrange
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.resolveExpired(100)).thenReturn(2);
+
+        // Act
+        resolutionJob.run();
+
+        // Assert
+        verify(homeCapacity).resolveExpired(100);
+    }
+
+    @Test
+    @DisplayName("Should do nothing with one shard or when disabled")
+    void run_SingleShardOrDisabled_Skipped() {
+        // Arrange
+        when(homeCapacity.isSharded()).thenReturn(false);
+
+        // Act
+        resolutionJob.run();
+        ReflectionTestUtils.setField(resolutionJob, "enabled", false);
+        resolutionJob.run();
+
+        // Assert
+        verify(homeCapacity, never()).resolveExpired(anyInt());
+    }
+}
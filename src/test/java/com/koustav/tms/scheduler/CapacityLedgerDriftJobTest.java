@@ -0,0 +1,141 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.repository.TransporterRepository.TransporterVersion;
+import com.koustav.tms.service.HomeShardCapacity;
+import com.koustav.tms.service.TransporterCapacityLedger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CapacityLedgerDriftJob Tests")
+class CapacityLedgerDriftJobTest {
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
+    @Mock
+    private TransporterRepository transporterRepository;
+
+    @Mock
+    private HomeShardCapacity homeCapacity;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CapacityLedgerDriftJob driftJob;
+
+    @BeforeEach
+    void setUp() {
+        driftJob.registerMetrics();
+        lenient().when(homeCapacity.isHome(any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should reload stale entries and evict deleted transporters")
+    void resync_ReloadsStaleAndEvictsMissing() {
+        // Arrange
+        UUID current = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(capacityLedger.transporterIds()).thenReturn(Set.of(current, stale, deleted));
+        when(capacityLedger.versionOf(current)).thenReturn(3L);
+        when(capacityLedger.versionOf(stale)).thenReturn(1L);
+        when(transporterRepository.findVersionsByIds(anyList()))
+            .thenReturn(List.of(version(current, 3L), version(stale, 2L)));
+        Transporter reloaded = Transporter.builder()
+            .transporterId(stale).version(2L).availableTrucks(Map.of("Flatbed", 1)).build();
+        when(transporterRepository.findAllById(List.of(stale))).thenReturn(List.of(reloaded));
+
+        // Act
+        int resynced = driftJob.resync();
+
+        // Assert
+        assertEquals(2, resynced);
+        verify(capacityLedger).apply(reloaded);
+        verify(capacityLedger).evict(deleted);
+        verify(capacityLedger, never()).evict(current);
+        assertEquals(2.0, meterRegistry.get("tms.capacity.ledger.drift").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should query versions one chunk at a time")
+    void resync_Chunks() {
+        // Arrange
+        ReflectionTestUtils.setField(driftJob, "chunkSize", 2);
+        when(capacityLedger.transporterIds())
+            .thenReturn(Set.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+
+        // Act
+        driftJob.resync();
+
+        // Assert
+        verify(transporterRepository, times(2)).findVersionsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should leave transporters homed on another shard to that shard's run")
+    void resync_SkipsOtherShardsTransporters() {
+        // Arrange
+        UUID elsewhere = UUID.randomUUID();
+        when(capacityLedger.transporterIds()).thenReturn(Set.of(elsewhere));
+        when(homeCapacity.isHome(elsewhere)).thenReturn(false);
+
+        // Act
+        int resynced = driftJob.resync();
+
+        // Assert
+        assertEquals(0, resynced);
+        verifyNoInteractions(transporterRepository);
+        verify(capacityLedger, never()).evict(elsewhere);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled() {
+        // Arrange
+        ReflectionTestUtils.setField(driftJob, "enabled", false);
+
+        // Act
+        driftJob.run();
+
+        // Assert
+        verifyNoInteractions(capacityLedger, transporterRepository);
+    }
+
+    private TransporterVersion version(UUID transporterId, Long version) {
+        return new TransporterVersion() {
+            @Override
+            public UUID getTransporterId() {
+                return transporterId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
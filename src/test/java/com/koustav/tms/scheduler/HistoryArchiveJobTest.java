@@ -0,0 +1,204 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.archive.ArchiveKind;
+import com.koustav.tms.archive.SegmentStore;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.ArchiveRow;
+import com.koustav.tms.repository.BookingRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HistoryArchiveJob Tests")
+class HistoryArchiveJobTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SegmentStore segmentStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HistoryArchiveJob archiveJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiveJob, "segmentRows", 2);
+        archiveJob.registerMetrics();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write each chunk as a segment before deleting it, continuing after the last key")
+    void archive_WritesThenDeletes() {
+        // Arrange
+        ArchiveRow first = row(1_000L);
+        ArchiveRow second = row(2_000L);
+        ArchiveRow third = row(3_000L);
+        when(bidRepository.lockArchivableBids(any(), eq(new Timestamp(0L)), eq(new UUID(0L, 0L)), eq(2)))
+            .thenReturn(List.of(first, second));
+        when(bidRepository.lockArchivableBids(any(), eq(second.getAt()), eq(second.getId()), eq(2)))
+            .thenReturn(List.of(third));
+
+        // Act
+        int archived = archiveJob.archive(ArchiveKind.BID);
+
+        // Assert
+        assertEquals(3, archived);
+        InOrder order = inOrder(segmentStore, bidRepository);
+        order.verify(segmentStore).append(eq(ArchiveKind.BID), argThat(records -> records.size() == 2));
+        order.verify(bidRepository).deleteArchivedBids(
+            List.of(first.getId(), second.getId()), first.getAt(), second.getAt());
+        order.verify(segmentStore).append(eq(ArchiveKind.BID), argThat(records -> records.size() == 1));
+        order.verify(bidRepository).deleteArchivedBids(List.of(third.getId()), third.getAt(), third.getAt());
+        assertEquals(3.0, meterRegistry.get("tms.archive.archived").tag("kind", "bid").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should discard the segment when the delete transaction rolls back")
+    void archive_RollbackDiscardsSegment() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        Path segment = Path.of("archive", "booking", "1.seg");
+        when(bookingRepository.lockArchivableBookings(any(), any(), any(), eq(2))).thenReturn(List.of(row(1_000L)));
+        when(segmentStore.append(eq(ArchiveKind.BOOKING), anyList())).thenReturn(segment);
+
+        // Act
+        archiveJob.archive(ArchiveKind.BOOKING);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Assert
+        verify(segmentStore).discard(ArchiveKind.BOOKING, segment);
+    }
+
+    @Test
+    @DisplayName("Should not write a segment when nothing is old enough")
+    void archive_NothingToArchive() {
+        // Arrange
+        when(bookingRepository.lockArchivableBookings(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        int archived = archiveJob.archive(ArchiveKind.BOOKING);
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(segmentStore);
+        verify(bookingRepository, never()).deleteArchivedBookings(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled() {
+        // Act
+        archiveJob.run();
+
+        // Assert
+        verifyNoInteractions(bidRepository, bookingRepository, segmentStore);
+    }
+
+    private ArchiveRow row(long at) {
+        UUID id = UUID.randomUUID();
+        Timestamp timestamp = new Timestamp(at);
+        return new ArchiveRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getLoadId() {
+                return id;
+            }
+
+            @Override
+            public UUID getBidId() {
+                return id;
+            }
+
+            @Override
+            public UUID getTransporterId() {
+                return id;
+            }
+
+            @Override
+            public String getLoadingCity() {
+                return "Mumbai";
+            }
+
+            @Override
+            public String getUnloadingCity() {
+                return "Pune";
+            }
+
+            @Override
+            public String getTruckType() {
+                return "Flatbed";
+            }
+
+            @Override
+            public String getStatus() {
+                return "REJECTED";
+            }
+
+            @Override
+            public Integer getTrucks() {
+                return 2;
+            }
+
+            @Override
+            public Double getRate() {
+                return 4000.0;
+            }
+
+            @Override
+            public Timestamp getAt() {
+                return timestamp;
+            }
+        };
+    }
+}
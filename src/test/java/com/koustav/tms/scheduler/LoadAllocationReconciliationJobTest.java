@@ -0,0 +1,133 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.LoadRepository.AllocationMismatch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadAllocationReconciliationJob Tests")
+class LoadAllocationReconciliationJobTest {
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LoadAllocationReconciliationJob reconciliationJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliationJob, "chunkSize", 2);
+        reconciliationJob.registerMetrics();
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should walk all loads in keyset chunks and count mismatches")
+    void reconcile_WalksChunksAndCountsMismatches() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(loadRepository.findLoadIdsAfter(eq(new UUID(0L, 0L)), any(Pageable.class)))
+            .thenReturn(List.of(first, second));
+        when(loadRepository.findLoadIdsAfter(eq(second), any(Pageable.class)))
+            .thenReturn(List.of(third));
+        when(loadRepository.findAllocationMismatches(List.of(first, second), BookingStatus.CONFIRMED))
+            .thenReturn(List.of(mismatch(second, 3, 2L)));
+        when(loadRepository.findAllocationMismatches(List.of(third), BookingStatus.CONFIRMED))
+            .thenReturn(List.of());
+
+        // Act
+        int found = reconciliationJob.reconcile();
+
+        // Assert
+        assertEquals(1, found);
+        verify(loadRepository, never()).repairAllocatedTrucks(any(), anyInt(), anyInt());
+        assertEquals(1.0, meterRegistry.get("tms.load.allocation.mismatches").counter().count());
+        assertEquals(1.0, meterRegistry.get("tms.load.allocation.mismatches.last-run").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should rewrite the counter guarded by its old value when repair is enabled")
+    void reconcile_RepairsWhenEnabled() {
+        // Arrange
+        ReflectionTestUtils.setField(reconciliationJob, "repair", true);
+        UUID loadId = UUID.randomUUID();
+        when(loadRepository.findLoadIdsAfter(any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(loadId));
+        when(loadRepository.findAllocationMismatches(List.of(loadId), BookingStatus.CONFIRMED))
+            .thenReturn(List.of(mismatch(loadId, 0, 4L)));
+
+        // Act
+        int found = reconciliationJob.reconcile();
+
+        // Assert
+        assertEquals(1, found);
+        verify(loadRepository).repairAllocatedTrucks(loadId, 0, 4);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled() {
+        // Arrange
+        ReflectionTestUtils.setField(reconciliationJob, "enabled", false);
+
+        // Act
+        reconciliationJob.run();
+
+        // Assert
+        verifyNoInteractions(loadRepository);
+    }
+
+    private AllocationMismatch mismatch(UUID loadId, int recorded, long actual) {
+        return new AllocationMismatch() {
+            @Override
+            public UUID getLoadId() {
+                return loadId;
+            }
+
+            @Override
+            public Integer getRecorded() {
+                return recorded;
+            }
+
+            @Override
+            public Long getActual() {
+                return actual;
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.repository.LoadBoardRepository;
+import com.koustav.tms.repository.LoadBoardRepository.ProjectedLoad;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadBoardProjectionJob Tests")
+class LoadBoardProjectionJobTest {
+
+    @Mock
+    private LoadBoardRepository loadBoardRepository;
+
+    @Mock
+    private CacheCoherence cacheCoherence;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LoadBoardProjectionJob projectionJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projectionJob, "chunkSize", 100);
+        projectionJob.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Should drain full chunks and stop at the first partial one")
+    void project_DrainsUntilPartialChunk() {
+        // Arrange
+        when(loadBoardRepository.projectPending(100, null, null)).thenReturn(chunk(100, 3), chunk(100, 1), chunk(7, 2));
+
+        // Act
+        int consumed = projectionJob.project();
+
+        // Assert
+        assertEquals(207, consumed);
+        verify(loadBoardRepository, times(3)).projectPending(100, null, null);
+        assertEquals(207.0, meterRegistry.get("tms.load.board.projected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop after max chunks per run")
+    void project_BoundedPerRun() {
+        // Arrange
+        ReflectionTestUtils.setField(projectionJob, "maxChunksPerRun", 2);
+        when(loadBoardRepository.projectPending(100, null, null)).thenReturn(chunk(100, 1));
+
+        // Act
+        projectionJob.project();
+
+        // Assert
+        verify(loadBoardRepository, times(2)).projectPending(100, null, null);
+    }
+
+    @Test
+    @DisplayName("Should announce the refreshed loads of every chunk")
+    void project_InvalidatesRefreshedLoads() {
+        // Arrange
+        List<ProjectedLoad> refreshed = chunk(3, 2);
+        when(loadBoardRepository.projectPending(100, null, null)).thenReturn(refreshed);
+
+        // Act
+        projectionJob.project();
+
+        // Assert
+        verify(cacheCoherence).notified(CachedEntity.LOAD,
+            List.of(refreshed.get(0).getLoadId(), refreshed.get(1).getLoadId()));
+        verify(cacheCoherence, never()).invalidate(any(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should have the projection NOTIFY on the cache channel inside its own transaction")
+    void project_NotifiesFromTheProjection() {
+        // Arrange
+        when(cacheCoherence.notifyChannel()).thenReturn("tms_cache_invalidation");
+        when(cacheCoherence.node()).thenReturn("3f2a9c1e");
+        when(loadBoardRepository.projectPending(100, "tms_cache_invalidation", "3f2a9c1e")).thenReturn(List.of());
+
+        // Act
+        projectionJob.project();
+
+        // Assert
+        verify(loadBoardRepository).projectPending(100, "tms_cache_invalidation", "3f2a9c1e");
+    }
+
+    @Test
+    @DisplayName("Should stop on an empty outbox")
+    void project_EmptyOutbox() {
+        // Arrange
+        when(loadBoardRepository.projectPending(100, null, null)).thenReturn(List.of());
+
+        // Act
+        int consumed = projectionJob.project();
+
+        // Assert
+        assertEquals(0, consumed);
+        verify(loadBoardRepository, times(1)).projectPending(100, null, null);
+    }
+
+    @Test
+    @DisplayName("Should log a database failure and try again next run")
+    void run_FailureSwallowed() {
+        // Arrange
+        when(loadBoardRepository.projectPending(anyInt(), any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> projectionJob.run());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled() {
+        // Arrange
+        ReflectionTestUtils.setField(projectionJob, "enabled", false);
+
+        // Act
+        projectionJob.run();
+
+        // Assert
+        verifyNoInteractions(loadBoardRepository);
+    }
+
+    private List<ProjectedLoad> chunk(int consumed, int loads) {
+        List<ProjectedLoad> rows = new ArrayList<>();
+        for (int i = 0; i < loads; i++) {
+            UUID loadId = UUID.randomUUID();
+            rows.add(new ProjectedLoad() {
+                @Override
+                public UUID getLoadId() {
+                    return loadId;
+                }
+
+                @Override
+                public Integer getConsumed() {
+                    return consumed;
+                }
+            });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,95 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionMaintenanceJob Tests")
+class PartitionMaintenanceJobTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PartitionMaintenanceJob maintenanceJob;
+
+    @BeforeEach
+    void setUp() {
+        maintenanceJob.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Should create partitions ahead for both tables and keep everything without retention")
+    void run_CreatesAheadWithoutRetention() {
+        // Arrange
+        when(bidRepository.ensureMonthPartitions(3)).thenReturn(1);
+        when(bookingRepository.ensureMonthPartitions(3)).thenReturn(1);
+        when(bidRepository.countInDefaultPartition()).thenReturn(0L);
+        when(bookingRepository.countInDefaultPartition()).thenReturn(4L);
+
+        // Act
+        maintenanceJob.run();
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("tms.partition.created").counter().count());
+        assertEquals(4.0, meterRegistry.get("tms.partition.default.rows").tag("table", "booking").gauge().value());
+        verify(bidRepository, never()).detachMonthPartitionsBefore(any(), anyBoolean());
+        verify(bookingRepository, never()).detachMonthPartitionsBefore(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should detach whole months older than the retention")
+    void retireOldMonths_DetachesBeforeCutoff() {
+        // Arrange
+        ReflectionTestUtils.setField(maintenanceJob, "retentionMonths", 12);
+        LocalDate before = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        when(bidRepository.detachMonthPartitionsBefore(before, false)).thenReturn(2);
+        when(bookingRepository.detachMonthPartitionsBefore(before, false)).thenReturn(1);
+
+        // Act
+        int retired = maintenanceJob.retireOldMonths();
+
+        // Assert
+        assertEquals(3, retired);
+        assertEquals(3.0, meterRegistry.get("tms.partition.removed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should still maintain booking when bid fails")
+    void createAhead_OneTableFails() {
+        // Arrange
+        when(bidRepository.ensureMonthPartitions(anyInt())).thenThrow(new RuntimeException("lock timeout"));
+        when(bookingRepository.ensureMonthPartitions(3)).thenReturn(1);
+
+        // Act
+        int partitions = maintenanceJob.createAhead();
+
+        // Assert
+        assertEquals(1, partitions);
+    }
+}
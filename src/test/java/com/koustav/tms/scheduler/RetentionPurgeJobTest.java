@@ -0,0 +1,180 @@
+package com.koustav.tms.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.BidKey;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.repository.LoadRepository.LoadKey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RetentionPurgeJob Tests")
+class RetentionPurgeJobTest {
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RetentionPurgeJob purgeJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purgeJob, "chunkSize", 2);
+        ReflectionTestUtils.setField(purgeJob, "maxRowsPerSecond", 0);
+        purgeJob.registerMetrics();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should delete REJECTED bids chunk by chunk, continuing after the last key")
+    void purgeBids_WalksKeyset() {
+        // Arrange
+        Timestamp t1 = new Timestamp(1_000L);
+        Timestamp t2 = new Timestamp(2_000L);
+        Timestamp t3 = new Timestamp(3_000L);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(bidRepository.findBidKeysAfter(eq("REJECTED"), any(), eq(new Timestamp(0L)), eq(new UUID(0L, 0L)), eq(2)))
+            .thenReturn(List.of(bidKey(first, t1), bidKey(second, t2)));
+        when(bidRepository.findBidKeysAfter(eq("REJECTED"), any(), eq(t2), eq(second), eq(2)))
+            .thenReturn(List.of(bidKey(third, t3)));
+        when(bidRepository.deleteByIdsInStatus(List.of(first, second), "REJECTED", t1, t2)).thenReturn(2);
+        when(bidRepository.deleteByIdsInStatus(List.of(third), "REJECTED", t3, t3)).thenReturn(1);
+
+        // Act
+        int deleted = purgeJob.purgeBids(BidStatus.REJECTED);
+
+        // Assert
+        assertEquals(3, deleted);
+        assertEquals(3.0, meterRegistry.get("tms.retention.deleted")
+            .tag("table", "bid").tag("status", "REJECTED").counter().count());
+        assertEquals(0.0, meterRegistry.get("tms.retention.lag")
+            .tag("table", "bid").tag("status", "REJECTED").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should delete bookings and bids of purged loads before the loads")
+    void purgeCancelledLoads_DeletesChildrenFirst() {
+        // Arrange
+        UUID loadId = UUID.randomUUID();
+        when(loadRepository.lockCancelledLoadKeysAfter(any(), any(), any(), eq(2)))
+            .thenReturn(List.of(loadKey(loadId, new Timestamp(1_000L))));
+        when(loadRepository.deleteCancelledByIds(List.of(loadId))).thenReturn(1);
+
+        // Act
+        int deleted = purgeJob.purgeCancelledLoads();
+
+        // Assert
+        assertEquals(1, deleted);
+        InOrder order = inOrder(bookingRepository, bidRepository, loadRepository);
+        order.verify(bookingRepository).deleteCancelledByLoadIds(List.of(loadId));
+        order.verify(bidRepository).deleteByLoadIds(List.of(loadId));
+        order.verify(loadRepository).deleteCancelledByIds(List.of(loadId));
+    }
+
+    @Test
+    @DisplayName("Should stop after max chunks per run and report how far behind the cutoff it is")
+    void purgeBids_MaxChunks_ReportsLag() {
+        // Arrange
+        ReflectionTestUtils.setField(purgeJob, "maxChunksPerRun", 1);
+        Timestamp old = new Timestamp(System.currentTimeMillis() - Duration.ofDays(400).toMillis());
+        when(bidRepository.findBidKeysAfter(eq("EXPIRED"), any(), any(), any(), eq(2)))
+            .thenReturn(List.of(bidKey(UUID.randomUUID(), old), bidKey(UUID.randomUUID(), old)));
+        when(bidRepository.deleteByIdsInStatus(anyList(), eq("EXPIRED"), eq(old), eq(old))).thenReturn(2);
+
+        // Act
+        int deleted = purgeJob.purgeBids(BidStatus.EXPIRED);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(bidRepository, times(1)).findBidKeysAfter(any(), any(), any(), any(), anyInt());
+        double lag = meterRegistry.get("tms.retention.lag")
+            .tag("table", "bid").tag("status", "EXPIRED").gauge().value();
+        assertTrue(lag > Duration.ofDays(300).toSeconds());
+    }
+
+    @Test
+    @DisplayName("Should refuse to purge live bids")
+    void purgeBids_PendingRefused() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> purgeJob.purgeBids(BidStatus.PENDING));
+        verifyNoInteractions(bidRepository);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void run_Disabled() {
+        // Act
+        purgeJob.run();
+
+        // Assert
+        verifyNoInteractions(loadRepository, bidRepository, bookingRepository);
+    }
+
+    private BidKey bidKey(UUID bidId, Timestamp dateSubmitted) {
+        return new BidKey() {
+            @Override
+            public UUID getBidId() {
+                return bidId;
+            }
+
+            @Override
+            public Timestamp getDateSubmitted() {
+                return dateSubmitted;
+            }
+        };
+    }
+
+    private LoadKey loadKey(UUID loadId, Timestamp datePosted) {
+        return new LoadKey() {
+            @Override
+            public UUID getLoadId() {
+                return loadId;
+            }
+
+            @Override
+            public Timestamp getDatePosted() {
+                return datePosted;
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BatchBookingResponse;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.Bid;
+import com.koustav.tms.entity.Booking;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.Load;
+import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.BidLoad;
+import com.koustav.tms.service.BookingService.AcceptOutcome;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchBookingService Tests")
+class BatchBookingServiceTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @InjectMocks
+    private BatchBookingService batchBookingService;
+
+    private UUID loadA;
+    private UUID loadB;
+    private UUID bidA;
+    private UUID bidB;
+
+    @BeforeEach
+    void setUp() {
+        // loadA sorts before loadB
+        loadA = new UUID(1L, 1L);
+        loadB = new UUID(2L, 2L);
+        bidA = UUID.randomUUID();
+        bidB = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should commit loads in id order and keep results in request order")
+    void acceptBatch_OneChunk_ResultsInRequestOrder() {
+        // Arrange - requested B first, A second
+        List<BookingRequest> requests = List.of(request(bidB), request(bidA));
+        when(bidRepository.findLoadIdsByBidIds(List.of(bidB, bidA)))
+            .thenReturn(List.of(bidLoad(bidB, loadB), bidLoad(bidA, loadA)));
+        when(bookingService.acceptBidsForLoads(anyMap())).thenAnswer(inv -> {
+            Map<UUID, List<BookingRequest>> byLoad = inv.getArgument(0);
+            assertEquals(List.of(loadA, loadB), List.copyOf(byLoad.keySet()));
+            return List.of(
+                AcceptOutcome.booked(bidA, booking(bidA, loadA)),
+                AcceptOutcome.failed(bidB, new InsufficientCapacityException("full")));
+        });
+
+        // Act
+        BatchBookingResponse response = batchBookingService.acceptBatch(requests);
+
+        // Assert
+        assertEquals(1, response.getBooked());
+        assertEquals(1, response.getFailed());
+        assertEquals(bidB, response.getResults().get(0).getBidId());
+        assertEquals(400, response.getResults().get(0).getStatus());
+        assertEquals(bidA, response.getResults().get(1).getBidId());
+        assertEquals(201, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should split into chunks without splitting a load, and report unknown bids")
+    void acceptBatch_ChunksAndUnknownBid() {
+        // Arrange
+        ReflectionTestUtils.setField(batchBookingService, "chunkSize", 1);
+        UUID unknown = UUID.randomUUID();
+        when(bidRepository.findLoadIdsByBidIds(anyList()))
+            .thenReturn(List.of(bidLoad(bidA, loadA), bidLoad(bidB, loadB)));
+        when(bookingService.acceptBidsForLoads(Map.of(loadA, List.of(request(bidA)))))
+            .thenReturn(List.of(AcceptOutcome.booked(bidA, booking(bidA, loadA))));
+        when(bookingService.acceptBidsForLoads(Map.of(loadB, List.of(request(bidB)))))
+            .thenReturn(List.of(AcceptOutcome.booked(bidB, booking(bidB, loadB))));
+
+        // Act
+        BatchBookingResponse response = batchBookingService.acceptBatch(
+            List.of(request(bidA), request(unknown), request(bidB)));
+
+        // Assert
+        assertEquals(2, response.getBooked());
+        assertEquals(404, response.getResults().get(1).getStatus());
+        verify(bookingService, times(2)).acceptBidsForLoads(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk one acceptBid per request")
+    void acceptBatch_ChunkFails_FallsBack() {
+        // Arrange
+        when(bidRepository.findLoadIdsByBidIds(anyList()))
+            .thenReturn(List.of(bidLoad(bidA, loadA), bidLoad(bidB, loadB)));
+        when(bookingService.acceptBidsForLoads(anyMap()))
+            .thenThrow(new PessimisticLockingFailureException("lock timeout"));
+        when(bookingService.acceptBid(request(bidA)))
+            .thenReturn(BookingResponse.builder().bidId(bidA).build());
+        when(bookingService.acceptBid(request(bidB)))
+            .thenThrow(new ConflictException("Transporter", "modified"));
+
+        // Act
+        BatchBookingResponse response = batchBookingService.acceptBatch(List.of(request(bidA), request(bidB)));
+
+        // Assert
+        assertEquals(201, response.getResults().get(0).getStatus());
+        assertEquals(409, response.getResults().get(1).getStatus());
+    }
+
+    private BookingRequest request(UUID bidId) {
+        return BookingRequest.builder().bidId(bidId).build();
+    }
+
+    private BidLoad bidLoad(UUID bidId, UUID loadId) {
+        return new BidLoad() {
+            @Override
+            public UUID getBidId() {
+                return bidId;
+            }
+
+            @Override
+            public UUID getLoadId() {
+                return loadId;
+            }
+        };
+    }
+
+    private Booking booking(UUID bidId, UUID loadId) {
+        Load load = Load.builder().loadId(loadId).build();
+        Transporter transporter = Transporter.builder().transporterId(UUID.randomUUID()).build();
+        return Booking.builder()
+            .bookingId(UUID.randomUUID())
+            .load(load)
+            .bid(Bid.builder().bidId(bidId).load(load).transporter(transporter).build())
+            .transporter(transporter)
+            .allocatedTrucks(1)
+            .status(BookingStatus.CONFIRMED)
+            .bookedAt(new Timestamp(System.currentTimeMillis()))
+            .build();
+    }
+}
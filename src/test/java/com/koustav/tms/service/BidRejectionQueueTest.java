@@ -0,0 +1,141 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.repository.BidRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BidRejectionQueue Tests")
+class BidRejectionQueueTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BidRejectionQueue bidRejectionQueue;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bidRejectionQueue, "batchSize", 2);
+        bidRejectionQueue.init();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand the bid over only after the surrounding transaction has completed")
+    void enqueue_InsideTransaction_QueuedAfterCompletion() {
+        // Arrange
+        UUID bidId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        bidRejectionQueue.enqueue(bidId);
+
+        // Assert - nothing queued while the transaction is still running
+        assertEquals(0, bidRejectionQueue.size());
+
+        // outer transaction rolls back
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(1, bidRejectionQueue.size());
+        verifyNoInteractions(bidRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject queued bids in batches, one transaction per batch")
+    void drain_AppliesInBatches() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        bidRejectionQueue.enqueue(first);
+        bidRejectionQueue.enqueue(second);
+        bidRejectionQueue.enqueue(third);
+        when(bidRepository.updateStatusByIds(List.of(first, second), BidStatus.PENDING, BidStatus.REJECTED))
+            .thenReturn(2);
+        when(bidRepository.updateStatusByIds(List.of(third), BidStatus.PENDING, BidStatus.REJECTED))
+            .thenReturn(0); // already decided elsewhere
+
+        // Act
+        int rejected = bidRejectionQueue.drain();
+
+        // Assert
+        assertEquals(2, rejected);
+        assertEquals(0, bidRejectionQueue.size());
+        verify(transactionTemplate, times(2)).execute(any());
+        assertEquals(3.0, meterRegistry.get("tms.bid.rejection.enqueued").counter().count());
+        assertEquals(2.0, meterRegistry.get("tms.bid.rejection.applied").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should put a failed batch back on the queue")
+    void drain_Failure_RequeuesBatch() {
+        // Arrange
+        bidRejectionQueue.enqueue(UUID.randomUUID());
+        when(bidRepository.updateStatusByIds(anyCollection(), eq(BidStatus.PENDING), eq(BidStatus.REJECTED)))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act
+        int rejected = bidRejectionQueue.drain();
+
+        // Assert
+        assertEquals(0, rejected);
+        assertEquals(1, bidRejectionQueue.size());
+        assertEquals(1.0, meterRegistry.get("tms.bid.rejection.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count and drop bids when the queue is full")
+    void enqueue_QueueFull_Drops() {
+        // Arrange
+        ReflectionTestUtils.setField(bidRejectionQueue, "queueCapacity", 1);
+        bidRejectionQueue.init();
+
+        // Act
+        bidRejectionQueue.enqueue(UUID.randomUUID());
+        bidRejectionQueue.enqueue(UUID.randomUUID());
+
+        // Assert
+        assertEquals(1, bidRejectionQueue.size());
+        assertEquals(1.0, meterRegistry.get("tms.bid.rejection.dropped").counter().count());
+    }
+}
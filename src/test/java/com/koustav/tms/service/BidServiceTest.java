@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,6 +36,8 @@ import com.koustav.tms.exception.ResourceNotFoundException;
 import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.LoadRepository;
 import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("BidService Tests")
@@ -49,6 +52,12 @@ class BidServiceTest {
     @Mock
     private TransporterRepository transporterRepository;
 
+    @Mock
+    private StatusTransitionService statusTransitionService;
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
     @InjectMocks
     private BidService bidService;
 
@@ -108,7 +117,8 @@ class BidServiceTest {
         when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
         when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
         when(bidRepository.save(any(Bid.class))).thenReturn(bid);
-        when(loadRepository.save(any(Load.class))).thenReturn(load);
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.OPEN_FOR_BIDS))
+            .thenReturn(TransitionResult.applied(LoadStatus.OPEN_FOR_BIDS));
 
         // Act
         BidResponse response = bidService.submitBid(request);
@@ -118,8 +128,55 @@ class BidServiceTest {
         assertEquals(bidId, response.getBidId());
         assertEquals(BidStatus.PENDING, response.getStatus());
         verify(bidRepository).save(any(Bid.class));
-        verify(loadRepository).save(load);
-        assertEquals(LoadStatus.OPEN_FOR_BIDS, load.getStatus());
+        verify(statusTransitionService).transitionLoad(loadId, LoadStatus.OPEN_FOR_BIDS);
+        verify(loadRepository, never()).save(any(Load.class)); // no version bump for the first bid
+    }
+
+    @Test
+    @DisplayName("Should accept the bid when a concurrent first bid already opened the load")
+    void submitBid_LoadOpenedConcurrently_Success() {
+        // Arrange
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(5000.0);
+        request.setTrucksOffered(3);
+
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(bidRepository.save(any(Bid.class))).thenReturn(bid);
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.OPEN_FOR_BIDS))
+            .thenReturn(TransitionResult.rejected(Optional.of(LoadStatus.OPEN_FOR_BIDS)));
+
+        // Act
+        BidResponse response = bidService.submitBid(request);
+
+        // Assert
+        assertEquals(bidId, response.getBidId());
+    }
+
+    @Test
+    @DisplayName("Should fail the bid when the load was cancelled while it was being placed")
+    void submitBid_LoadCancelledConcurrently_ThrowsException() {
+        // Arrange
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(5000.0);
+        request.setTrucksOffered(3);
+
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(bidRepository.save(any(Bid.class))).thenReturn(bid);
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.OPEN_FOR_BIDS))
+            .thenReturn(TransitionResult.rejected(Optional.of(LoadStatus.CANCELLED)));
+
+        // Act & Assert
+        InvalidStatusTransitionException exception = assertThrows(
+            InvalidStatusTransitionException.class,
+            () -> bidService.submitBid(request)
+        );
+        assertTrue(exception.getMessage().contains("CANCELLED"));
     }
 
     @Test
@@ -227,6 +284,48 @@ class BidServiceTest {
         assertTrue(exception.getMessage().contains("doesn't have"));
     }
 
+    @Test
+    @DisplayName("Should reject a bid that would push pending offers past the over-commit limit")
+    void submitBid_OvercommitLimit_ThrowsException() {
+        // Arrange - 10 Flatbeds, ratio 3.0 → 30 trucks may be pending
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(5000.0);
+        request.setTrucksOffered(3);
+
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(bidRepository.sumPendingTrucksOffered(transporterId, "Flatbed")).thenReturn(28L);
+
+        // Act & Assert
+        InsufficientCapacityException exception = assertThrows(
+            InsufficientCapacityException.class,
+            () -> bidService.submitBid(request)
+        );
+        assertTrue(exception.getMessage().contains("pending bids"));
+        verify(bidRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject from the capacity ledger without reading the transporter")
+    void submitBid_LedgerRejects_SkipsTransporterRead() {
+        // Arrange
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(5000.0);
+        request.setTrucksOffered(30);
+
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 30)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(InsufficientCapacityException.class, () -> bidService.submitBid(request));
+        verify(transporterRepository, never()).findById(any());
+        verify(bidRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should not change load status when load is already OPEN_FOR_BIDS")
     void submitBid_LoadAlreadyOpenForBids_DoesNotChangeStatus() {
@@ -247,6 +346,7 @@ class BidServiceTest {
 
         // Assert
         verify(loadRepository, never()).save(load);
+        verify(statusTransitionService, never()).transitionLoad(any(), any());
         assertEquals(LoadStatus.OPEN_FOR_BIDS, load.getStatus());
     }
 
@@ -261,7 +361,7 @@ class BidServiceTest {
             .thenReturn(bidPage);
 
         // Act
-        Page<BidResponse> result = bidService.getBids(loadId, transporterId, BidStatus.PENDING, pageable);
+        Page<BidResponse> result = bidService.getBids(loadId, transporterId, BidStatus.PENDING, null, null, pageable);
 
         // Assert
         assertNotNull(result);
@@ -269,6 +369,23 @@ class BidServiceTest {
         verify(bidRepository).findByFilters(loadId, transporterId, BidStatus.PENDING, pageable);
     }
 
+    @Test
+    @DisplayName("Should query the submitted-date range with an exclusive end the day after submittedTo")
+    void getBids_WithSubmittedRange_UsesRangeQuery() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        when(bidRepository.findByFiltersSubmittedBetween(isNull(), isNull(), isNull(), any(), any(), eq(pageable)))
+            .thenReturn(new PageImpl<>(java.util.List.of(bid)));
+
+        // Act
+        bidService.getBids(null, null, null, null, LocalDate.of(2026, 1, 31), pageable);
+
+        // Assert
+        verify(bidRepository).findByFiltersSubmittedBetween(null, null, null,
+            new Timestamp(0L), Timestamp.valueOf("2026-02-01 00:00:00"), pageable);
+        verify(bidRepository, never()).findByFilters(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should return bid details when bid exists")
     void getBid_Success() {
@@ -302,22 +419,24 @@ class BidServiceTest {
     @DisplayName("Should successfully reject a pending bid")
     void rejectBid_Success() {
         // Arrange
-        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bidRepository.save(any(Bid.class))).thenReturn(bid);
+        when(statusTransitionService.transitionBid(bidId, BidStatus.REJECTED))
+            .thenReturn(TransitionResult.applied(BidStatus.REJECTED));
 
         // Act
         bidService.rejectBid(bidId);
 
-        // Assert
-        assertEquals(BidStatus.REJECTED, bid.getStatus());
-        verify(bidRepository).save(bid);
+        // Assert - one conditional UPDATE, the bid is never loaded
+        verify(statusTransitionService).transitionBid(bidId, BidStatus.REJECTED);
+        verify(bidRepository, never()).findById(any());
+        verify(bidRepository, never()).save(any(Bid.class));
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when bid to reject does not exist")
     void rejectBid_NotFound_ThrowsException() {
         // Arrange
-        when(bidRepository.findById(bidId)).thenReturn(Optional.empty());
+        when(statusTransitionService.transitionBid(bidId, BidStatus.REJECTED))
+            .thenReturn(TransitionResult.missing());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
@@ -331,8 +450,8 @@ class BidServiceTest {
     @DisplayName("Should throw InvalidStatusTransitionException when trying to reject an accepted bid")
     void rejectBid_AlreadyAccepted_ThrowsException() {
         // Arrange
-        bid.setStatus(BidStatus.ACCEPTED);
-        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+        when(statusTransitionService.transitionBid(bidId, BidStatus.REJECTED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BidStatus.ACCEPTED)));
 
         // Act & Assert
         InvalidStatusTransitionException exception = assertThrows(
@@ -346,8 +465,8 @@ class BidServiceTest {
     @DisplayName("Should throw InvalidStatusTransitionException when trying to reject an already rejected bid")
     void rejectBid_AlreadyRejected_ThrowsException() {
         // Arrange
-        bid.setStatus(BidStatus.REJECTED);
-        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+        when(statusTransitionService.transitionBid(bidId, BidStatus.REJECTED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BidStatus.REJECTED)));
 
         // Act & Assert
         InvalidStatusTransitionException exception = assertThrows(
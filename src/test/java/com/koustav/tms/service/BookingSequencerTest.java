@@ -0,0 +1,150 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.Bid;
+import com.koustav.tms.entity.Booking;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.Load;
+import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.service.BookingService.AcceptOutcome;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.PessimisticLockException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingSequencer Tests")
+class BookingSequencerTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BookingSequencer bookingSequencer;
+
+    private UUID loadId;
+    private UUID bidId;
+    private BookingRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingSequencer, "enabled", true);
+        ReflectionTestUtils.setField(bookingSequencer, "stripes", 2);
+        bookingSequencer.start();
+
+        loadId = UUID.randomUUID();
+        bidId = UUID.randomUUID();
+        request = BookingRequest.builder().bidId(bidId).build();
+        lenient().when(bidRepository.findLoadIdByBidId(bidId)).thenReturn(Optional.of(loadId));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bookingSequencer.stop();
+    }
+
+    @Test
+    @DisplayName("Should return the booking from the group commit")
+    void accept_Booked() {
+        // Arrange
+        Booking booking = booking();
+        when(bookingService.acceptBidsForLoad(loadId, List.of(request)))
+            .thenReturn(List.of(AcceptOutcome.booked(bidId, booking)));
+
+        // Act
+        BookingResponse response = bookingSequencer.accept(request);
+
+        // Assert
+        assertEquals(booking.getBookingId(), response.getBookingId());
+        assertEquals(1L, meterRegistry.get("tms.booking.sequencer.batch.size").summary().count());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the caller's own failure")
+    void accept_FailedOutcome_Rethrown() {
+        // Arrange
+        when(bookingService.acceptBidsForLoad(loadId, List.of(request)))
+            .thenReturn(List.of(AcceptOutcome.failed(bidId, new InsufficientCapacityException("full"))));
+
+        // Act & Assert
+        InsufficientCapacityException e =
+            assertThrows(InsufficientCapacityException.class, () -> bookingSequencer.accept(request));
+        assertEquals("full", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should fall back to one transaction per accept when the group commit fails")
+    void accept_BatchFails_FallsBack() {
+        // Arrange
+        when(bookingService.acceptBidsForLoad(eq(loadId), anyList()))
+            .thenThrow(new PessimisticLockException("lock timeout"));
+        BookingResponse single = BookingResponse.builder().bookingId(UUID.randomUUID()).build();
+        when(bookingService.acceptBid(request)).thenReturn(single);
+
+        // Act
+        BookingResponse response = bookingSequencer.accept(request);
+
+        // Assert
+        assertSame(single, response);
+        assertEquals(1.0, meterRegistry.get("tms.booking.sequencer.fallbacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown bid before queueing it")
+    void accept_UnknownBid() {
+        // Arrange
+        UUID unknown = UUID.randomUUID();
+        when(bidRepository.findLoadIdByBidId(unknown)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+            () -> bookingSequencer.accept(BookingRequest.builder().bidId(unknown).build()));
+        verifyNoInteractions(bookingService);
+    }
+
+    private Booking booking() {
+        Load load = Load.builder().loadId(loadId).truckType("Flatbed").noOfTrucks(2).build();
+        Transporter transporter = Transporter.builder().transporterId(UUID.randomUUID()).build();
+        Bid bid = Bid.builder().bidId(bidId).load(load).transporter(transporter).trucksOffered(1).build();
+        return Booking.builder()
+            .bookingId(UUID.randomUUID())
+            .load(load)
+            .bid(bid)
+            .transporter(transporter)
+            .allocatedTrucks(1)
+            .finalRate(5000.0)
+            .status(BookingStatus.CONFIRMED)
+            .bookedAt(new Timestamp(System.currentTimeMillis()))
+            .build();
+    }
+}
@@ -5,9 +5,12 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import jakarta.persistence.OptimisticLockException;
 
@@ -15,28 +18,42 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.koustav.tms.cache.CacheCoherence;
 import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.AutoBookingResponse;
 import com.koustav.tms.dto.response.BookingResponse;
 import com.koustav.tms.entity.Bid;
 import com.koustav.tms.entity.BidStatus;
 import com.koustav.tms.entity.Booking;
 import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.CapacityHold;
+import com.koustav.tms.entity.CapacityHoldKind;
 import com.koustav.tms.entity.Load;
 import com.koustav.tms.entity.LoadStatus;
 import com.koustav.tms.entity.Transporter;
 import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
 import com.koustav.tms.exception.ConflictException;
 import com.koustav.tms.exception.InsufficientCapacityException;
 import com.koustav.tms.exception.InvalidStatusTransitionException;
 import com.koustav.tms.exception.ResourceNotFoundException;
 import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.CapacityNeed;
 import com.koustav.tms.repository.BookingRepository;
 import com.koustav.tms.repository.LoadRepository;
 import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
+import com.koustav.tms.strategy.BidScoringStrategy;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("BookingService Tests")
@@ -55,7 +72,28 @@ class BookingServiceTest {
     private TransporterRepository transporterRepository;
 
     @Mock
-    private BidTransactionService bidTransactionService;
+    private BidRejectionQueue bidRejectionQueue;
+
+    @Mock
+    private BidScoringStrategy bidScoringStrategy;
+
+    @Mock
+    private StatusTransitionService statusTransitionService;
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
+    @Mock
+    private CacheCoherence cacheCoherence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HomeShardCapacity homeCapacity;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private BookingService bookingService;
@@ -118,6 +156,23 @@ class BookingServiceTest {
             .status(BookingStatus.CONFIRMED)
             .bookedAt(new Timestamp(System.currentTimeMillis()))
             .build();
+
+        // single shard unless a test says otherwise: every transporter is at home
+        lenient().when(homeCapacity.isHome(any())).thenReturn(true);
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        // acceptBid reads ids first, then locks load → transporter
+        lenient().when(bidRepository.findLoadIdByBidId(bidId)).thenReturn(Optional.of(loadId));
+        lenient().when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        lenient().when(bidRepository.findTransporterIdsByBidIds(List.of(bidId))).thenReturn(List.of(transporterId));
+        lenient().when(statusTransitionService.transitionBid(any(), any()))
+            .thenAnswer(inv -> TransitionResult.applied(inv.<BidStatus>getArgument(1)));
+        lenient().when(statusTransitionService.transitionBooking(any(), any()))
+            .thenAnswer(inv -> TransitionResult.applied(inv.<BookingStatus>getArgument(1)));
     }
 
     @Test
@@ -128,11 +183,8 @@ class BookingServiceTest {
         request.setBidId(bidId);
 
         when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0);
         when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
-        when(bidRepository.save(any(Bid.class))).thenReturn(bid);
         when(loadRepository.save(any(Load.class))).thenReturn(load);
 
         // Act
@@ -143,8 +195,54 @@ class BookingServiceTest {
         assertEquals(bookingId, response.getBookingId());
         verify(bookingRepository).save(any(Booking.class));
         verify(transporterRepository).save(transporter);
-        assertEquals(BidStatus.ACCEPTED, bid.getStatus());
+        verify(statusTransitionService).transitionBid(bidId, BidStatus.ACCEPTED);
+        verify(bidRepository, never()).save(any(Bid.class));
         assertEquals(7, transporter.getAvailableTrucks().get("Flatbed")); // 10 - 3 = 7
+        assertEquals(3, load.getAllocatedTrucks());
+        assertEquals(2, load.getRemainingTrucks());
+        verify(bidRepository, never()).rejectPendingByLoadId(any());
+        verify(bookingRepository, never()).sumAllocatedTrucksByLoadIdAndStatus(any(), any());
+        verify(eventPublisher).publishEvent(new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 7)));
+        // same lock order as autoBook and the batch paths
+        InOrder locks = inOrder(loadRepository, transporterRepository, statusTransitionService);
+        locks.verify(loadRepository).findByIdForUpdate(loadId);
+        locks.verify(transporterRepository).findAllByIdForUpdate(List.of(transporterId));
+        locks.verify(statusTransitionService).transitionBid(bidId, BidStatus.ACCEPTED);
+    }
+
+    @Test
+    @DisplayName("Should book only the remaining trucks when partial allocation is allowed")
+    void acceptBid_AllowPartial_BooksRemainingTrucks() {
+        // Arrange - load needs 2 more, bid offers 3
+        load.setAllocatedTrucks(3);
+        BookingRequest request = BookingRequest.builder().bidId(bidId).allowPartial(true).build();
+
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BookingResponse response = bookingService.acceptBid(request);
+
+        // Assert
+        assertEquals(2, response.getAllocatedTrucks());
+        assertEquals(8, transporter.getAvailableTrucks().get("Flatbed")); // only 2 deducted
+        assertEquals(0, load.getRemainingTrucks());
+        assertEquals(LoadStatus.BOOKED, load.getStatus());
+        verify(bidRepository).rejectPendingByLoadId(loadId);
+    }
+
+    @Test
+    @DisplayName("Should still refuse an oversized bid without allowPartial")
+    void acceptBid_OversizedWithoutPartial_ThrowsException() {
+        // Arrange
+        load.setAllocatedTrucks(3);
+        BookingRequest request = BookingRequest.builder().bidId(bidId).build();
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+
+        // Act & Assert
+        assertThrows(InsufficientCapacityException.class, () -> bookingService.acceptBid(request));
+        assertEquals(10, transporter.getAvailableTrucks().get("Flatbed"));
+        verify(statusTransitionService, never()).transitionBid(any(), any());
     }
 
     @Test
@@ -154,7 +252,7 @@ class BookingServiceTest {
         BookingRequest request = new BookingRequest();
         request.setBidId(bidId);
 
-        when(bidRepository.findById(bidId)).thenReturn(Optional.empty());
+        when(bidRepository.findLoadIdByBidId(bidId)).thenReturn(Optional.empty());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
@@ -182,6 +280,27 @@ class BookingServiceTest {
         assertTrue(exception.getMessage().contains("Can only accept PENDING bids"));
     }
 
+    @Test
+    @DisplayName("Should throw when a concurrent request accepted the bid first")
+    void acceptBid_LostRaceToConcurrentAccept_ThrowsException() {
+        // Arrange - bid read as PENDING, but the conditional UPDATE finds it ACCEPTED
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bidId);
+
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+        when(statusTransitionService.transitionBid(bidId, BidStatus.ACCEPTED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BidStatus.ACCEPTED)));
+
+        // Act & Assert
+        InvalidStatusTransitionException exception = assertThrows(
+            InvalidStatusTransitionException.class,
+            () -> bookingService.acceptBid(request)
+        );
+        assertTrue(exception.getMessage().contains("Current status: ACCEPTED"));
+        verify(transporterRepository, never()).save(any(Transporter.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     @DisplayName("Should throw InsufficientCapacityException when load capacity exceeded")
     void acceptBid_InsufficientLoadCapacity_ThrowsException() {
@@ -190,8 +309,7 @@ class BookingServiceTest {
         request.setBidId(bidId);
 
         when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(4); // 4 already allocated, bid offers 3, but load needs only 5 total
+        load.setAllocatedTrucks(4); // 4 already allocated, bid offers 3, but load needs only 5 total
 
         // Act & Assert
         InsufficientCapacityException exception = assertThrows(
@@ -212,8 +330,6 @@ class BookingServiceTest {
         request.setBidId(bidId);
 
         when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0);
 
         // Act & Assert
         InsufficientCapacityException exception = assertThrows(
@@ -221,7 +337,79 @@ class BookingServiceTest {
             () -> bookingService.acceptBid(request)
         );
         assertTrue(exception.getMessage().contains("Transporter no longer has sufficient"));
-        verify(bidTransactionService).rejectBidInNewTransaction(bidId);
+        verify(bidRejectionQueue).enqueue(bidId);
+    }
+
+    @Test
+    @DisplayName("Should hold the trucks on the home shard before the booking transaction and settle after it")
+    void acceptBid_TransporterHomedElsewhere_HoldsThenSettles() {
+        // Arrange
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bidId);
+
+        List<CapacityNeed> needs = List.of(mock(CapacityNeed.class));
+        CapacityHolds holds = holding(CapacityHoldKind.DEBIT, bidId, 3);
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(bidRepository.findPendingCapacityNeeds(List.of(bidId))).thenReturn(needs);
+        when(homeCapacity.hold(needs)).thenReturn(holds);
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // Act
+        bookingService.acceptBid(request);
+
+        // Assert
+        InOrder inOrder = inOrder(homeCapacity, transactionTemplate);
+        inOrder.verify(homeCapacity).hold(needs);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(homeCapacity).settle(holds);
+        assertEquals(10, transporter.getAvailableTrucks().get("Flatbed")); // this shard's copy untouched
+        assertEquals(3, load.getAllocatedTrucks());
+        verify(eventPublisher, never()).publishEvent(any()); // published when the hold is settled
+        verifyNoInteractions(cacheCoherence);
+    }
+
+    @Test
+    @DisplayName("Should reject the bid when the home shard can't cover it")
+    void acceptBid_HomeShardShort_RejectsBid() {
+        // Arrange
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bidId);
+
+        CapacityHolds holds = new CapacityHolds();
+        holds.refused(bidId);
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(homeCapacity.hold(any())).thenReturn(holds);
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+
+        // Act & Assert
+        assertThrows(InsufficientCapacityException.class, () -> bookingService.acceptBid(request));
+        verify(bidRejectionQueue).enqueue(bidId);
+        verify(capacityLedger, never()).apply(any());
+        verify(statusTransitionService, never()).transitionBid(any(), any());
+        verify(homeCapacity).settle(holds);
+    }
+
+    @Test
+    @DisplayName("Should refuse a bid another accept holds on its home shard, and still settle")
+    void acceptBid_NotHeld_ThrowsConflictException() {
+        // Arrange
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bidId);
+
+        CapacityHolds holds = new CapacityHolds();
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(homeCapacity.hold(any())).thenReturn(holds);
+        when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> bookingService.acceptBid(request));
+        verify(statusTransitionService, never()).transitionBid(any(), any());
+        verify(bidRejectionQueue, never()).enqueue(any());
+        verify(homeCapacity).settle(holds);
     }
 
     @Test
@@ -233,11 +421,8 @@ class BookingServiceTest {
         bid.setTrucksOffered(5); // This will fill the load completely
 
         when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0);
         when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
-        when(bidRepository.save(any(Bid.class))).thenReturn(bid);
         when(loadRepository.save(any(Load.class))).thenReturn(load);
 
         // Act
@@ -246,6 +431,7 @@ class BookingServiceTest {
         // Assert
         assertEquals(LoadStatus.BOOKED, load.getStatus());
         verify(loadRepository).save(load);
+        verify(bidRepository).rejectPendingByLoadId(loadId);
     }
 
     @Test
@@ -256,8 +442,6 @@ class BookingServiceTest {
         request.setBidId(bidId);
 
         when(bidRepository.findById(bidId)).thenReturn(Optional.of(bid));
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0);
         when(transporterRepository.save(any(Transporter.class)))
             .thenThrow(new OptimisticLockException());
 
@@ -303,11 +487,9 @@ class BookingServiceTest {
     void cancelBooking_Success() {
         // Arrange
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0); // All bookings cancelled
-        when(bidRepository.countByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING))
+        load.setAllocatedTrucks(3); // this booking is the only one - all cancelled afterwards
+        when(bidRepository.countPendingByLoadId(loadId))
             .thenReturn(2L);
         when(loadRepository.save(any(Load.class))).thenReturn(load);
 
@@ -315,13 +497,72 @@ class BookingServiceTest {
         bookingService.cancelBooking(bookingId);
 
         // Assert
-        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        verify(statusTransitionService).transitionBooking(bookingId, BookingStatus.CANCELLED);
         assertEquals(13, transporter.getAvailableTrucks().get("Flatbed")); // 10 + 3 = 13
-        verify(bookingRepository).save(booking);
+        assertEquals(0, load.getAllocatedTrucks());
+        verify(bookingRepository, never()).save(any(Booking.class));
         verify(transporterRepository).save(transporter);
         verify(loadRepository).save(load);
     }
 
+    @Test
+    @DisplayName("Should record the credit on the home shard first and settle it after the cancellation")
+    void cancelBooking_TransporterHomedElsewhere_CreditsHomeShard() {
+        // Arrange
+        CapacityNeed need = mock(CapacityNeed.class);
+        CapacityHolds holds = holding(CapacityHoldKind.CREDIT, bidId, 3);
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(bookingRepository.findConfirmedCapacityNeedById(bookingId)).thenReturn(Optional.of(need));
+        when(homeCapacity.holdCredit(need)).thenReturn(holds);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        load.setAllocatedTrucks(3);
+
+        // Act
+        bookingService.cancelBooking(bookingId);
+
+        // Assert
+        InOrder inOrder = inOrder(homeCapacity, transactionTemplate);
+        inOrder.verify(homeCapacity).holdCredit(need);
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        inOrder.verify(homeCapacity).settle(holds);
+        assertEquals(10, transporter.getAvailableTrucks().get("Flatbed"));
+        verify(transporterRepository, never()).save(any(Transporter.class));
+    }
+
+    @Test
+    @DisplayName("Should not cancel a booking whose credit wasn't recorded on the home shard")
+    void cancelBooking_TransporterHomedElsewhere_NoCreditRecorded_ThrowsConflictException() {
+        // Arrange
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(bookingRepository.findConfirmedCapacityNeedById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> bookingService.cancelBooking(bookingId));
+        verify(homeCapacity, never()).holdCredit(any());
+    }
+
+    @Test
+    @DisplayName("Should leave an expired load expired when one of its bookings is cancelled")
+    void cancelBooking_ExpiredLoad_StaysExpired() {
+        // Arrange
+        load.setStatus(LoadStatus.EXPIRED);
+        load.setAllocatedTrucks(3);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        // Act
+        bookingService.cancelBooking(bookingId);
+
+        // Assert
+        assertEquals(LoadStatus.EXPIRED, load.getStatus());
+        assertEquals(0, load.getAllocatedTrucks());
+        assertEquals(13, transporter.getAvailableTrucks().get("Flatbed"));
+        verify(bidRepository, never()).countPendingByLoadId(any());
+        verify(loadRepository).save(load);
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when cancelling non-existent booking")
     void cancelBooking_NotFound_ThrowsException() {
@@ -342,6 +583,8 @@ class BookingServiceTest {
         // Arrange
         booking.setStatus(BookingStatus.CANCELLED);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(statusTransitionService.transitionBooking(bookingId, BookingStatus.CANCELLED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BookingStatus.CANCELLED)));
 
         // Act & Assert
         InvalidStatusTransitionException exception = assertThrows(
@@ -349,6 +592,7 @@ class BookingServiceTest {
             () -> bookingService.cancelBooking(bookingId)
         );
         assertTrue(exception.getMessage().contains("already cancelled"));
+        verify(transporterRepository, never()).save(any(Transporter.class)); // trucks not restored twice
     }
 
     @Test
@@ -356,11 +600,9 @@ class BookingServiceTest {
     void cancelBooking_NoPendingBids_UpdatesLoadToPosted() {
         // Arrange
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(0);
-        when(bidRepository.countByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING))
+        load.setAllocatedTrucks(3);
+        when(bidRepository.countPendingByLoadId(loadId))
             .thenReturn(0L); // No pending bids
         when(loadRepository.save(any(Load.class))).thenReturn(load);
 
@@ -376,10 +618,8 @@ class BookingServiceTest {
     void cancelBooking_PartialCancellation_UpdatesLoadToOpenForBids() {
         // Arrange
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
-        when(bookingRepository.sumAllocatedTrucksByLoadIdAndStatus(loadId, BookingStatus.CONFIRMED))
-            .thenReturn(2); // Still 2 trucks allocated
+        load.setAllocatedTrucks(5); // 2 trucks stay allocated after this booking's 3 are released
         when(loadRepository.save(any(Load.class))).thenReturn(load);
 
         // Act
@@ -388,4 +628,283 @@ class BookingServiceTest {
         // Assert
         assertEquals(LoadStatus.OPEN_FOR_BIDS, load.getStatus());
     }
+
+    @Test
+    @DisplayName("Should auto-book the best scored bids until the load is full and reject the rest")
+    void autoBook_FillsLoadFromBestBids() {
+        // Arrange - load needs 5 trucks; best (3) + third (2) fit, second (4) doesn't fit after the first
+        Bid best = pendingBid(3, 0.9);
+        Bid tooBig = pendingBid(4, 0.8);
+        Bid fits = pendingBid(2, 0.7);
+        Bid leftover = pendingBid(1, 0.1);
+
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId))
+            .thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId))
+            .thenReturn(new ArrayList<>(List.of(leftover, fits, tooBig, best)));
+        when(bidRepository.rejectPendingByLoadIdReturningIds(loadId))
+            .thenReturn(List.of(tooBig.getBidId(), leftover.getBidId()));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertEquals(LoadStatus.BOOKED, response.getStatus());
+        assertEquals(0, response.getRemainingTrucks());
+        assertEquals(2, response.getBookings().size());
+        verify(statusTransitionService).transitionBid(best.getBidId(), BidStatus.ACCEPTED);
+        verify(statusTransitionService).transitionBid(fits.getBidId(), BidStatus.ACCEPTED);
+        verify(statusTransitionService, never()).transitionBid(tooBig.getBidId(), BidStatus.ACCEPTED);
+        assertEquals(List.of(tooBig.getBidId(), leftover.getBidId()), response.getRejectedBidIds());
+        verify(bidRepository).rejectPendingByLoadIdReturningIds(loadId); // one UPDATE, not per-bid saves
+        assertEquals(5, transporter.getAvailableTrucks().get("Flatbed")); // 10 - 3 - 2
+        verify(transporterRepository).findAllByIdForUpdate(List.of(transporterId));
+        verify(loadRepository).save(load);
+    }
+
+    @Test
+    @DisplayName("Should reject bids whose transporter lost capacity and keep the load open when not filled")
+    void autoBook_TransporterOutOfCapacity_RejectsBidAndKeepsLoadOpen() {
+        // Arrange
+        transporter.getAvailableTrucks().put("Flatbed", 2);
+        Bid noCapacity = pendingBid(3, 0.9);
+        Bid fits = pendingBid(2, 0.5);
+
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId))
+            .thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId))
+            .thenReturn(new ArrayList<>(List.of(fits, noCapacity)));
+        when(bidRepository.rejectPendingByIdsReturningIds(List.of(noCapacity.getBidId())))
+            .thenReturn(List.of(noCapacity.getBidId()));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, response.getStatus());
+        assertEquals(3, response.getRemainingTrucks());
+        assertEquals(1, response.getBookings().size());
+        assertEquals(List.of(noCapacity.getBidId()), response.getRejectedBidIds());
+        verify(statusTransitionService).transitionBid(fits.getBidId(), BidStatus.ACCEPTED);
+        assertEquals(BidStatus.PENDING, noCapacity.getStatus()); // never written through the entity
+        assertEquals(0, transporter.getAvailableTrucks().get("Flatbed"));
+    }
+
+    @Test
+    @DisplayName("Should report only the bids its UPDATEs rejected, not ones withdrawn or expired meanwhile")
+    void autoBook_BidWithdrawnBeforeRejection_NotReported() {
+        // Arrange - both bids are refused for capacity / left over once full, one was withdrawn meanwhile
+        transporter.getAvailableTrucks().put("Flatbed", 5);
+        Bid fillsLoad = pendingBid(5, 0.9);
+        Bid leftover = pendingBid(1, 0.5);
+        Bid withdrawn = pendingBid(1, 0.1);
+
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId)).thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId))
+            .thenReturn(new ArrayList<>(List.of(leftover, withdrawn, fillsLoad)));
+        when(bidRepository.rejectPendingByLoadIdReturningIds(loadId)).thenReturn(List.of(leftover.getBidId()));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertEquals(LoadStatus.BOOKED, response.getStatus());
+        assertEquals(List.of(leftover.getBidId()), response.getRejectedBidIds());
+    }
+
+    @Test
+    @DisplayName("Should skip a bid that expired after it was read instead of booking it")
+    void autoBook_BidExpiredConcurrently_NotBooked() {
+        // Arrange
+        Bid expired = pendingBid(3, 0.9);
+        Bid fits = pendingBid(2, 0.5);
+
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId))
+            .thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId))
+            .thenReturn(new ArrayList<>(List.of(fits, expired)));
+        when(statusTransitionService.transitionBid(expired.getBidId(), BidStatus.ACCEPTED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BidStatus.EXPIRED)));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertEquals(1, response.getBookings().size());
+        assertEquals(3, response.getRemainingTrucks());
+        assertEquals(8, transporter.getAvailableTrucks().get("Flatbed")); // only the 2 of fits
+        assertTrue(response.getRejectedBidIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should settle the home shard hold of a bid that can't be claimed")
+    void autoBook_HomedElsewhereBidExpired_SettlesHold() {
+        // Arrange
+        Bid expired = pendingBid(3, 0.9);
+        CapacityHolds holds = holding(CapacityHoldKind.DEBIT, expired.getBidId(), 3);
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(bidRepository.findPendingCapacityNeedsByLoadId(loadId)).thenReturn(List.of());
+        when(homeCapacity.hold(List.of())).thenReturn(holds);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId)).thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId)).thenReturn(new ArrayList<>(List.of(expired)));
+        when(statusTransitionService.transitionBid(expired.getBidId(), BidStatus.ACCEPTED))
+            .thenReturn(TransitionResult.rejected(Optional.of(BidStatus.EXPIRED)));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertTrue(response.getBookings().isEmpty());
+        verify(homeCapacity).settle(holds);
+    }
+
+    @Test
+    @DisplayName("Should leave a bid without a home shard hold pending")
+    void autoBook_HomedElsewhereBidNotHeld_Skipped() {
+        // Arrange
+        Bid busy = pendingBid(3, 0.9);
+        when(homeCapacity.isSharded()).thenReturn(true);
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(homeCapacity.hold(any())).thenReturn(new CapacityHolds());
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findPendingTransporterIdsByLoadId(loadId)).thenReturn(List.of(transporterId));
+        when(bidRepository.findPendingByLoadId(loadId)).thenReturn(new ArrayList<>(List.of(busy)));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        AutoBookingResponse response = bookingService.autoBook(loadId);
+
+        // Assert
+        assertTrue(response.getBookings().isEmpty());
+        assertTrue(response.getRejectedBidIds().isEmpty());
+        verify(statusTransitionService, never()).transitionBid(any(), any());
+        verify(bidRepository, never()).rejectPendingByIdsReturningIds(any());
+    }
+
+    @Test
+    @DisplayName("Should not auto-book a cancelled load")
+    void autoBook_CancelledLoad_ThrowsException() {
+        // Arrange
+        load.setStatus(LoadStatus.CANCELLED);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+
+        // Act & Assert
+        assertThrows(InvalidStatusTransitionException.class, () -> bookingService.autoBook(loadId));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should group-commit several accepts on one load and book it when full")
+    void acceptBidsForLoad_BooksEachAndClosesLoad() {
+        // Arrange
+        Bid second = pendingBid(2, 0.0);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findTransporterIdsByBidIds(List.of(bidId, second.getBidId())))
+            .thenReturn(List.of(transporterId));
+        when(bidRepository.findAllById(List.of(bidId, second.getBidId()))).thenReturn(List.of(bid, second));
+
+        // Act
+        List<BookingService.AcceptOutcome> outcomes = bookingService.acceptBidsForLoad(loadId, List.of(
+            BookingRequest.builder().bidId(bidId).build(),
+            BookingRequest.builder().bidId(second.getBidId()).build()));
+
+        // Assert
+        assertEquals(2, outcomes.size());
+        assertTrue(outcomes.get(0).isBooked());
+        assertTrue(outcomes.get(1).isBooked());
+        assertEquals(5, load.getAllocatedTrucks());
+        assertEquals(LoadStatus.BOOKED, load.getStatus());
+        assertEquals(5, transporter.getAvailableTrucks().get("Flatbed"));
+        verify(transporterRepository).findAllByIdForUpdate(List.of(transporterId));
+        verify(bidRepository).rejectPendingByLoadId(loadId);
+        verify(bookingRepository).saveAll(argThat(bookings -> ((List<Booking>) bookings).size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should fail only the accept that no longer fits, against capacity used earlier in the batch")
+    void acceptBidsForLoad_PerRequestFailure() {
+        // Arrange
+        Bid tooBig = pendingBid(3, 0.0);
+        UUID unknown = UUID.randomUUID();
+        List<UUID> bidIds = List.of(bidId, tooBig.getBidId(), unknown);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.findTransporterIdsByBidIds(bidIds)).thenReturn(List.of(transporterId));
+        when(bidRepository.findAllById(bidIds)).thenReturn(List.of(bid, tooBig));
+
+        // Act
+        List<BookingService.AcceptOutcome> outcomes = bookingService.acceptBidsForLoad(loadId,
+            bidIds.stream().map(id -> BookingRequest.builder().bidId(id).build()).toList());
+
+        // Assert
+        assertTrue(outcomes.get(0).isBooked());
+        assertInstanceOf(InsufficientCapacityException.class, outcomes.get(1).getError());
+        assertInstanceOf(ResourceNotFoundException.class, outcomes.get(2).getError());
+        assertEquals(3, load.getAllocatedTrucks());
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, load.getStatus());
+        verify(statusTransitionService, never()).transitionBid(tooBig.getBidId(), BidStatus.ACCEPTED);
+        verify(bidRepository, never()).rejectPendingByLoadId(any());
+    }
+
+    @Test
+    @DisplayName("Should lock all loads of a batch chunk together and report a missing one per request")
+    void acceptBidsForLoads_LocksLoadsAndHandlesMissingLoad() {
+        // Arrange
+        UUID goneLoadId = UUID.randomUUID();
+        UUID orphanBidId = UUID.randomUUID();
+        Map<UUID, List<BookingRequest>> requestsByLoad = new java.util.LinkedHashMap<>();
+        requestsByLoad.put(loadId, List.of(BookingRequest.builder().bidId(bidId).build()));
+        requestsByLoad.put(goneLoadId, List.of(BookingRequest.builder().bidId(orphanBidId).build()));
+
+        when(loadRepository.findAllByIdForUpdate(anyList())).thenReturn(List.of(load));
+        when(bidRepository.findTransporterIdsByBidIds(List.of(bidId, orphanBidId))).thenReturn(List.of(transporterId));
+        when(bidRepository.findAllById(List.of(bidId, orphanBidId))).thenReturn(List.of(bid));
+
+        // Act
+        List<BookingService.AcceptOutcome> outcomes = bookingService.acceptBidsForLoads(requestsByLoad);
+
+        // Assert
+        assertTrue(outcomes.get(0).isBooked());
+        assertInstanceOf(ResourceNotFoundException.class, outcomes.get(1).getError());
+        verify(loadRepository).findAllByIdForUpdate(
+            argThat(ids -> ids.size() == 2 && ids.contains(loadId) && ids.contains(goneLoadId)));
+        verify(transporterRepository).findAllByIdForUpdate(List.of(transporterId));
+        assertEquals(3, load.getAllocatedTrucks());
+    }
+
+    private Bid pendingBid(int trucksOffered, double score) {
+        Bid pending = Bid.builder()
+            .bidId(UUID.randomUUID())
+            .load(load)
+            .transporter(transporter)
+            .proposedRate(5000.0)
+            .trucksOffered(trucksOffered)
+            .status(BidStatus.PENDING)
+            .build();
+        lenient().when(bidScoringStrategy.calculateScore(pending)).thenReturn(score);
+        return pending;
+    }
+
+    private CapacityHolds holding(CapacityHoldKind kind, UUID heldBidId, int trucks) {
+        CapacityHolds holds = new CapacityHolds();
+        holds.held(CapacityHold.builder()
+            .holdId(UUID.randomUUID())
+            .bidId(heldBidId)
+            .kind(kind)
+            .transporterId(transporterId)
+            .truckType("Flatbed")
+            .trucks(trucks)
+            .build());
+        return holds;
+    }
 }
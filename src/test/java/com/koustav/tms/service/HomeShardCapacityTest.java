@@ -0,0 +1,378 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.CapacityHold;
+import com.koustav.tms.entity.CapacityHoldKind;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.repository.BidRepository.CapacityNeed;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.BookingRepository.BookedTrucks;
+import com.koustav.tms.repository.CapacityHoldRepository;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.shard.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HomeShardCapacity Tests")
+class HomeShardCapacityTest {
+
+    @Mock
+    private TransporterRepository transporterRepository;
+
+    @Mock
+    private CapacityHoldRepository holdRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
+    @Mock
+    private CacheCoherence cacheCoherence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HomeShardCapacity homeCapacity;
+
+    private UUID transporterId;
+    private UUID bidId;
+
+    @BeforeEach
+    void setUp() {
+        homeCapacity.registerMetrics();
+        transporterId = UUID.randomUUID();
+        bidId = UUID.randomUUID();
+        // homed on shard 1, the test (and the bid) on shard 0
+        lenient().when(shardRouter.homeShardOf(transporterId)).thenReturn(1);
+        lenient().when(shardRouter.shardOf(any(UUID.class))).thenReturn(0);
+        lenient().when(shardRouter.onShard(anyInt(), any(Supplier.class)))
+            .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Should be home only on the shard named by the transporter id")
+    void isHome() {
+        // Arrange
+        UUID local = UUID.randomUUID();
+        when(shardRouter.homeShardOf(local)).thenReturn(0);
+
+        // Act & Assert
+        assertTrue(homeCapacity.isHome(local));
+        assertFalse(homeCapacity.isHome(transporterId));
+    }
+
+    @Test
+    @DisplayName("Should take the trucks on the home shard together with a hold row")
+    void hold_Applied() {
+        // Arrange
+        when(transporterRepository.debitTrucks(transporterId, "Flatbed", 3)).thenReturn(1);
+
+        // Act
+        CapacityHolds holds = homeCapacity.hold(List.of(need(bidId, 3)));
+
+        // Assert
+        assertTrue(holds.covers(bidId, 3));
+        assertFalse(holds.covers(bidId, 4));
+        verify(transporterRepository).setLocalLockTimeout("2000ms");
+        verify(holdRepository).saveAndFlush(argThat(hold -> hold.getKind() == CapacityHoldKind.DEBIT
+            && hold.getBidId().equals(bidId) && hold.getTrucks() == 3 && hold.getExpiresAt() != null));
+        verify(capacityLedger).evict(transporterId);
+        verify(cacheCoherence).invalidate(CachedEntity.TRANSPORTER, transporterId, null);
+        verifyNoInteractions(eventPublisher);  // only once a booking is settled
+        assertEquals(1.0, meterRegistry.get("tms.capacity.home.writes")
+            .tag("op", "hold").tag("outcome", "applied").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should refuse the bid when the home shard can't cover it")
+    void hold_Insufficient() {
+        // Arrange
+        when(transporterRepository.debitTrucks(transporterId, "Flatbed", 3)).thenReturn(0);
+
+        // Act
+        CapacityHolds holds = homeCapacity.hold(List.of(need(bidId, 3)));
+
+        // Assert
+        assertTrue(holds.isRefused(bidId));
+        assertTrue(holds.isEmpty());
+        verify(holdRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(capacityLedger);
+        assertEquals(1.0, meterRegistry.get("tms.capacity.home.writes")
+            .tag("op", "hold").tag("outcome", "insufficient").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should hold nothing for a transporter homed on the current shard")
+    void hold_HomeTransporter_Skipped() {
+        // Arrange
+        when(shardRouter.homeShardOf(transporterId)).thenReturn(0);
+
+        // Act
+        CapacityHolds holds = homeCapacity.hold(List.of(need(bidId, 3)));
+
+        // Assert
+        assertTrue(holds.isEmpty());
+        assertFalse(holds.isRefused(bidId));
+        verifyNoInteractions(transporterRepository, holdRepository);
+    }
+
+    @Test
+    @DisplayName("Should leave a bid unheld when another accept already holds it")
+    void hold_Busy() {
+        // Arrange
+        when(transporterRepository.debitTrucks(transporterId, "Flatbed", 3)).thenReturn(1);
+        when(holdRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_capacity_hold_bid_kind"));
+
+        // Act
+        CapacityHolds holds = homeCapacity.hold(List.of(need(bidId, 3)));
+
+        // Assert
+        assertFalse(holds.covers(bidId, 3));
+        assertFalse(holds.isRefused(bidId));
+        assertEquals(1.0, meterRegistry.get("tms.capacity.home.writes")
+            .tag("op", "hold").tag("outcome", "busy").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should settle the holds already taken when a later one times out on its lock")
+    void hold_LockTimeout_SettlesEarlierHolds() {
+        // Arrange
+        UUID otherBidId = UUID.randomUUID();
+        when(transporterRepository.debitTrucks(transporterId, "Flatbed", 3)).thenReturn(1);
+        when(transporterRepository.debitTrucks(transporterId, "Flatbed", 2))
+            .thenThrow(new CannotAcquireLockException("lock timeout"));
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.empty());
+        when(holdRepository.deleteByHoldId(any())).thenReturn(1);
+
+        // Act & Assert
+        assertThrows(ConflictException.class,
+            () -> homeCapacity.hold(List.of(need(bidId, 3), need(otherBidId, 2))));
+        verify(transporterRepository).creditTrucks(transporterId, "Flatbed", 3);
+    }
+
+    @Test
+    @DisplayName("Should refuse to run inside a transaction - that would take a second connection")
+    void hold_InsideTransaction_Throws() {
+        // Arrange
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> homeCapacity.hold(List.of(need(bidId, 3))));
+        assertThrows(IllegalStateException.class, () -> homeCapacity.availableTrucks(transporterId, "Flatbed"));
+        verifyNoInteractions(transporterRepository, holdRepository);
+    }
+
+    @Test
+    @DisplayName("Should credit what the booking didn't take and announce what is left")
+    void settle_Debit_PartlyBooked() {
+        // Arrange
+        CapacityHold hold = hold(CapacityHoldKind.DEBIT, 3);
+        BookedTrucks booking = booked(2, BookingStatus.CONFIRMED);
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.of(booking));
+        when(holdRepository.deleteByHoldId(hold.getHoldId())).thenReturn(1);
+        when(transporterRepository.findAvailableTrucks(transporterId, "Flatbed")).thenReturn(5);
+
+        // Act
+        homeCapacity.settle(holdsOf(hold));
+
+        // Assert
+        verify(transporterRepository).creditTrucks(transporterId, "Flatbed", 1);
+        verify(capacityLedger).evict(transporterId);
+        verify(eventPublisher).publishEvent(new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 5)));
+        assertEquals(1.0, meterRegistry.get("tms.capacity.home.writes")
+            .tag("op", "settle").tag("outcome", "applied").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should credit the whole hold when no booking was made")
+    void settle_Debit_NotBooked() {
+        // Arrange
+        CapacityHold hold = hold(CapacityHoldKind.DEBIT, 3);
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.empty());
+        when(holdRepository.deleteByHoldId(hold.getHoldId())).thenReturn(1);
+
+        // Act
+        homeCapacity.settle(holdsOf(hold));
+
+        // Assert
+        verify(transporterRepository).creditTrucks(transporterId, "Flatbed", 3);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should credit nothing for a hold already settled elsewhere")
+    void settle_AlreadySettled() {
+        // Arrange
+        CapacityHold hold = hold(CapacityHoldKind.DEBIT, 3);
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.empty());
+        when(holdRepository.deleteByHoldId(hold.getHoldId())).thenReturn(0);
+
+        // Act
+        homeCapacity.settle(holdsOf(hold));
+
+        // Assert
+        verify(transporterRepository, never()).creditTrucks(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should give a cancellation's trucks back only once the booking is CANCELLED")
+    void settle_Credit() {
+        // Arrange
+        CapacityHold cancelled = hold(CapacityHoldKind.CREDIT, 3);
+        UUID rolledBackBidId = UUID.randomUUID();
+        CapacityHold rolledBack = CapacityHold.builder()
+            .holdId(UUID.randomUUID()).bidId(rolledBackBidId).kind(CapacityHoldKind.CREDIT)
+            .transporterId(transporterId).truckType("Flatbed").trucks(4).build();
+        BookedTrucks cancelledBooking = booked(3, BookingStatus.CANCELLED);
+        BookedTrucks confirmedBooking = booked(4, BookingStatus.CONFIRMED);
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.of(cancelledBooking));
+        when(bookingRepository.findBookedTrucksByBidId(rolledBackBidId)).thenReturn(Optional.of(confirmedBooking));
+        when(holdRepository.deleteByHoldId(any())).thenReturn(1);
+
+        // Act
+        homeCapacity.settle(holdsOf(cancelled, rolledBack));
+
+        // Assert
+        verify(transporterRepository).creditTrucks(transporterId, "Flatbed", 3);
+        verify(transporterRepository, times(1)).creditTrucks(any(), any(), anyInt());
+        verify(holdRepository, times(2)).deleteByHoldId(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should leave a hold it can't settle to the job, without throwing")
+    void settle_Failure_Counted() {
+        // Arrange
+        CapacityHold hold = hold(CapacityHoldKind.DEBIT, 3);
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenThrow(new CannotAcquireLockException("shard down"));
+
+        // Act
+        assertDoesNotThrow(() -> homeCapacity.settle(holdsOf(hold)));
+
+        // Assert
+        verify(holdRepository, never()).deleteByHoldId(any());
+        assertEquals(1.0, meterRegistry.get("tms.capacity.home.writes")
+            .tag("op", "settle").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should settle the expired holds of the current shard")
+    void resolveExpired() {
+        // Arrange
+        CapacityHold hold = hold(CapacityHoldKind.DEBIT, 3);
+        BookedTrucks booking = booked(3, BookingStatus.CONFIRMED);
+        when(holdRepository.findExpired(any(Timestamp.class), eq(100))).thenReturn(List.of(hold));
+        when(bookingRepository.findBookedTrucksByBidId(bidId)).thenReturn(Optional.of(booking));
+        when(holdRepository.deleteByHoldId(hold.getHoldId())).thenReturn(1);
+        when(transporterRepository.findAvailableTrucks(transporterId, "Flatbed")).thenReturn(2);
+
+        // Act
+        int resolved = homeCapacity.resolveExpired(100);
+
+        // Assert
+        assertEquals(1, resolved);
+        verify(transporterRepository, never()).creditTrucks(any(), any(), anyInt());  // all of it was booked
+    }
+
+    @Test
+    @DisplayName("Should record a cancellation's credit on the home shard, and refuse a concurrent second one")
+    void holdCredit() {
+        // Arrange
+        CapacityNeed booking = need(bidId, 3);
+        when(holdRepository.saveAndFlush(any()))
+            .thenAnswer(inv -> inv.getArgument(0))
+            .thenThrow(new DataIntegrityViolationException("uk_capacity_hold_bid_kind"));
+
+        // Act
+        CapacityHolds holds = homeCapacity.holdCredit(booking);
+
+        // Assert
+        assertTrue(holds.isCrediting(bidId));
+        verify(transporterRepository, never()).creditTrucks(any(), any(), anyInt());  // only once settled
+        assertThrows(ConflictException.class, () -> homeCapacity.holdCredit(booking));
+    }
+
+    private CapacityNeed need(UUID needBidId, int trucks) {
+        CapacityNeed need = mock(CapacityNeed.class);
+        lenient().when(need.getBidId()).thenReturn(needBidId);
+        lenient().when(need.getTransporterId()).thenReturn(transporterId);
+        lenient().when(need.getTruckType()).thenReturn("Flatbed");
+        lenient().when(need.getTrucks()).thenReturn(trucks);
+        return need;
+    }
+
+    private CapacityHold hold(CapacityHoldKind kind, int trucks) {
+        return CapacityHold.builder()
+            .holdId(UUID.randomUUID())
+            .bidId(bidId)
+            .kind(kind)
+            .transporterId(transporterId)
+            .truckType("Flatbed")
+            .trucks(trucks)
+            .expiresAt(new Timestamp(System.currentTimeMillis()))
+            .build();
+    }
+
+    private CapacityHolds holdsOf(CapacityHold... holds) {
+        CapacityHolds result = new CapacityHolds();
+        for (CapacityHold hold : holds) {
+            result.held(hold);
+        }
+        return result;
+    }
+
+    private BookedTrucks booked(int allocatedTrucks, BookingStatus status) {
+        BookedTrucks booked = mock(BookedTrucks.class);
+        lenient().when(booked.getAllocatedTrucks()).thenReturn(allocatedTrucks);
+        lenient().when(booked.getStatus()).thenReturn(status);
+        return booked;
+    }
+}
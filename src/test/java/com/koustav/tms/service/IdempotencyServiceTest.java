@@ -0,0 +1,319 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.IdempotencyRecord;
+import com.koustav.tms.entity.IdempotencyStatus;
+import com.koustav.tms.exception.ConflictException;
+import com.koustav.tms.exception.IdempotencyKeyMismatchException;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.exception.InvalidIdempotencyKeyException;
+import com.koustav.tms.repository.IdempotencyRecordRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "client-key-1";
+    private static final String OPERATION = "POST /booking";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private BookingRequest request;
+    private BookingResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = BookingRequest.builder().bidId(UUID.randomUUID()).build();
+        response = BookingResponse.builder()
+            .bookingId(UUID.randomUUID())
+            .bidId(request.getBidId())
+            .allocatedTrucks(3)
+            .status(BookingStatus.CONFIRMED)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should run the action once and store the response for a new key")
+    void execute_NewKey_RunsActionAndStoresResponse() {
+        // Arrange
+        UUID recordId = stubClaimId();
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.markCompleted(eq(recordId), anyInt(), anyString(), any())).thenReturn(1);
+
+        // Act
+        ResponseEntity<BookingResponse> result = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        assertSame(response, result.getBody());
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRecordRepository).markCompleted(eq(recordId), eq(201), body.capture(), any(Timestamp.class));
+        assertTrue(body.getValue().contains(response.getBookingId().toString()));
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without running the action")
+    void execute_CompletedKey_ReplaysStoredResponse() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        idempotencyService.execute(KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRecordRepository).saveAndFlush(claim.capture());
+        verify(idempotencyRecordRepository).markCompleted(any(), eq(201), body.capture(), any(Timestamp.class));
+        IdempotencyRecord first = claimedRecord();
+        first.setRequestFingerprint(claim.getValue().getRequestFingerprint());
+        first.setStatus(IdempotencyStatus.COMPLETED);
+        first.setResponseStatus(201);
+        first.setResponseBody(body.getValue());
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(first));
+
+        // Act
+        ResponseEntity<BookingResponse> replay = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class,
+            () -> { throw new AssertionError("action must not run on replay"); });
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(response.getBookingId(), replay.getBody().getBookingId());
+    }
+
+    @Test
+    @DisplayName("Should reject reuse of a key with a different request")
+    void execute_DifferentRequest_ThrowsMismatch() {
+        // Arrange
+        IdempotencyRecord record = claimedRecord();
+        record.setRequestFingerprint("not-the-same-fingerprint");
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(record));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response));
+    }
+
+    @Test
+    @DisplayName("Should return conflict while the original request is still in progress")
+    void execute_ConcurrentDuplicate_ThrowsConflict() {
+        // Arrange
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act & Assert
+        ConflictException exception = assertThrows(ConflictException.class, () -> idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response));
+        assertTrue(exception.getMessage().contains(KEY));
+    }
+
+    @Test
+    @DisplayName("Should release its own claim when the action fails")
+    void execute_ActionFails_ReleasesKey() {
+        // Arrange
+        UUID recordId = stubClaimId();
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InsufficientCapacityException.class, () -> idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class,
+            () -> { throw new InsufficientCapacityException("no trucks"); }));
+        verify(idempotencyRecordRepository).deleteClaim(recordId);
+        verify(idempotencyRecordRepository, never()).markCompleted(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should still throw the action's failure when the claim can't be released")
+    void execute_ActionFailsAndReleaseFails_ThrowsOriginal() {
+        // Arrange
+        UUID recordId = stubClaimId();
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.deleteClaim(recordId))
+            .thenThrow(new DataIntegrityViolationException("connection lost"));
+
+        // Act
+        InsufficientCapacityException exception = assertThrows(InsufficientCapacityException.class,
+            () -> idempotencyService.execute(KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class,
+                () -> { throw new InsufficientCapacityException("no trucks"); }));
+
+        // Assert - the lease frees the key instead
+        assertEquals(1, exception.getSuppressed().length);
+    }
+
+    @Test
+    @DisplayName("Should lease a claim for the in-progress timeout and keep the response for the TTL")
+    void execute_ClaimLeasedThenKeptForTtl() {
+        // Arrange
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTimeout", Duration.ofSeconds(30));
+        long before = System.currentTimeMillis();
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+
+        // Act
+        idempotencyService.execute(KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(claim.capture());
+        long lease = claim.getValue().getExpiresAt().getTime() - before;
+        assertTrue(lease >= 30_000 && lease < 31_000);
+
+        ArgumentCaptor<Timestamp> kept = ArgumentCaptor.forClass(Timestamp.class);
+        verify(idempotencyRecordRepository).markCompleted(any(), anyInt(), anyString(), kept.capture());
+        assertTrue(kept.getValue().getTime() - before >= Duration.ofHours(24).toMillis());
+    }
+
+    @Test
+    @DisplayName("Should take over a key whose IN_PROGRESS claim outlived its lease")
+    void execute_AbandonedClaim_TakenOver() {
+        // Arrange - the request that claimed the key died
+        IdempotencyRecord abandoned = claimedRecord();
+        abandoned.setExpiresAt(new Timestamp(System.currentTimeMillis() - 1));
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(abandoned));
+
+        // Act
+        ResponseEntity<BookingResponse> result = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        assertSame(response, result.getBody());
+        verify(idempotencyRecordRepository).deleteExpiredByIdempotencyKey(eq(KEY), any(Timestamp.class));
+        verify(idempotencyRecordRepository).markCompleted(any(), anyInt(), anyString(), any(Timestamp.class));
+    }
+
+    @Test
+    @DisplayName("Should leave the key alone when a retry took it over while the action ran")
+    void execute_ClaimTakenOver_DoesNotOverwrite() {
+        // Arrange - the UPDATE guarded by our record id and IN_PROGRESS matches nothing
+        UUID recordId = stubClaimId();
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.markCompleted(eq(recordId), anyInt(), anyString(), any())).thenReturn(0);
+
+        // Act
+        ResponseEntity<BookingResponse> result = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        assertSame(response, result.getBody());
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should still answer the committed action when its response can't be stored")
+    void execute_CompleteFails_ReturnsResponse() {
+        // Arrange
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.markCompleted(any(), anyInt(), anyString(), any()))
+            .thenThrow(new DataIntegrityViolationException("connection lost"));
+
+        // Act
+        ResponseEntity<BookingResponse> result = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        assertSame(response, result.getBody());
+        verify(idempotencyRecordRepository, never()).deleteClaim(any());
+    }
+
+    @Test
+    @DisplayName("Should treat an expired record as a fresh key")
+    void execute_ExpiredRecord_RunsActionAgain() {
+        // Arrange
+        IdempotencyRecord expired = claimedRecord();
+        expired.setExpiresAt(new Timestamp(System.currentTimeMillis() - 1000));
+        when(idempotencyRecordRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(expired));
+
+        // Act
+        ResponseEntity<BookingResponse> result = idempotencyService.execute(
+            KEY, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        assertSame(response, result.getBody());
+        verify(idempotencyRecordRepository).deleteExpiredByIdempotencyKey(eq(KEY), any(Timestamp.class));
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a blank or oversized key before claiming it")
+    void execute_InvalidKey_ThrowsBadRequest() {
+        // Arrange
+        String oversized = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+        // Act & Assert
+        for (String key : new String[] {" ", oversized}) {
+            assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyService.execute(
+                key, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response));
+        }
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Should accept a key of exactly the maximum length")
+    void execute_MaxLengthKey_Claimed() {
+        // Arrange
+        String key = "k".repeat(IdempotencyService.MAX_KEY_LENGTH);
+        when(idempotencyRecordRepository.findByIdempotencyKey(key)).thenReturn(Optional.empty());
+
+        // Act
+        idempotencyService.execute(key, OPERATION, request, HttpStatus.CREATED, BookingResponse.class, () -> response);
+
+        // Assert
+        verify(idempotencyRecordRepository).saveAndFlush(argThat(claim -> claim.getIdempotencyKey().equals(key)));
+    }
+
+    // saveAndFlush assigns the claim its id, as persist does
+    private UUID stubClaimId() {
+        UUID recordId = UUID.randomUUID();
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord claim = inv.getArgument(0);
+            claim.setRecordId(recordId);
+            return claim;
+        });
+        return recordId;
+    }
+
+    private IdempotencyRecord claimedRecord() {
+        return IdempotencyRecord.builder()
+            .idempotencyKey(KEY)
+            .requestFingerprint("fingerprint")
+            .status(IdempotencyStatus.IN_PROGRESS)
+            .createdAt(new Timestamp(System.currentTimeMillis()))
+            .expiresAt(new Timestamp(System.currentTimeMillis() + 60_000))
+            .build();
+    }
+}
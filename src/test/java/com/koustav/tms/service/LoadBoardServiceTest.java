@@ -0,0 +1,148 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.koustav.tms.board.BoardQuery;
+import com.koustav.tms.board.OpenLoadBoard;
+import com.koustav.tms.dto.response.LoadBoardResponse;
+import com.koustav.tms.dto.response.OpenLoadBoardResponse;
+import com.koustav.tms.entity.LoadBoardEntry;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.entity.WeightUnit;
+import com.koustav.tms.mapper.LoadBoardMapper;
+import com.koustav.tms.repository.LoadBoardRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadBoardService Tests")
+class LoadBoardServiceTest {
+
+    @Mock
+    private LoadBoardRepository loadBoardRepository;
+
+    @Mock
+    private OpenLoadBoard openLoadBoard;
+
+    @InjectMocks
+    private LoadBoardService loadBoardService;
+
+    @Test
+    @DisplayName("Should start after everything and hand out the last row as the next cursor")
+    void getBoard_FirstPage() {
+        // Arrange
+        LoadBoardEntry newer = entry(2_000L);
+        LoadBoardEntry older = entry(1_000L);
+        when(loadBoardRepository.findPage(eq("Flatbed"), isNull(), eq(Timestamp.valueOf("9999-12-31 00:00:00")),
+                eq(new UUID(-1L, -1L)), eq(2)))
+            .thenReturn(List.of(newer, older));
+
+        // Act
+        LoadBoardResponse board = loadBoardService.getBoard("Flatbed", null, null, null, 2);
+
+        // Assert
+        assertEquals(2, board.getCount());
+        assertEquals(newer.getLoadId(), board.getLoads().get(0).getLoadId());
+        assertEquals(3, board.getLoads().get(0).getRemainingTrucks());
+        assertEquals(Instant.ofEpochMilli(1_000L), board.getNextAfterPosted());
+        assertEquals(older.getLoadId(), board.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor and end without a next cursor")
+    void getBoard_LastPage() {
+        // Arrange
+        UUID afterId = UUID.randomUUID();
+        when(loadBoardRepository.findPage(null, "Mumbai", new Timestamp(5_000L), afterId, 50))
+            .thenReturn(List.of(entry(4_000L)));
+
+        // Act
+        LoadBoardResponse board = loadBoardService.getBoard(null, "Mumbai", Instant.ofEpochMilli(5_000L), afterId, null);
+
+        // Assert
+        assertEquals(1, board.getCount());
+        assertNull(board.getNextAfterPosted());
+        assertNull(board.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Should merge shard pages in board order and cut them to one page")
+    void merge_AcrossShards() {
+        // Arrange
+        LoadBoardResponse shard0 = page(entry(5_000L), entry(1_000L));
+        LoadBoardResponse shard1 = page(entry(4_000L), entry(3_000L));
+
+        // Act
+        LoadBoardResponse board = loadBoardService.merge(List.of(shard0, shard1), 3);
+
+        // Assert
+        assertEquals(List.of(5_000L, 4_000L, 3_000L),
+            board.getLoads().stream().map(load -> load.getDatePosted().getTime()).toList());
+        assertEquals(Instant.ofEpochMilli(3_000L), board.getNextAfterPosted());
+    }
+
+    @Test
+    @DisplayName("Should browse the in-memory board with the limit capped")
+    void browse_CapsLimit() {
+        // Arrange
+        OpenLoadBoardResponse browsed = OpenLoadBoardResponse.builder().loads(List.of()).ready(true).build();
+        when(openLoadBoard.browse(any())).thenReturn(browsed);
+
+        // Act
+        OpenLoadBoardResponse board = loadBoardService.browse("Flatbed", "Mumbai", "Pune",
+            LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7), 10_000);
+
+        // Assert
+        assertSame(browsed, board);
+        verify(openLoadBoard).browse(BoardQuery.builder()
+            .truckType("Flatbed")
+            .loadingCity("Mumbai")
+            .unloadingCity("Pune")
+            .from(LocalDate.of(2026, 3, 1))
+            .to(LocalDate.of(2026, 3, 7))
+            .limit(LoadBoardService.MAX_LIMIT)
+            .build());
+        verifyNoInteractions(loadBoardRepository);
+    }
+
+    private LoadBoardResponse page(LoadBoardEntry... entries) {
+        return LoadBoardResponse.builder()
+            .loads(Arrays.stream(entries).map(LoadBoardMapper::toResponse).toList())
+            .count(entries.length)
+            .build();
+    }
+
+    private LoadBoardEntry entry(long posted) {
+        return LoadBoardEntry.builder()
+            .loadId(UUID.randomUUID())
+            .shipperId("SHIP-1")
+            .loadingCity("Mumbai")
+            .unloadingCity("Pune")
+            .loadingDate(new Timestamp(posted + 86_400_000L))
+            .productType("Steel")
+            .weight(10.0)
+            .weightUnit(WeightUnit.TON)
+            .truckType("Flatbed")
+            .noOfTrucks(5)
+            .remainingTrucks(3)
+            .status(LoadStatus.OPEN_FOR_BIDS)
+            .datePosted(new Timestamp(posted))
+            .pendingBids(2)
+            .minRate(4000.0)
+            .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.koustav.tms.board.OpenLoadBoard;
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+import com.koustav.tms.dto.response.RecommendedLoadsResponse;
+import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.BookingRepository.LaneBookings;
+import com.koustav.tms.repository.TransporterRepository;
+import com.koustav.tms.strategy.LoadRecommendationStrategy;
+import com.koustav.tms.strategy.RecommendationContext;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadRecommendationService Tests")
+class LoadRecommendationServiceTest {
+
+    @Mock
+    private TransporterRepository transporterRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private OpenLoadBoard openLoadBoard;
+
+    @Mock
+    private LoadRecommendationStrategy recommendationStrategy;
+
+    @InjectMocks
+    private LoadRecommendationService recommendationService;
+
+    private UUID transporterId;
+
+    @BeforeEach
+    void setUp() {
+        transporterId = UUID.randomUUID();
+        Map<String, Integer> trucks = new HashMap<>();
+        trucks.put("Flatbed", 3);
+        trucks.put("Container", 0);
+        lenient().when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(Transporter.builder()
+            .transporterId(transporterId)
+            .companyName("Fast Logistics")
+            .rating(4.5)
+            .availableTrucks(trucks)
+            .build()));
+    }
+
+    @Test
+    @DisplayName("Should rank only the candidates of truck types the transporter has, best first")
+    void recommend_RanksCandidates() {
+        // Arrange
+        LoadBoardEntryResponse good = load("Mumbai", "Pune", 2);
+        LoadBoardEntryResponse better = load("Delhi", "Agra", 5);
+        LoadBoardEntryResponse full = load("Delhi", "Agra", 0);
+        LocalDate today = LocalDate.now();
+        when(openLoadBoard.candidates(Set.of("Flatbed"), today, today.plusDays(14)))
+            .thenReturn(List.of(good, better, full));
+        when(openLoadBoard.isReady()).thenReturn(true);
+        when(recommendationStrategy.calculateScore(eq(good), any())).thenReturn(0.4);
+        when(recommendationStrategy.calculateScore(eq(better), any())).thenReturn(0.9);
+
+        // Act
+        RecommendedLoadsResponse recommended = recommendationService.recommend(transporterId,
+            List.of(Map.of(RecommendationContext.lane("Delhi", "Agra"), 2L),
+                    Map.of(RecommendationContext.lane("Delhi", "Agra"), 3L)), null);
+
+        // Assert
+        assertEquals(List.of(better, good), recommended.getLoads().stream().map(r -> r.getLoad()).toList());
+        assertEquals(3, recommended.getCandidates());
+        assertEquals(5L, recommended.getLoads().get(0).getLaneBookings());
+        assertEquals(3, recommended.getLoads().get(0).getCoverableTrucks());
+        assertEquals(2, recommended.getLoads().get(1).getCoverableTrucks());
+        assertTrue(recommended.isReady());
+        verify(recommendationStrategy, never()).calculateScore(eq(full), any());
+    }
+
+    @Test
+    @DisplayName("Should cut the ranking at the limit")
+    void recommend_Limit() {
+        // Arrange
+        when(openLoadBoard.candidates(anySet(), any(), any()))
+            .thenReturn(List.of(load("Mumbai", "Pune", 1), load("Mumbai", "Pune", 1), load("Mumbai", "Pune", 1)));
+
+        // Act
+        RecommendedLoadsResponse recommended = recommendationService.recommend(transporterId, List.of(), 2);
+
+        // Assert
+        assertEquals(2, recommended.getCount());
+    }
+
+    @Test
+    @DisplayName("Should treat a truck type with a null count as having no trucks")
+    void recommend_NullTruckCount_Skipped() {
+        // Arrange
+        Map<String, Integer> trucks = new HashMap<>();
+        trucks.put("Flatbed", 3);
+        trucks.put("Tanker", null);
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(Transporter.builder()
+            .transporterId(transporterId)
+            .availableTrucks(trucks)
+            .build()));
+        LocalDate today = LocalDate.now();
+        when(openLoadBoard.candidates(Set.of("Flatbed"), today, today.plusDays(14)))
+            .thenReturn(List.of(load("Mumbai", "Pune", 2)));
+
+        // Act
+        RecommendedLoadsResponse recommended = recommendationService.recommend(transporterId, List.of(), null);
+
+        // Assert
+        assertEquals(1, recommended.getCount());
+        assertEquals(2, recommended.getLoads().get(0).getCoverableTrucks());
+    }
+
+    @Test
+    @DisplayName("Should throw when the transporter doesn't exist")
+    void recommend_UnknownTransporter() {
+        // Arrange
+        UUID unknown = UUID.randomUUID();
+        when(transporterRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> recommendationService.recommend(unknown, List.of(), null));
+        verifyNoInteractions(openLoadBoard);
+    }
+
+    @Test
+    @DisplayName("Should count recent bookings per lane")
+    void laneBookings_PerLane() {
+        // Arrange
+        when(bookingRepository.findLaneBookings(eq(transporterId), any(Timestamp.class)))
+            .thenReturn(List.of(lane("Mumbai", "Pune", 4L), lane("Pune", "Mumbai", 1L)));
+
+        // Act
+        Map<String, Long> lanes = recommendationService.laneBookings(transporterId);
+
+        // Assert
+        assertEquals(Map.of(RecommendationContext.lane("Mumbai", "Pune"), 4L,
+            RecommendationContext.lane("Pune", "Mumbai"), 1L), lanes);
+    }
+
+    private LoadBoardEntryResponse load(String loadingCity, String unloadingCity, int remainingTrucks) {
+        return LoadBoardEntryResponse.builder()
+            .loadId(UUID.randomUUID())
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .truckType("Flatbed")
+            .loadingDate(Timestamp.valueOf(LocalDate.now().plusDays(1).atTime(9, 0)))
+            .remainingTrucks(remainingTrucks)
+            .build();
+    }
+
+    private LaneBookings lane(String loadingCity, String unloadingCity, long bookings) {
+        return new LaneBookings() {
+            @Override
+            public String getLoadingCity() {
+                return loadingCity;
+            }
+
+            @Override
+            public String getUnloadingCity() {
+                return unloadingCity;
+            }
+
+            @Override
+            public Long getBookings() {
+                return bookings;
+            }
+        };
+    }
+}
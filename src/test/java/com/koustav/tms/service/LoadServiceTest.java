@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 
 import com.koustav.tms.dto.request.LoadRequest;
 import com.koustav.tms.dto.response.BidResponse;
+import com.koustav.tms.dto.response.BulkRejectionResponse;
 import com.koustav.tms.dto.response.LoadDetailResponse;
 import com.koustav.tms.dto.response.LoadResponse;
 import com.koustav.tms.entity.Bid;
@@ -37,6 +39,8 @@ import com.koustav.tms.exception.ResourceNotFoundException;
 import com.koustav.tms.mapper.LoadMapper;
 import com.koustav.tms.repository.BidRepository;
 import com.koustav.tms.repository.LoadRepository;
+import com.koustav.tms.statemachine.StatusTransitionService;
+import com.koustav.tms.statemachine.TransitionResult;
 import com.koustav.tms.strategy.BidScoringStrategy;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +59,9 @@ class LoadServiceTest {
     @Mock
     private BidScoringStrategy bidScoringStrategy;
 
+    @Mock
+    private StatusTransitionService statusTransitionService;
+
     @InjectMocks
     private LoadService loadService;
 
@@ -158,7 +165,7 @@ class LoadServiceTest {
             .build();
 
         when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
-        when(bidRepository.findByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING))
+        when(bidRepository.findPendingByLoadId(loadId))
             .thenReturn(activeBids);
         when(loadMapper.toDetailResponse(load, activeBids)).thenReturn(detailResponse);
 
@@ -169,7 +176,7 @@ class LoadServiceTest {
         assertNotNull(response);
         assertEquals(loadId, response.getLoadId());
         verify(loadRepository).findById(loadId);
-        verify(bidRepository).findByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING);
+        verify(bidRepository).findPendingByLoadId(loadId);
     }
 
     @Test
@@ -190,15 +197,16 @@ class LoadServiceTest {
     @DisplayName("Should successfully cancel a POSTED load")
     void cancelLoad_PostedLoad_Success() {
         // Arrange
-        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
-        when(loadRepository.save(any(Load.class))).thenReturn(load);
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED))
+            .thenReturn(TransitionResult.applied(LoadStatus.CANCELLED));
 
         // Act
         loadService.cancelLoad(loadId);
 
-        // Assert
-        assertEquals(LoadStatus.CANCELLED, load.getStatus());
-        verify(loadRepository).save(load);
+        // Assert - conditional UPDATE only, the load is never loaded or saved
+        verify(statusTransitionService).transitionLoad(loadId, LoadStatus.CANCELLED);
+        verify(loadRepository, never()).findById(any());
+        verify(loadRepository, never()).save(any(Load.class));
     }
 
     @Test
@@ -206,23 +214,90 @@ class LoadServiceTest {
     void cancelLoad_OpenForBidsLoad_Success() {
         // Arrange
         load.setStatus(LoadStatus.OPEN_FOR_BIDS);
-        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
-        when(loadRepository.save(any(Load.class))).thenReturn(load);
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED))
+            .thenReturn(TransitionResult.applied(LoadStatus.CANCELLED));
 
         // Act
         loadService.cancelLoad(loadId);
 
+        // Assert - conditional UPDATE only, the load is never loaded or saved
+        verify(statusTransitionService).transitionLoad(loadId, LoadStatus.CANCELLED);
+        verify(loadRepository, never()).findById(any());
+        verify(loadRepository, never()).save(any(Load.class));
+        verify(bidRepository).rejectPendingByLoadId(loadId);
+    }
+
+    @Test
+    @DisplayName("Should reject all pending bids in one update and move load back to POSTED")
+    void rejectPendingBids_OpenForBidsLoad_ReturnsToPosted() {
+        // Arrange
+        load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.rejectPendingByLoadId(loadId)).thenReturn(4);
+
+        // Act
+        BulkRejectionResponse response = loadService.rejectPendingBids(loadId);
+
         // Assert
-        assertEquals(LoadStatus.CANCELLED, load.getStatus());
-        verify(loadRepository).save(load);
+        assertEquals(4, response.getRejectedBids());
+        assertEquals(LoadStatus.POSTED, response.getStatus());
+        verify(statusTransitionService)
+            .transitionLoad(loadId, EnumSet.of(LoadStatus.OPEN_FOR_BIDS), LoadStatus.POSTED);
+        verify(loadRepository, never()).save(any(Load.class));
+        verify(bidRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should keep a partly booked load OPEN_FOR_BIDS after rejecting its pending bids")
+    void rejectPendingBids_PartlyBookedLoad_StaysOpenForBids() {
+        // Arrange
+        load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        load.setAllocatedTrucks(2);
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.rejectPendingByLoadId(loadId)).thenReturn(3);
+
+        // Act
+        BulkRejectionResponse response = loadService.rejectPendingBids(loadId);
+
+        // Assert
+        assertEquals(3, response.getRejectedBids());
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, response.getStatus());
+        verifyNoInteractions(statusTransitionService);
+    }
+
+    @Test
+    @DisplayName("Should leave load untouched when it has no pending bids")
+    void rejectPendingBids_NoPendingBids_LoadUnchanged() {
+        // Arrange
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.of(load));
+        when(bidRepository.rejectPendingByLoadId(loadId)).thenReturn(0);
+
+        // Act
+        BulkRejectionResponse response = loadService.rejectPendingBids(loadId);
+
+        // Assert
+        assertEquals(0, response.getRejectedBids());
+        assertEquals(LoadStatus.POSTED, response.getStatus());
+        verifyNoInteractions(statusTransitionService);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when rejecting bids of non-existent load")
+    void rejectPendingBids_NotFound_ThrowsException() {
+        // Arrange
+        when(loadRepository.findByIdForUpdate(loadId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> loadService.rejectPendingBids(loadId));
+        verify(bidRepository, never()).rejectPendingByLoadId(any());
     }
 
     @Test
     @DisplayName("Should throw InvalidStatusTransitionException when cancelling BOOKED load")
     void cancelLoad_BookedLoad_ThrowsException() {
         // Arrange
-        load.setStatus(LoadStatus.BOOKED);
-        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED))
+            .thenReturn(TransitionResult.rejected(Optional.of(LoadStatus.BOOKED)));
 
         // Act & Assert
         InvalidStatusTransitionException exception = assertThrows(
@@ -236,8 +311,8 @@ class LoadServiceTest {
     @DisplayName("Should throw InvalidStatusTransitionException when load already cancelled")
     void cancelLoad_AlreadyCancelled_ThrowsException() {
         // Arrange
-        load.setStatus(LoadStatus.CANCELLED);
-        when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED))
+            .thenReturn(TransitionResult.rejected(Optional.of(LoadStatus.CANCELLED)));
 
         // Act & Assert
         InvalidStatusTransitionException exception = assertThrows(
@@ -251,7 +326,8 @@ class LoadServiceTest {
     @DisplayName("Should throw ResourceNotFoundException when cancelling non-existent load")
     void cancelLoad_NotFound_ThrowsException() {
         // Arrange
-        when(loadRepository.findById(loadId)).thenReturn(Optional.empty());
+        when(statusTransitionService.transitionLoad(loadId, LoadStatus.CANCELLED))
+            .thenReturn(TransitionResult.missing());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
@@ -266,7 +342,7 @@ class LoadServiceTest {
     void getBestBids_NoPendingBids_ReturnsEmptyList() {
         // Arrange
         when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
-        when(bidRepository.findByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING))
+        when(bidRepository.findPendingByLoadId(loadId))
             .thenReturn(new ArrayList<>());
 
         // Act
@@ -314,7 +390,7 @@ class LoadServiceTest {
         List<Bid> pendingBids = new ArrayList<>(List.of(bid1, bid2));
 
         when(loadRepository.findById(loadId)).thenReturn(Optional.of(load));
-        when(bidRepository.findByLoad_LoadIdAndStatus(loadId, BidStatus.PENDING))
+        when(bidRepository.findPendingByLoadId(loadId))
             .thenReturn(pendingBids);
         when(bidScoringStrategy.calculateScore(bid1)).thenReturn(0.75);
         when(bidScoringStrategy.calculateScore(bid2)).thenReturn(0.85); // Higher score
@@ -0,0 +1,220 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
+import com.koustav.tms.dto.request.BookingRequest;
+import com.koustav.tms.dto.response.BookingResponse;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
+import com.koustav.tms.exception.InsufficientCapacityException;
+import com.koustav.tms.exception.InvalidStatusTransitionException;
+import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.BookingRepository.AcceptBidResult;
+import com.koustav.tms.shard.ShardContext;
+import com.koustav.tms.shard.ShardIds;
+import com.koustav.tms.shard.ShardRouter;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProcedureBookingService Tests")
+class ProcedureBookingServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
+    @Mock
+    private CacheCoherence cacheCoherence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @InjectMocks
+    private ProcedureBookingService procedureBookingService;
+
+    private UUID bidId;
+    private UUID transporterId;
+    private BookingRequest request;
+
+    @BeforeEach
+    void setUp() {
+        bidId = UUID.randomUUID();
+        transporterId = UUID.randomUUID();
+        request = BookingRequest.builder().bidId(bidId).build();
+    }
+
+    @Test
+    @DisplayName("Should build the booking from the function's result row")
+    void acceptBid_Booked() {
+        // Arrange
+        UUID bookingId = UUID.randomUUID();
+        when(bookingRepository.acceptBidInDatabase(eq(bidId), eq(false), any()))
+            .thenReturn(result("BOOKED", null, bookingId, 2, 3));
+
+        // Act
+        BookingResponse response = procedureBookingService.acceptBid(request);
+
+        // Assert
+        assertEquals(bookingId, response.getBookingId());
+        assertEquals(bidId, response.getBidId());
+        assertEquals(2, response.getAllocatedTrucks());
+        assertEquals(BookingStatus.CONFIRMED, response.getStatus());
+        verify(capacityLedger).evict(transporterId);
+        verify(cacheCoherence).invalidate(CachedEntity.TRANSPORTER, transporterId, null);
+
+        ArgumentCaptor<TransporterCapacityReducedEvent> event =
+            ArgumentCaptor.forClass(TransporterCapacityReducedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Map.of("Flatbed", 3), event.getValue().getAvailableTrucks());
+    }
+
+    @Test
+    @DisplayName("Should map not-found and not-pending outcomes to the Java engine's exceptions")
+    void acceptBid_BidOutcomes() {
+        // Arrange
+        when(bookingRepository.acceptBidInDatabase(eq(bidId), eq(false), any()))
+            .thenReturn(result("BID_NOT_FOUND", null, null, null, null))
+            .thenReturn(result("BID_NOT_PENDING", "ACCEPTED", null, null, null));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> procedureBookingService.acceptBid(request));
+        InvalidStatusTransitionException notPending = assertThrows(InvalidStatusTransitionException.class,
+            () -> procedureBookingService.acceptBid(request));
+        assertTrue(notPending.getMessage().contains("ACCEPTED"));
+        verifyNoInteractions(capacityLedger, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should report capacity outcomes and drop the transporter from the ledger")
+    void acceptBid_CapacityOutcomes() {
+        // Arrange
+        when(bookingRepository.acceptBidInDatabase(eq(bidId), eq(false), any()))
+            .thenReturn(result("LOAD_CAPACITY", "1,3", null, null, null))
+            .thenReturn(result("TRANSPORTER_CAPACITY", null, null, null, 1));
+
+        // Act & Assert
+        InsufficientCapacityException load = assertThrows(InsufficientCapacityException.class,
+            () -> procedureBookingService.acceptBid(request));
+        assertEquals("Load only needs 1 more trucks, but bid offers 3", load.getMessage());
+
+        InsufficientCapacityException transporter = assertThrows(InsufficientCapacityException.class,
+            () -> procedureBookingService.acceptBid(request));
+        assertTrue(transporter.getMessage().contains("Bid automatically rejected"));
+        verify(capacityLedger).evict(transporterId);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should hand the function a booking id naming the current shard")
+    void acceptBid_BookingIdOnCurrentShard() {
+        // Arrange
+        ArgumentCaptor<UUID> bookingId = ArgumentCaptor.forClass(UUID.class);
+        when(bookingRepository.acceptBidInDatabase(eq(bidId), eq(false), bookingId.capture()))
+            .thenAnswer(inv -> result("BOOKED", null, inv.getArgument(2), 2, 3));
+
+        // Act
+        BookingResponse response = ShardContext.callOn(3, () -> procedureBookingService.acceptBid(request));
+
+        // Assert
+        assertEquals(3, ShardIds.shardOf(bookingId.getValue()));
+        assertEquals(bookingId.getValue(), response.getBookingId());
+    }
+
+    @Test
+    @DisplayName("Should leave booking to the Java engine when sharded")
+    void isEnabled_OnlyOnOneShard() {
+        // Arrange
+        ReflectionTestUtils.setField(procedureBookingService, "engine", "procedure");
+        when(shardRouter.shardCount()).thenReturn(1, 2);
+
+        // Act & Assert
+        assertTrue(procedureBookingService.isEnabled());
+        assertFalse(procedureBookingService.isEnabled());
+    }
+
+    private AcceptBidResult result(String outcome, String detail, UUID bookingId,
+                                   Integer allocatedTrucks, Integer trucksLeft) {
+        UUID loadId = UUID.randomUUID();
+        Timestamp bookedAt = new Timestamp(System.currentTimeMillis());
+        return new AcceptBidResult() {
+            @Override
+            public String getOutcome() {
+                return outcome;
+            }
+
+            @Override
+            public String getDetail() {
+                return detail;
+            }
+
+            @Override
+            public UUID getBookingId() {
+                return bookingId;
+            }
+
+            @Override
+            public UUID getLoadId() {
+                return loadId;
+            }
+
+            @Override
+            public UUID getTransporterId() {
+                return transporterId;
+            }
+
+            @Override
+            public String getTransporterName() {
+                return "Carrier";
+            }
+
+            @Override
+            public Integer getAllocatedTrucks() {
+                return allocatedTrucks;
+            }
+
+            @Override
+            public Double getFinalRate() {
+                return 1000.0;
+            }
+
+            @Override
+            public Timestamp getBookedAt() {
+                return bookedAt;
+            }
+
+            @Override
+            public String getTruckType() {
+                return "Flatbed";
+            }
+
+            @Override
+            public Integer getTrucksLeft() {
+                return trucksLeft;
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.koustav.tms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.koustav.tms.entity.Transporter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransporterCapacityLedger Tests")
+class TransporterCapacityLedgerTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransporterCapacityLedger capacityLedger;
+
+    private UUID transporterId;
+
+    @BeforeEach
+    void setUp() {
+        capacityLedger.registerMetrics();
+        transporterId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should only turn down requests it knows can't be covered")
+    void definitelyCannotCover() {
+        // Arrange
+        capacityLedger.apply(transporter(1L, 4));
+
+        // Act & Assert
+        assertTrue(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 5));
+        assertFalse(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 4));
+        assertTrue(capacityLedger.definitelyCannotCover(transporterId, "Reefer", 1));
+        assertFalse(capacityLedger.definitelyCannotCover(UUID.randomUUID(), "Flatbed", 100));
+        assertEquals(2.0, meterRegistry.get("tms.capacity.ledger.rejections").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should never replace a snapshot with an older version")
+    void apply_OlderVersionIgnored() {
+        // Arrange
+        capacityLedger.apply(transporter(5L, 2));
+
+        // Act
+        capacityLedger.apply(transporter(4L, 10));
+
+        // Assert
+        assertEquals(5L, capacityLedger.versionOf(transporterId));
+        assertTrue(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 3));
+    }
+
+    @Test
+    @DisplayName("Should mirror only after commit, with the state at commit time")
+    void mirror_AfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        Transporter transporter = transporter(1L, 10);
+
+        // Act
+        capacityLedger.mirror(transporter);
+        assertNull(capacityLedger.versionOf(transporterId));
+
+        transporter.setVersion(2L);
+        transporter.deductTrucks("Flatbed", 8);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(2L, capacityLedger.versionOf(transporterId));
+        assertTrue(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 3));
+    }
+
+    @Test
+    @DisplayName("Should not mirror a transaction that rolled back")
+    void mirror_RolledBack() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        capacityLedger.mirror(transporter(1L, 10));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(0, capacityLedger.size());
+    }
+
+    @Test
+    @DisplayName("Should drop a snapshot another node has written over, but not a newer one")
+    void evict_ByVersion() {
+        // Arrange
+        capacityLedger.apply(transporter(5L, 2));
+
+        // Act
+        capacityLedger.evict(transporterId, 4L);
+        Long afterOlder = capacityLedger.versionOf(transporterId);
+        capacityLedger.evict(transporterId, 5L);
+
+        // Assert
+        assertEquals(5L, afterOlder);
+        assertNull(capacityLedger.versionOf(transporterId));
+    }
+
+    @Test
+    @DisplayName("Should ask the database once a snapshot is past its TTL")
+    void definitelyCannotCover_Expired() {
+        // Arrange
+        ReflectionTestUtils.setField(capacityLedger, "ttl", Duration.ZERO);
+        capacityLedger.apply(transporter(1L, 4));
+
+        // Act & Assert
+        assertFalse(capacityLedger.definitelyCannotCover(transporterId, "Flatbed", 5));
+        assertEquals(0, capacityLedger.size());
+    }
+
+    @Test
+    @DisplayName("Should empty out on a full flush")
+    void evictAll() {
+        // Arrange
+        capacityLedger.apply(transporter(1L, 4));
+
+        // Act
+        capacityLedger.evictAll();
+
+        // Assert
+        assertEquals(0, capacityLedger.size());
+    }
+
+    private Transporter transporter(long version, int flatbeds) {
+        Map<String, Integer> trucks = new HashMap<>();
+        trucks.put("Flatbed", flatbeds);
+        return Transporter.builder()
+            .transporterId(transporterId)
+            .companyName("Fast Logistics")
+            .rating(4.5)
+            .version(version)
+            .availableTrucks(trucks)
+            .build();
+    }
+}
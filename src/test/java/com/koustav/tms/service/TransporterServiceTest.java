@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,12 +16,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.koustav.tms.cache.CacheCoherence;
+import com.koustav.tms.cache.CachedEntity;
 import com.koustav.tms.dto.request.TransporterRequest;
 import com.koustav.tms.dto.request.UpdateTrucksRequest;
 import com.koustav.tms.dto.response.TransporterResponse;
 import com.koustav.tms.entity.Transporter;
+import com.koustav.tms.event.TransporterCapacityReducedEvent;
 import com.koustav.tms.exception.ResourceNotFoundException;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BidRepository.PendingExposure;
 import com.koustav.tms.repository.TransporterRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +37,21 @@ class TransporterServiceTest {
     @Mock
     private TransporterRepository transporterRepository;
 
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private TransporterCapacityLedger capacityLedger;
+
+    @Mock
+    private CacheCoherence cacheCoherence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HomeShardCapacity homeCapacity;
+
     @InjectMocks
     private TransporterService transporterService;
 
@@ -41,6 +63,7 @@ class TransporterServiceTest {
     @BeforeEach
     void setUp() {
         transporterId = UUID.randomUUID();
+        lenient().when(homeCapacity.isHome(any())).thenReturn(true);
 
         transporter = Transporter.builder()
             .transporterId(transporterId)
@@ -96,6 +119,21 @@ class TransporterServiceTest {
         verify(transporterRepository).findById(transporterId);
     }
 
+    @Test
+    @DisplayName("Should report trucks offered in pending bids per truck type")
+    void getTransporter_ReportsPendingExposure() {
+        // Arrange
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(bidRepository.findPendingExposureByTransporterId(transporterId))
+            .thenReturn(List.of(exposure("Flatbed", 24L)));
+
+        // Act
+        TransporterResponse response = transporterService.getTransporter(transporterId);
+
+        // Assert
+        assertEquals(Map.of("Flatbed", 24), response.getPendingExposure());
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when transporter does not exist")
     void getTransporter_NotFound_ThrowsException() {
@@ -137,6 +175,47 @@ class TransporterServiceTest {
         assertEquals(8, response.getAvailableTrucks().get("Container"));
         verify(transporterRepository).findById(transporterId);
         verify(transporterRepository).save(transporter);
+        verify(cacheCoherence).invalidate(eq(CachedEntity.TRANSPORTER), eq(transporterId), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should announce truck types whose availability went down")
+    void updateTrucks_Reduced_PublishesEvent() {
+        // Arrange - Flatbed 10 → 4, Container dropped
+        UpdateTrucksRequest updateRequest = UpdateTrucksRequest.builder()
+            .availableTrucks(Map.of("Flatbed", 4, "Reefer", 2))
+            .build();
+
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
+
+        // Act
+        transporterService.updateTrucks(transporterId, updateRequest);
+
+        // Assert
+        verify(eventPublisher).publishEvent(
+            new TransporterCapacityReducedEvent(transporterId, Map.of("Flatbed", 4, "Container", 0)));
+    }
+
+    @Test
+    @DisplayName("Should update another shard's copy without touching the ledger or withdrawing bids")
+    void updateTrucks_CopyOnOtherShard_Quiet() {
+        // Arrange
+        UpdateTrucksRequest updateRequest = UpdateTrucksRequest.builder()
+            .availableTrucks(Map.of("Flatbed", 4))
+            .build();
+
+        when(homeCapacity.isHome(transporterId)).thenReturn(false);
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(transporter));
+        when(transporterRepository.save(any(Transporter.class))).thenReturn(transporter);
+
+        // Act
+        transporterService.updateTrucks(transporterId, updateRequest);
+
+        // Assert
+        verify(transporterRepository).save(transporter);
+        verifyNoInteractions(capacityLedger, cacheCoherence, eventPublisher);
     }
 
     @Test
@@ -156,4 +235,18 @@ class TransporterServiceTest {
         );
         assertTrue(exception.getMessage().contains("Transporter"));
     }
+
+    private PendingExposure exposure(String truckType, Long trucksOffered) {
+        return new PendingExposure() {
+            @Override
+            public String getTruckType() {
+                return truckType;
+            }
+
+            @Override
+            public Long getTrucksOffered() {
+                return trucksOffered;
+            }
+        };
+    }
 }
@@ -0,0 +1,49 @@
+package com.koustav.tms.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ShardIds Tests")
+class ShardIdsTest {
+
+    @Test
+    @DisplayName("Should read back the shard an id was made for")
+    void newId_RoundTrip() {
+        for (int shard : new int[] {0, 1, 7, ShardIds.MAX_SHARDS - 1}) {
+            // Act
+            UUID id = ShardIds.newId(shard);
+
+            // Assert
+            assertEquals(shard, ShardIds.shardOf(id));
+            assertEquals(8, id.version());
+            assertEquals(2, id.variant());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the ids of one shard unique")
+    void newId_Unique() {
+        // Act & Assert
+        assertNotEquals(ShardIds.newId(3), ShardIds.newId(3));
+    }
+
+    @Test
+    @DisplayName("Should put ids made before sharding on shard 0")
+    void shardOf_RandomUuid_ShardZero() {
+        // Act & Assert
+        assertEquals(0, ShardIds.shardOf(UUID.randomUUID()));
+        assertEquals(0, ShardIds.shardOf(null));
+    }
+
+    @Test
+    @DisplayName("Should reject a shard that does not fit in the id")
+    void newId_OutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ShardIds.newId(ShardIds.MAX_SHARDS));
+        assertThrows(IllegalArgumentException.class, () -> ShardIds.newId(-1));
+    }
+}
@@ -0,0 +1,184 @@
+package com.koustav.tms.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Three in-memory H2 databases stand in for the shards; each holds a few
+ * loads and answers "which shard am I" from its own table.
+ */
+@DisplayName("ShardRouter Tests")
+class ShardRouterTest {
+
+    private static final int SHARDS = 3;
+
+    private ShardRouter shardRouter;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            shards.add(shard(shard));
+        }
+        jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards)));
+
+        shardRouter = new ShardRouter();
+        ReflectionTestUtils.setField(shardRouter, "shardResolver", new HashShardResolver());
+        ReflectionTestUtils.setField(shardRouter, "urls", "jdbc:h2:mem:a, jdbc:h2:mem:b, jdbc:h2:mem:c");
+        shardRouter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.stop();
+    }
+
+    @Test
+    @DisplayName("Should run on the shard named by the id and restore the caller's shard")
+    void onShard_ById() {
+        // Arrange
+        UUID id = ShardIds.newId(2);
+
+        // Act
+        String shard = shardRouter.onShard(shardRouter.shardOf(id), this::whoAmI);
+
+        // Assert
+        assertEquals("shard2", shard);
+        assertEquals(0, ShardContext.current());
+        assertEquals("shard0", whoAmI());
+    }
+
+    @Test
+    @DisplayName("Should send ids of shards that do not exist to shard 0")
+    void shardOf_UnknownShard() {
+        // Act & Assert
+        assertEquals(0, shardRouter.shardOf(ShardIds.newId(SHARDS)));
+        assertEquals(0, shardRouter.shardOf(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Should keep a shipper on one shard")
+    void shardForShipper_Stable() {
+        // Act
+        int shard = shardRouter.shardForShipper("SHIP-1");
+
+        // Assert
+        assertEquals(shard, shardRouter.shardForShipper("SHIP-1"));
+        assertTrue(shard >= 0 && shard < SHARDS);
+    }
+
+    @Test
+    @DisplayName("Should query every shard in parallel, results in shard order")
+    void onEachShard_AllShards() {
+        // Act
+        List<String> shards = shardRouter.onEachShard(this::whoAmI);
+
+        // Assert
+        assertEquals(List.of("shard0", "shard1", "shard2"), shards);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the failure of a shard")
+    void onEachShard_Failure() {
+        // Act & Assert
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> shardRouter.onEachShard(() -> {
+            if (ShardContext.current() == 1) {
+                throw new IllegalStateException("shard 1 down");
+            }
+            return whoAmI();
+        }));
+        assertEquals("shard 1 down", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should merge a page across shards in the requested order")
+    void fanOutPage_MergesSorted() {
+        // Arrange
+        PageRequest secondPage = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "rate"));
+
+        // Act
+        Page<LoadRow> page = shardRouter.fanOutPage(secondPage, this::loads);
+
+        // Assert
+        assertEquals(List.of(40.0, 31.0), page.getContent().stream().map(LoadRow::getRate).toList());
+        assertEquals(6, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    @DisplayName("Should run inline on shard 0 when sharding is off")
+    void singleShard_Inline() {
+        // Arrange
+        ShardRouter single = new ShardRouter();
+        ReflectionTestUtils.setField(single, "shardResolver", new HashShardResolver());
+        single.start();
+
+        // Act & Assert
+        assertEquals(1, single.shardCount());
+        assertEquals(0, single.shardForShipper("SHIP-1"));
+        assertEquals(List.of("shard0"), single.onEachShard(this::whoAmI));
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private Page<LoadRow> loads(Pageable pageable) {
+        List<LoadRow> rows = jdbcTemplate.query(
+            "SELECT name, rate FROM shard_load ORDER BY rate DESC LIMIT ?",
+            (rs, i) -> new LoadRow(rs.getString("name"), rs.getDouble("rate")),
+            pageable.getPageSize());
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shard_load", Long.class);
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    /**
+     * rates 50, 20 / 41, 31 / 40, 10 - the merged order interleaves the shards
+     */
+    private DataSource shard(int shard) {
+        String name = "shard" + shard;
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE IF NOT EXISTS node (name varchar(50))");
+        setup.execute("CREATE TABLE IF NOT EXISTS shard_load (name varchar(50), rate double)");
+        setup.update("DELETE FROM node");
+        setup.update("DELETE FROM shard_load");
+        setup.update("INSERT INTO node (name) VALUES (?)", name);
+        double[][] rates = {{50.0, 20.0}, {41.0, 31.0}, {40.0, 10.0}};
+        for (double rate : rates[shard]) {
+            setup.update("INSERT INTO shard_load (name, rate) VALUES (?, ?)", name, rate);
+        }
+        return dataSource;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class LoadRow {
+        private String name;
+        private Double rate;
+    }
+}
@@ -0,0 +1,159 @@
+package com.koustav.tms.statemachine;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.koustav.tms.entity.BidStatus;
+import com.koustav.tms.entity.BookingStatus;
+import com.koustav.tms.entity.LoadStatus;
+import com.koustav.tms.repository.BidRepository;
+import com.koustav.tms.repository.BookingRepository;
+import com.koustav.tms.repository.LoadRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatusTransitionService Tests")
+class StatusTransitionServiceTest {
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private StatusTransitionService statusTransitionService;
+
+    private UUID id;
+
+    @BeforeEach
+    void setUp() {
+        id = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should open a load without bumping its version")
+    void transitionLoad_OpenForBids_NoVersionBump() {
+        // Arrange
+        when(loadRepository.compareAndSetStatus(id, EnumSet.of(LoadStatus.POSTED, LoadStatus.BOOKED),
+            LoadStatus.OPEN_FOR_BIDS)).thenReturn(1);
+
+        // Act
+        TransitionResult<LoadStatus> result = statusTransitionService.transitionLoad(id, LoadStatus.OPEN_FOR_BIDS);
+
+        // Assert
+        assertTrue(result.isApplied());
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, result.getCurrentStatus());
+        verify(loadRepository, never()).compareAndSetStatusBumpingVersion(any(), any(), any());
+        verify(loadRepository, never()).findStatusById(any());
+    }
+
+    @Test
+    @DisplayName("Should bump the load version when cancelling")
+    void transitionLoad_Cancelled_BumpsVersion() {
+        // Arrange
+        when(loadRepository.compareAndSetStatusBumpingVersion(id,
+            EnumSet.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS), LoadStatus.CANCELLED)).thenReturn(1);
+
+        // Act
+        TransitionResult<LoadStatus> result = statusTransitionService.transitionLoad(id, LoadStatus.CANCELLED);
+
+        // Assert
+        assertTrue(result.isApplied());
+        verify(loadRepository, never()).compareAndSetStatus(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report the current status when the row was not in an allowed source status")
+    void transitionLoad_WrongStatus_ReportsCurrentStatus() {
+        // Arrange
+        when(loadRepository.compareAndSetStatusBumpingVersion(eq(id), anyCollection(), eq(LoadStatus.CANCELLED)))
+            .thenReturn(0);
+        when(loadRepository.findStatusById(id)).thenReturn(Optional.of(LoadStatus.BOOKED));
+
+        // Act
+        TransitionResult<LoadStatus> result = statusTransitionService.transitionLoad(id, LoadStatus.CANCELLED);
+
+        // Assert
+        assertFalse(result.isApplied());
+        assertFalse(result.isMissing());
+        assertEquals(LoadStatus.BOOKED, result.getCurrentStatus());
+    }
+
+    @Test
+    @DisplayName("Should only use the narrowed sources when given")
+    void transitionLoad_NarrowedSources() {
+        // Arrange
+        when(loadRepository.compareAndSetStatus(id, EnumSet.of(LoadStatus.OPEN_FOR_BIDS), LoadStatus.POSTED))
+            .thenReturn(1);
+
+        // Act
+        TransitionResult<LoadStatus> result = statusTransitionService.transitionLoad(
+            id, EnumSet.of(LoadStatus.OPEN_FOR_BIDS), LoadStatus.POSTED);
+
+        // Assert
+        assertTrue(result.isApplied());
+    }
+
+    @Test
+    @DisplayName("Should refuse a move the transition table doesn't allow")
+    void transitionLoad_IllegalSource_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionLoad(
+            id, EnumSet.of(LoadStatus.CANCELLED), LoadStatus.OPEN_FOR_BIDS));
+        verifyNoInteractions(loadRepository);
+    }
+
+    @Test
+    @DisplayName("Should report a missing bid")
+    void transitionBid_Missing() {
+        // Arrange
+        when(bidRepository.compareAndSetStatus(id, EnumSet.of(BidStatus.PENDING), BidStatus.REJECTED))
+            .thenReturn(0);
+        when(bidRepository.findStatusById(id)).thenReturn(Optional.empty());
+
+        // Act
+        TransitionResult<BidStatus> result = statusTransitionService.transitionBid(id, BidStatus.REJECTED);
+
+        // Assert
+        assertTrue(result.isMissing());
+    }
+
+    @Test
+    @DisplayName("Should refuse a target no status can move to")
+    void transitionBid_UnreachableTarget_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> statusTransitionService.transitionBid(id, BidStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("Should cancel only a CONFIRMED booking")
+    void transitionBooking_Cancelled() {
+        // Arrange
+        when(bookingRepository.compareAndSetStatus(id, EnumSet.of(BookingStatus.CONFIRMED), BookingStatus.CANCELLED))
+            .thenReturn(1);
+
+        // Act
+        TransitionResult<BookingStatus> result =
+            statusTransitionService.transitionBooking(id, BookingStatus.CANCELLED);
+
+        // Assert
+        assertTrue(result.isApplied());
+    }
+}
@@ -0,0 +1,105 @@
+package com.koustav.tms.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.koustav.tms.dto.response.LoadBoardEntryResponse;
+
+@DisplayName("WeightedLoadRecommendationStrategy Tests")
+class WeightedLoadRecommendationStrategyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private WeightedLoadRecommendationStrategy recommendationStrategy;
+    private RecommendationContext context;
+
+    @BeforeEach
+    void setUp() {
+        recommendationStrategy = new WeightedLoadRecommendationStrategy();
+        context = RecommendationContext.builder()
+            .availableTrucks(Map.of("Flatbed", 4, "Container", 1))
+            .laneBookings(Map.of(RecommendationContext.lane("Mumbai", "Pune"), 10L,
+                RecommendationContext.lane("Delhi", "Agra"), 5L))
+            .today(TODAY)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should score a load on the busiest lane, loading today, fully coverable as 1.0")
+    void calculateScore_BestLoad() {
+        // Act
+        double score = recommendationStrategy.calculateScore(load("Mumbai", "Pune", "Flatbed", 0, 3), context);
+
+        // Assert
+        assertEquals(1.0, score, 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should combine 40% lane history, 35% date proximity and 25% coverable trucks")
+    void calculateScore_Weighted() {
+        // Arrange - half the busiest lane, 7 of 14 days away, 1 of 4 trucks coverable
+        LoadBoardEntryResponse load = load("Delhi", "Agra", "Container", 7, 4);
+
+        // Act
+        double score = recommendationStrategy.calculateScore(load, context);
+
+        // Assert
+        assertEquals(0.5 * 0.4 + 0.5 * 0.35 + 0.25 * 0.25, score, 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start with a horizon that isn't positive")
+    void validate_NonPositiveHorizon() {
+        // Arrange
+        ReflectionTestUtils.setField(recommendationStrategy, "horizonDays", 0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> recommendationStrategy.validate());
+    }
+
+    @Test
+    @DisplayName("Should give nothing for an unknown lane or a load beyond the horizon")
+    void calculateScore_NewLaneFarAway() {
+        // Act
+        double score = recommendationStrategy.calculateScore(load("Chennai", "Madurai", "Flatbed", 30, 8), context);
+
+        // Assert
+        assertEquals(0.5 * 0.25, score, 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should use the configured weights")
+    void calculateScore_ConfiguredWeights() {
+        // Arrange
+        ReflectionTestUtils.setField(recommendationStrategy, "laneHistoryWeight", 0.0);
+        ReflectionTestUtils.setField(recommendationStrategy, "loadingDateWeight", 1.0);
+        ReflectionTestUtils.setField(recommendationStrategy, "remainingTrucksWeight", 0.0);
+
+        // Act
+        double score = recommendationStrategy.calculateScore(load("Mumbai", "Pune", "Flatbed", 0, 3), context);
+
+        // Assert
+        assertEquals(1.0, score, 0.0001);
+    }
+
+    private LoadBoardEntryResponse load(String loadingCity, String unloadingCity, String truckType,
+                                        int daysAway, int remainingTrucks) {
+        return LoadBoardEntryResponse.builder()
+            .loadId(UUID.randomUUID())
+            .loadingCity(loadingCity)
+            .unloadingCity(unloadingCity)
+            .truckType(truckType)
+            .loadingDate(Timestamp.valueOf(TODAY.plusDays(daysAway).atTime(9, 0)))
+            .remainingTrucks(remainingTrucks)
+            .build();
+    }
+}